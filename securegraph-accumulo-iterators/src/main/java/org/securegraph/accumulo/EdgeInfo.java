@@ -0,0 +1,42 @@
+package org.securegraph.accumulo;
+
+import java.io.Serializable;
+
+/**
+ * The value stored in the EIN/EOUT columns of a vertex row. This class is packaged with the iterators so that
+ * {@link org.securegraph.accumulo.iterator.EdgeRefFilter} can read it on the tablet servers.
+ */
+public class EdgeInfo implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private String label;
+    private Object vertexId;
+    private transient String columnVisibility;
+
+    protected EdgeInfo() {
+    }
+
+    public EdgeInfo(String label, Object vertexId) {
+        this.label = label;
+        this.vertexId = vertexId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Object getVertexId() {
+        return vertexId;
+    }
+
+    /**
+     * The visibility of the column this edge info was read from, which is the visibility of the edge. It is not
+     * part of the stored value and is null for edge infos that were not read from or written to a vertex row.
+     */
+    public String getColumnVisibility() {
+        return columnVisibility;
+    }
+
+    public void setColumnVisibility(String columnVisibility) {
+        this.columnVisibility = columnVisibility;
+    }
+}
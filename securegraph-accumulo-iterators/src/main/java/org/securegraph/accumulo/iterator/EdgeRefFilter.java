@@ -0,0 +1,207 @@
+package org.securegraph.accumulo.iterator;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.Filter;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.hadoop.io.Text;
+import org.securegraph.accumulo.EdgeInfo;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Filters the edge references (EIN/EOUT columns) of vertex rows on the tablet server by direction, label
+ * and the vertex on the other side of the edge. All other columns are passed through. Only use this
+ * iterator on the vertex table, the edge table uses the same column families with a different meaning.
+ *
+ * Labels and other vertex ids can only be checked for values written by the java or the compact value
+ * serializer, edge references in any other format are passed through and must be filtered by the client.
+ */
+public class EdgeRefFilter extends Filter {
+    public static final String OPT_DIRECTION = "direction";
+    public static final String OPT_LABELS = "labels";
+    public static final String OPT_OTHER_VERTEX_ID = "otherVertexId";
+    public static final String DIRECTION_IN = "IN";
+    public static final String DIRECTION_OUT = "OUT";
+    public static final String DIRECTION_BOTH = "BOTH";
+    private static final String LABEL_SEPARATOR = "\u001f";
+
+    // must match org.securegraph.accumulo.serializer.CompactValueSerializer.FORMAT_MARKER
+    private static final byte COMPACT_FORMAT_MARKER = 0x01;
+
+    // must match org.securegraph.accumulo.serializer.CompactValueSerializer.TYPE_EDGE_INFO
+    private static final byte COMPACT_TYPE_EDGE_INFO = 10;
+
+    // must match org.securegraph.accumulo.serializer.CompactValueSerializer.TYPE_STRING
+    private static final byte COMPACT_TYPE_STRING = 1;
+
+    // must match org.securegraph.accumulo.AccumuloVertex.CF_IN_EDGE
+    private static final Text CF_IN_EDGE = new Text("EIN");
+
+    // must match org.securegraph.accumulo.AccumuloVertex.CF_OUT_EDGE
+    private static final Text CF_OUT_EDGE = new Text("EOUT");
+
+    boolean includeIn;
+    boolean includeOut;
+    Set<String> labels;
+    String otherVertexId;
+
+    public static void setDirection(IteratorSetting setting, String direction) {
+        setting.addOption(OPT_DIRECTION, direction);
+    }
+
+    public static void setLabels(IteratorSetting setting, String[] labels) {
+        if (labels == null || labels.length == 0) {
+            return;
+        }
+        StringBuilder value = new StringBuilder();
+        for (String label : labels) {
+            if (label.contains(LABEL_SEPARATOR)) {
+                throw new IllegalArgumentException("Labels cannot contain the character \\u001f: " + label);
+            }
+            if (value.length() > 0) {
+                value.append(LABEL_SEPARATOR);
+            }
+            value.append(label);
+        }
+        setting.addOption(OPT_LABELS, value.toString());
+    }
+
+    public static void setOtherVertexId(IteratorSetting setting, Object otherVertexId) {
+        if (otherVertexId == null) {
+            return;
+        }
+        setting.addOption(OPT_OTHER_VERTEX_ID, otherVertexId.toString());
+    }
+
+    @Override
+    public void init(SortedKeyValueIterator<Key, Value> source, Map<String, String> options, IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+
+        String direction = options.get(OPT_DIRECTION);
+        if (direction == null || DIRECTION_BOTH.equals(direction)) {
+            this.includeIn = true;
+            this.includeOut = true;
+        } else if (DIRECTION_IN.equals(direction)) {
+            this.includeIn = true;
+        } else if (DIRECTION_OUT.equals(direction)) {
+            this.includeOut = true;
+        } else {
+            throw new IllegalArgumentException("Invalid " + OPT_DIRECTION + ": " + direction);
+        }
+
+        String labelsString = options.get(OPT_LABELS);
+        if (labelsString != null) {
+            this.labels = new HashSet<String>(Arrays.asList(labelsString.split(LABEL_SEPARATOR, -1)));
+        }
+
+        this.otherVertexId = options.get(OPT_OTHER_VERTEX_ID);
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(IteratorEnvironment env) {
+        EdgeRefFilter copy = (EdgeRefFilter) super.deepCopy(env);
+        copy.includeIn = this.includeIn;
+        copy.includeOut = this.includeOut;
+        copy.labels = this.labels;
+        copy.otherVertexId = this.otherVertexId;
+        return copy;
+    }
+
+    @Override
+    public boolean accept(Key key, Value value) {
+        boolean inEdge = key.compareColumnFamily(CF_IN_EDGE) == 0;
+        boolean outEdge = !inEdge && key.compareColumnFamily(CF_OUT_EDGE) == 0;
+        if (!inEdge && !outEdge) {
+            return true;
+        }
+        if ((inEdge && !this.includeIn) || (outEdge && !this.includeOut)) {
+            return false;
+        }
+        if (this.labels == null && this.otherVertexId == null) {
+            return true;
+        }
+
+        EdgeInfo edgeInfo = toEdgeInfo(value);
+        if (edgeInfo == null) {
+            return true;
+        }
+        if (this.labels != null && !this.labels.contains(edgeInfo.getLabel())) {
+            return false;
+        }
+        if (this.otherVertexId != null && !this.otherVertexId.equals(String.valueOf(edgeInfo.getVertexId()))) {
+            return false;
+        }
+        return true;
+    }
+
+    private static EdgeInfo toEdgeInfo(Value value) {
+        byte[] bytes = value.get();
+        if (bytes.length > 0 && bytes[0] == COMPACT_FORMAT_MARKER) {
+            return compactToEdgeInfo(bytes);
+        }
+        if (bytes.length < 2
+                || bytes[0] != (byte) (ObjectStreamConstants.STREAM_MAGIC >> 8)
+                || bytes[1] != (byte) ObjectStreamConstants.STREAM_MAGIC) {
+            return null;
+        }
+        try {
+            ObjectInputStream in = new EdgeInfoObjectInputStream(new ByteArrayInputStream(bytes));
+            try {
+                Object obj = in.readObject();
+                return obj instanceof EdgeInfo ? (EdgeInfo) obj : null;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null;
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads an edge info with a string vertex id written by the compact value serializer: the edge info type
+     * tag, the label and the string type tag followed by the vertex id.
+     */
+    private static EdgeInfo compactToEdgeInfo(byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+            if (in.readByte() != COMPACT_TYPE_EDGE_INFO) {
+                return null;
+            }
+            String label = Text.readString(in);
+            if (in.readByte() != COMPACT_TYPE_STRING) {
+                return null;
+            }
+            return new EdgeInfo(label, Text.readString(in));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Only resolves the classes an {@link EdgeInfo} with a string vertex id is made of, so values in the
+     * table cannot cause arbitrary classes to be loaded on the tablet server.
+     */
+    private static class EdgeInfoObjectInputStream extends ObjectInputStream {
+        public EdgeInfoObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            if (!name.equals(EdgeInfo.class.getName()) && !name.equals(String.class.getName())) {
+                throw new InvalidClassException(name, "Unexpected class in edge reference");
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
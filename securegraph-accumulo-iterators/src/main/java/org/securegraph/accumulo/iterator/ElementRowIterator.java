@@ -0,0 +1,155 @@
+package org.securegraph.accumulo.iterator;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.PartialKey;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Combines the work of {@link ElementVisibilityRowFilter} and
+ * {@link org.apache.accumulo.core.iterators.user.WholeRowIterator} in a single pass over each row. Rows
+ * without a visible element signal column are dropped, every other row is returned as a single key/value
+ * pair whose value holds all the columns of the row. The columns are read back on the client by
+ * org.securegraph.accumulo.ElementRowDecoder.
+ *
+ * Each column is encoded as the variable length column family, column qualifier, column visibility,
+ * timestamp and value. The row is not repeated for each column, it is only stored in the returned key.
+ */
+public class ElementRowIterator implements SortedKeyValueIterator<Key, Value> {
+    public static final String OPT_FILTER_VERTICES = ElementVisibilityRowFilter.OPT_FILTER_VERTICES;
+    public static final String OPT_FILTER_EDGES = ElementVisibilityRowFilter.OPT_FILTER_EDGES;
+
+    // must match org.securegraph.accumulo.AccumuloVertex.CF_SIGNAL
+    private static final Text VERTEX_CF_SIGNAL = new Text("V");
+
+    // must match org.securegraph.accumulo.AccumuloEdge.CF_SIGNAL
+    private static final Text EDGE_CF_SIGNAL = new Text("E");
+
+    private SortedKeyValueIterator<Key, Value> sourceIter;
+    private boolean filterVertices;
+    private boolean filterEdges;
+    private final ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream rowOut = new DataOutputStream(rowBuffer);
+    private Key topKey;
+    private Value topValue;
+
+    @Override
+    public void init(SortedKeyValueIterator<Key, Value> source, Map<String, String> options, IteratorEnvironment env) throws IOException {
+        this.sourceIter = source;
+        this.filterVertices = options.get(OPT_FILTER_VERTICES) != null;
+        this.filterEdges = options.get(OPT_FILTER_EDGES) != null;
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(IteratorEnvironment env) {
+        ElementRowIterator copy = new ElementRowIterator();
+        copy.sourceIter = this.sourceIter.deepCopy(env);
+        copy.filterVertices = this.filterVertices;
+        copy.filterEdges = this.filterEdges;
+        return copy;
+    }
+
+    @Override
+    public boolean hasTop() {
+        return this.topKey != null;
+    }
+
+    @Override
+    public Key getTopKey() {
+        return this.topKey;
+    }
+
+    @Override
+    public Value getTopValue() {
+        return this.topValue;
+    }
+
+    @Override
+    public void next() throws IOException {
+        this.topKey = null;
+        this.topValue = null;
+        findTop();
+    }
+
+    @Override
+    public void seek(Range range, Collection<ByteSequence> columnFamilies, boolean inclusive) throws IOException {
+        this.topKey = null;
+        this.topValue = null;
+
+        Key startKey = range.getStartKey();
+        if (startKey != null
+                && startKey.getColumnFamilyData().length() == 0
+                && startKey.getColumnQualifierData().length() == 0
+                && startKey.getColumnVisibilityData().length() == 0
+                && startKey.getTimestamp() == Long.MAX_VALUE
+                && !range.isStartKeyInclusive()) {
+            // the range starts after a key returned by this iterator, continue with the following row
+            Key followingRowKey = startKey.followingKey(PartialKey.ROW);
+            if (range.getEndKey() != null && followingRowKey.compareTo(range.getEndKey()) > 0) {
+                return;
+            }
+            range = new Range(followingRowKey, true, range.getEndKey(), range.isEndKeyInclusive());
+        }
+
+        this.sourceIter.seek(range, columnFamilies, inclusive);
+        findTop();
+    }
+
+    private void findTop() throws IOException {
+        while (this.sourceIter.hasTop()) {
+            Text currentRow = this.sourceIter.getTopKey().getRow();
+            boolean visible = !this.filterVertices && !this.filterEdges;
+            this.rowBuffer.reset();
+            while (this.sourceIter.hasTop() && this.sourceIter.getTopKey().compareRow(currentRow) == 0) {
+                Key key = this.sourceIter.getTopKey();
+                if (!visible && isSignal(key)) {
+                    visible = true;
+                }
+                writeColumn(this.rowOut, key, this.sourceIter.getTopValue());
+                this.sourceIter.next();
+            }
+            if (visible) {
+                this.rowOut.flush();
+                this.topKey = new Key(currentRow);
+                this.topValue = new Value(this.rowBuffer.toByteArray());
+                return;
+            }
+        }
+    }
+
+    private boolean isSignal(Key key) {
+        return (this.filterVertices && key.compareColumnFamily(VERTEX_CF_SIGNAL) == 0) ||
+                (this.filterEdges && key.compareColumnFamily(EDGE_CF_SIGNAL) == 0);
+    }
+
+    // must match org.securegraph.accumulo.ElementRowDecoder#decodeRow
+    private static void writeColumn(DataOutput out, Key key, Value value) throws IOException {
+        writeBytes(out, key.getColumnFamilyData());
+        writeBytes(out, key.getColumnQualifierData());
+        writeBytes(out, key.getColumnVisibilityData());
+        WritableUtils.writeVLong(out, key.getTimestamp());
+        WritableUtils.writeVInt(out, value.getSize());
+        out.write(value.get(), 0, value.getSize());
+    }
+
+    private static void writeBytes(DataOutput out, ByteSequence bytes) throws IOException {
+        WritableUtils.writeVInt(out, bytes.length());
+        if (bytes.isBackedByArray()) {
+            out.write(bytes.getBackingArray(), bytes.offset(), bytes.length());
+        } else {
+            out.write(bytes.toArray());
+        }
+    }
+}
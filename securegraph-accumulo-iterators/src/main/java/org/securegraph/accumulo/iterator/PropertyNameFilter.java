@@ -0,0 +1,147 @@
+package org.securegraph.accumulo.iterator;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.PartialKey;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+import org.apache.hadoop.io.Text;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Limits the property columns (PROP/PROPMETA) of element rows to the given property names. All other
+ * columns are passed through. Because the property column qualifiers start with the property name, the
+ * unwanted properties are skipped by seeking to the next wanted name instead of reading them.
+ */
+public class PropertyNameFilter extends WrappingIterator {
+    public static final String OPT_PROPERTY_NAMES = "propertyNames";
+
+    // must match org.securegraph.accumulo.ElementMutationBuilder.VALUE_SEPARATOR
+    private static final String VALUE_SEPARATOR = "\u001f";
+
+    // must match org.securegraph.accumulo.AccumuloElement.CF_PROPERTY
+    private static final Text CF_PROPERTY = new Text("PROP");
+
+    // must match org.securegraph.accumulo.AccumuloElement.CF_PROPERTY_METADATA
+    private static final Text CF_PROPERTY_METADATA = new Text("PROPMETA");
+
+    private TreeSet<Text> columnQualifierPrefixes;
+    private Range range;
+    private Collection<ByteSequence> columnFamilies;
+    private boolean inclusive;
+    // set when the rest of the range only holds unwanted properties
+    private boolean endOfRange;
+
+    public static void setPropertyNames(IteratorSetting setting, Iterable<String> propertyNames) {
+        StringBuilder value = new StringBuilder();
+        for (String propertyName : propertyNames) {
+            if (propertyName.contains(VALUE_SEPARATOR)) {
+                throw new IllegalArgumentException("Property names cannot contain the character \\u001f: " + propertyName);
+            }
+            if (value.length() > 0) {
+                value.append(VALUE_SEPARATOR);
+            }
+            value.append(propertyName);
+        }
+        setting.addOption(OPT_PROPERTY_NAMES, value.toString());
+    }
+
+    @Override
+    public void init(SortedKeyValueIterator<Key, Value> source, Map<String, String> options, IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        String propertyNames = options.get(OPT_PROPERTY_NAMES);
+        if (propertyNames == null) {
+            throw new IllegalArgumentException(OPT_PROPERTY_NAMES + " must be set.");
+        }
+        this.columnQualifierPrefixes = new TreeSet<Text>();
+        if (propertyNames.length() > 0) {
+            for (String propertyName : propertyNames.split(VALUE_SEPARATOR, -1)) {
+                this.columnQualifierPrefixes.add(new Text(propertyName + VALUE_SEPARATOR));
+            }
+        }
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(IteratorEnvironment env) {
+        PropertyNameFilter copy = new PropertyNameFilter();
+        copy.setSource(getSource().deepCopy(env));
+        copy.columnQualifierPrefixes = this.columnQualifierPrefixes;
+        return copy;
+    }
+
+    @Override
+    public void seek(Range range, Collection<ByteSequence> columnFamilies, boolean inclusive) throws IOException {
+        this.range = range;
+        this.columnFamilies = columnFamilies;
+        this.inclusive = inclusive;
+        this.endOfRange = false;
+        super.seek(range, columnFamilies, inclusive);
+        skipUnwantedProperties();
+    }
+
+    @Override
+    public boolean hasTop() {
+        return !this.endOfRange && super.hasTop();
+    }
+
+    @Override
+    public void next() throws IOException {
+        super.next();
+        skipUnwantedProperties();
+    }
+
+    private void skipUnwantedProperties() throws IOException {
+        SortedKeyValueIterator<Key, Value> source = getSource();
+        while (source.hasTop()) {
+            Key key = source.getTopKey();
+            if (this.range.afterEndKey(key)) {
+                return;
+            }
+            if (key.compareColumnFamily(CF_PROPERTY) != 0 && key.compareColumnFamily(CF_PROPERTY_METADATA) != 0) {
+                return;
+            }
+
+            Text columnQualifier = key.getColumnQualifier();
+            Text prefix = this.columnQualifierPrefixes.floor(columnQualifier);
+            if (prefix != null && startsWith(columnQualifier, prefix)) {
+                return;
+            }
+
+            Text nextPrefix = this.columnQualifierPrefixes.higher(columnQualifier);
+            Key seekKey;
+            if (nextPrefix == null) {
+                seekKey = key.followingKey(PartialKey.ROW_COLFAM);
+            } else {
+                seekKey = new Key(key.getRow(), key.getColumnFamily(), nextPrefix);
+            }
+            if (this.range.afterEndKey(seekKey)) {
+                // the keys left in the range sort before the next wanted property
+                this.endOfRange = true;
+                return;
+            }
+            source.seek(new Range(seekKey, true, this.range.getEndKey(), this.range.isEndKeyInclusive()), this.columnFamilies, this.inclusive);
+        }
+    }
+
+    private static boolean startsWith(Text text, Text prefix) {
+        if (text.getLength() < prefix.getLength()) {
+            return false;
+        }
+        byte[] textBytes = text.getBytes();
+        byte[] prefixBytes = prefix.getBytes();
+        for (int i = 0; i < prefix.getLength(); i++) {
+            if (textBytes[i] != prefixBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
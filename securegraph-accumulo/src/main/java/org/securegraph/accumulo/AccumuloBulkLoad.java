@@ -0,0 +1,175 @@
+package org.securegraph.accumulo;
+
+import org.apache.accumulo.core.data.Mutation;
+import org.securegraph.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffers the mutations of the elements saved in a bulk load. All the columns written to a row within one
+ * group, such as the edge references every edge adds to its vertices, are merged into a single mutation per
+ * row. A group is written when it reaches {@link AccumuloGraphConfiguration#getBulkLoadBatchSize()} elements,
+ * the graph is only flushed when the bulk load is closed.
+ *
+ * Accumulo does not need authorizations to write, like the other write paths the bulk load writes visibilities
+ * its authorizations cannot read.
+ */
+public class AccumuloBulkLoad implements BulkLoad {
+    private final AccumuloGraph graph;
+    private final Authorizations authorizations;
+    private final int batchSize;
+    private final Map<String, Mutation> vertexMutations = new LinkedHashMap<String, Mutation>();
+    private final Map<String, Mutation> edgeMutations = new LinkedHashMap<String, Mutation>();
+    private List<Element> elements = new ArrayList<Element>();
+    private boolean closed;
+
+    AccumuloBulkLoad(AccumuloGraph graph, Authorizations authorizations) {
+        this.graph = graph;
+        this.authorizations = authorizations;
+        this.batchSize = graph.getConfiguration().getBulkLoadBatchSize();
+    }
+
+    @Override
+    public VertexBuilder prepareVertex(Object vertexId, Visibility visibility) {
+        checkNotClosed();
+        if (vertexId == null) {
+            vertexId = graph.getIdGenerator().nextId();
+        }
+
+        return new VertexBuilder(vertexId, visibility) {
+            @Override
+            public Vertex save() {
+                checkNotClosed();
+                AccumuloVertex vertex = new AccumuloVertex(graph, getVertexId(), getVisibility(), getProperties());
+                ElementMutationBuilder elementMutationBuilder = graph.getElementMutationBuilder();
+                elementMutationBuilder.addVertexToMutation(getVertexMutation(vertex.getId()), vertex);
+                elementSaved(vertex);
+                return vertex;
+            }
+        };
+    }
+
+    @Override
+    public EdgeBuilder prepareEdge(Object edgeId, Vertex outVertex, Vertex inVertex, String label, Visibility visibility) {
+        checkNotClosed();
+        if (outVertex == null) {
+            throw new IllegalArgumentException("outVertex is required");
+        }
+        if (inVertex == null) {
+            throw new IllegalArgumentException("inVertex is required");
+        }
+        if (edgeId == null) {
+            edgeId = graph.getIdGenerator().nextId();
+        }
+
+        return new BulkLoadEdgeBuilder(edgeId, outVertex, inVertex, label, visibility);
+    }
+
+    @Override
+    public EdgeBuilder prepareEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility) {
+        checkNotClosed();
+        if (outVertexId == null) {
+            throw new IllegalArgumentException("outVertexId is required");
+        }
+        if (inVertexId == null) {
+            throw new IllegalArgumentException("inVertexId is required");
+        }
+        if (edgeId == null) {
+            edgeId = graph.getIdGenerator().nextId();
+        }
+
+        return new BulkLoadEdgeBuilder(edgeId, outVertexId, inVertexId, label, visibility);
+    }
+
+    @Override
+    public void commit() {
+        checkNotClosed();
+        if (this.elements.size() == 0) {
+            return;
+        }
+        graph.writeMutations(graph.getVerticesWriter(), this.vertexMutations.values());
+        graph.writeMutations(graph.getEdgesWriter(), this.edgeMutations.values());
+        this.vertexMutations.clear();
+        this.edgeMutations.clear();
+        List<Element> elementsToIndex = this.elements;
+        this.elements = new ArrayList<Element>();
+        graph.getSearchIndex().addElements(graph, elementsToIndex);
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        commit();
+        this.closed = true;
+        graph.flush();
+    }
+
+    private class BulkLoadEdgeBuilder extends EdgeBuilder {
+        public BulkLoadEdgeBuilder(Object edgeId, Vertex outVertex, Vertex inVertex, String label, Visibility visibility) {
+            super(edgeId, outVertex, inVertex, label, visibility);
+        }
+
+        public BulkLoadEdgeBuilder(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility) {
+            super(edgeId, outVertexId, inVertexId, label, visibility);
+        }
+
+        @Override
+        public Edge save() {
+            checkNotClosed();
+            AccumuloEdge edge = new AccumuloEdge(graph, getEdgeId(), getOutVertexId(), getInVertexId(), getLabel(), getVisibility(), getProperties());
+            ElementMutationBuilder elementMutationBuilder = graph.getElementMutationBuilder();
+            elementMutationBuilder.addEdgeToMutation(getEdgeMutation(edge.getId()), edge);
+            elementMutationBuilder.addEdgeToOutVertexMutation(getVertexMutation(edge.getVertexId(Direction.OUT)), edge);
+            elementMutationBuilder.addEdgeToInVertexMutation(getVertexMutation(edge.getVertexId(Direction.IN)), edge);
+
+            if (getOutVertex() instanceof AccumuloVertex) {
+                ((AccumuloVertex) getOutVertex()).addOutEdge(edge);
+            }
+            if (getInVertex() instanceof AccumuloVertex) {
+                ((AccumuloVertex) getInVertex()).addInEdge(edge);
+            }
+
+            elementSaved(edge);
+            return edge;
+        }
+    }
+
+    private Mutation getVertexMutation(Object vertexId) {
+        return getMutation(this.vertexMutations, AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertexId);
+    }
+
+    private Mutation getEdgeMutation(Object edgeId) {
+        return getMutation(this.edgeMutations, AccumuloConstants.EDGE_ROW_KEY_PREFIX + edgeId);
+    }
+
+    private static Mutation getMutation(Map<String, Mutation> mutations, String rowKey) {
+        Mutation m = mutations.get(rowKey);
+        if (m == null) {
+            m = new Mutation(rowKey);
+            mutations.put(rowKey, m);
+        }
+        return m;
+    }
+
+    public Authorizations getAuthorizations() {
+        return authorizations;
+    }
+
+    private void elementSaved(Element element) {
+        this.elements.add(element);
+        if (this.elements.size() >= this.batchSize) {
+            commit();
+        }
+    }
+
+    private void checkNotClosed() {
+        if (this.closed) {
+            throw new SecureGraphException("Bulk load is closed");
+        }
+    }
+}
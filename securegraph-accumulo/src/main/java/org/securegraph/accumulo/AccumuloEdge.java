@@ -5,6 +5,8 @@ import org.securegraph.mutation.ExistingElementMutation;
 import org.securegraph.mutation.ExistingElementMutationImpl;
 import org.apache.hadoop.io.Text;
 
+import java.util.Set;
+
 public class AccumuloEdge extends AccumuloElement<Edge> implements Edge {
     public static final Text CF_SIGNAL = new Text("E");
     public static final Text CF_OUT_VERTEX = new Text("EOUT");
@@ -14,7 +16,11 @@ public class AccumuloEdge extends AccumuloElement<Edge> implements Edge {
     private final String label;
 
     public AccumuloEdge(Graph graph, Object id, Object outVertexId, Object inVertexId, String label, Visibility visibility, Iterable<Property> properties) {
-        super(graph, id, visibility, properties);
+        this(graph, id, outVertexId, inVertexId, label, visibility, properties, FetchHint.ALL, null);
+    }
+
+    AccumuloEdge(Graph graph, Object id, Object outVertexId, Object inVertexId, String label, Visibility visibility, Iterable<Property> properties, Set<FetchHint> fetchHints, Set<String> fetchedPropertyNames) {
+        super(graph, id, visibility, properties, fetchHints, fetchedPropertyNames);
         this.outVertexId = outVertexId;
         this.inVertexId = inVertexId;
         this.label = label;
@@ -5,14 +5,75 @@ import org.securegraph.mutation.ExistingElementMutationImpl;
 import org.apache.hadoop.io.Text;
 
 import java.io.Serializable;
+import java.util.Set;
 
 public abstract class AccumuloElement<T extends Element> extends ElementBase<T> implements Serializable {
     private static final long serialVersionUID = 1L;
     public static final Text CF_PROPERTY = new Text("PROP");
     public static final Text CF_PROPERTY_METADATA = new Text("PROPMETA");
+    private final Set<FetchHint> fetchHints;
+    // null when all properties were read
+    private final Set<String> fetchedPropertyNames;
 
     protected AccumuloElement(Graph graph, Object id, Visibility visibility, Iterable<Property> properties) {
+        this(graph, id, visibility, properties, FetchHint.ALL, null);
+    }
+
+    protected AccumuloElement(Graph graph, Object id, Visibility visibility, Iterable<Property> properties, Set<FetchHint> fetchHints, Set<String> fetchedPropertyNames) {
         super(graph, id, visibility, properties);
+        this.fetchHints = fetchHints;
+        this.fetchedPropertyNames = fetchedPropertyNames;
+    }
+
+    /**
+     * The parts of this element that were read from the graph. Accessing any other part will throw a
+     * {@link SecureGraphException}.
+     */
+    public Set<FetchHint> getFetchHints() {
+        return fetchHints;
+    }
+
+    /**
+     * The names of the properties that were read from the graph, null if all properties were read.
+     */
+    public Set<String> getFetchedPropertyNames() {
+        return fetchedPropertyNames;
+    }
+
+    @Override
+    public Iterable<Property> getProperties() {
+        ensureFetched(FetchHint.PROPERTIES);
+        return super.getProperties();
+    }
+
+    @Override
+    public Iterable<Property> getProperties(String name) {
+        ensurePropertyFetched(name);
+        return super.getProperties(name);
+    }
+
+    @Override
+    public Iterable<Property> getProperties(Object key, String name) {
+        ensurePropertyFetched(name);
+        return super.getProperties(key, name);
+    }
+
+    @Override
+    public Property getProperty(Object key, String name, Visibility visibility) {
+        ensurePropertyFetched(name);
+        return super.getProperty(key, name, visibility);
+    }
+
+    protected void ensurePropertyFetched(String name) {
+        if (this.fetchedPropertyNames != null && !this.fetchedPropertyNames.contains(name)) {
+            throw new SecureGraphException("Element " + getId() + " was read without property " + name + ", read it again including that property.");
+        }
+    }
+
+    protected void ensureFetched(FetchHint fetchHint) {
+        if (!getFetchHints().contains(fetchHint)) {
+            throw new SecureGraphException("Element " + getId() + " was read without " + fetchHint + ", read it again including that fetch hint.");
+        }
     }
 
     @Override
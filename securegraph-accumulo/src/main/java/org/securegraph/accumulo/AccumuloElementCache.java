@@ -0,0 +1,167 @@
+package org.securegraph.accumulo;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.securegraph.Authorizations;
+import org.securegraph.FetchHint;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A least recently used cache of the rows read by {@link AccumuloGraph#getVertex(Object, Set, org.securegraph.Authorizations)}
+ * and {@link AccumuloGraph#getEdge(Object, Set, org.securegraph.Authorizations)}. The cells of a row are cached per
+ * authorizations and fetch hints and are never modified, each read makes a new element from them. Rows that
+ * were not found are cached as empty.
+ *
+ * Rows written through the graph are invalidated when their mutations are added to the batch writer. Until the
+ * graph is flushed no rows are cached, because a read could still see the cells from before the write. Writes
+ * made by other graph instances are not seen by the cache.
+ */
+public class AccumuloElementCache {
+    // rough size of a cached key and value beyond their bytes
+    private static final int CELL_OVERHEAD = 100;
+
+    private final int maxSize;
+    private final long maxWeight;
+    private final LinkedHashMap<String, CachedRow> rows = new LinkedHashMap<String, CachedRow>(16, 0.75f, true);
+    private long weight;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private volatile long flushedGeneration;
+
+    public AccumuloElementCache(int maxSize, long maxWeight) {
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @return The cells of the row, or null if they are not cached.
+     */
+    public synchronized List<Map.Entry<Key, Value>> get(String rowKey, Set<FetchHint> fetchHints, Authorizations authorizations) {
+        CachedRow row = rows.get(rowKey);
+        List<Map.Entry<Key, Value>> cells = row == null ? null : row.cells.get(getCellsKey(fetchHints, authorizations));
+        if (cells == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return cells;
+    }
+
+    /**
+     * Gets the generation to pass to {@link #put(long, String, Set, Authorizations, List)}, call it before
+     * reading the row.
+     */
+    public long getGeneration() {
+        return writeGeneration.get();
+    }
+
+    /**
+     * Caches the cells of a row, unless the graph was written to since generation was taken or has not been
+     * flushed since it was written to.
+     */
+    public synchronized void put(long generation, String rowKey, Set<FetchHint> fetchHints, Authorizations authorizations, List<Map.Entry<Key, Value>> cells) {
+        if (generation != writeGeneration.get() || generation != flushedGeneration) {
+            return;
+        }
+        CachedRow row = rows.get(rowKey);
+        if (row == null) {
+            row = new CachedRow();
+            rows.put(rowKey, row);
+        }
+        List<Map.Entry<Key, Value>> existingCells = row.cells.put(getCellsKey(fetchHints, authorizations), Collections.unmodifiableList(cells));
+        if (existingCells != null) {
+            row.weight -= getWeight(existingCells);
+            weight -= getWeight(existingCells);
+        }
+        long cellsWeight = getWeight(cells);
+        row.weight += cellsWeight;
+        weight += cellsWeight;
+        evict();
+    }
+
+    /**
+     * Called before the mutations of rows are added to the batch writer.
+     */
+    public synchronized void invalidate(Collection<String> rowKeys) {
+        writeGeneration.incrementAndGet();
+        for (String rowKey : rowKeys) {
+            CachedRow row = rows.remove(rowKey);
+            if (row != null) {
+                weight -= row.weight;
+            }
+        }
+    }
+
+    /**
+     * Called after the batch writer was flushed with the generation taken before flushing.
+     */
+    public synchronized void flushed(long generation) {
+        if (generation > flushedGeneration) {
+            flushedGeneration = generation;
+        }
+    }
+
+    public synchronized void clear() {
+        rows.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return rows.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private void evict() {
+        Iterator<CachedRow> it = rows.values().iterator();
+        while ((rows.size() > maxSize || weight > maxWeight) && it.hasNext()) {
+            weight -= it.next().weight;
+            it.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private static String getCellsKey(Set<FetchHint> fetchHints, Authorizations authorizations) {
+        StringBuilder key = new StringBuilder();
+        for (FetchHint fetchHint : FetchHint.values()) {
+            key.append(fetchHints.contains(fetchHint) ? '1' : '0');
+        }
+        String[] auths = authorizations.getAuthorizations().clone();
+        Arrays.sort(auths);
+        for (String auth : auths) {
+            key.append(',').append(auth);
+        }
+        return key.toString();
+    }
+
+    private static long getWeight(List<Map.Entry<Key, Value>> cells) {
+        long weight = CELL_OVERHEAD;
+        for (Map.Entry<Key, Value> cell : cells) {
+            weight += cell.getKey().getSize() + cell.getValue().getSize() + CELL_OVERHEAD;
+        }
+        return weight;
+    }
+
+    private static class CachedRow {
+        private final Map<String, List<Map.Entry<Key, Value>>> cells = new HashMap<String, List<Map.Entry<Key, Value>>>();
+        private long weight;
+    }
+}
@@ -2,6 +2,7 @@ package org.securegraph.accumulo;
 
 import org.apache.accumulo.core.client.*;
 import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.data.ColumnUpdate;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.data.Range;
@@ -12,25 +13,36 @@ import org.apache.accumulo.core.security.ColumnVisibility;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.io.Text;
 import org.securegraph.*;
+import org.securegraph.accumulo.iterator.EdgeRefFilter;
+import org.securegraph.accumulo.iterator.ElementRowIterator;
 import org.securegraph.accumulo.iterator.ElementVisibilityRowFilter;
+import org.securegraph.accumulo.iterator.PropertyNameFilter;
 import org.securegraph.accumulo.serializer.ValueSerializer;
 import org.securegraph.id.IdGenerator;
 import org.securegraph.mutation.AlterPropertyMetadata;
 import org.securegraph.mutation.AlterPropertyVisibility;
+import org.securegraph.mutation.BlindElementMutation;
+import org.securegraph.mutation.BlindElementMutationImpl;
 import org.securegraph.property.MutableProperty;
 import org.securegraph.property.StreamingPropertyValue;
 import org.securegraph.search.SearchIndex;
 import org.securegraph.util.ClosableIterable;
 import org.securegraph.util.EmptyClosableIterable;
 import org.securegraph.util.LookAheadIterable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.securegraph.util.Preconditions.checkNotNull;
 
 public class AccumuloGraph extends GraphBase {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloGraph.class);
     private static final String ROW_DELETING_ITERATOR_NAME = RowDeletingIterator.class.getSimpleName();
     private static final int ROW_DELETING_ITERATOR_PRIORITY = 7;
     public static final Text DELETE_ROW_COLUMN_FAMILY = new Text("");
@@ -41,10 +53,14 @@ public class AccumuloGraph extends GraphBase {
     private final ValueSerializer valueSerializer;
     private final FileSystem fileSystem;
     private final String dataDir;
-    private BatchWriter verticesWriter;
-    private BatchWriter edgesWriter;
-    private BatchWriter dataWriter;
-    private final Object writerLock = new Object();
+    private MultiTableBatchWriter batchWriter;
+    private volatile BatchWriter verticesWriter;
+    private volatile BatchWriter edgesWriter;
+    private volatile BatchWriter dataWriter;
+    private final AtomicLong addMutationsTimeNanos = new AtomicLong();
+    private final AtomicBoolean deletesWritten = new AtomicBoolean();
+    private final AccumuloElementCache elementCache;
+    private final BatchScannerThreadBudget batchScannerThreadBudget;
     private ElementMutationBuilder elementMutationBuilder;
 
     protected AccumuloGraph(AccumuloGraphConfiguration config, IdGenerator idGenerator, SearchIndex searchIndex, Connector connector, FileSystem fileSystem, ValueSerializer valueSerializer) {
@@ -53,6 +69,12 @@ public class AccumuloGraph extends GraphBase {
         this.valueSerializer = valueSerializer;
         this.fileSystem = fileSystem;
         this.dataDir = config.getDataDir();
+        this.batchScannerThreadBudget = new BatchScannerThreadBudget(connector, config.getBatchScannerMaxThreads(), config.getBatchScannerThreadBudget());
+        if (config.getElementCacheMaxSize() > 0) {
+            this.elementCache = new AccumuloElementCache(config.getElementCacheMaxSize(), config.getElementCacheMaxWeight());
+        } else {
+            this.elementCache = null;
+        }
         long maxStreamingPropertyValueTableDataSize = config.getMaxStreamingPropertyValueTableDataSize();
         this.elementMutationBuilder = new ElementMutationBuilder(fileSystem, valueSerializer, maxStreamingPropertyValueTableDataSize, dataDir) {
             @Override
@@ -147,6 +169,42 @@ public class AccumuloGraph extends GraphBase {
         };
     }
 
+    @Override
+    public BlindElementMutation prepareVertexMutation(Object vertexId, final Authorizations authorizations) {
+        return new BlindElementMutationImpl(ElementType.VERTEX, vertexId) {
+            @Override
+            public void save() {
+                saveBlindElementMutation(getVerticesWriter(), AccumuloConstants.VERTEX_ROW_KEY_PREFIX, this, authorizations);
+            }
+        };
+    }
+
+    @Override
+    public BlindElementMutation prepareEdgeMutation(Object edgeId, final Authorizations authorizations) {
+        return new BlindElementMutationImpl(ElementType.EDGE, edgeId) {
+            @Override
+            public void save() {
+                saveBlindElementMutation(getEdgesWriter(), AccumuloConstants.EDGE_ROW_KEY_PREFIX, this, authorizations);
+            }
+        };
+    }
+
+    private void saveBlindElementMutation(BatchWriter writer, String rowPrefix, BlindElementMutation mutation, Authorizations authorizations) {
+        String elementRowKey = rowPrefix + mutation.getElementId();
+        Mutation m = new Mutation(elementRowKey);
+        for (Property property : mutation.getPropertyRemoves()) {
+            elementMutationBuilder.addPropertyRemoveToMutation(m, property);
+        }
+        for (Property property : mutation.getProperties()) {
+            elementMutationBuilder.addPropertyToMutation(m, elementRowKey, property);
+        }
+        if (m.size() == 0) {
+            return;
+        }
+        addMutations(writer, m);
+        getSearchIndex().updateElementProperties(this, mutation.getElementType(), mutation.getElementId(), mutation.getProperties(), mutation.getPropertyRemoves(), authorizations);
+    }
+
     void saveProperties(AccumuloElement element, Iterable<Property> properties) {
         String rowPrefix = getRowPrefixForElement(element);
 
@@ -184,44 +242,76 @@ public class AccumuloGraph extends GraphBase {
     }
 
     private void addMutations(BatchWriter writer, Mutation... mutations) {
+        writeMutations(writer, Arrays.asList(mutations));
+        if (getConfiguration().isAutoFlush()) {
+            flush();
+        }
+    }
+
+    /**
+     * Adds the mutations to the batch writer without flushing, regardless of the autoFlush setting.
+     */
+    void writeMutations(BatchWriter writer, Collection<Mutation> mutations) {
+        if (elementCache != null) {
+            List<String> rowKeys = new ArrayList<String>(mutations.size());
+            for (Mutation m : mutations) {
+                rowKeys.add(new Text(m.getRow()).toString());
+            }
+            elementCache.invalidate(rowKeys);
+        }
         try {
-            synchronized (this.writerLock) {
-                for (Mutation m : mutations) {
-                    writer.addMutation(m);
-                }
-                if (getConfiguration().isAutoFlush()) {
-                    flush();
+            // the batch writer is thread safe, it blocks when its memory is full until the tablet servers catch up
+            long startTime = System.nanoTime();
+            for (Mutation m : mutations) {
+                if (!deletesWritten.get() && hasDelete(m)) {
+                    deletesWritten.set(true);
                 }
+                writer.addMutation(m);
+            }
+            long addTimeNanos = System.nanoTime() - startTime;
+            this.addMutationsTimeNanos.addAndGet(addTimeNanos);
+            long addTime = TimeUnit.NANOSECONDS.toMillis(addTimeNanos);
+            if (addTime > getConfiguration().getBatchWriterBackPressureWarnThreshold()) {
+                LOGGER.warn("Adding {} mutations took {}ms, the batch writer is waiting for the tablet servers, consider increasing {}",
+                        mutations.size(), addTime, AccumuloGraphConfiguration.BATCH_WRITER_MAX_MEMORY);
             }
         } catch (MutationsRejectedException ex) {
             throw new RuntimeException("Could not add mutation", ex);
         }
     }
 
-    protected synchronized BatchWriter getVerticesWriter() {
-        try {
-            if (this.verticesWriter != null) {
-                return this.verticesWriter;
-            }
-            BatchWriterConfig writerConfig = new BatchWriterConfig();
-            this.verticesWriter = this.connector.createBatchWriter(getVerticesTableName(), writerConfig);
-            return this.verticesWriter;
-        } catch (TableNotFoundException ex) {
-            throw new RuntimeException("Could not create batch writer", ex);
+    /**
+     * The total time in milliseconds threads have spent adding mutations to the batch writer. Adding a mutation
+     * only copies it to the batch writer's memory unless that memory is full, so a value that grows much faster
+     * than the number of writes means threads are blocked waiting for the tablet servers to catch up.
+     */
+    public long getAddMutationsTime() {
+        return TimeUnit.NANOSECONDS.toMillis(this.addMutationsTimeNanos.get());
+    }
+
+    /**
+     * The cache of the elements read by id, see {@link AccumuloGraphConfiguration#getElementCacheMaxSize()}.
+     *
+     * @return The cache, or null if it is disabled.
+     */
+    public AccumuloElementCache getElementCache() {
+        return elementCache;
+    }
+
+    protected BatchWriter getVerticesWriter() {
+        BatchWriter writer = this.verticesWriter;
+        if (writer == null) {
+            writer = this.verticesWriter = getBatchWriter(getVerticesTableName());
         }
+        return writer;
     }
 
-    protected synchronized BatchWriter getEdgesWriter() {
-        try {
-            if (this.edgesWriter != null) {
-                return this.edgesWriter;
-            }
-            BatchWriterConfig writerConfig = new BatchWriterConfig();
-            this.edgesWriter = this.connector.createBatchWriter(getEdgesTableName(), writerConfig);
-            return this.edgesWriter;
-        } catch (TableNotFoundException ex) {
-            throw new RuntimeException("Could not create batch writer", ex);
+    protected BatchWriter getEdgesWriter() {
+        BatchWriter writer = this.edgesWriter;
+        if (writer == null) {
+            writer = this.edgesWriter = getBatchWriter(getEdgesTableName());
         }
+        return writer;
     }
 
     protected BatchWriter getWriterFromElementType(Element element) {
@@ -234,14 +324,24 @@ public class AccumuloGraph extends GraphBase {
         }
     }
 
-    protected synchronized BatchWriter getDataWriter() {
+    protected BatchWriter getDataWriter() {
+        BatchWriter writer = this.dataWriter;
+        if (writer == null) {
+            writer = this.dataWriter = getBatchWriter(getDataTableName());
+        }
+        return writer;
+    }
+
+    private synchronized BatchWriter getBatchWriter(String tableName) {
         try {
-            if (this.dataWriter != null) {
-                return this.dataWriter;
+            if (this.batchWriter == null) {
+                this.batchWriter = this.connector.createMultiTableBatchWriter(getConfiguration().createBatchWriterConfig());
             }
-            BatchWriterConfig writerConfig = new BatchWriterConfig();
-            this.dataWriter = this.connector.createBatchWriter(getDataTableName(), writerConfig);
-            return this.dataWriter;
+            return this.batchWriter.getBatchWriter(tableName);
+        } catch (AccumuloException ex) {
+            throw new RuntimeException("Could not create batch writer", ex);
+        } catch (AccumuloSecurityException ex) {
+            throw new RuntimeException("Could not create batch writer", ex);
         } catch (TableNotFoundException ex) {
             throw new RuntimeException("Could not create batch writer", ex);
         }
@@ -249,7 +349,21 @@ public class AccumuloGraph extends GraphBase {
 
     @Override
     public Iterable<Vertex> getVertices(Authorizations authorizations) throws SecureGraphException {
-        return getVerticesInRange(null, null, authorizations);
+        return getVertices(FetchHint.ALL, authorizations);
+    }
+
+    @Override
+    public Iterable<Vertex> getVertices(Set<FetchHint> fetchHints, Authorizations authorizations) throws SecureGraphException {
+        return getVerticesInRange(null, null, fetchHints, authorizations);
+    }
+
+    @Override
+    public List<Iterable<Vertex>> getVertexPartitions(Set<FetchHint> fetchHints, Authorizations authorizations) {
+        List<Iterable<Vertex>> partitions = new ArrayList<Iterable<Vertex>>();
+        for (Range range : getTabletRanges(getVerticesTableName(), AccumuloConstants.VERTEX_ROW_KEY_PREFIX, VERTEX_AFTER_ROW_KEY_PREFIX)) {
+            partitions.add(getVerticesInRange(range, fetchHints, false, authorizations));
+        }
+        return partitions;
     }
 
     @Override
@@ -258,14 +372,61 @@ public class AccumuloGraph extends GraphBase {
             throw new IllegalArgumentException("vertex cannot be null");
         }
 
-        getSearchIndex().removeElement(this, vertex);
+        if (!(vertex instanceof AccumuloVertex) || !((AccumuloVertex) vertex).getFetchHints().containsAll(FetchHint.EDGE_REFS)) {
+            Object vertexId = vertex.getId();
+            vertex = getVertex(vertexId, FetchHint.EDGE_REFS, authorizations);
+            checkNotNull(vertex, "Unable to delete vertex %s, can't find vertex", vertexId);
+        }
+        AccumuloVertex accumuloVertex = (AccumuloVertex) vertex;
+
+        // The edge references of the vertex hold everything needed to delete its edges, so the edges and
+        // their other vertices are not read. All the deletes are written as one batch.
+        List<Element> removedElements = new ArrayList<Element>();
+        removedElements.add(vertex);
+        Map<Object, Mutation> otherVertexMutations = new LinkedHashMap<Object, Mutation>();
+        Map<Object, Mutation> edgeMutations = new LinkedHashMap<Object, Mutation>();
+        for (Map.Entry<Object, EdgeInfo> edgeInfo : accumuloVertex.getEdgeInfos(Direction.OUT, null, null, authorizations)) {
+            Object edgeId = edgeInfo.getKey();
+            Object inVertexId = edgeInfo.getValue().getVertexId();
+            putEdgeRefDelete(otherVertexMutations, inVertexId, AccumuloVertex.CF_IN_EDGE, edgeId, edgeInfo.getValue());
+            if (!edgeMutations.containsKey(edgeId)) {
+                edgeMutations.put(edgeId, getDeleteRowMutation(AccumuloConstants.EDGE_ROW_KEY_PREFIX + edgeId));
+                removedElements.add(createRemovedEdge(edgeId, vertex.getId(), inVertexId, edgeInfo.getValue()));
+            }
+        }
+        for (Map.Entry<Object, EdgeInfo> edgeInfo : accumuloVertex.getEdgeInfos(Direction.IN, null, null, authorizations)) {
+            Object edgeId = edgeInfo.getKey();
+            Object outVertexId = edgeInfo.getValue().getVertexId();
+            putEdgeRefDelete(otherVertexMutations, outVertexId, AccumuloVertex.CF_OUT_EDGE, edgeId, edgeInfo.getValue());
+            if (!edgeMutations.containsKey(edgeId)) {
+                edgeMutations.put(edgeId, getDeleteRowMutation(AccumuloConstants.EDGE_ROW_KEY_PREFIX + edgeId));
+                removedElements.add(createRemovedEdge(edgeId, outVertexId, vertex.getId(), edgeInfo.getValue()));
+            }
+        }
+
+        getSearchIndex().removeElements(this, removedElements);
+
+        List<Mutation> vertexMutations = new ArrayList<Mutation>(otherVertexMutations.values());
+        vertexMutations.add(getDeleteRowMutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertex.getId()));
+        writeMutations(getVerticesWriter(), vertexMutations);
+        writeMutations(getEdgesWriter(), edgeMutations.values());
+        if (getConfiguration().isAutoFlush()) {
+            flush();
+        }
+    }
 
-        // Remove all edges that this vertex participates.
-        for (Edge edge : vertex.getEdges(Direction.BOTH, authorizations)) {
-            removeEdge(edge, authorizations);
+    private static void putEdgeRefDelete(Map<Object, Mutation> vertexMutations, Object vertexId, Text edgeColumnFamily, Object edgeId, EdgeInfo edgeInfo) {
+        Mutation m = vertexMutations.get(vertexId);
+        if (m == null) {
+            m = new Mutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertexId);
+            vertexMutations.put(vertexId, m);
         }
+        m.putDelete(edgeColumnFamily, new Text(edgeId.toString()), new ColumnVisibility(edgeInfo.getColumnVisibility()));
+    }
 
-        addMutations(getVerticesWriter(), getDeleteRowMutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertex.getId()));
+    private Edge createRemovedEdge(Object edgeId, Object outVertexId, Object inVertexId, EdgeInfo edgeInfo) {
+        Visibility visibility = new Visibility(edgeInfo.getColumnVisibility());
+        return new AccumuloEdge(this, edgeId, outVertexId, inVertexId, edgeInfo.getLabel(), visibility, new ArrayList<Property>());
     }
 
     @Override
@@ -280,23 +441,53 @@ public class AccumuloGraph extends GraphBase {
             edgeId = getIdGenerator().nextId();
         }
 
-        return new EdgeBuilder(edgeId, outVertex, inVertex, label, visibility) {
-            @Override
-            public Edge save() {
-                AccumuloEdge edge = new AccumuloEdge(AccumuloGraph.this, getEdgeId(), getOutVertex().getId(), getInVertex().getId(), getLabel(), getVisibility(), getProperties());
-                elementMutationBuilder.saveEdge(edge);
+        return new AccumuloEdgeBuilder(edgeId, outVertex, inVertex, label, visibility);
+    }
 
-                if (getOutVertex() instanceof AccumuloVertex) {
-                    ((AccumuloVertex) getOutVertex()).addOutEdge(edge);
-                }
-                if (getInVertex() instanceof AccumuloVertex) {
-                    ((AccumuloVertex) getInVertex()).addInEdge(edge);
-                }
+    @Override
+    public EdgeBuilder prepareEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility, Authorizations authorizations) {
+        if (outVertexId == null) {
+            throw new IllegalArgumentException("outVertexId is required");
+        }
+        if (inVertexId == null) {
+            throw new IllegalArgumentException("inVertexId is required");
+        }
+        if (edgeId == null) {
+            edgeId = getIdGenerator().nextId();
+        }
+
+        return new AccumuloEdgeBuilder(edgeId, outVertexId, inVertexId, label, visibility);
+    }
+
+    private class AccumuloEdgeBuilder extends EdgeBuilder {
+        public AccumuloEdgeBuilder(Object edgeId, Vertex outVertex, Vertex inVertex, String label, Visibility visibility) {
+            super(edgeId, outVertex, inVertex, label, visibility);
+        }
+
+        public AccumuloEdgeBuilder(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility) {
+            super(edgeId, outVertexId, inVertexId, label, visibility);
+        }
 
-                getSearchIndex().addElement(AccumuloGraph.this, edge);
-                return edge;
+        @Override
+        public Edge save() {
+            AccumuloEdge edge = new AccumuloEdge(AccumuloGraph.this, getEdgeId(), getOutVertexId(), getInVertexId(), getLabel(), getVisibility(), getProperties());
+            elementMutationBuilder.saveEdge(edge);
+
+            if (getOutVertex() instanceof AccumuloVertex) {
+                ((AccumuloVertex) getOutVertex()).addOutEdge(edge);
             }
-        };
+            if (getInVertex() instanceof AccumuloVertex) {
+                ((AccumuloVertex) getInVertex()).addInEdge(edge);
+            }
+
+            getSearchIndex().addElement(AccumuloGraph.this, edge);
+            return edge;
+        }
+    }
+
+    @Override
+    public BulkLoad startBulkLoad(Authorizations authorizations) {
+        return new AccumuloBulkLoad(this, authorizations);
     }
 
     @Override
@@ -306,7 +497,46 @@ public class AccumuloGraph extends GraphBase {
 
     @Override
     public Iterable<Edge> getEdges(Authorizations authorizations) {
-        return getEdgesInRange(null, null, authorizations);
+        return getEdges(FetchHint.ALL, authorizations);
+    }
+
+    @Override
+    public Iterable<Edge> getEdges(Set<FetchHint> fetchHints, Authorizations authorizations) {
+        return getEdgesInRange(null, null, fetchHints, authorizations);
+    }
+
+    @Override
+    public List<Iterable<Edge>> getEdgePartitions(Set<FetchHint> fetchHints, Authorizations authorizations) {
+        List<Iterable<Edge>> partitions = new ArrayList<Iterable<Edge>>();
+        for (Range range : getTabletRanges(getEdgesTableName(), AccumuloConstants.EDGE_ROW_KEY_PREFIX, EDGE_AFTER_ROW_KEY_PREFIX)) {
+            partitions.add(getEdgesInRange(range, fetchHints, authorizations));
+        }
+        return partitions;
+    }
+
+    /**
+     * Splits the rows from startRow up to endRow at the split points of the table, so that each range is read
+     * from a single tablet. Split points that are out of date only change how the rows are divided.
+     */
+    List<Range> getTabletRanges(String tableName, String startRow, String endRow) {
+        List<Range> ranges = new ArrayList<Range>();
+        Text rangeStart = new Text(startRow);
+        Text rangeEnd = new Text(endRow);
+        boolean startInclusive = true;
+        for (Text split : batchScannerThreadBudget.getSplits(tableName)) {
+            if (split.compareTo(rangeStart) <= 0) {
+                continue;
+            }
+            if (split.compareTo(rangeEnd) >= 0) {
+                break;
+            }
+            // a tablet includes its end row, which is the split point
+            ranges.add(new Range(rangeStart, startInclusive, split, true));
+            rangeStart = split;
+            startInclusive = false;
+        }
+        ranges.add(new Range(rangeStart, startInclusive, rangeEnd, false));
+        return ranges;
     }
 
     @Override
@@ -315,64 +545,79 @@ public class AccumuloGraph extends GraphBase {
 
         getSearchIndex().removeElement(this, edge);
 
-        Vertex out = edge.getVertex(Direction.OUT, authorizations);
-        checkNotNull(out, "Unable to delete edge %s, can't find out vertex", edge.getId());
-        Vertex in = edge.getVertex(Direction.IN, authorizations);
-        checkNotNull(in, "Unable to delete edge %s, can't find in vertex", edge.getId());
-
+        // the edge holds the ids of its vertices, deleting the edge references does not require reading them
         ColumnVisibility visibility = visibilityToAccumuloVisibility(edge.getVisibility());
 
-        Mutation outMutation = new Mutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + out.getId());
+        Mutation outMutation = new Mutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + edge.getVertexId(Direction.OUT));
         outMutation.putDelete(AccumuloVertex.CF_OUT_EDGE, new Text(edge.getId().toString()), visibility);
 
-        Mutation inMutation = new Mutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + in.getId());
+        Mutation inMutation = new Mutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + edge.getVertexId(Direction.IN));
         inMutation.putDelete(AccumuloVertex.CF_IN_EDGE, new Text(edge.getId().toString()), visibility);
 
         addMutations(getVerticesWriter(), outMutation, inMutation);
 
         // Remove everything else related to edge.
         addMutations(getEdgesWriter(), getDeleteRowMutation(AccumuloConstants.EDGE_ROW_KEY_PREFIX + edge.getId()));
+    }
 
-        if (out instanceof AccumuloVertex) {
-            ((AccumuloVertex) out).removeOutEdge(edge);
-        }
-        if (in instanceof AccumuloVertex) {
-            ((AccumuloVertex) in).removeInEdge(edge);
+    private static boolean hasDelete(Mutation m) {
+        for (ColumnUpdate update : m.getUpdates()) {
+            if (update.isDeleted()) {
+                return true;
+            }
         }
+        return false;
     }
 
     @Override
     public void flush() {
-        flushWriter(this.dataWriter);
-        flushWriter(this.verticesWriter);
-        flushWriter(this.edgesWriter);
-        super.flush();
-    }
-
-    private static void flushWriter(BatchWriter writer) {
+        MultiTableBatchWriter writer = getBatchWriterIfCreated();
         if (writer != null) {
+            long cacheGeneration = elementCache == null ? 0 : elementCache.getGeneration();
+            boolean hadDeletes = deletesWritten.getAndSet(false);
             try {
                 writer.flush();
             } catch (MutationsRejectedException e) {
                 throw new SecureGraphException("Could not flush", e);
             }
+            if (elementCache != null) {
+                elementCache.flushed(cacheGeneration);
+            }
+            if (hadDeletes) {
+                waitForNextMillisecond();
+            }
         }
+        super.flush();
+    }
+
+    /**
+     * The tablet servers give the cells of a mutation the current time in milliseconds and a delete hides the cells
+     * of the same time, so a cell written right after a flushed delete of the same column could be hidden by it.
+     * Waiting a millisecond after such a flush makes the cells written after it newer than the deletes.
+     */
+    private static void waitForNextMillisecond() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized MultiTableBatchWriter getBatchWriterIfCreated() {
+        return this.batchWriter;
     }
 
     @Override
     public void shutdown() {
         try {
             flush();
-            if (this.dataWriter != null) {
-                this.dataWriter.close();
+            synchronized (this) {
+                if (this.batchWriter != null) {
+                    this.batchWriter.close();
+                    this.batchWriter = null;
+                }
                 this.dataWriter = null;
-            }
-            if (this.verticesWriter != null) {
-                this.verticesWriter.close();
                 this.verticesWriter = null;
-            }
-            if (this.edgesWriter != null) {
-                this.edgesWriter.close();
                 this.edgesWriter = null;
             }
             super.shutdown();
@@ -398,7 +643,33 @@ public class AccumuloGraph extends GraphBase {
 
     @Override
     public Vertex getVertex(Object vertexId, Authorizations authorizations) throws SecureGraphException {
-        Iterator<Vertex> vertices = getVerticesInRange(new Range(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertexId), authorizations).iterator();
+        return getVertex(vertexId, FetchHint.ALL, authorizations);
+    }
+
+    @Override
+    public Vertex getVertex(Object vertexId, Set<FetchHint> fetchHints, Authorizations authorizations) throws SecureGraphException {
+        return getVertex(vertexId, fetchHints, false, authorizations);
+    }
+
+    /**
+     * Gets a vertex with its properties but without reading its edge references. The edge ids, edges and
+     * vertex ids of the returned vertex are scanned from the vertex row in pages as they are consumed, so
+     * reading a vertex with a large number of edges costs only what is consumed.
+     *
+     * @param vertexId       The vertex id to retrieve from the graph.
+     * @param authorizations The authorizations required to load the vertex.
+     * @return The vertex if successful. null if the vertex is not found or the required authorizations were not provided.
+     */
+    public Vertex getVertexWithLazyEdges(Object vertexId, Authorizations authorizations) throws SecureGraphException {
+        return getVertex(vertexId, FetchHint.ALL, true, authorizations);
+    }
+
+    private Vertex getVertex(Object vertexId, Set<FetchHint> fetchHints, boolean lazyEdges, Authorizations authorizations) throws SecureGraphException {
+        if (elementCache != null && !lazyEdges) {
+            List<Map.Entry<Key, Value>> row = getCachedRow(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertexId, ElementType.VERTEX, fetchHints, authorizations);
+            return new VertexMaker(this, row.iterator(), fetchHints, null, false).make();
+        }
+        Iterator<Vertex> vertices = getVerticesInRange(new Range(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertexId), fetchHints, lazyEdges, authorizations).iterator();
         if (vertices.hasNext()) {
             return vertices.next();
         }
@@ -406,7 +677,44 @@ public class AccumuloGraph extends GraphBase {
     }
 
     @Override
-    public ClosableIterable<Vertex> getVertices(Iterable<Object> ids, final Authorizations authorizations) {
+    protected int getMultiGetChunkSize() {
+        return getConfiguration().getMultiGetChunkSize();
+    }
+
+    @Override
+    public ClosableIterable<Vertex> getVertices(Iterable<Object> ids, Authorizations authorizations) {
+        return getVertices(ids, FetchHint.ALL, authorizations);
+    }
+
+    @Override
+    public ClosableIterable<Vertex> getVertices(Iterable<Object> ids, Set<FetchHint> fetchHints, Authorizations authorizations) {
+        return getVertices(ids, fetchHints, null, false, authorizations);
+    }
+
+    /**
+     * Gets all vertices matching the given ids, reading only the named properties and their metadata. The
+     * property columns are limited on the tablet server by {@link PropertyNameFilter} which seeks past the
+     * properties that were not requested. Accessing any other property or the edges of the returned vertices
+     * throws a {@link SecureGraphException}.
+     */
+    @Override
+    public ClosableIterable<Vertex> getVertices(Iterable<Object> ids, String[] propertyNames, Authorizations authorizations) {
+        return getVertices(ids, FetchHint.PROPERTIES_AND_METADATA, toPropertyNameSet(propertyNames), false, authorizations);
+    }
+
+    /**
+     * Gets all vertices matching the given ids without reading their edge references.
+     * See {@link #getVertexWithLazyEdges(Object, org.securegraph.Authorizations)}.
+     *
+     * @param ids            The ids of the vertices to get.
+     * @param authorizations The authorizations required to load the vertex.
+     * @return An iterable of all the vertices.
+     */
+    public ClosableIterable<Vertex> getVerticesWithLazyEdges(Iterable<Object> ids, Authorizations authorizations) {
+        return getVertices(ids, FetchHint.ALL, null, true, authorizations);
+    }
+
+    private ClosableIterable<Vertex> getVertices(Iterable<Object> ids, final Set<FetchHint> fetchHints, final Set<String> propertyNames, final boolean lazyEdges, final Authorizations authorizations) {
         final AccumuloGraph graph = this;
 
         final List<Range> ranges = new ArrayList<Range>();
@@ -418,42 +726,29 @@ public class AccumuloGraph extends GraphBase {
             return new EmptyClosableIterable<Vertex>();
         }
 
-        return new LookAheadIterable<Map.Entry<Key, Value>, Vertex>() {
-            public BatchScanner batchScanner;
-
-            @Override
-            protected boolean isIncluded(Map.Entry<Key, Value> src, Vertex dest) {
-                return dest != null;
-            }
-
+        return new BatchScannerIterable<Vertex>() {
             @Override
             protected Vertex convert(Map.Entry<Key, Value> wholeRow) {
-                try {
-                    SortedMap<Key, Value> row = WholeRowIterator.decodeRow(wholeRow.getKey(), wholeRow.getValue());
-                    VertexMaker maker = new VertexMaker(graph, row.entrySet().iterator());
-                    return maker.make();
-                } catch (IOException ex) {
-                    throw new SecureGraphException("Could not recreate row", ex);
-                }
-            }
-
-            @Override
-            protected Iterator<Map.Entry<Key, Value>> createIterator() {
-                batchScanner = createVertexBatchScanner(authorizations, Math.min(Math.max(1, ranges.size() / 10), 10));
-                batchScanner.setRanges(ranges);
-                batchScanner.clearColumns();
-                return batchScanner.iterator();
+                VertexMaker maker = new VertexMaker(graph, decodeRow(wholeRow), fetchHints, propertyNames, lazyEdges);
+                return maker.make();
             }
 
             @Override
-            public void close() {
-                super.close();
-                batchScanner.close();
+            protected BatchScannerIterator createBatchScannerIterator() {
+                return new BatchScannerIterator(batchScannerThreadBudget, getVerticesTableName(), ranges, getMultiGetChunkSize()) {
+                    @Override
+                    protected BatchScanner createBatchScanner(int queryThreads) {
+                        BatchScanner batchScanner = createVertexBatchScanner(authorizations, queryThreads);
+                        fetchVertexColumnFamilies(batchScanner, fetchHints, lazyEdges);
+                        fetchPropertyNames(batchScanner, propertyNames);
+                        return batchScanner;
+                    }
+                };
             }
         };
     }
 
-    private ClosableIterable<Vertex> getVerticesInRange(Object startId, Object endId, final Authorizations authorizations) throws SecureGraphException {
+    private ClosableIterable<Vertex> getVerticesInRange(Object startId, Object endId, Set<FetchHint> fetchHints, final Authorizations authorizations) throws SecureGraphException {
         final Key startKey;
         if (startId == null) {
             startKey = new Key(AccumuloConstants.VERTEX_ROW_KEY_PREFIX);
@@ -469,10 +764,10 @@ public class AccumuloGraph extends GraphBase {
         }
 
         Range range = new Range(startKey, endKey);
-        return getVerticesInRange(range, authorizations);
+        return getVerticesInRange(range, fetchHints, false, authorizations);
     }
 
-    private ClosableIterable<Vertex> getVerticesInRange(final Range range, final Authorizations authorizations) {
+    private ClosableIterable<Vertex> getVerticesInRange(final Range range, final Set<FetchHint> fetchHints, final boolean lazyEdges, final Authorizations authorizations) {
         return new LookAheadIterable<Iterator<Map.Entry<Key, Value>>, Vertex>() {
             public Scanner scanner;
 
@@ -483,7 +778,7 @@ public class AccumuloGraph extends GraphBase {
 
             @Override
             protected Vertex convert(Iterator<Map.Entry<Key, Value>> next) {
-                VertexMaker maker = new VertexMaker(AccumuloGraph.this, next);
+                VertexMaker maker = new VertexMaker(AccumuloGraph.this, next, fetchHints, null, lazyEdges);
                 return maker.make();
             }
 
@@ -491,7 +786,7 @@ public class AccumuloGraph extends GraphBase {
             protected Iterator<Iterator<Map.Entry<Key, Value>>> createIterator() {
                 scanner = createVertexScanner(authorizations);
                 scanner.setRange(range);
-                scanner.clearColumns();
+                fetchVertexColumnFamilies(scanner, fetchHints, lazyEdges);
                 return new RowIterator(scanner.iterator());
             }
 
@@ -503,6 +798,130 @@ public class AccumuloGraph extends GraphBase {
         };
     }
 
+    private void fetchVertexColumnFamilies(ScannerBase scanner, Set<FetchHint> fetchHints, boolean lazyEdges) {
+        scanner.clearColumns();
+        if (fetchHints.containsAll(FetchHint.ALL) && !lazyEdges) {
+            return;
+        }
+        scanner.fetchColumnFamily(AccumuloVertex.CF_SIGNAL);
+        fetchPropertyColumnFamilies(scanner, fetchHints);
+        if (!lazyEdges && fetchHints.contains(FetchHint.IN_EDGE_REFS)) {
+            scanner.fetchColumnFamily(AccumuloVertex.CF_IN_EDGE);
+        }
+        if (!lazyEdges && fetchHints.contains(FetchHint.OUT_EDGE_REFS)) {
+            scanner.fetchColumnFamily(AccumuloVertex.CF_OUT_EDGE);
+        }
+    }
+
+    private void fetchEdgeColumnFamilies(ScannerBase scanner, Set<FetchHint> fetchHints) {
+        scanner.clearColumns();
+        if (fetchHints.contains(FetchHint.PROPERTIES) && fetchHints.contains(FetchHint.PROPERTY_METADATA)) {
+            return;
+        }
+        scanner.fetchColumnFamily(AccumuloEdge.CF_SIGNAL);
+        scanner.fetchColumnFamily(AccumuloEdge.CF_IN_VERTEX);
+        scanner.fetchColumnFamily(AccumuloEdge.CF_OUT_VERTEX);
+        fetchPropertyColumnFamilies(scanner, fetchHints);
+    }
+
+    private void fetchPropertyNames(ScannerBase scanner, Set<String> propertyNames) {
+        if (propertyNames == null || !getConfiguration().isUseServerSidePropertyNameFilter()) {
+            return;
+        }
+        IteratorSetting iteratorSetting = new IteratorSetting(
+                99,
+                PropertyNameFilter.class.getSimpleName(),
+                PropertyNameFilter.class
+        );
+        PropertyNameFilter.setPropertyNames(iteratorSetting, propertyNames);
+        scanner.addScanIterator(iteratorSetting);
+    }
+
+    private static Set<String> toPropertyNameSet(String[] propertyNames) {
+        checkNotNull(propertyNames, "propertyNames cannot be null");
+        return new HashSet<String>(Arrays.asList(propertyNames));
+    }
+
+    private void fetchPropertyColumnFamilies(ScannerBase scanner, Set<FetchHint> fetchHints) {
+        if (fetchHints.contains(FetchHint.PROPERTIES)) {
+            scanner.fetchColumnFamily(AccumuloElement.CF_PROPERTY);
+            if (fetchHints.contains(FetchHint.PROPERTY_METADATA)) {
+                scanner.fetchColumnFamily(AccumuloElement.CF_PROPERTY_METADATA);
+            }
+        }
+    }
+
+    /**
+     * Scans the edge references of a vertex directly from the vertex row. The scanner pages through the
+     * EIN/EOUT column families as the iterable is consumed. When enabled, the labels and other vertex id
+     * are also checked on the tablet server by {@link EdgeRefFilter}, callers must still filter the results
+     * because edge references the filter cannot read are passed through.
+     *
+     * @param labels        The labels to include. null or empty to include all labels.
+     * @param otherVertexId The id of the vertex on the other side of the edge. null to include all vertices.
+     */
+    Iterable<Map.Entry<Object, EdgeInfo>> getEdgeInfos(final Object vertexId, final Direction direction, final String[] labels, final Object otherVertexId, final Authorizations authorizations) {
+        final Range range = new Range(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertexId);
+        return new LookAheadIterable<Map.Entry<Key, Value>, Map.Entry<Object, EdgeInfo>>() {
+            public Scanner scanner;
+
+            @Override
+            protected boolean isIncluded(Map.Entry<Key, Value> src, Map.Entry<Object, EdgeInfo> dest) {
+                return dest != null;
+            }
+
+            @Override
+            protected Map.Entry<Object, EdgeInfo> convert(Map.Entry<Key, Value> col) {
+                String edgeId = col.getKey().getColumnQualifier().toString();
+                EdgeInfo edgeInfo = getValueSerializer().valueToObject(col.getValue());
+                edgeInfo.setColumnVisibility(col.getKey().getColumnVisibility().toString());
+                return new AbstractMap.SimpleImmutableEntry<Object, EdgeInfo>(edgeId, edgeInfo);
+            }
+
+            @Override
+            protected Iterator<Map.Entry<Key, Value>> createIterator() {
+                try {
+                    scanner = connector.createScanner(getVerticesTableName(), toAccumuloAuthorizations(authorizations));
+                } catch (TableNotFoundException e) {
+                    throw new SecureGraphException(e);
+                }
+                scanner.setRange(range);
+                switch (direction) {
+                    case IN:
+                        scanner.fetchColumnFamily(AccumuloVertex.CF_IN_EDGE);
+                        break;
+                    case OUT:
+                        scanner.fetchColumnFamily(AccumuloVertex.CF_OUT_EDGE);
+                        break;
+                    case BOTH:
+                        scanner.fetchColumnFamily(AccumuloVertex.CF_IN_EDGE);
+                        scanner.fetchColumnFamily(AccumuloVertex.CF_OUT_EDGE);
+                        break;
+                    default:
+                        throw new SecureGraphException("Unexpected direction: " + direction);
+                }
+                if (getConfiguration().isUseServerSideEdgeRefFilter()) {
+                    IteratorSetting iteratorSetting = new IteratorSetting(
+                            100,
+                            EdgeRefFilter.class.getSimpleName(),
+                            EdgeRefFilter.class
+                    );
+                    EdgeRefFilter.setDirection(iteratorSetting, direction.name());
+                    EdgeRefFilter.setLabels(iteratorSetting, labels);
+                    EdgeRefFilter.setOtherVertexId(iteratorSetting, otherVertexId);
+                    scanner.addScanIterator(iteratorSetting);
+                }
+                return scanner.iterator();
+            }
+
+            @Override
+            public void close() {
+                super.close();
+                scanner.close();
+            }
+        };
+    }
+
     Scanner createVertexScanner(Authorizations authorizations) throws SecureGraphException {
         return createElementVisibilityScanner(authorizations, ElementType.VERTEX);
     }
@@ -547,19 +966,18 @@ public class AccumuloGraph extends GraphBase {
             if (getConfiguration().isUseServerSideElementVisibilityRowFilter()) {
                 iteratorSetting = new IteratorSetting(
                         100,
-                        ElementVisibilityRowFilter.class.getSimpleName(),
-                        ElementVisibilityRowFilter.class
+                        ElementRowIterator.class.getSimpleName(),
+                        ElementRowIterator.class
                 );
                 String elementMode = getElementModeFromElementType(elementType);
                 iteratorSetting.addOption(elementMode, Boolean.TRUE.toString());
-                scanner.addScanIterator(iteratorSetting);
+            } else {
+                iteratorSetting = new IteratorSetting(
+                        101,
+                        WholeRowIterator.class.getSimpleName(),
+                        WholeRowIterator.class
+                );
             }
-
-            iteratorSetting = new IteratorSetting(
-                    101,
-                    WholeRowIterator.class.getSimpleName(),
-                    WholeRowIterator.class
-            );
             scanner.addScanIterator(iteratorSetting);
 
             return scanner;
@@ -568,6 +986,17 @@ public class AccumuloGraph extends GraphBase {
         }
     }
 
+    private Iterator<Map.Entry<Key, Value>> decodeRow(Map.Entry<Key, Value> wholeRow) {
+        if (getConfiguration().isUseServerSideElementVisibilityRowFilter()) {
+            return ElementRowDecoder.decodeRow(wholeRow.getKey(), wholeRow.getValue());
+        }
+        try {
+            return WholeRowIterator.decodeRow(wholeRow.getKey(), wholeRow.getValue()).entrySet().iterator();
+        } catch (IOException ex) {
+            throw new SecureGraphException("Could not recreate row", ex);
+        }
+    }
+
     private String getTableNameFromElementType(ElementType elementType) {
         String tableName;
         switch (elementType) {
@@ -607,15 +1036,68 @@ public class AccumuloGraph extends GraphBase {
 
     @Override
     public Edge getEdge(Object edgeId, Authorizations authorizations) {
-        Iterator<Edge> edges = getEdgesInRange(edgeId, edgeId, authorizations).iterator();
+        return getEdge(edgeId, FetchHint.ALL, authorizations);
+    }
+
+    @Override
+    public Edge getEdge(Object edgeId, Set<FetchHint> fetchHints, Authorizations authorizations) {
+        if (elementCache != null) {
+            List<Map.Entry<Key, Value>> row = getCachedRow(AccumuloConstants.EDGE_ROW_KEY_PREFIX + edgeId, ElementType.EDGE, fetchHints, authorizations);
+            return new EdgeMaker(this, row.iterator(), fetchHints, null).make();
+        }
+        Iterator<Edge> edges = getEdgesInRange(new Range(AccumuloConstants.EDGE_ROW_KEY_PREFIX + edgeId), fetchHints, authorizations).iterator();
         if (edges.hasNext()) {
             return edges.next();
         }
         return null;
     }
 
+    private List<Map.Entry<Key, Value>> getCachedRow(String rowKey, ElementType elementType, Set<FetchHint> fetchHints, Authorizations authorizations) {
+        List<Map.Entry<Key, Value>> row = elementCache.get(rowKey, fetchHints, authorizations);
+        if (row != null) {
+            return row;
+        }
+
+        long cacheGeneration = elementCache.getGeneration();
+        row = new ArrayList<Map.Entry<Key, Value>>();
+        Scanner scanner = createElementVisibilityScanner(authorizations, elementType);
+        try {
+            scanner.setRange(new Range(rowKey));
+            if (elementType == ElementType.VERTEX) {
+                fetchVertexColumnFamilies(scanner, fetchHints, false);
+            } else {
+                fetchEdgeColumnFamilies(scanner, fetchHints);
+            }
+            for (Map.Entry<Key, Value> cell : scanner) {
+                row.add(cell);
+            }
+        } finally {
+            scanner.close();
+        }
+        elementCache.put(cacheGeneration, rowKey, fetchHints, authorizations, row);
+        return row;
+    }
+
     @Override
-    public ClosableIterable<Edge> getEdges(Iterable<Object> ids, final Authorizations authorizations) {
+    public ClosableIterable<Edge> getEdges(Iterable<Object> ids, Authorizations authorizations) {
+        return getEdges(ids, FetchHint.ALL, authorizations);
+    }
+
+    @Override
+    public ClosableIterable<Edge> getEdges(Iterable<Object> ids, Set<FetchHint> fetchHints, Authorizations authorizations) {
+        return getEdges(ids, fetchHints, null, authorizations);
+    }
+
+    /**
+     * Gets all edges matching the given ids, reading only the named properties and their metadata.
+     * See {@link #getVertices(Iterable, String[], org.securegraph.Authorizations)}.
+     */
+    @Override
+    public ClosableIterable<Edge> getEdges(Iterable<Object> ids, String[] propertyNames, Authorizations authorizations) {
+        return getEdges(ids, FetchHint.PROPERTIES_AND_METADATA, toPropertyNameSet(propertyNames), authorizations);
+    }
+
+    private ClosableIterable<Edge> getEdges(Iterable<Object> ids, final Set<FetchHint> fetchHints, final Set<String> propertyNames, final Authorizations authorizations) {
         final AccumuloGraph graph = this;
 
         final List<Range> ranges = new ArrayList<Range>();
@@ -627,44 +1109,29 @@ public class AccumuloGraph extends GraphBase {
             return new EmptyClosableIterable<Edge>();
         }
 
-        return new LookAheadIterable<Map.Entry<Key, Value>, Edge>() {
-            public BatchScanner batchScanner;
-
-            @Override
-            protected boolean isIncluded(Map.Entry<Key, Value> src, Edge dest) {
-                return dest != null;
-            }
-
+        return new BatchScannerIterable<Edge>() {
             @Override
             protected Edge convert(Map.Entry<Key, Value> wholeRow) {
-                try {
-                    SortedMap<Key, Value> row = WholeRowIterator.decodeRow(wholeRow.getKey(), wholeRow.getValue());
-                    EdgeMaker maker = new EdgeMaker(graph, row.entrySet().iterator());
-                    return maker.make();
-                } catch (IOException ex) {
-                    throw new SecureGraphException("Could not recreate row", ex);
-                }
-            }
-
-            @Override
-            protected Iterator<Map.Entry<Key, Value>> createIterator() {
-                batchScanner = createEdgeBatchScanner(authorizations, Math.min(Math.max(1, ranges.size() / 10), 10));
-                batchScanner.setRanges(ranges);
-                batchScanner.clearColumns();
-                return batchScanner.iterator();
+                EdgeMaker maker = new EdgeMaker(graph, decodeRow(wholeRow), fetchHints, propertyNames);
+                return maker.make();
             }
 
             @Override
-            public void close() {
-                super.close();
-                batchScanner.close();
+            protected BatchScannerIterator createBatchScannerIterator() {
+                return new BatchScannerIterator(batchScannerThreadBudget, getEdgesTableName(), ranges, getMultiGetChunkSize()) {
+                    @Override
+                    protected BatchScanner createBatchScanner(int queryThreads) {
+                        BatchScanner batchScanner = createEdgeBatchScanner(authorizations, queryThreads);
+                        fetchEdgeColumnFamilies(batchScanner, fetchHints);
+                        fetchPropertyNames(batchScanner, propertyNames);
+                        return batchScanner;
+                    }
+                };
             }
         };
     }
 
-    private ClosableIterable<Edge> getEdgesInRange(Object startId, Object endId, final Authorizations authorizations) throws SecureGraphException {
-        final AccumuloGraph graph = this;
-
+    private ClosableIterable<Edge> getEdgesInRange(Object startId, Object endId, Set<FetchHint> fetchHints, final Authorizations authorizations) throws SecureGraphException {
         final Key startKey;
         if (startId == null) {
             startKey = new Key(AccumuloConstants.EDGE_ROW_KEY_PREFIX);
@@ -679,6 +1146,12 @@ public class AccumuloGraph extends GraphBase {
             endKey = new Key(AccumuloConstants.EDGE_ROW_KEY_PREFIX + endId + "~");
         }
 
+        return getEdgesInRange(new Range(startKey, endKey), fetchHints, authorizations);
+    }
+
+    private ClosableIterable<Edge> getEdgesInRange(final Range range, final Set<FetchHint> fetchHints, final Authorizations authorizations) throws SecureGraphException {
+        final AccumuloGraph graph = this;
+
         return new LookAheadIterable<Iterator<Map.Entry<Key, Value>>, Edge>() {
             public Scanner scanner;
 
@@ -689,15 +1162,15 @@ public class AccumuloGraph extends GraphBase {
 
             @Override
             protected Edge convert(Iterator<Map.Entry<Key, Value>> next) {
-                EdgeMaker maker = new EdgeMaker(graph, next);
+                EdgeMaker maker = new EdgeMaker(graph, next, fetchHints, null);
                 return maker.make();
             }
 
             @Override
             protected Iterator<Iterator<Map.Entry<Key, Value>>> createIterator() {
                 scanner = createEdgeScanner(authorizations);
-                scanner.setRange(new Range(startKey, endKey));
-                scanner.clearColumns();
+                scanner.setRange(range);
+                fetchEdgeColumnFamilies(scanner, fetchHints);
                 return new RowIterator(scanner.iterator());
             }
 
@@ -802,6 +1275,14 @@ public class AccumuloGraph extends GraphBase {
         return connector;
     }
 
+    BatchScannerThreadBudget getBatchScannerThreadBudget() {
+        return batchScannerThreadBudget;
+    }
+
+    ElementMutationBuilder getElementMutationBuilder() {
+        return elementMutationBuilder;
+    }
+
     void alterElementVisibility(AccumuloElement element, Visibility newVisibility) {
         BatchWriter elementWriter = getWriterFromElementType(element);
         String rowPrefix = getRowPrefixForElement(element);
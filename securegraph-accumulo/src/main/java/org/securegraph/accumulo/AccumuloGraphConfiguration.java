@@ -1,5 +1,6 @@
 package org.securegraph.accumulo;
 
+import org.securegraph.GraphBase;
 import org.securegraph.GraphConfiguration;
 import org.securegraph.SecureGraphException;
 import org.securegraph.accumulo.serializer.JavaValueSerializer;
@@ -8,6 +9,7 @@ import org.securegraph.util.ConfigurationUtils;
 import org.securegraph.util.MapUtils;
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.BatchWriterConfig;
 import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.ZooKeeperInstance;
 import org.apache.accumulo.core.client.security.tokens.AuthenticationToken;
@@ -22,6 +24,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class AccumuloGraphConfiguration extends GraphConfiguration {
     private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloGraphConfiguration.class);
@@ -39,6 +42,18 @@ public class AccumuloGraphConfiguration extends GraphConfiguration {
     public static final String HDFS_ROOT_DIR = HDFS_CONFIG_PREFIX + ".rootDir";
     public static final String DATA_DIR = HDFS_CONFIG_PREFIX + ".dataDir";
     public static final String USE_SERVER_SIDE_ELEMENT_VISIBILITY_ROW_FILTER = "useServerSideElementVisibilityRowFilter";
+    public static final String USE_SERVER_SIDE_EDGE_REF_FILTER = "useServerSideEdgeRefFilter";
+    public static final String USE_SERVER_SIDE_PROPERTY_NAME_FILTER = "useServerSidePropertyNameFilter";
+    public static final String BATCH_WRITER_MAX_MEMORY = "batchWriter.maxMemory";
+    public static final String BATCH_WRITER_MAX_LATENCY = "batchWriter.maxLatency";
+    public static final String BATCH_WRITER_MAX_WRITE_THREADS = "batchWriter.maxWriteThreads";
+    public static final String BATCH_WRITER_BACK_PRESSURE_WARN_THRESHOLD = "batchWriter.backPressureWarnThreshold";
+    public static final String BULK_LOAD_BATCH_SIZE = "bulkLoad.batchSize";
+    public static final String ELEMENT_CACHE_MAX_SIZE = "elementCache.maxSize";
+    public static final String ELEMENT_CACHE_MAX_WEIGHT = "elementCache.maxWeight";
+    public static final String BATCH_SCANNER_MAX_THREADS = "batchScanner.maxThreads";
+    public static final String BATCH_SCANNER_THREAD_BUDGET = "batchScanner.threadBudget";
+    public static final String MULTI_GET_CHUNK_SIZE = "multiGet.chunkSize";
 
     public static final String DEFAULT_ACCUMULO_PASSWORD = "password";
     public static final String DEFAULT_VALUE_SERIALIZER = JavaValueSerializer.class.getName();
@@ -51,6 +66,17 @@ public class AccumuloGraphConfiguration extends GraphConfiguration {
     public static final String DEFAULT_HDFS_ROOT_DIR = "";
     public static final String DEFAULT_DATA_DIR = "/accumuloGraph";
     public static final boolean DEFAULT_USE_SERVER_SIDE_ELEMENT_VISIBILITY_ROW_FILTER = true;
+    public static final boolean DEFAULT_USE_SERVER_SIDE_EDGE_REF_FILTER = true;
+    public static final boolean DEFAULT_USE_SERVER_SIDE_PROPERTY_NAME_FILTER = true;
+    public static final long DEFAULT_BATCH_WRITER_MAX_MEMORY = 50 * 1024 * 1024;
+    public static final long DEFAULT_BATCH_WRITER_MAX_LATENCY = 2 * 60 * 1000;
+    public static final int DEFAULT_BATCH_WRITER_MAX_WRITE_THREADS = 3;
+    public static final long DEFAULT_BATCH_WRITER_BACK_PRESSURE_WARN_THRESHOLD = 1000;
+    public static final int DEFAULT_BULK_LOAD_BATCH_SIZE = 10000;
+    public static final int DEFAULT_ELEMENT_CACHE_MAX_SIZE = 0;
+    public static final long DEFAULT_ELEMENT_CACHE_MAX_WEIGHT = 64 * 1024 * 1024;
+    public static final int DEFAULT_BATCH_SCANNER_MAX_THREADS = 10;
+    public static final int DEFAULT_BATCH_SCANNER_THREAD_BUDGET = 100;
 
     public AccumuloGraphConfiguration(Map config) {
         super(config);
@@ -139,4 +165,74 @@ public class AccumuloGraphConfiguration extends GraphConfiguration {
     public boolean isUseServerSideElementVisibilityRowFilter() {
         return getConfigBoolean(USE_SERVER_SIDE_ELEMENT_VISIBILITY_ROW_FILTER, DEFAULT_USE_SERVER_SIDE_ELEMENT_VISIBILITY_ROW_FILTER);
     }
+
+    public boolean isUseServerSideEdgeRefFilter() {
+        return getConfigBoolean(USE_SERVER_SIDE_EDGE_REF_FILTER, DEFAULT_USE_SERVER_SIDE_EDGE_REF_FILTER);
+    }
+
+    public boolean isUseServerSidePropertyNameFilter() {
+        return getConfigBoolean(USE_SERVER_SIDE_PROPERTY_NAME_FILTER, DEFAULT_USE_SERVER_SIDE_PROPERTY_NAME_FILTER);
+    }
+
+    /**
+     * The configuration of the batch writer shared by all threads writing to the graph. maxMemory is in bytes
+     * and maxLatency in milliseconds.
+     */
+    public BatchWriterConfig createBatchWriterConfig() {
+        return new BatchWriterConfig()
+                .setMaxMemory(getConfigLong(BATCH_WRITER_MAX_MEMORY, DEFAULT_BATCH_WRITER_MAX_MEMORY))
+                .setMaxLatency(getConfigLong(BATCH_WRITER_MAX_LATENCY, DEFAULT_BATCH_WRITER_MAX_LATENCY), TimeUnit.MILLISECONDS)
+                .setMaxWriteThreads((int) getConfigLong(BATCH_WRITER_MAX_WRITE_THREADS, DEFAULT_BATCH_WRITER_MAX_WRITE_THREADS));
+    }
+
+    /**
+     * A warning is logged when adding the mutations of a write to the batch writer takes longer than this many
+     * milliseconds, which happens when the batch writer's memory is full and the tablet servers are not keeping up.
+     */
+    public long getBatchWriterBackPressureWarnThreshold() {
+        return getConfigLong(BATCH_WRITER_BACK_PRESSURE_WARN_THRESHOLD, DEFAULT_BATCH_WRITER_BACK_PRESSURE_WARN_THRESHOLD);
+    }
+
+    /**
+     * The number of elements a bulk load buffers before writing them to the graph and the search index.
+     */
+    public int getBulkLoadBatchSize() {
+        return (int) getConfigLong(BULK_LOAD_BATCH_SIZE, DEFAULT_BULK_LOAD_BATCH_SIZE);
+    }
+
+    /**
+     * The number of rows kept by the cache of the vertices and edges read by id. 0 disables the cache.
+     */
+    public int getElementCacheMaxSize() {
+        return (int) getConfigLong(ELEMENT_CACHE_MAX_SIZE, DEFAULT_ELEMENT_CACHE_MAX_SIZE);
+    }
+
+    /**
+     * The approximate number of bytes of cells kept by the cache of the vertices and edges read by id.
+     */
+    public long getElementCacheMaxWeight() {
+        return getConfigLong(ELEMENT_CACHE_MAX_WEIGHT, DEFAULT_ELEMENT_CACHE_MAX_WEIGHT);
+    }
+
+    /**
+     * The most query threads a batch scanner reading elements by id uses, one per tablet its ids fall in.
+     */
+    public int getBatchScannerMaxThreads() {
+        return (int) getConfigLong(BATCH_SCANNER_MAX_THREADS, DEFAULT_BATCH_SCANNER_MAX_THREADS);
+    }
+
+    /**
+     * The query threads shared by all the batch scanners reading elements by id at the same time.
+     */
+    public int getBatchScannerThreadBudget() {
+        return (int) getConfigLong(BATCH_SCANNER_THREAD_BUDGET, DEFAULT_BATCH_SCANNER_THREAD_BUDGET);
+    }
+
+    /**
+     * The number of ids read at a time when getting vertices in the order of their ids, and the number of ids a
+     * batch scanner reading elements by id reads into memory before its threads are returned to the budget.
+     */
+    public int getMultiGetChunkSize() {
+        return (int) getConfigLong(MULTI_GET_CHUNK_SIZE, GraphBase.DEFAULT_MULTI_GET_CHUNK_SIZE);
+    }
 }
@@ -11,20 +11,22 @@ import org.apache.hadoop.io.Text;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 public class AccumuloVertex extends AccumuloElement<Vertex> implements Vertex {
     public static final Text CF_SIGNAL = new Text("V");
     public static final Text CF_OUT_EDGE = new Text("EOUT");
     public static final Text CF_IN_EDGE = new Text("EIN");
+    // null when the edges were not loaded with the vertex, see AccumuloGraph#getVertexWithLazyEdges
     private final Map<Object, EdgeInfo> inEdges;
     private final Map<Object, EdgeInfo> outEdges;
 
     public AccumuloVertex(AccumuloGraph graph, Object vertexId, Visibility vertexVisibility, Iterable<Property> properties) {
-        this(graph, vertexId, vertexVisibility, properties, new HashMap<Object, EdgeInfo>(), new HashMap<Object, EdgeInfo>());
+        this(graph, vertexId, vertexVisibility, properties, new HashMap<Object, EdgeInfo>(), new HashMap<Object, EdgeInfo>(), FetchHint.ALL, null);
     }
 
-    AccumuloVertex(AccumuloGraph graph, Object vertexId, Visibility vertexVisibility, Iterable<Property> properties, Map<Object, EdgeInfo> inEdges, Map<Object, EdgeInfo> outEdges) {
-        super(graph, vertexId, vertexVisibility, properties);
+    AccumuloVertex(AccumuloGraph graph, Object vertexId, Visibility vertexVisibility, Iterable<Property> properties, Map<Object, EdgeInfo> inEdges, Map<Object, EdgeInfo> outEdges, Set<FetchHint> fetchHints, Set<String> fetchedPropertyNames) {
+        super(graph, vertexId, vertexVisibility, properties, fetchHints, fetchedPropertyNames);
         this.inEdges = inEdges;
         this.outEdges = outEdges;
     }
@@ -90,6 +92,8 @@ public class AccumuloVertex extends AccumuloElement<Vertex> implements Vertex {
     }
 
     public Iterable<Object> getEdgeIdsWithOtherVertexId(final Object otherVertexId, final Direction direction, final String[] labels, final Authorizations authorizations) {
+        // fail when the edges are requested instead of when they are iterated
+        ensureEdgeRefsFetched(direction);
         return new LookAheadIterable<Map.Entry<Object, EdgeInfo>, Object>() {
             @Override
             protected boolean isIncluded(Map.Entry<Object, EdgeInfo> edgeInfo, Object edgeId) {
@@ -117,12 +121,16 @@ public class AccumuloVertex extends AccumuloElement<Vertex> implements Vertex {
 
             @Override
             protected Iterator<Map.Entry<Object, EdgeInfo>> createIterator() {
-                return getEdgeInfos(direction, authorizations).iterator();
+                return getEdgeInfos(direction, labels, otherVertexId, authorizations).iterator();
             }
         };
     }
 
-    private Iterable<Map.Entry<Object, EdgeInfo>> getEdgeInfos(Direction direction, Authorizations authorizations) {
+    Iterable<Map.Entry<Object, EdgeInfo>> getEdgeInfos(Direction direction, String[] labels, Object otherVertexId, Authorizations authorizations) {
+        ensureEdgeRefsFetched(direction);
+        if (isLazyEdges()) {
+            return getGraph().getEdgeInfos(getId(), direction, labels, otherVertexId, authorizations);
+        }
         switch (direction) {
             case IN:
                 return this.inEdges.entrySet();
@@ -135,6 +143,15 @@ public class AccumuloVertex extends AccumuloElement<Vertex> implements Vertex {
         }
     }
 
+    private void ensureEdgeRefsFetched(Direction direction) {
+        if (direction == Direction.IN || direction == Direction.BOTH) {
+            ensureFetched(FetchHint.IN_EDGE_REFS);
+        }
+        if (direction == Direction.OUT || direction == Direction.BOTH) {
+            ensureFetched(FetchHint.OUT_EDGE_REFS);
+        }
+    }
+
     @Override
     public Iterable<Vertex> getVertices(Direction direction, final Authorizations authorizations) {
         return getGraph().getVertices(getVertexIds(direction, authorizations), authorizations);
@@ -166,9 +183,8 @@ public class AccumuloVertex extends AccumuloElement<Vertex> implements Vertex {
             case BOTH:
                 return new JoinIterable<Object>(getVertexIds(Direction.IN, labels, authorizations), getVertexIds(Direction.OUT, labels, authorizations));
             case IN:
-                return new GetVertexIdsIterable(this.inEdges.values(), labels);
             case OUT:
-                return new GetVertexIdsIterable(this.outEdges.values(), labels);
+                return new GetVertexIdsIterable(getEdgeInfos(direction, labels, null, authorizations), labels);
             default:
                 throw new SecureGraphException("Unexpected direction: " + direction);
         }
@@ -184,20 +200,32 @@ public class AccumuloVertex extends AccumuloElement<Vertex> implements Vertex {
         return getGraph().getSearchIndex().queryVertex(getGraph(), this, queryString, authorizations);
     }
 
-    void addOutEdge(Edge edge) {
-        this.outEdges.put(edge.getId(), new EdgeInfo(edge.getLabel(), edge.getVertexId(Direction.IN)));
+    /**
+     * true, if the edges of this vertex were not loaded with the vertex and are instead scanned from the
+     * vertex row each time they are requested.
+     */
+    public boolean isLazyEdges() {
+        return this.inEdges == null || this.outEdges == null;
     }
 
-    void removeOutEdge(Edge edge) {
-        this.outEdges.remove(edge.getId());
+    void addOutEdge(Edge edge) {
+        if (isLazyEdges()) {
+            return;
+        }
+        this.outEdges.put(edge.getId(), createEdgeInfo(edge, Direction.IN));
     }
 
     void addInEdge(Edge edge) {
-        this.inEdges.put(edge.getId(), new EdgeInfo(edge.getLabel(), edge.getVertexId(Direction.OUT)));
+        if (isLazyEdges()) {
+            return;
+        }
+        this.inEdges.put(edge.getId(), createEdgeInfo(edge, Direction.OUT));
     }
 
-    void removeInEdge(Edge edge) {
-        this.inEdges.remove(edge.getId());
+    private static EdgeInfo createEdgeInfo(Edge edge, Direction otherVertexDirection) {
+        EdgeInfo edgeInfo = new EdgeInfo(edge.getLabel(), edge.getVertexId(otherVertexDirection));
+        edgeInfo.setColumnVisibility(edge.getVisibility().getVisibilityString());
+        return edgeInfo;
     }
 
     @Override
@@ -0,0 +1,51 @@
+package org.securegraph.accumulo;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.securegraph.util.LookAheadIterable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads elements with a {@link BatchScannerIterator} per iterator. The iterators hold no scanner threads between
+ * chunks, {@link #close()} stops the iterators that were not read to the end and drops their buffered rows.
+ */
+abstract class BatchScannerIterable<T> extends LookAheadIterable<Map.Entry<Key, Value>, T> {
+    private final List<BatchScannerIterator> iterators = new ArrayList<BatchScannerIterator>();
+
+    protected abstract BatchScannerIterator createBatchScannerIterator();
+
+    @Override
+    protected boolean isIncluded(Map.Entry<Key, Value> src, T dest) {
+        return dest != null;
+    }
+
+    @Override
+    protected Iterator<Map.Entry<Key, Value>> createIterator() {
+        BatchScannerIterator it = createBatchScannerIterator();
+        synchronized (iterators) {
+            Iterator<BatchScannerIterator> openIterators = iterators.iterator();
+            while (openIterators.hasNext()) {
+                if (openIterators.next().isClosed()) {
+                    openIterators.remove();
+                }
+            }
+            iterators.add(it);
+        }
+        return it;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        synchronized (iterators) {
+            for (BatchScannerIterator it : iterators) {
+                it.close();
+            }
+            iterators.clear();
+        }
+    }
+}
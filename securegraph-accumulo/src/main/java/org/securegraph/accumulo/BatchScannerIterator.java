@@ -0,0 +1,98 @@
+package org.securegraph.accumulo;
+
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+
+import java.util.*;
+
+/**
+ * Reads the rows of the ranges a chunk of ranges at a time. Each chunk is read into memory by a batch scanner
+ * created with threads taken from the {@link BatchScannerThreadBudget}, the scanner is closed and its threads
+ * returned before the rows of the chunk are returned. An iterator that is not read to the end or not closed
+ * holds no threads.
+ */
+abstract class BatchScannerIterator implements Iterator<Map.Entry<Key, Value>> {
+    private final BatchScannerThreadBudget budget;
+    private final String tableName;
+    private final List<Range> ranges;
+    private final int chunkSize;
+    private int nextRange;
+    private Iterator<Map.Entry<Key, Value>> chunk = Collections.<Map.Entry<Key, Value>>emptyList().iterator();
+    private boolean closed;
+
+    public BatchScannerIterator(BatchScannerThreadBudget budget, String tableName, List<Range> ranges, int chunkSize) {
+        this.budget = budget;
+        this.tableName = tableName;
+        // a scanner merges the ranges of the same id, the chunks would not
+        this.ranges = new ArrayList<Range>(new LinkedHashSet<Range>(ranges));
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Creates the scanner reading a chunk, the ranges are set by the iterator.
+     */
+    protected abstract BatchScanner createBatchScanner(int queryThreads);
+
+    @Override
+    public boolean hasNext() {
+        while (!isClosed()) {
+            if (chunk.hasNext()) {
+                return true;
+            }
+            if (nextRange >= ranges.size()) {
+                close();
+                return false;
+            }
+            chunk = readChunk();
+        }
+        return false;
+    }
+
+    @Override
+    public Map.Entry<Key, Value> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunk.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private Iterator<Map.Entry<Key, Value>> readChunk() {
+        List<Range> chunkRanges = new ArrayList<Range>(ranges.subList(nextRange, Math.min(nextRange + chunkSize, ranges.size())));
+        nextRange += chunkRanges.size();
+        BatchScannerThreadBudget.Lease lease = budget.acquire(tableName, chunkRanges);
+        try {
+            BatchScanner batchScanner = createBatchScanner(lease.getQueryThreads());
+            try {
+                batchScanner.setRanges(chunkRanges);
+                List<Map.Entry<Key, Value>> rows = new ArrayList<Map.Entry<Key, Value>>();
+                for (Map.Entry<Key, Value> row : batchScanner) {
+                    rows.add(row);
+                }
+                return rows.iterator();
+            } finally {
+                batchScanner.close();
+            }
+        } finally {
+            lease.release();
+        }
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops the iterator and drops the rows of the chunk being read.
+     */
+    public synchronized void close() {
+        closed = true;
+        chunk = Collections.<Map.Entry<Key, Value>>emptyList().iterator();
+    }
+}
@@ -0,0 +1,135 @@
+package org.securegraph.accumulo;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.data.Range;
+import org.apache.hadoop.io.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sizes the query threads of the batch scanners reading elements by id. A scanner gets a thread for each
+ * tablet its ranges fall in, up to {@link AccumuloGraphConfiguration#getBatchScannerMaxThreads()}, taken from
+ * the threads left of {@link AccumuloGraphConfiguration#getBatchScannerThreadBudget()} shared by all the scanners
+ * of the graph. A scanner always gets at least one thread, even when the budget is used up.
+ */
+public class BatchScannerThreadBudget {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchScannerThreadBudget.class);
+    // the split points only change when tablets split or merge, a stale list only affects the number of threads
+    private static final long SPLITS_REFRESH_INTERVAL = 5 * 60 * 1000;
+
+    private final Connector connector;
+    private final int maxThreads;
+    private final Semaphore budget;
+    private final Map<String, TableSplits> splitsByTable = new ConcurrentHashMap<String, TableSplits>();
+
+    public BatchScannerThreadBudget(Connector connector, int maxThreads, int threadBudget) {
+        this.connector = connector;
+        this.maxThreads = Math.max(1, maxThreads);
+        this.budget = new Semaphore(Math.max(1, threadBudget));
+    }
+
+    /**
+     * Takes the threads for a scanner from the budget, they must be returned with {@link Lease#release()} when the
+     * scanner is closed.
+     *
+     * @return The threads taken from the budget, none if the budget is used up.
+     */
+    public Lease acquire(String tableName, Collection<Range> ranges) {
+        int threads = Math.min(countTablets(tableName, ranges), maxThreads);
+        while (threads > 0) {
+            if (budget.tryAcquire(threads)) {
+                return new Lease(threads);
+            }
+            threads = Math.min(threads / 2, budget.availablePermits());
+        }
+        return new Lease(0);
+    }
+
+    int getAvailableThreads() {
+        return budget.availablePermits();
+    }
+
+    int countTablets(String tableName, Collection<Range> ranges) {
+        List<Text> splits = getSplits(tableName);
+        if (splits.size() == 0) {
+            return 1;
+        }
+        Set<Integer> tablets = new HashSet<Integer>();
+        for (Range range : ranges) {
+            if (range.isInfiniteStartKey()) {
+                tablets.add(0);
+                continue;
+            }
+            int index = Collections.binarySearch(splits, range.getStartKey().getRow());
+            // a tablet includes its end row, which is the split point
+            tablets.add(index >= 0 ? index : -index - 1);
+            if (tablets.size() >= maxThreads) {
+                break;
+            }
+        }
+        return tablets.size();
+    }
+
+    /**
+     * The sorted split points of the table, refreshed at most every few minutes.
+     */
+    List<Text> getSplits(String tableName) {
+        TableSplits tableSplits = splitsByTable.get(tableName);
+        long now = System.currentTimeMillis();
+        if (tableSplits == null || now - tableSplits.loadTime > SPLITS_REFRESH_INTERVAL) {
+            List<Text> splits;
+            try {
+                splits = new ArrayList<Text>(connector.tableOperations().listSplits(tableName));
+                Collections.sort(splits);
+            } catch (Exception ex) {
+                LOGGER.warn("Could not list the splits of table " + tableName, ex);
+                splits = tableSplits == null ? new ArrayList<Text>() : tableSplits.splits;
+            }
+            tableSplits = new TableSplits(splits, now);
+            splitsByTable.put(tableName, tableSplits);
+        }
+        return tableSplits.splits;
+    }
+
+    /**
+     * The threads taken from the budget for a single scanner.
+     */
+    public class Lease {
+        private int acquiredThreads;
+
+        private Lease(int acquiredThreads) {
+            this.acquiredThreads = acquiredThreads;
+        }
+
+        /**
+         * The number of threads to create the scanner with, at least one even if none were taken from the budget.
+         */
+        public int getQueryThreads() {
+            return Math.max(1, acquiredThreads);
+        }
+
+        /**
+         * Returns the threads to the budget, calling it again has no effect.
+         */
+        public synchronized void release() {
+            if (acquiredThreads > 0) {
+                budget.release(acquiredThreads);
+                acquiredThreads = 0;
+            }
+        }
+    }
+
+    private static class TableSplits {
+        private final List<Text> splits;
+        private final long loadTime;
+
+        private TableSplits(List<Text> splits, long loadTime) {
+            this.splits = splits;
+            this.loadTime = loadTime;
+        }
+    }
+}
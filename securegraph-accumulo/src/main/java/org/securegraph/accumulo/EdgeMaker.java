@@ -1,6 +1,7 @@
 package org.securegraph.accumulo;
 
 import org.securegraph.Edge;
+import org.securegraph.FetchHint;
 import org.securegraph.SecureGraphException;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
@@ -8,36 +9,37 @@ import org.apache.hadoop.io.Text;
 
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 public class EdgeMaker extends ElementMaker<Edge> {
-    private static final String VISIBILITY_SIGNAL = AccumuloEdge.CF_SIGNAL.toString();
     private final AccumuloGraph graph;
     private String inVertexId;
     private String outVertexId;
     private String label;
 
     public EdgeMaker(AccumuloGraph graph, Iterator<Map.Entry<Key, Value>> row) {
-        super(graph, row);
+        this(graph, row, FetchHint.ALL, null);
+    }
+
+    public EdgeMaker(AccumuloGraph graph, Iterator<Map.Entry<Key, Value>> row, Set<FetchHint> fetchHints, Set<String> includedPropertyNames) {
+        super(graph, row, fetchHints, includedPropertyNames);
         this.graph = graph;
     }
 
     @Override
     protected void processColumn(Key key, Value value) {
-        Text columnFamily = key.getColumnFamily();
-        Text columnQualifier = key.getColumnQualifier();
-
-        if (AccumuloEdge.CF_SIGNAL.compareTo(columnFamily) == 0) {
-            this.label = columnQualifier.toString();
+        if (key.compareColumnFamily(AccumuloEdge.CF_SIGNAL) == 0) {
+            this.label = key.getColumnQualifier().toString();
             return;
         }
 
-        if (AccumuloEdge.CF_IN_VERTEX.compareTo(columnFamily) == 0) {
-            this.inVertexId = columnQualifier.toString();
+        if (key.compareColumnFamily(AccumuloEdge.CF_IN_VERTEX) == 0) {
+            this.inVertexId = key.getColumnQualifier().toString();
             return;
         }
 
-        if (AccumuloEdge.CF_OUT_VERTEX.compareTo(columnFamily) == 0) {
-            this.outVertexId = columnQualifier.toString();
+        if (key.compareColumnFamily(AccumuloEdge.CF_OUT_VERTEX) == 0) {
+            this.outVertexId = key.getColumnQualifier().toString();
         }
     }
 
@@ -50,12 +52,12 @@ public class EdgeMaker extends ElementMaker<Edge> {
     }
 
     @Override
-    protected String getVisibilitySignal() {
-        return VISIBILITY_SIGNAL;
+    protected Text getVisibilitySignal() {
+        return AccumuloEdge.CF_SIGNAL;
     }
 
     @Override
     protected Edge makeElement() {
-        return new AccumuloEdge(this.graph, this.getId(), this.outVertexId, this.inVertexId, this.label, this.getVisibility(), this.getProperties());
+        return new AccumuloEdge(this.graph, this.getId(), this.outVertexId, this.inVertexId, this.label, this.getVisibility(), this.getProperties(), this.getFetchHints(), this.getIncludedPropertyNames());
     }
 }
@@ -1,67 +1,101 @@
 package org.securegraph.accumulo;
 
+import org.securegraph.FetchHint;
 import org.securegraph.Property;
 import org.securegraph.SecureGraphException;
 import org.securegraph.Visibility;
 import org.securegraph.property.MutableProperty;
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.user.RowDeletingIterator;
-import org.apache.accumulo.core.security.ColumnVisibility;
 import org.apache.hadoop.io.Text;
 
+import java.nio.charset.Charset;
 import java.util.*;
 
 public abstract class ElementMaker<T> {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final byte VALUE_SEPARATOR = (byte) ElementMutationBuilder.VALUE_SEPARATOR.charAt(0);
+    static final int MAX_CACHED_STRINGS = 10000;
+
+    // Visibilities and property names repeat from row to row. Each thread keeps the ones it decoded so
+    // elements share a single instance per distinct value instead of decoding them for every column.
+    private static final ThreadLocal<Map<ByteSequence, Visibility>> VISIBILITY_CACHE = new ThreadLocal<Map<ByteSequence, Visibility>>() {
+        @Override
+        protected Map<ByteSequence, Visibility> initialValue() {
+            return new HashMap<ByteSequence, Visibility>();
+        }
+    };
+    private static final ThreadLocal<Map<ByteSequence, String>> PROPERTY_NAME_CACHE = new ThreadLocal<Map<ByteSequence, String>>() {
+        @Override
+        protected Map<ByteSequence, String> initialValue() {
+            return new HashMap<ByteSequence, String>();
+        }
+    };
+
     private final Iterator<Map.Entry<Key, Value>> row;
-    private final Map<String, String> propertyNames = new HashMap<String, String>();
-    private final Map<String, String> propertyColumnQualifier = new HashMap<String, String>();
-    private final Map<String, Object> propertyValues = new HashMap<String, Object>();
-    private final Map<String, Visibility> propertyVisibilities = new HashMap<String, Visibility>();
-    private final Map<String, Map<String, Object>> propertyMetadata = new HashMap<String, Map<String, Object>>();
+    private final Map<PropertyColumnKey, PropertyColumn> propertyColumns = new LinkedHashMap<PropertyColumnKey, PropertyColumn>();
     private final AccumuloGraph graph;
+    private final Set<FetchHint> fetchHints;
+    private final Set<String> includedPropertyNames;
     private String id;
     private Visibility visibility;
 
     public ElementMaker(AccumuloGraph graph, Iterator<Map.Entry<Key, Value>> row) {
+        this(graph, row, FetchHint.ALL, null);
+    }
+
+    /**
+     * @param fetchHints            The fetch hints the row was read with.
+     * @param includedPropertyNames The names of the properties to include, null to include all properties.
+     */
+    public ElementMaker(AccumuloGraph graph, Iterator<Map.Entry<Key, Value>> row, Set<FetchHint> fetchHints, Set<String> includedPropertyNames) {
         this.graph = graph;
         this.row = row;
+        this.fetchHints = fetchHints;
+        this.includedPropertyNames = includedPropertyNames;
     }
 
     public T make() {
         while (row.hasNext()) {
             Map.Entry<Key, Value> col = row.next();
+            Key key = col.getKey();
+            Value value = col.getValue();
 
             if (this.id == null) {
-                this.id = getIdFromRowKey(col.getKey().getRow().toString());
+                this.id = getIdFromRowKey(key.getRow().toString());
             }
 
-            Text columnFamily = col.getKey().getColumnFamily();
-            Text columnQualifier = col.getKey().getColumnQualifier();
-            ColumnVisibility columnVisibility = getGraph().visibilityToAccumuloVisibility(col.getKey().getColumnVisibility().toString());
-            Value value = col.getValue();
-
-            if (columnFamily.equals(AccumuloGraph.DELETE_ROW_COLUMN_FAMILY)
-                    && columnQualifier.equals(AccumuloGraph.DELETE_ROW_COLUMN_QUALIFIER)
+            if (key.compareColumnFamily(AccumuloGraph.DELETE_ROW_COLUMN_FAMILY) == 0
+                    && key.compareColumnQualifier(AccumuloGraph.DELETE_ROW_COLUMN_QUALIFIER) == 0
                     && value.equals(RowDeletingIterator.DELETE_ROW_VALUE)) {
                 return null;
             }
 
-            if (AccumuloElement.CF_PROPERTY.compareTo(columnFamily) == 0) {
-                extractPropertyData(columnQualifier, columnVisibility, value);
+            if (key.compareColumnFamily(AccumuloElement.CF_PROPERTY) == 0) {
+                PropertyColumn propertyColumn = getPropertyColumn(key);
+                if (propertyColumn != null) {
+                    propertyColumn.value = valueToObject(value);
+                    propertyColumn.hasValue = true;
+                }
                 continue;
             }
 
-            if (AccumuloElement.CF_PROPERTY_METADATA.compareTo(columnFamily) == 0) {
-                extractPropertyMetadata(columnQualifier, columnVisibility, value);
+            if (key.compareColumnFamily(AccumuloElement.CF_PROPERTY_METADATA) == 0) {
+                PropertyColumn propertyColumn = getPropertyColumn(key);
+                if (propertyColumn != null) {
+                    propertyColumn.metadata = valueToMetadata(value);
+                }
                 continue;
             }
 
-            if (getVisibilitySignal().equals(columnFamily.toString())) {
-                this.visibility = accumuloVisibilityToVisibility(columnVisibility);
+            if (key.compareColumnFamily(getVisibilitySignal()) == 0) {
+                this.visibility = toVisibility(key.getColumnVisibilityData());
             }
 
-            processColumn(col.getKey(), col.getValue());
+            processColumn(key, value);
         }
 
         // If the org.securegraph.accumulo.iterator.ElementVisibilityRowFilter isn't installed this will catch stray rows
@@ -76,7 +110,7 @@ public abstract class ElementMaker<T> {
 
     protected abstract String getIdFromRowKey(String rowKey);
 
-    protected abstract String getVisibilitySignal();
+    protected abstract Text getVisibilitySignal();
 
     protected abstract T makeElement();
 
@@ -88,78 +122,119 @@ public abstract class ElementMaker<T> {
         return this.visibility;
     }
 
+    protected Set<FetchHint> getFetchHints() {
+        return this.fetchHints;
+    }
+
+    protected Set<String> getIncludedPropertyNames() {
+        return this.includedPropertyNames;
+    }
+
     public AccumuloGraph getGraph() {
         return graph;
     }
 
     protected List<Property> getProperties() {
-        List<Property> results = new ArrayList<Property>(propertyValues.size());
-        for (Map.Entry<String, Object> propertyValueEntry : propertyValues.entrySet()) {
-            String key = propertyValueEntry.getKey();
-            String propertyId = getPropertyIdFromColumnQualifier(propertyColumnQualifier.get(key));
-            String propertyName = propertyNames.get(key);
-            Object propertyValue = propertyValueEntry.getValue();
-            Visibility visibility = propertyVisibilities.get(key);
-            Map<String, Object> metadata = propertyMetadata.get(key);
-            results.add(new MutableProperty(propertyId, propertyName, propertyValue, metadata, visibility));
+        boolean includeMetadata = fetchHints.contains(FetchHint.PROPERTY_METADATA);
+        List<Property> results = new ArrayList<Property>(propertyColumns.size());
+        for (PropertyColumn propertyColumn : propertyColumns.values()) {
+            if (!propertyColumn.hasValue) {
+                continue;
+            }
+            if (!includeMetadata) {
+                results.add(new PropertyWithoutMetadata(propertyColumn.key, propertyColumn.name, propertyColumn.value, propertyColumn.visibility));
+                continue;
+            }
+            results.add(new MutableProperty(propertyColumn.key, propertyColumn.name, propertyColumn.value, propertyColumn.metadata, propertyColumn.visibility));
         }
         return results;
     }
 
-    private void extractPropertyMetadata(Text columnQualifier, ColumnVisibility columnVisibility, Value value) {
-        Object o;
+    /**
+     * Finds or creates the property the given PROP or PROPMETA column belongs to. Returns null if the
+     * property is not included.
+     */
+    private PropertyColumn getPropertyColumn(Key key) {
+        ByteSequence columnQualifier = key.getColumnQualifierData();
+        ByteSequence columnVisibility = key.getColumnVisibilityData();
+        PropertyColumnKey propertyColumnKey = new PropertyColumnKey(columnQualifier, columnVisibility);
+        PropertyColumn propertyColumn = propertyColumns.get(propertyColumnKey);
+        if (propertyColumn != null) {
+            return propertyColumn;
+        }
+
+        int separatorIndex = indexOfValueSeparator(columnQualifier);
+        String propertyName = toPropertyName(columnQualifier.subSequence(0, separatorIndex));
+        // the rows are already limited to the property names when org.securegraph.accumulo.iterator.PropertyNameFilter is installed
+        if (this.includedPropertyNames != null && !this.includedPropertyNames.contains(propertyName)) {
+            return null;
+        }
+
+        propertyColumn = new PropertyColumn();
+        propertyColumn.name = propertyName;
+        propertyColumn.key = toString(columnQualifier, separatorIndex + 1, columnQualifier.length() - separatorIndex - 1);
+        propertyColumn.visibility = toVisibility(columnVisibility);
+        propertyColumns.put(propertyColumnKey, propertyColumn);
+        return propertyColumn;
+    }
+
+    private Map<String, Object> valueToMetadata(Value value) {
         if (value.getSize() == 0) {
-            o = new HashMap<String, Object>();
-        } else {
-            o = valueToObject(value);
+            return new HashMap<String, Object>();
         }
+        Object o = valueToObject(value);
         if (o == null) {
             throw new SecureGraphException("Invalid metadata found. Expected " + Map.class.getName() + ". Found null.");
         } else if (o instanceof Map) {
-            Map v = (Map) o;
-            String key = toKey(columnQualifier, columnVisibility);
-            propertyMetadata.put(key, v);
+            //noinspection unchecked
+            return (Map<String, Object>) o;
         } else {
             throw new SecureGraphException("Invalid metadata found. Expected " + Map.class.getName() + ". Found " + o.getClass().getName() + ".");
         }
     }
 
-    private void extractPropertyData(Text columnQualifier, ColumnVisibility columnVisibility, Value value) {
-        Object v = valueToObject(value);
-        String propertyName = getPropertyNameFromColumnQualifier(columnQualifier.toString());
-        String key = toKey(columnQualifier, columnVisibility);
-        propertyColumnQualifier.put(key, columnQualifier.toString());
-        propertyNames.put(key, propertyName);
-        propertyValues.put(key, v);
-        propertyVisibilities.put(key, accumuloVisibilityToVisibility(columnVisibility));
+    private static int indexOfValueSeparator(ByteSequence columnQualifier) {
+        for (int i = 0; i < columnQualifier.length(); i++) {
+            if (columnQualifier.byteAt(i) == VALUE_SEPARATOR) {
+                return i;
+            }
+        }
+        throw new SecureGraphException("Invalid property column qualifier");
     }
 
-    private String toKey(Text columnQualifier, ColumnVisibility columnVisibility) {
-        return columnQualifier.toString() + ":" + columnVisibility.toString();
+    private static String toPropertyName(ByteSequence bytes) {
+        Map<ByteSequence, String> cache = PROPERTY_NAME_CACHE.get();
+        String propertyName = cache.get(bytes);
+        if (propertyName == null) {
+            propertyName = toString(bytes, 0, bytes.length());
+            putCached(cache, bytes, propertyName);
+        }
+        return propertyName;
     }
 
-    private String getPropertyNameFromColumnQualifier(String columnQualifier) {
-        int i = columnQualifier.indexOf(ElementMutationBuilder.VALUE_SEPARATOR);
-        if (i < 0) {
-            throw new SecureGraphException("Invalid property column qualifier");
+    protected static Visibility toVisibility(ByteSequence columnVisibility) {
+        Map<ByteSequence, Visibility> cache = VISIBILITY_CACHE.get();
+        Visibility visibility = cache.get(columnVisibility);
+        if (visibility == null) {
+            visibility = new Visibility(toString(columnVisibility, 0, columnVisibility.length()));
+            putCached(cache, columnVisibility, visibility);
         }
-        return columnQualifier.substring(0, i);
+        return visibility;
     }
 
-    private Visibility accumuloVisibilityToVisibility(ColumnVisibility columnVisibility) {
-        String columnVisibilityString = columnVisibility.toString();
-        if (columnVisibilityString.startsWith("[") && columnVisibilityString.endsWith("]")) {
-            return new Visibility(columnVisibilityString.substring(1, columnVisibilityString.length() - 1));
+    private static <V> void putCached(Map<ByteSequence, V> cache, ByteSequence bytes, V value) {
+        if (cache.size() >= MAX_CACHED_STRINGS) {
+            cache.clear();
         }
-        return new Visibility(columnVisibilityString);
+        // the key may be backed by the array of a column, keep a copy that won't change
+        cache.put(new ArrayByteSequence(bytes.toArray()), value);
     }
 
-    private String getPropertyIdFromColumnQualifier(String columnQualifier) {
-        int i = columnQualifier.indexOf(ElementMutationBuilder.VALUE_SEPARATOR);
-        if (i < 0) {
-            throw new SecureGraphException("Invalid property column qualifier");
+    private static String toString(ByteSequence bytes, int offset, int length) {
+        if (bytes.isBackedByArray()) {
+            return new String(bytes.getBackingArray(), bytes.offset() + offset, length, UTF8);
         }
-        return columnQualifier.substring(i + 1);
+        return new String(bytes.toArray(), offset, length, UTF8);
     }
 
     private Object valueToObject(Value value) {
@@ -169,4 +244,37 @@ public abstract class ElementMaker<T> {
         }
         return o;
     }
+
+    private static class PropertyColumnKey {
+        private final ByteSequence columnQualifier;
+        private final ByteSequence columnVisibility;
+
+        private PropertyColumnKey(ByteSequence columnQualifier, ByteSequence columnVisibility) {
+            this.columnQualifier = columnQualifier;
+            this.columnVisibility = columnVisibility;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * columnQualifier.hashCode() + columnVisibility.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PropertyColumnKey)) {
+                return false;
+            }
+            PropertyColumnKey other = (PropertyColumnKey) obj;
+            return columnQualifier.equals(other.columnQualifier) && columnVisibility.equals(other.columnVisibility);
+        }
+    }
+
+    private static class PropertyColumn {
+        private String name;
+        private String key;
+        private Visibility visibility;
+        private Object value;
+        private boolean hasValue;
+        private Map<String, Object> metadata;
+    }
 }
@@ -37,56 +37,74 @@ public abstract class ElementMutationBuilder {
     }
 
     public void saveVertex(AccumuloVertex vertex) {
-        Mutation m = createMutationForVertex(vertex);
+        Mutation m = new Mutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertex.getId());
+        addVertexToMutation(m, vertex);
         saveVertexMutation(m);
     }
 
     protected abstract void saveVertexMutation(Mutation m);
 
-    private Mutation createMutationForVertex(AccumuloVertex vertex) {
+    /**
+     * Adds the columns of the vertex to a mutation of the vertex row.
+     */
+    public void addVertexToMutation(Mutation m, AccumuloVertex vertex) {
         String vertexRowKey = AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertex.getId();
-        Mutation m = new Mutation(vertexRowKey);
         m.put(AccumuloVertex.CF_SIGNAL, EMPTY_TEXT, visibilityToAccumuloVisibility(vertex.getVisibility()), EMPTY_VALUE);
         for (Property property : vertex.getProperties()) {
             addPropertyToMutation(m, vertexRowKey, property);
         }
-        return m;
     }
 
     public void saveEdge(AccumuloEdge edge) {
-        ColumnVisibility edgeColumnVisibility = visibilityToAccumuloVisibility(edge.getVisibility());
-        Mutation m = createMutationForEdge(edge, edgeColumnVisibility);
+        Mutation m = new Mutation(AccumuloConstants.EDGE_ROW_KEY_PREFIX + edge.getId());
+        addEdgeToMutation(m, edge);
         saveEdgeMutation(m);
 
         // Update out vertex.
         Mutation addEdgeToOutMutation = new Mutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + edge.getVertexId(Direction.OUT));
-        EdgeInfo edgeInfo = new EdgeInfo(edge.getLabel(), edge.getVertexId(Direction.IN));
-        addEdgeToOutMutation.put(AccumuloVertex.CF_OUT_EDGE, new Text(edge.getId().toString()), edgeColumnVisibility, valueSerializer.objectToValue(edgeInfo));
+        addEdgeToOutVertexMutation(addEdgeToOutMutation, edge);
         saveVertexMutation(addEdgeToOutMutation);
 
         // Update in vertex.
         Mutation addEdgeToInMutation = new Mutation(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + edge.getVertexId(Direction.IN));
-        edgeInfo = new EdgeInfo(edge.getLabel(), edge.getVertexId(Direction.OUT));
-        addEdgeToInMutation.put(AccumuloVertex.CF_IN_EDGE, new Text(edge.getId().toString()), edgeColumnVisibility, valueSerializer.objectToValue(edgeInfo));
+        addEdgeToInVertexMutation(addEdgeToInMutation, edge);
         saveVertexMutation(addEdgeToInMutation);
     }
 
+    /**
+     * Adds the edge reference to a mutation of the row of the edge's out vertex.
+     */
+    public void addEdgeToOutVertexMutation(Mutation m, AccumuloEdge edge) {
+        EdgeInfo edgeInfo = new EdgeInfo(edge.getLabel(), edge.getVertexId(Direction.IN));
+        m.put(AccumuloVertex.CF_OUT_EDGE, new Text(edge.getId().toString()), visibilityToAccumuloVisibility(edge.getVisibility()), valueSerializer.objectToValue(edgeInfo));
+    }
+
+    /**
+     * Adds the edge reference to a mutation of the row of the edge's in vertex.
+     */
+    public void addEdgeToInVertexMutation(Mutation m, AccumuloEdge edge) {
+        EdgeInfo edgeInfo = new EdgeInfo(edge.getLabel(), edge.getVertexId(Direction.OUT));
+        m.put(AccumuloVertex.CF_IN_EDGE, new Text(edge.getId().toString()), visibilityToAccumuloVisibility(edge.getVisibility()), valueSerializer.objectToValue(edgeInfo));
+    }
+
     private ColumnVisibility visibilityToAccumuloVisibility(Visibility visibility) {
         return new ColumnVisibility(visibility.getVisibilityString());
     }
 
     protected abstract void saveEdgeMutation(Mutation m);
 
-    private Mutation createMutationForEdge(AccumuloEdge edge, ColumnVisibility edgeColumnVisibility) {
+    /**
+     * Adds the columns of the edge to a mutation of the edge row.
+     */
+    public void addEdgeToMutation(Mutation m, AccumuloEdge edge) {
         String edgeRowKey = AccumuloConstants.EDGE_ROW_KEY_PREFIX + edge.getId();
-        Mutation addEdgeMutation = new Mutation(edgeRowKey);
-        addEdgeMutation.put(AccumuloEdge.CF_SIGNAL, new Text(edge.getLabel()), edgeColumnVisibility, ElementMutationBuilder.EMPTY_VALUE);
-        addEdgeMutation.put(AccumuloEdge.CF_OUT_VERTEX, new Text(edge.getVertexId(Direction.OUT).toString()), edgeColumnVisibility, ElementMutationBuilder.EMPTY_VALUE);
-        addEdgeMutation.put(AccumuloEdge.CF_IN_VERTEX, new Text(edge.getVertexId(Direction.IN).toString()), edgeColumnVisibility, ElementMutationBuilder.EMPTY_VALUE);
+        ColumnVisibility edgeColumnVisibility = visibilityToAccumuloVisibility(edge.getVisibility());
+        m.put(AccumuloEdge.CF_SIGNAL, new Text(edge.getLabel()), edgeColumnVisibility, ElementMutationBuilder.EMPTY_VALUE);
+        m.put(AccumuloEdge.CF_OUT_VERTEX, new Text(edge.getVertexId(Direction.OUT).toString()), edgeColumnVisibility, ElementMutationBuilder.EMPTY_VALUE);
+        m.put(AccumuloEdge.CF_IN_VERTEX, new Text(edge.getVertexId(Direction.IN).toString()), edgeColumnVisibility, ElementMutationBuilder.EMPTY_VALUE);
         for (Property property : edge.getProperties()) {
-            addPropertyToMutation(addEdgeMutation, edgeRowKey, property);
+            addPropertyToMutation(m, edgeRowKey, property);
         }
-        return addEdgeMutation;
     }
 
     public boolean alterElementVisibility(Mutation m, AccumuloElement element, Visibility newVisibility) {
@@ -0,0 +1,76 @@
+package org.securegraph.accumulo;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.io.WritableUtils;
+import org.securegraph.SecureGraphException;
+import org.securegraph.accumulo.iterator.ElementRowIterator;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads back the columns of a row returned by {@link ElementRowIterator}. This is kept out of the iterators module
+ * so the tablet servers do not need securegraph-core, the encoding must match ElementRowIterator#writeColumn.
+ */
+public class ElementRowDecoder {
+    private ElementRowDecoder() {
+    }
+
+    /**
+     * Reads the columns of a row returned by {@link ElementRowIterator}. The columns are decoded as the returned
+     * iterator is consumed and are returned in the order they were read on the tablet server.
+     *
+     * @throws SecureGraphException from the iterator if the row value is not a valid encoding.
+     */
+    public static Iterator<Map.Entry<Key, Value>> decodeRow(final Key rowKey, Value rowValue) {
+        final byte[] row = rowKey.getRowData().toArray();
+        final ByteArrayInputStream byteStream = new ByteArrayInputStream(rowValue.get());
+        final DataInputStream in = new DataInputStream(byteStream);
+        return new Iterator<Map.Entry<Key, Value>>() {
+            @Override
+            public boolean hasNext() {
+                return byteStream.available() > 0;
+            }
+
+            @Override
+            public Map.Entry<Key, Value> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    byte[] columnFamily = readBytes(in);
+                    byte[] columnQualifier = readBytes(in);
+                    byte[] columnVisibility = readBytes(in);
+                    long timestamp = WritableUtils.readVLong(in);
+                    Key key = new Key(row, columnFamily, columnQualifier, columnVisibility, timestamp, false, false);
+                    Value value = new Value(readBytes(in), false);
+                    return new AbstractMap.SimpleImmutableEntry<Key, Value>(key, value);
+                } catch (IOException e) {
+                    throw new SecureGraphException("Could not decode row " + rowKey.getRow(), e);
+                }
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        int length = WritableUtils.readVInt(in);
+        if (length < 0) {
+            throw new IOException("Invalid length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
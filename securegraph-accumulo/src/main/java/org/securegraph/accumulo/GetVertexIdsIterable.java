@@ -2,25 +2,25 @@ package org.securegraph.accumulo;
 
 import org.securegraph.util.LookAheadIterable;
 
-import java.util.Collection;
 import java.util.Iterator;
+import java.util.Map;
 
-class GetVertexIdsIterable extends LookAheadIterable<EdgeInfo, Object> {
-    private final Collection<EdgeInfo> edgeInfos;
+class GetVertexIdsIterable extends LookAheadIterable<Map.Entry<Object, EdgeInfo>, Object> {
+    private final Iterable<Map.Entry<Object, EdgeInfo>> edgeInfos;
     private final String[] labels;
 
-    public GetVertexIdsIterable(Collection<EdgeInfo> edgeInfos, String[] labels) {
+    public GetVertexIdsIterable(Iterable<Map.Entry<Object, EdgeInfo>> edgeInfos, String[] labels) {
         this.edgeInfos = edgeInfos;
         this.labels = labels;
     }
 
     @Override
-    protected boolean isIncluded(EdgeInfo edgeInfo, Object vertexId) {
+    protected boolean isIncluded(Map.Entry<Object, EdgeInfo> edgeInfo, Object vertexId) {
         if (labels == null || labels.length == 0) {
             return true;
         }
         for (String label : labels) {
-            if (edgeInfo.getLabel().equals(label)) {
+            if (edgeInfo.getValue().getLabel().equals(label)) {
                 return true;
             }
         }
@@ -28,12 +28,12 @@ class GetVertexIdsIterable extends LookAheadIterable<EdgeInfo, Object> {
     }
 
     @Override
-    protected Object convert(EdgeInfo edgeInfo) {
-        return edgeInfo.getVertexId();
+    protected Object convert(Map.Entry<Object, EdgeInfo> edgeInfo) {
+        return edgeInfo.getValue().getVertexId();
     }
 
     @Override
-    protected Iterator<EdgeInfo> createIterator() {
+    protected Iterator<Map.Entry<Object, EdgeInfo>> createIterator() {
         return edgeInfos.iterator();
     }
 }
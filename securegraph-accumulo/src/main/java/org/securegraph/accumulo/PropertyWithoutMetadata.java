@@ -0,0 +1,23 @@
+package org.securegraph.accumulo;
+
+import org.securegraph.FetchHint;
+import org.securegraph.SecureGraphException;
+import org.securegraph.Visibility;
+import org.securegraph.property.MutableProperty;
+
+import java.util.Map;
+
+/**
+ * A property read without {@link FetchHint#PROPERTY_METADATA}. Accessing the metadata fails instead of
+ * returning an empty map, so the metadata cannot be lost by saving the property back to the graph.
+ */
+class PropertyWithoutMetadata extends MutableProperty {
+    public PropertyWithoutMetadata(String key, String name, Object value, Visibility visibility) {
+        super(key, name, value, null, visibility);
+    }
+
+    @Override
+    public Map<String, Object> getMetadata() {
+        throw new SecureGraphException("Property " + getName() + ":" + getKey() + " was read without " + FetchHint.PROPERTY_METADATA + ", read it again including that fetch hint.");
+    }
+}
@@ -1,5 +1,6 @@
 package org.securegraph.accumulo;
 
+import org.securegraph.FetchHint;
 import org.securegraph.SecureGraphException;
 import org.securegraph.Vertex;
 import org.apache.accumulo.core.data.Key;
@@ -9,34 +10,48 @@ import org.apache.hadoop.io.Text;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 public class VertexMaker extends ElementMaker<Vertex> {
-    private static final String VISIBILITY_SIGNAL = AccumuloVertex.CF_SIGNAL.toString();
-
     private final AccumuloGraph graph;
-    private final Map<Object, EdgeInfo> outEdges = new HashMap<Object, EdgeInfo>();
-    private final Map<Object, EdgeInfo> inEdges = new HashMap<Object, EdgeInfo>();
+    private final Map<Object, EdgeInfo> outEdges;
+    private final Map<Object, EdgeInfo> inEdges;
 
     public VertexMaker(AccumuloGraph graph, Iterator<Map.Entry<Key, Value>> row) {
-        super(graph, row);
+        this(graph, row, FetchHint.ALL, null, false);
+    }
+
+    /**
+     * @param fetchHints            The fetch hints the row was read with.
+     * @param includedPropertyNames The names of the properties to include, null to include all properties.
+     * @param lazyEdges             true, if the row was read without the edge column families and the vertex should scan
+     *                              for its edges when they are requested.
+     */
+    public VertexMaker(AccumuloGraph graph, Iterator<Map.Entry<Key, Value>> row, Set<FetchHint> fetchHints, Set<String> includedPropertyNames, boolean lazyEdges) {
+        super(graph, row, fetchHints, includedPropertyNames);
         this.graph = graph;
+        this.outEdges = lazyEdges ? null : new HashMap<Object, EdgeInfo>();
+        this.inEdges = lazyEdges ? null : new HashMap<Object, EdgeInfo>();
     }
 
     @Override
     protected void processColumn(Key key, Value value) {
-        Text columnFamily = key.getColumnFamily();
-        Text columnQualifier = key.getColumnQualifier();
+        if (this.outEdges == null || this.inEdges == null) {
+            return;
+        }
 
-        if (AccumuloVertex.CF_OUT_EDGE.compareTo(columnFamily) == 0) {
-            String edgeId = columnQualifier.toString();
+        if (key.compareColumnFamily(AccumuloVertex.CF_OUT_EDGE) == 0) {
+            String edgeId = key.getColumnQualifier().toString();
             EdgeInfo edgeInfo = graph.getValueSerializer().valueToObject(value);
+            edgeInfo.setColumnVisibility(toVisibility(key.getColumnVisibilityData()).getVisibilityString());
             outEdges.put(edgeId, edgeInfo);
             return;
         }
 
-        if (AccumuloVertex.CF_IN_EDGE.compareTo(columnFamily) == 0) {
-            String edgeId = columnQualifier.toString();
+        if (key.compareColumnFamily(AccumuloVertex.CF_IN_EDGE) == 0) {
+            String edgeId = key.getColumnQualifier().toString();
             EdgeInfo edgeInfo = graph.getValueSerializer().valueToObject(value);
+            edgeInfo.setColumnVisibility(toVisibility(key.getColumnVisibilityData()).getVisibilityString());
             inEdges.put(edgeId, edgeInfo);
             return;
         }
@@ -51,8 +66,8 @@ public class VertexMaker extends ElementMaker<Vertex> {
     }
 
     @Override
-    protected String getVisibilitySignal() {
-        return VISIBILITY_SIGNAL;
+    protected Text getVisibilitySignal() {
+        return AccumuloVertex.CF_SIGNAL;
     }
 
     @Override
@@ -63,7 +78,9 @@ public class VertexMaker extends ElementMaker<Vertex> {
                 this.getVisibility(),
                 this.getProperties(),
                 this.inEdges,
-                this.outEdges);
+                this.outEdges,
+                this.getFetchHints(),
+                this.getIncludedPropertyNames());
     }
 
 }
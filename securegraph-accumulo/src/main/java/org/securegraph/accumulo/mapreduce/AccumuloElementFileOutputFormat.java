@@ -0,0 +1,155 @@
+package org.securegraph.accumulo.mapreduce;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.data.ColumnUpdate;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.file.FileOperations;
+import org.apache.accumulo.core.file.FileSKVWriter;
+import org.apache.accumulo.core.file.rfile.RFile;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputCommitter;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * An alternative to {@link AccumuloElementOutputFormat} that writes the mutations saved by an {@link ElementMapper}
+ * to sorted RFiles instead of sending them to the tablet servers. The cells of each table are sorted in memory
+ * and written to files under a directory named after the table, a new set of files is started whenever the
+ * buffered cells reach {@link #MAX_BUFFER_SIZE} bytes. Once the job completes the files are loaded with
+ * {@link #importFiles(Connector, Path, Path, Configuration)}, skipping the write-ahead log and minor compactions.
+ */
+public class AccumuloElementFileOutputFormat extends FileOutputFormat<Text, Mutation> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloElementFileOutputFormat.class);
+    public static final String MAX_BUFFER_SIZE = "securegraph.elementFileOutputFormat.maxBufferSize";
+    public static final long DEFAULT_MAX_BUFFER_SIZE = 64 * 1024 * 1024;
+
+    // rough size of a buffered key and value beyond their bytes
+    private static final int CELL_OVERHEAD = 100;
+
+    public static void setOutputInfo(Job job, Path outputDir) throws IOException {
+        FileOutputFormat.setOutputPath(job, outputDir);
+        job.setMapOutputKeyClass(Text.class);
+        job.setMapOutputValueClass(Mutation.class);
+    }
+
+    public static void setMaxBufferSize(Job job, long maxBufferSize) {
+        job.getConfiguration().setLong(MAX_BUFFER_SIZE, maxBufferSize);
+    }
+
+    /**
+     * Bulk imports the files written by a job into their tables. Files the tablet servers could not load are
+     * moved to a directory per table under failuresDir, which must not contain files already.
+     */
+    public static void importFiles(Connector connector, Path outputDir, Path failuresDir, Configuration configuration) throws IOException, AccumuloException, AccumuloSecurityException, TableNotFoundException {
+        FileSystem fs = outputDir.getFileSystem(configuration);
+        for (FileStatus tableDir : fs.listStatus(outputDir)) {
+            String tableName = tableDir.getPath().getName();
+            if (!tableDir.isDirectory() || tableName.startsWith("_")) {
+                continue;
+            }
+
+            Path tableFailuresDir = new Path(failuresDir, tableName);
+            fs.mkdirs(tableFailuresDir);
+            LOGGER.info("Importing files from {} into table {}", tableDir.getPath(), tableName);
+            connector.tableOperations().importDirectory(tableName, tableDir.getPath().toString(), tableFailuresDir.toString(), false);
+
+            FileStatus[] failures = fs.listStatus(tableFailuresDir);
+            if (failures != null && failures.length > 0) {
+                throw new IOException("Could not import " + failures.length + " files into table " + tableName + ", see " + tableFailuresDir);
+            }
+        }
+    }
+
+    @Override
+    public RecordWriter<Text, Mutation> getRecordWriter(TaskAttemptContext context) throws IOException, InterruptedException {
+        Path workPath = ((FileOutputCommitter) getOutputCommitter(context)).getWorkPath();
+        long maxBufferSize = context.getConfiguration().getLong(MAX_BUFFER_SIZE, DEFAULT_MAX_BUFFER_SIZE);
+        return new ElementFileRecordWriter(context, workPath, maxBufferSize);
+    }
+
+    private static class ElementFileRecordWriter extends RecordWriter<Text, Mutation> {
+        private final TaskAttemptContext context;
+        private final Path workPath;
+        private final long maxBufferSize;
+        private final Map<String, SortedMap<Key, Value>> cellsByTable = new HashMap<String, SortedMap<Key, Value>>();
+        private long bufferSize;
+        private int fileCount;
+
+        public ElementFileRecordWriter(TaskAttemptContext context, Path workPath, long maxBufferSize) {
+            this.context = context;
+            this.workPath = workPath;
+            this.maxBufferSize = maxBufferSize;
+        }
+
+        @Override
+        public void write(Text tableName, Mutation m) throws IOException, InterruptedException {
+            SortedMap<Key, Value> cells = cellsByTable.get(tableName.toString());
+            if (cells == null) {
+                cells = new TreeMap<Key, Value>();
+                cellsByTable.put(tableName.toString(), cells);
+            }
+
+            long timestamp = System.currentTimeMillis();
+            byte[] row = m.getRow();
+            for (ColumnUpdate update : m.getUpdates()) {
+                Key key = new Key(row, update.getColumnFamily(), update.getColumnQualifier(), update.getColumnVisibility(), update.hasTimestamp() ? update.getTimestamp() : timestamp);
+                key.setDeleted(update.isDeleted());
+                Value value = new Value(update.getValue());
+                cells.put(key, value);
+                bufferSize += key.getSize() + value.getSize() + CELL_OVERHEAD;
+            }
+
+            if (bufferSize >= maxBufferSize) {
+                writeFiles();
+            }
+        }
+
+        @Override
+        public void close(TaskAttemptContext context) throws IOException, InterruptedException {
+            writeFiles();
+        }
+
+        private void writeFiles() throws IOException {
+            Configuration configuration = context.getConfiguration();
+            for (Map.Entry<String, SortedMap<Key, Value>> tableCells : cellsByTable.entrySet()) {
+                if (tableCells.getValue().size() == 0) {
+                    continue;
+                }
+                String fileName = getUniqueFile(context, "part-" + fileCount, "." + RFile.EXTENSION);
+                Path file = new Path(new Path(workPath, tableCells.getKey()), fileName);
+                FileSKVWriter writer = FileOperations.getInstance().openWriter(file.toString(), file.getFileSystem(configuration), configuration, AccumuloConfiguration.getDefaultConfiguration());
+                try {
+                    writer.startDefaultLocalityGroup();
+                    for (Map.Entry<Key, Value> cell : tableCells.getValue().entrySet()) {
+                        writer.append(cell.getKey(), cell.getValue());
+                    }
+                } finally {
+                    writer.close();
+                }
+                tableCells.getValue().clear();
+            }
+            bufferSize = 0;
+            fileCount++;
+        }
+    }
+}
@@ -4,17 +4,37 @@ import org.securegraph.*;
 import org.securegraph.accumulo.*;
 import org.securegraph.accumulo.serializer.ValueSerializer;
 import org.securegraph.id.IdGenerator;
+import org.apache.accumulo.core.data.ColumnUpdate;
 import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.security.ColumnVisibility;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Mapper;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
-
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Base class for mappers that create vertices and edges. Every save produces one mutation per row it touches,
+ * so each edge writes to the rows of both of its vertices. With {@link #COMBINE_MUTATIONS} set the vertex and
+ * edge mutations of a task are combined into one mutation per row until they reach
+ * {@link #COMBINE_MUTATIONS_MAX_BUFFER_SIZE} bytes, which saves sending many small mutations to hub vertices.
+ */
 public abstract class ElementMapper<KEYIN, VALUEIN, KEYOUT, VALUEOUT> extends Mapper<KEYIN, VALUEIN, KEYOUT, VALUEOUT> {
     public static final String GRAPH_CONFIG_PREFIX = "graphConfigPrefix";
+    public static final String COMBINE_MUTATIONS = "elementMapper.combineMutations";
+    public static final String COMBINE_MUTATIONS_MAX_BUFFER_SIZE = "elementMapper.combineMutations.maxBufferSize";
+    public static final long DEFAULT_COMBINE_MUTATIONS_MAX_BUFFER_SIZE = 32 * 1024 * 1024;
     private ElementMutationBuilder elementMutationBuilder;
+    private final Map<Text, Mutation> combinedVertexMutations = new LinkedHashMap<Text, Mutation>();
+    private final Map<Text, Mutation> combinedEdgeMutations = new LinkedHashMap<Text, Mutation>();
+    private boolean combineMutations;
+    private long combineMutationsMaxBufferSize;
+    private long combinedMutationsSize;
+    private Text verticesTableName;
+    private Text edgesTableName;
 
     @Override
     protected void setup(final Context context) throws IOException, InterruptedException {
@@ -22,9 +42,11 @@ public abstract class ElementMapper<KEYIN, VALUEIN, KEYOUT, VALUEOUT> extends Ma
         String configPrefix = context.getConfiguration().get(GRAPH_CONFIG_PREFIX, "");
         AccumuloGraphConfiguration accumuloGraphConfiguration = new AccumuloGraphConfiguration(context.getConfiguration(), configPrefix);
         String tableNamePrefix = accumuloGraphConfiguration.getTableNamePrefix();
-        final Text edgesTableName = new Text(AccumuloGraph.getEdgesTableName(tableNamePrefix));
+        edgesTableName = new Text(AccumuloGraph.getEdgesTableName(tableNamePrefix));
         final Text dataTableName = new Text(AccumuloGraph.getDataTableName(tableNamePrefix));
-        final Text verticesTableName = new Text(AccumuloGraph.getVerticesTableName(tableNamePrefix));
+        verticesTableName = new Text(AccumuloGraph.getVerticesTableName(tableNamePrefix));
+        combineMutations = context.getConfiguration().getBoolean(COMBINE_MUTATIONS, false);
+        combineMutationsMaxBufferSize = context.getConfiguration().getLong(COMBINE_MUTATIONS_MAX_BUFFER_SIZE, DEFAULT_COMBINE_MUTATIONS_MAX_BUFFER_SIZE);
         ValueSerializer valueSerializer = accumuloGraphConfiguration.createValueSerializer();
         long maxStreamingPropertyValueTableDataSize = accumuloGraphConfiguration.getMaxStreamingPropertyValueTableDataSize();
         String dataDir = accumuloGraphConfiguration.getDataDir();
@@ -39,7 +61,11 @@ public abstract class ElementMapper<KEYIN, VALUEIN, KEYOUT, VALUEOUT> extends Ma
             @Override
             protected void saveVertexMutation(Mutation m) {
                 try {
-                    ElementMapper.this.saveVertexMutation(context, verticesTableName, m);
+                    if (combineMutations) {
+                        combineMutation(context, combinedVertexMutations, m);
+                    } else {
+                        ElementMapper.this.saveVertexMutation(context, verticesTableName, m);
+                    }
                 } catch (Exception e) {
                     throw new RuntimeException("Could not save vertex", e);
                 }
@@ -48,7 +74,11 @@ public abstract class ElementMapper<KEYIN, VALUEIN, KEYOUT, VALUEOUT> extends Ma
             @Override
             protected void saveEdgeMutation(Mutation m) {
                 try {
-                    ElementMapper.this.saveEdgeMutation(context, edgesTableName, m);
+                    if (combineMutations) {
+                        combineMutation(context, combinedEdgeMutations, m);
+                    } else {
+                        ElementMapper.this.saveEdgeMutation(context, edgesTableName, m);
+                    }
                 } catch (Exception e) {
                     throw new RuntimeException("Could not save edge", e);
                 }
@@ -65,6 +95,57 @@ public abstract class ElementMapper<KEYIN, VALUEIN, KEYOUT, VALUEOUT> extends Ma
         };
     }
 
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        flushCombinedMutations(context);
+        super.cleanup(context);
+    }
+
+    private void combineMutation(Context context, Map<Text, Mutation> combinedMutations, Mutation m) throws IOException, InterruptedException {
+        Text row = new Text(m.getRow());
+        Mutation combined = combinedMutations.get(row);
+        if (combined == null) {
+            combined = new Mutation(row);
+            combinedMutations.put(row, combined);
+        }
+        for (ColumnUpdate update : m.getUpdates()) {
+            ColumnVisibility columnVisibility = new ColumnVisibility(update.getColumnVisibility());
+            if (update.isDeleted()) {
+                if (update.hasTimestamp()) {
+                    combined.putDelete(update.getColumnFamily(), update.getColumnQualifier(), columnVisibility, update.getTimestamp());
+                } else {
+                    combined.putDelete(update.getColumnFamily(), update.getColumnQualifier(), columnVisibility);
+                }
+            } else {
+                if (update.hasTimestamp()) {
+                    combined.put(update.getColumnFamily(), update.getColumnQualifier(), columnVisibility, update.getTimestamp(), update.getValue());
+                } else {
+                    combined.put(update.getColumnFamily(), update.getColumnQualifier(), columnVisibility, update.getValue());
+                }
+            }
+        }
+
+        combinedMutationsSize += m.numBytes();
+        if (combinedMutationsSize >= combineMutationsMaxBufferSize) {
+            flushCombinedMutations(context);
+        }
+    }
+
+    /**
+     * Saves the mutations combined so far. Called when the buffer is full and when the task completes.
+     */
+    protected void flushCombinedMutations(Context context) throws IOException, InterruptedException {
+        for (Mutation m : combinedVertexMutations.values()) {
+            saveVertexMutation(context, verticesTableName, m);
+        }
+        combinedVertexMutations.clear();
+        for (Mutation m : combinedEdgeMutations.values()) {
+            saveEdgeMutation(context, edgesTableName, m);
+        }
+        combinedEdgeMutations.clear();
+        combinedMutationsSize = 0;
+    }
+
     protected abstract void saveDataMutation(Context context, Text dataTableName, Mutation m) throws IOException, InterruptedException;
 
     protected abstract void saveEdgeMutation(Context context, Text edgesTableName, Mutation m) throws IOException, InterruptedException;
@@ -91,14 +172,22 @@ public abstract class ElementMapper<KEYIN, VALUEIN, KEYOUT, VALUEOUT> extends Ma
     }
 
     public EdgeBuilder prepareEdge(Object edgeId, Vertex outVertex, Vertex inVertex, String label, Visibility visibility, Authorizations authorizations) {
+        return prepareEdge(edgeId, outVertex.getId(), inVertex.getId(), label, visibility, authorizations);
+    }
+
+    public Edge addEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility, Authorizations authorizations) {
+        return prepareEdge(edgeId, outVertexId, inVertexId, label, visibility, authorizations).save();
+    }
+
+    public EdgeBuilder prepareEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility, Authorizations authorizations) {
         if (edgeId == null) {
             edgeId = getIdGenerator().nextId();
         }
 
-        return new EdgeBuilder(edgeId, outVertex, inVertex, label, visibility) {
+        return new EdgeBuilder(edgeId, outVertexId, inVertexId, label, visibility) {
             @Override
             public Edge save() {
-                AccumuloEdge edge = new AccumuloEdge(null, getEdgeId(), getOutVertex().getId(), getInVertex().getId(), getLabel(), getVisibility(), getProperties());
+                AccumuloEdge edge = new AccumuloEdge(null, getEdgeId(), getOutVertexId(), getInVertexId(), getLabel(), getVisibility(), getProperties());
                 elementMutationBuilder.saveEdge(edge);
                 return edge;
             }
@@ -0,0 +1,225 @@
+package org.securegraph.accumulo.serializer;
+
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableUtils;
+import org.securegraph.SecureGraphException;
+import org.securegraph.accumulo.EdgeInfo;
+import org.securegraph.type.GeoPoint;
+import org.securegraph.util.JavaSerializableUtils;
+
+import java.io.*;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the common value types with a one byte type tag followed by a compact encoding: variable length
+ * integers, UTF-8 strings, dates as longs, geo points as doubles, and metadata maps and edge infos inline.
+ * Other types are written with java serialization inside the compact value.
+ *
+ * Values written by {@link JavaValueSerializer} can still be read, so an existing graph can switch to this
+ * serializer without rewriting its tables.
+ */
+public class CompactValueSerializer implements ValueSerializer {
+    // must match org.securegraph.accumulo.iterator.EdgeRefFilter.COMPACT_FORMAT_MARKER, java serialization streams start with 0xAC
+    private static final byte FORMAT_MARKER = 0x01;
+
+    private static final byte TYPE_NULL = 0;
+    // must match org.securegraph.accumulo.iterator.EdgeRefFilter.COMPACT_TYPE_STRING
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_FLOAT = 5;
+    private static final byte TYPE_BOOLEAN = 6;
+    private static final byte TYPE_DATE = 7;
+    private static final byte TYPE_GEO_POINT = 8;
+    private static final byte TYPE_MAP = 9;
+    // must match org.securegraph.accumulo.iterator.EdgeRefFilter.COMPACT_TYPE_EDGE_INFO
+    private static final byte TYPE_EDGE_INFO = 10;
+    private static final byte TYPE_BYTE_ARRAY = 11;
+    private static final byte TYPE_SHORT = 12;
+    private static final byte TYPE_BYTE = 13;
+    private static final byte TYPE_JAVA = 14;
+
+    private static final int GEO_POINT_HAS_ALTITUDE = 0x01;
+    private static final int GEO_POINT_HAS_DESCRIPTION = 0x02;
+
+    /**
+     * The constructor {@link org.securegraph.util.ConfigurationUtils#createProvider(String, Map)} calls, the compact
+     * format has no configuration.
+     */
+    public CompactValueSerializer(Map configuration) {
+    }
+
+    @Override
+    public Value objectToValue(Object value) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_MARKER);
+            writeObject(out, value);
+            out.close();
+            return new Value(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new SecureGraphException("Could not serialize value: " + value, e);
+        }
+    }
+
+    @Override
+    public <T> T valueToObject(Value value) {
+        byte[] bytes = value.get();
+        if (bytes.length == 0 || bytes[0] != FORMAT_MARKER) {
+            return (T) JavaSerializableUtils.bytesToObject(bytes);
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+            return (T) readObject(in);
+        } catch (IOException e) {
+            throw new SecureGraphException("Could not deserialize value", e);
+        }
+    }
+
+    private static void writeObject(DataOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+            return;
+        }
+
+        Class valueClass = value.getClass();
+        if (valueClass == String.class) {
+            out.writeByte(TYPE_STRING);
+            Text.writeString(out, (String) value);
+        } else if (valueClass == Integer.class) {
+            out.writeByte(TYPE_INTEGER);
+            WritableUtils.writeVInt(out, (Integer) value);
+        } else if (valueClass == Long.class) {
+            out.writeByte(TYPE_LONG);
+            WritableUtils.writeVLong(out, (Long) value);
+        } else if (valueClass == Double.class) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (valueClass == Float.class) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (valueClass == Boolean.class) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (valueClass == Date.class) {
+            out.writeByte(TYPE_DATE);
+            WritableUtils.writeVLong(out, ((Date) value).getTime());
+        } else if (valueClass == GeoPoint.class) {
+            out.writeByte(TYPE_GEO_POINT);
+            writeGeoPoint(out, (GeoPoint) value);
+        } else if (valueClass == HashMap.class) {
+            out.writeByte(TYPE_MAP);
+            Map<?, ?> map = (Map<?, ?>) value;
+            WritableUtils.writeVInt(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeObject(out, entry.getKey());
+                writeObject(out, entry.getValue());
+            }
+        } else if (valueClass == EdgeInfo.class && ((EdgeInfo) value).getLabel() != null) {
+            out.writeByte(TYPE_EDGE_INFO);
+            Text.writeString(out, ((EdgeInfo) value).getLabel());
+            writeObject(out, ((EdgeInfo) value).getVertexId());
+        } else if (valueClass == byte[].class) {
+            out.writeByte(TYPE_BYTE_ARRAY);
+            writeBytes(out, (byte[]) value);
+        } else if (valueClass == Short.class) {
+            out.writeByte(TYPE_SHORT);
+            WritableUtils.writeVInt(out, (Short) value);
+        } else if (valueClass == Byte.class) {
+            out.writeByte(TYPE_BYTE);
+            out.writeByte((Byte) value);
+        } else {
+            out.writeByte(TYPE_JAVA);
+            writeBytes(out, JavaSerializableUtils.objectToBytes(value));
+        }
+    }
+
+    private static Object readObject(DataInput in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return Text.readString(in);
+            case TYPE_INTEGER:
+                return WritableUtils.readVInt(in);
+            case TYPE_LONG:
+                return WritableUtils.readVLong(in);
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_FLOAT:
+                return in.readFloat();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_DATE:
+                return new Date(WritableUtils.readVLong(in));
+            case TYPE_GEO_POINT:
+                return readGeoPoint(in);
+            case TYPE_MAP:
+                int size = WritableUtils.readVInt(in);
+                Map<Object, Object> map = new HashMap<Object, Object>();
+                for (int i = 0; i < size; i++) {
+                    Object key = readObject(in);
+                    map.put(key, readObject(in));
+                }
+                return map;
+            case TYPE_EDGE_INFO:
+                String label = Text.readString(in);
+                return new EdgeInfo(label, readObject(in));
+            case TYPE_BYTE_ARRAY:
+                return readBytes(in);
+            case TYPE_SHORT:
+                return (short) WritableUtils.readVInt(in);
+            case TYPE_BYTE:
+                return in.readByte();
+            case TYPE_JAVA:
+                return JavaSerializableUtils.bytesToObject(readBytes(in));
+            default:
+                throw new SecureGraphException("Invalid value type: " + type);
+        }
+    }
+
+    private static void writeGeoPoint(DataOutput out, GeoPoint geoPoint) throws IOException {
+        int flags = 0;
+        if (geoPoint.getAltitude() != null) {
+            flags |= GEO_POINT_HAS_ALTITUDE;
+        }
+        if (geoPoint.getDescription() != null) {
+            flags |= GEO_POINT_HAS_DESCRIPTION;
+        }
+        out.writeByte(flags);
+        out.writeDouble(geoPoint.getLatitude());
+        out.writeDouble(geoPoint.getLongitude());
+        if (geoPoint.getAltitude() != null) {
+            out.writeDouble(geoPoint.getAltitude());
+        }
+        if (geoPoint.getDescription() != null) {
+            Text.writeString(out, geoPoint.getDescription());
+        }
+    }
+
+    private static GeoPoint readGeoPoint(DataInput in) throws IOException {
+        int flags = in.readByte();
+        double latitude = in.readDouble();
+        double longitude = in.readDouble();
+        Double altitude = (flags & GEO_POINT_HAS_ALTITUDE) != 0 ? in.readDouble() : null;
+        String description = (flags & GEO_POINT_HAS_DESCRIPTION) != 0 ? Text.readString(in) : null;
+        return new GeoPoint(latitude, longitude, altitude, description);
+    }
+
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        WritableUtils.writeVInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        byte[] bytes = new byte[WritableUtils.readVInt(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -2,33 +2,65 @@ package org.securegraph.accumulo;
 
 import org.apache.accumulo.core.client.*;
 import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.minicluster.MiniAccumuloCluster;
 import org.apache.accumulo.minicluster.MiniAccumuloConfig;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.serializer.WritableSerialization;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.securegraph.Authorizations;
+import org.securegraph.BulkLoad;
+import org.securegraph.Direction;
+import org.securegraph.Edge;
+import org.securegraph.FetchHint;
 import org.securegraph.Graph;
 import org.securegraph.SecureGraphException;
 import org.securegraph.Vertex;
+import org.securegraph.Visibility;
+import org.securegraph.accumulo.mapreduce.AccumuloElementFileOutputFormat;
+import org.securegraph.accumulo.mapreduce.ElementMapper;
+import org.securegraph.id.IdGenerator;
+import org.securegraph.id.UUIDIdGenerator;
 import org.securegraph.test.GraphTestBase;
+import org.securegraph.util.ClosableIterable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 import static org.junit.Assert.assertNotEquals;
+import static org.securegraph.util.IterableUtils.count;
 
 @RunWith(JUnit4.class)
 public class AccumuloGraphTest extends GraphTestBase {
@@ -107,6 +139,410 @@ public class AccumuloGraphTest extends GraphTestBase {
         }
     }
 
+    @Test
+    public void testGetVertexWithLazyEdges() {
+        Vertex v1 = graph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v3 = graph.addVertex("v3", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e2", v1, v3, "label2", VISIBILITY_B, AUTHORIZATIONS_B);
+        graph.addEdge("e3", v3, v1, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        AccumuloVertex lazyV1 = (AccumuloVertex) ((AccumuloGraph) graph).getVertexWithLazyEdges("v1", AUTHORIZATIONS_A_AND_B);
+        assertTrue(lazyV1.isLazyEdges());
+        assertEquals("value1", lazyV1.getPropertyValue("prop1"));
+        assertEquals(3, count(lazyV1.getEdgeIds(Direction.BOTH, AUTHORIZATIONS_A_AND_B)));
+        assertEquals(2, count(lazyV1.getEdgeIds(Direction.BOTH, AUTHORIZATIONS_A)));
+        assertEquals(2, count(lazyV1.getEdgeIds(Direction.OUT, AUTHORIZATIONS_A_AND_B)));
+        assertEquals(1, count(lazyV1.getEdges(Direction.OUT, "label1", AUTHORIZATIONS_A)));
+        assertEquals("v3", lazyV1.getVertexIds(Direction.IN, AUTHORIZATIONS_A).iterator().next());
+    }
+
+    @Test
+    public void testGetLazyEdgesFilteredOnServer() {
+        Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v3 = graph.addVertex("v3", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e2", v1, v3, "label2", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e3", v3, v1, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e4", v1, v3, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        AccumuloGraph accumuloGraph = (AccumuloGraph) graph;
+        assertEquals(3, count(accumuloGraph.getEdgeInfos("v1", Direction.BOTH, new String[]{"label1"}, null, AUTHORIZATIONS_A)));
+        assertEquals(2, count(accumuloGraph.getEdgeInfos("v1", Direction.OUT, new String[]{"label1"}, null, AUTHORIZATIONS_A)));
+        assertEquals(2, count(accumuloGraph.getEdgeInfos("v1", Direction.OUT, null, "v3", AUTHORIZATIONS_A)));
+        assertEquals(1, count(accumuloGraph.getEdgeInfos("v1", Direction.OUT, new String[]{"label1"}, "v3", AUTHORIZATIONS_A)));
+        assertEquals(0, count(accumuloGraph.getEdgeInfos("v1", Direction.IN, new String[]{"label2"}, null, AUTHORIZATIONS_A)));
+
+        Vertex lazyV1 = accumuloGraph.getVertexWithLazyEdges("v1", AUTHORIZATIONS_A);
+        assertEquals(1, count(lazyV1.getEdges(v3, Direction.OUT, "label2", AUTHORIZATIONS_A)));
+        assertEquals(2, count(lazyV1.getVertexIds(Direction.OUT, "label1", AUTHORIZATIONS_A)));
+    }
+
+    @Test
+    public void testElementCache() throws Exception {
+        Map configMap = createConfig();
+        configMap.put(AccumuloGraphConfiguration.ELEMENT_CACHE_MAX_SIZE, 2);
+        AccumuloGraph cachedGraph = AccumuloGraph.create(new AccumuloGraphConfiguration(configMap));
+        AccumuloElementCache cache = cachedGraph.getElementCache();
+
+        Vertex v1 = cachedGraph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        Vertex v2 = cachedGraph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        cachedGraph.addVertex("v3", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        assertEquals("value1", cachedGraph.getVertex("v1", AUTHORIZATIONS_A).getPropertyValue("prop1"));
+        assertEquals("value1", cachedGraph.getVertex("v1", AUTHORIZATIONS_A).getPropertyValue("prop1"));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertNull(cachedGraph.getVertex("v1", AUTHORIZATIONS_B));
+        assertEquals(2, cache.getMissCount());
+
+        v1.setProperty("prop1", "value2", VISIBILITY_A);
+        assertEquals("value2", cachedGraph.getVertex("v1", AUTHORIZATIONS_A).getPropertyValue("prop1"));
+
+        cachedGraph.addEdge("e1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        assertEquals(1, count(cachedGraph.getVertex("v1", AUTHORIZATIONS_A).getEdges(Direction.OUT, AUTHORIZATIONS_A)));
+        assertEquals("v1", cachedGraph.getEdge("e1", AUTHORIZATIONS_A).getVertexId(Direction.OUT));
+
+        cachedGraph.getVertex("v2", AUTHORIZATIONS_A);
+        cachedGraph.getVertex("v3", AUTHORIZATIONS_A);
+        assertEquals(2, cache.size());
+        assertTrue(cache.getEvictionCount() > 0);
+        cachedGraph.shutdown();
+    }
+
+    @Test
+    public void testBulkLoadWritesVisibilitiesItsAuthorizationsCannotRead() {
+        // a write only principal, like the other write paths the bulk load does not read what it writes
+        BulkLoad bulkLoad = graph.startBulkLoad(AUTHORIZATIONS_A);
+        Vertex v1 = bulkLoad.prepareVertex("v1", VISIBILITY_A).save();
+        bulkLoad.prepareVertex("v2", VISIBILITY_B).save();
+        bulkLoad.prepareVertex("v3", VISIBILITY_A)
+                .setProperty("prop1", "value1", VISIBILITY_B)
+                .save();
+        bulkLoad.prepareEdge("e1", v1, v1, "label1", VISIBILITY_B).save();
+        bulkLoad.close();
+
+        assertEquals(3, count(graph.getVertices(AUTHORIZATIONS_A_AND_B)));
+        assertEquals(1, count(graph.getEdges(AUTHORIZATIONS_A_AND_B)));
+        assertEquals("value1", graph.getVertex("v3", AUTHORIZATIONS_A_AND_B).getPropertyValue("prop1"));
+        assertEquals(0, count(graph.getVertex("v3", AUTHORIZATIONS_A).getProperties()));
+    }
+
+    @Test
+    public void testAddMutationsTime() throws Exception {
+        Map configMap = createConfig();
+        configMap.put(AccumuloGraphConfiguration.AUTO_FLUSH, false);
+        // every mutation fills the batch writer's memory, so adding the next one waits for the tablet servers
+        configMap.put(AccumuloGraphConfiguration.BATCH_WRITER_MAX_MEMORY, 1L);
+        AccumuloGraph smallWriterGraph = AccumuloGraph.create(new AccumuloGraphConfiguration(configMap));
+        assertEquals(0, smallWriterGraph.getAddMutationsTime());
+
+        for (int i = 0; i < 20; i++) {
+            smallWriterGraph.addVertex("v" + i, VISIBILITY_A, AUTHORIZATIONS_A);
+        }
+        long addMutationsTime = smallWriterGraph.getAddMutationsTime();
+        assertTrue("no time was spent adding mutations", addMutationsTime > 0);
+
+        smallWriterGraph.flush();
+        assertEquals(addMutationsTime, smallWriterGraph.getAddMutationsTime());
+        assertEquals(20, count(smallWriterGraph.getVertices(AUTHORIZATIONS_A)));
+        smallWriterGraph.shutdown();
+    }
+
+    @Test
+    public void testVertexPartitionsFollowTablets() throws Exception {
+        AccumuloGraph accumuloGraph = (AccumuloGraph) graph;
+        for (int i = 0; i < 10; i++) {
+            graph.addVertex("v" + i, VISIBILITY_A, AUTHORIZATIONS_A);
+        }
+        graph.flush();
+        TreeSet<Text> splits = new TreeSet<Text>();
+        splits.add(new Text(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + "v3"));
+        splits.add(new Text(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + "v6"));
+        accumuloGraph.getConnector().tableOperations().addSplits(accumuloGraph.getVerticesTableName(), splits);
+
+        List<Iterable<Vertex>> partitions = accumuloGraph.getVertexPartitions(FetchHint.ALL, AUTHORIZATIONS_A);
+        assertEquals(3, partitions.size());
+        assertEquals(4, count(partitions.get(0)));
+        assertEquals(3, count(partitions.get(1)));
+        assertEquals(3, count(partitions.get(2)));
+    }
+
+    @Test
+    public void testSetPropertyAfterFlushedRemoveIsNotHidden() {
+        graph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", 0, VISIBILITY_A)
+                .save();
+        graph.flush();
+
+        for (int i = 1; i <= 200; i++) {
+            Vertex v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+            v1.removeProperty("prop1");
+            graph.flush();
+            v1.setProperty("prop1", i, VISIBILITY_A);
+            graph.flush();
+            assertEquals(i, graph.getVertex("v1", AUTHORIZATIONS_A).getPropertyValue("prop1"));
+        }
+    }
+
+    @Test
+    public void testBatchScannerThreadsReturnedToBudget() throws Exception {
+        AccumuloGraph accumuloGraph = (AccumuloGraph) graph;
+        List<Object> ids = new ArrayList<Object>();
+        for (int i = 0; i < 10; i++) {
+            graph.addVertex("v" + i, VISIBILITY_A, AUTHORIZATIONS_A);
+            ids.add("v" + i);
+        }
+        graph.addEdge("e1", "v1", "v5", "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e2", "v2", "v6", "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.flush();
+        TreeSet<Text> splits = new TreeSet<Text>();
+        splits.add(new Text(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + "v3"));
+        splits.add(new Text(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + "v6"));
+        accumuloGraph.getConnector().tableOperations().addSplits(accumuloGraph.getVerticesTableName(), splits);
+
+        BatchScannerThreadBudget budget = accumuloGraph.getBatchScannerThreadBudget();
+        int availableThreads = budget.getAvailableThreads();
+
+        ClosableIterable<Vertex> vertices = accumuloGraph.getVertices(ids, AUTHORIZATIONS_A);
+        assertEquals(10, count(vertices));
+        assertEquals(10, count(vertices));
+        assertEquals(availableThreads, budget.getAvailableThreads());
+
+        ClosableIterable<Edge> edges = accumuloGraph.getEdges(Arrays.asList((Object) "e1", "e2"), AUTHORIZATIONS_A);
+        assertEquals(2, count(edges));
+        assertEquals(2, count(edges));
+        assertEquals(availableThreads, budget.getAvailableThreads());
+
+        // iterables that are dropped without being closed hold no threads
+        for (int i = 0; i < availableThreads + 1; i++) {
+            Iterator<Vertex> abandoned = accumuloGraph.getVertices(ids, AUTHORIZATIONS_A).iterator();
+            abandoned.next();
+            assertEquals(availableThreads, budget.getAvailableThreads());
+        }
+
+        vertices = accumuloGraph.getVertices(ids, AUTHORIZATIONS_A);
+        Iterator<Vertex> open = vertices.iterator();
+        open.next();
+        vertices.close();
+        assertFalse(open.hasNext());
+        assertEquals(availableThreads, budget.getAvailableThreads());
+    }
+
+    @Test
+    public void testGetVerticesReadsIdsInChunks() throws Exception {
+        Map configMap = createConfig();
+        configMap.put(AccumuloGraphConfiguration.MULTI_GET_CHUNK_SIZE, 3);
+        AccumuloGraph chunkedGraph = AccumuloGraph.create(new AccumuloGraphConfiguration(configMap));
+        List<Object> ids = new ArrayList<Object>();
+        for (int i = 0; i < 10; i++) {
+            chunkedGraph.addVertex("v" + i, VISIBILITY_A, AUTHORIZATIONS_A);
+            ids.add("v" + i);
+        }
+        chunkedGraph.flush();
+        // an id repeated in another chunk is read once
+        ids.add("v0");
+        ids.add("missing");
+
+        Set<Object> vertexIds = new HashSet<Object>();
+        for (Vertex vertex : chunkedGraph.getVertices(ids, AUTHORIZATIONS_A)) {
+            assertTrue(vertexIds.add(vertex.getId()));
+        }
+        assertEquals(10, vertexIds.size());
+        assertEquals(0, count(chunkedGraph.getVertices(ids, AUTHORIZATIONS_B)));
+        chunkedGraph.shutdown();
+    }
+
+    @Test
+    public void testFetchHintsFailFast() {
+        Vertex v1 = graph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        Vertex v = graph.getVertex("v1", FetchHint.EDGE_REFS, AUTHORIZATIONS_A);
+        try {
+            v.getPropertyValue("prop1");
+            fail("properties should not have been fetched");
+        } catch (SecureGraphException ex) {
+            // expected
+        }
+
+        v = graph.getVertex("v1", EnumSet.of(FetchHint.PROPERTIES, FetchHint.OUT_EDGE_REFS), AUTHORIZATIONS_A);
+        assertEquals("value1", v.getPropertyValue("prop1"));
+        assertEquals(1, count(v.getEdgeIds(Direction.OUT, AUTHORIZATIONS_A)));
+        try {
+            v.getProperty("prop1").getMetadata();
+            fail("property metadata should not have been fetched");
+        } catch (SecureGraphException ex) {
+            // expected
+        }
+        try {
+            v.getEdgeIds(Direction.BOTH, AUTHORIZATIONS_A);
+            fail("in edge refs should not have been fetched");
+        } catch (SecureGraphException ex) {
+            // expected
+        }
+
+        Edge e = graph.getEdge("e1", FetchHint.NONE, AUTHORIZATIONS_A);
+        assertEquals("label1", e.getLabel());
+        try {
+            count(e.getProperties());
+            fail("properties should not have been fetched");
+        } catch (SecureGraphException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testGetVerticesWithPropertyNamesFailFast() {
+        graph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .setProperty("prop2", "value2", VISIBILITY_A)
+                .save();
+
+        AccumuloVertex v1 = (AccumuloVertex) graph.getVertices(Arrays.asList((Object) "v1"), new String[]{"prop2"}, AUTHORIZATIONS_A).iterator().next();
+        assertEquals(1, count(v1.getProperties()));
+        assertEquals("value2", v1.getPropertyValue("prop2"));
+        try {
+            v1.getPropertyValue("prop1");
+            fail("prop1 should not have been fetched");
+        } catch (SecureGraphException ex) {
+            // expected
+        }
+        try {
+            v1.getEdgeIds(Direction.BOTH, AUTHORIZATIONS_A);
+            fail("edge refs should not have been fetched");
+        } catch (SecureGraphException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testElementFileOutputFormat() throws Exception {
+        runElementFileJob(false);
+    }
+
+    @Test
+    public void testElementFileOutputFormatWithCombinedMutations() throws Exception {
+        runElementFileJob(true);
+    }
+
+    private void runElementFileJob(boolean combineMutations) throws Exception {
+        File workDir = File.createTempFile("securegraph-element-files", Long.toString(System.nanoTime()));
+        workDir.delete();
+        workDir.mkdir();
+        File inputFile = new File(workDir, "input.txt");
+        FileWriter inputWriter = new FileWriter(inputFile);
+        try {
+            inputWriter.write("v1\tv2\n");
+            inputWriter.write("v2\tv3\n");
+        } finally {
+            inputWriter.close();
+        }
+
+        ElementFileTestMapper.MUTATION_COUNTS.clear();
+        Job job = new Job(new Configuration());
+        // the default serializations include Avro, which hadoop-client does not bring in
+        job.getConfiguration().set("io.serializations", WritableSerialization.class.getName());
+        for (Object entryObject : createConfig().entrySet()) {
+            Map.Entry entry = (Map.Entry) entryObject;
+            job.getConfiguration().set(entry.getKey().toString(), entry.getValue().toString());
+        }
+        job.getConfiguration().setBoolean(ElementMapper.COMBINE_MUTATIONS, combineMutations);
+        job.setMapperClass(ElementFileTestMapper.class);
+        job.setNumReduceTasks(0);
+        job.setInputFormatClass(TextInputFormat.class);
+        FileInputFormat.addInputPath(job, new Path(inputFile.toURI()));
+        job.setOutputFormatClass(AccumuloElementFileOutputFormat.class);
+        Path outputDir = new Path(new File(workDir, "output").toURI());
+        AccumuloElementFileOutputFormat.setOutputInfo(job, outputDir);
+        assertTrue(job.waitForCompletion(false));
+
+        Path failuresDir = new Path(new File(workDir, "failures").toURI());
+        AccumuloElementFileOutputFormat.importFiles(config.createConnector(), outputDir, failuresDir, job.getConfiguration());
+
+        assertEquals(3, count(graph.getVertices(AUTHORIZATIONS_EMPTY)));
+        assertEquals(2, count(graph.getEdges(AUTHORIZATIONS_EMPTY)));
+        Vertex v2 = graph.getVertex("v2", AUTHORIZATIONS_EMPTY);
+        assertEquals("v2", v2.getPropertyValue("name"));
+        assertEquals(2, count(v2.getEdges(Direction.BOTH, AUTHORIZATIONS_EMPTY)));
+
+        // v2 is saved twice and is a vertex of both edges
+        String verticesTableName = AccumuloGraph.getVerticesTableName(AccumuloGraphConfiguration.DEFAULT_TABLE_NAME_PREFIX);
+        String edgesTableName = AccumuloGraph.getEdgesTableName(AccumuloGraphConfiguration.DEFAULT_TABLE_NAME_PREFIX);
+        String v2Row = verticesTableName + "/" + AccumuloConstants.VERTEX_ROW_KEY_PREFIX + "v2";
+        if (combineMutations) {
+            assertEquals(3, countRows(ElementFileTestMapper.MUTATION_COUNTS, verticesTableName));
+            assertEquals(2, countRows(ElementFileTestMapper.MUTATION_COUNTS, edgesTableName));
+            for (Map.Entry<String, Integer> mutationCount : ElementFileTestMapper.MUTATION_COUNTS.entrySet()) {
+                assertEquals(mutationCount.getKey(), 1, (int) mutationCount.getValue());
+            }
+        } else {
+            assertTrue(ElementFileTestMapper.MUTATION_COUNTS.get(v2Row) > 1);
+        }
+    }
+
+    private static int countRows(Map<String, Integer> mutationCounts, String tableName) {
+        int count = 0;
+        for (String tableAndRow : mutationCounts.keySet()) {
+            if (tableAndRow.startsWith(tableName + "/")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static class ElementFileTestMapper extends ElementMapper<LongWritable, Text, Text, Mutation> {
+        // the local job runner runs the mappers in this JVM
+        static final Map<String, Integer> MUTATION_COUNTS = new ConcurrentHashMap<String, Integer>();
+        private final IdGenerator idGenerator = new UUIDIdGenerator(new HashMap());
+
+        @Override
+        protected void map(LongWritable key, Text line, Context context) throws IOException, InterruptedException {
+            String[] vertexIds = line.toString().split("\t");
+            Visibility visibility = new Visibility("");
+            Vertex outVertex = prepareVertex(vertexIds[0], visibility, null).setProperty("name", vertexIds[0], visibility).save();
+            Vertex inVertex = prepareVertex(vertexIds[1], visibility, null).setProperty("name", vertexIds[1], visibility).save();
+            addEdge(vertexIds[0] + "-" + vertexIds[1], outVertex, inVertex, "label1", visibility, null);
+        }
+
+        @Override
+        protected void saveDataMutation(Context context, Text dataTableName, Mutation m) throws IOException, InterruptedException {
+            context.write(dataTableName, m);
+        }
+
+        @Override
+        protected void saveEdgeMutation(Context context, Text edgesTableName, Mutation m) throws IOException, InterruptedException {
+            countMutation(edgesTableName, m);
+            context.write(edgesTableName, m);
+        }
+
+        @Override
+        protected void saveVertexMutation(Context context, Text verticesTableName, Mutation m) throws IOException, InterruptedException {
+            countMutation(verticesTableName, m);
+            context.write(verticesTableName, m);
+        }
+
+        private static synchronized void countMutation(Text tableName, Mutation m) {
+            String tableAndRow = tableName + "/" + new Text(m.getRow());
+            Integer count = MUTATION_COUNTS.get(tableAndRow);
+            MUTATION_COUNTS.put(tableAndRow, count == null ? 1 : count + 1);
+        }
+
+        @Override
+        protected IdGenerator getIdGenerator() {
+            return idGenerator;
+        }
+    }
+
     public void start() throws IOException, InterruptedException {
         if (accumulo != null) {
             return;
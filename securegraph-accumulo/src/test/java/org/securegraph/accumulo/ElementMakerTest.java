@@ -0,0 +1,112 @@
+package org.securegraph.accumulo;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.io.Text;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.securegraph.Property;
+import org.securegraph.Vertex;
+import org.securegraph.accumulo.serializer.JavaValueSerializer;
+import org.securegraph.accumulo.serializer.ValueSerializer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.securegraph.util.IterableUtils.toList;
+
+@RunWith(JUnit4.class)
+public class ElementMakerTest {
+    private static final String SEP = ElementMutationBuilder.VALUE_SEPARATOR;
+    private ValueSerializer valueSerializer;
+    private AccumuloGraph graph;
+
+    @Before
+    public void before() {
+        valueSerializer = new JavaValueSerializer(new HashMap());
+        // the rows are decoded without reading anything from accumulo
+        graph = new AccumuloGraph(new AccumuloGraphConfiguration(new HashMap()), null, null, null, null, valueSerializer);
+    }
+
+    @Test
+    public void testVisibilitiesAndPropertyNamesAreSharedBetweenRows() {
+        Vertex v1 = makeVertex(createRow("v1", "a", "prop1", "value1", "a&b"));
+        Vertex v2 = makeVertex(createRow("v2", "a", "prop1", "value2", "a&b"));
+
+        assertEquals("v1", v1.getId());
+        assertEquals("v2", v2.getId());
+        assertSame(v1.getVisibility(), v2.getVisibility());
+        Property p1 = v1.getProperty("prop1");
+        Property p2 = v2.getProperty("prop1");
+        assertEquals("value1", p1.getValue());
+        assertEquals("value2", p2.getValue());
+        assertSame(p1.getName(), p2.getName());
+        assertSame(p1.getVisibility(), p2.getVisibility());
+        assertEquals("a&b", p1.getVisibility().getVisibilityString());
+    }
+
+    @Test
+    public void testPropertiesAreNotCarriedToTheNextRow() {
+        TreeMap<Key, Value> row1 = createRow("v1", "a", "prop1", "value1", "a");
+        addProperty(row1, "v1", "prop2", "value2", "b");
+        Vertex v1 = makeVertex(row1);
+        Vertex v2 = makeVertex(createRow("v2", "b", "prop1", "value3", "b"));
+
+        assertEquals(2, toList(v1.getProperties()).size());
+        List<Property> v2Properties = toList(v2.getProperties());
+        assertEquals(1, v2Properties.size());
+        assertEquals("value3", v2Properties.get(0).getValue());
+        assertEquals("b", v2Properties.get(0).getVisibility().getVisibilityString());
+        assertNotSame(v1.getVisibility(), v2.getVisibility());
+        assertEquals("b", v2.getVisibility().getVisibilityString());
+    }
+
+    @Test
+    public void testPropertiesWithTheSameKeyAndDifferentVisibilitiesAreKeptApart() {
+        TreeMap<Key, Value> row = createRow("v1", "a", "prop1", "value1", "a");
+        addProperty(row, "v1", "prop1", "value2", "b");
+        Vertex v1 = makeVertex(row);
+
+        List<Property> properties = toList(v1.getProperties());
+        assertEquals(2, properties.size());
+        Set<String> values = new HashSet<String>();
+        for (Property property : properties) {
+            values.add(property.getVisibility().getVisibilityString() + "=" + property.getValue());
+        }
+        assertEquals(new HashSet<String>(Arrays.asList("a=value1", "b=value2")), values);
+    }
+
+    @Test
+    public void testCachesAreClearedWhenFull() {
+        Vertex v1 = makeVertex(createRow("v1", "a", "prop1", "value1", "a"));
+        for (int i = 0; i < ElementMaker.MAX_CACHED_STRINGS; i++) {
+            makeVertex(createRow("v" + i, "vis" + i, "name" + i, "value", "vis" + i));
+        }
+        Vertex v2 = makeVertex(createRow("v2", "a", "prop1", "value2", "a"));
+
+        assertNotSame(v1.getVisibility(), v2.getVisibility());
+        assertEquals(v1.getVisibility(), v2.getVisibility());
+        assertNotSame(v1.getProperty("prop1").getName(), v2.getProperty("prop1").getName());
+        assertEquals("prop1", v2.getProperty("prop1").getName());
+    }
+
+    private Vertex makeVertex(TreeMap<Key, Value> row) {
+        return new VertexMaker(graph, row.entrySet().iterator()).make();
+    }
+
+    private TreeMap<Key, Value> createRow(String vertexId, String vertexVisibility, String propertyName, String propertyValue, String propertyVisibility) {
+        TreeMap<Key, Value> row = new TreeMap<Key, Value>();
+        row.put(new Key(new Text(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertexId), AccumuloVertex.CF_SIGNAL, new Text(""), new Text(vertexVisibility)), new Value(new byte[0]));
+        addProperty(row, vertexId, propertyName, propertyValue, propertyVisibility);
+        return row;
+    }
+
+    private void addProperty(TreeMap<Key, Value> row, String vertexId, String propertyName, String propertyValue, String propertyVisibility) {
+        Text rowKey = new Text(AccumuloConstants.VERTEX_ROW_KEY_PREFIX + vertexId);
+        Text columnQualifier = new Text(propertyName + SEP + "k");
+        row.put(new Key(rowKey, AccumuloElement.CF_PROPERTY, columnQualifier, new Text(propertyVisibility)), valueSerializer.objectToValue(propertyValue));
+        row.put(new Key(rowKey, AccumuloElement.CF_PROPERTY_METADATA, columnQualifier, new Text(propertyVisibility)), new Value(new byte[0]));
+    }
+}
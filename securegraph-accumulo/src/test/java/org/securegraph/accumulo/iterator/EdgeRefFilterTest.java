@@ -0,0 +1,87 @@
+package org.securegraph.accumulo.iterator;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.securegraph.accumulo.EdgeInfo;
+import org.securegraph.accumulo.serializer.CompactValueSerializer;
+import org.securegraph.accumulo.serializer.JavaValueSerializer;
+import org.securegraph.accumulo.serializer.ValueSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class EdgeRefFilterTest {
+    private static final ValueSerializer JAVA_VALUE_SERIALIZER = new JavaValueSerializer(new HashMap());
+    private static final ValueSerializer COMPACT_VALUE_SERIALIZER = new CompactValueSerializer(new HashMap());
+
+    @Test
+    public void testDirection() throws IOException {
+        assertEquals(Arrays.asList("EIN:e1", "EIN:e2", "EIN:e3", "EIN:e4", "EOUT:e5", "EOUT:e6", "V:"), readColumns(createFilter(EdgeRefFilter.DIRECTION_BOTH, null, null)));
+        assertEquals(Arrays.asList("EIN:e1", "EIN:e2", "EIN:e3", "EIN:e4", "V:"), readColumns(createFilter(EdgeRefFilter.DIRECTION_IN, null, null)));
+        assertEquals(Arrays.asList("EOUT:e5", "EOUT:e6", "V:"), readColumns(createFilter(EdgeRefFilter.DIRECTION_OUT, null, null)));
+    }
+
+    @Test
+    public void testLabelsOfJavaAndCompactValues() throws IOException {
+        // e1 is java serialized and e2 is compact, e3 and e4 cannot be read on the server so they are passed through
+        assertEquals(Arrays.asList("EIN:e1", "EIN:e2", "EIN:e3", "EIN:e4", "EOUT:e5", "V:"), readColumns(createFilter(EdgeRefFilter.DIRECTION_BOTH, new String[]{"label1"}, null)));
+        assertEquals(Arrays.asList("EIN:e3", "EIN:e4", "EOUT:e6", "V:"), readColumns(createFilter(EdgeRefFilter.DIRECTION_BOTH, new String[]{"label2"}, null)));
+        assertEquals(Arrays.asList("EIN:e1", "EIN:e2", "EIN:e3", "EIN:e4", "EOUT:e5", "EOUT:e6", "V:"), readColumns(createFilter(EdgeRefFilter.DIRECTION_BOTH, new String[]{"label1", "label2"}, null)));
+    }
+
+    @Test
+    public void testOtherVertexIdOfJavaAndCompactValues() throws IOException {
+        assertEquals(Arrays.asList("EIN:e1", "EIN:e3", "EIN:e4", "EOUT:e6", "V:"), readColumns(createFilter(EdgeRefFilter.DIRECTION_BOTH, null, "v2")));
+        assertEquals(Arrays.asList("EIN:e2", "EIN:e3", "EIN:e4", "EOUT:e5", "V:"), readColumns(createFilter(EdgeRefFilter.DIRECTION_BOTH, null, "v3")));
+        assertEquals(Arrays.asList("EIN:e2", "EIN:e3", "EIN:e4", "V:"), readColumns(createFilter(EdgeRefFilter.DIRECTION_IN, new String[]{"label1"}, "v3")));
+    }
+
+    private static TreeMap<Key, Value> createRows() {
+        TreeMap<Key, Value> rows = new TreeMap<Key, Value>();
+        rows.put(new Key("Vv1", "V", ""), new Value(new byte[0]));
+        rows.put(new Key("Vv1", "EIN", "e1"), JAVA_VALUE_SERIALIZER.objectToValue(new EdgeInfo("label1", "v2")));
+        rows.put(new Key("Vv1", "EIN", "e2"), COMPACT_VALUE_SERIALIZER.objectToValue(new EdgeInfo("label1", "v3")));
+        // the vertex id is not a string
+        rows.put(new Key("Vv1", "EIN", "e3"), COMPACT_VALUE_SERIALIZER.objectToValue(new EdgeInfo("label1", 4L)));
+        // neither java serialization nor the compact format
+        rows.put(new Key("Vv1", "EIN", "e4"), new Value(new byte[]{0x7f, 1, 2}));
+        rows.put(new Key("Vv1", "EOUT", "e5"), COMPACT_VALUE_SERIALIZER.objectToValue(new EdgeInfo("label1", "v3")));
+        rows.put(new Key("Vv1", "EOUT", "e6"), JAVA_VALUE_SERIALIZER.objectToValue(new EdgeInfo("label2", "v2")));
+        return rows;
+    }
+
+    private static EdgeRefFilter createFilter(String direction, String[] labels, Object otherVertexId) throws IOException {
+        IteratorSetting setting = new IteratorSetting(100, EdgeRefFilter.class);
+        EdgeRefFilter.setDirection(setting, direction);
+        EdgeRefFilter.setLabels(setting, labels);
+        EdgeRefFilter.setOtherVertexId(setting, otherVertexId);
+        EdgeRefFilter filter = new EdgeRefFilter();
+        filter.init(new SortedMapIterator(createRows()), setting.getOptions(), null);
+        filter.seek(new Range(), new ArrayList<ByteSequence>(), false);
+        return filter;
+    }
+
+    private static List<String> readColumns(EdgeRefFilter filter) throws IOException {
+        List<String> columns = new ArrayList<String>();
+        while (filter.hasTop()) {
+            Key key = filter.getTopKey();
+            columns.add(key.getColumnFamily() + ":" + key.getColumnQualifier());
+            filter.next();
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,157 @@
+package org.securegraph.accumulo.iterator;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.securegraph.SecureGraphException;
+import org.securegraph.accumulo.ElementRowDecoder;
+
+import java.io.IOException;
+import java.util.*;
+
+import static junit.framework.Assert.*;
+import static org.junit.Assert.assertArrayEquals;
+
+@RunWith(JUnit4.class)
+public class ElementRowIteratorTest {
+    @Test
+    public void testEncodesEveryColumnOfTheRow() throws IOException {
+        TreeMap<Key, Value> rows = createRows();
+        ElementRowIterator it = createIterator(rows, null);
+        it.seek(new Range(), new ArrayList<ByteSequence>(), false);
+
+        List<Map.Entry<Key, Value>> v1Columns = new ArrayList<Map.Entry<Key, Value>>(rows.headMap(new Key("Vv2")).entrySet());
+        assertTrue(it.hasTop());
+        assertEquals(new Key("Vv1"), it.getTopKey());
+        assertColumns(v1Columns, ElementRowDecoder.decodeRow(it.getTopKey(), it.getTopValue()));
+    }
+
+    @Test
+    public void testReturnsEveryRowWithoutFilter() throws IOException {
+        ElementRowIterator it = createIterator(createRows(), null);
+        it.seek(new Range(), new ArrayList<ByteSequence>(), false);
+        assertEquals(Arrays.asList("Vv1", "Vv2", "Vv3"), readRows(it));
+    }
+
+    @Test
+    public void testDropsRowsWithoutAVisibleSignal() throws IOException {
+        ElementRowIterator it = createIterator(createRows(), ElementRowIterator.OPT_FILTER_VERTICES);
+        it.seek(new Range(), new ArrayList<ByteSequence>(), false);
+        assertEquals(Arrays.asList("Vv1", "Vv3"), readRows(it));
+
+        it = createIterator(createRows(), ElementRowIterator.OPT_FILTER_EDGES);
+        it.seek(new Range(), new ArrayList<ByteSequence>(), false);
+        assertEquals(new ArrayList<String>(), readRows(it));
+    }
+
+    @Test
+    public void testSeekAfterAReturnedRowContinuesWithTheFollowingRow() throws IOException {
+        ElementRowIterator it = createIterator(createRows(), null);
+        // a scanner that is interrupted re-seeks with the last key it was returned as an exclusive start key
+        it.seek(new Range(new Key("Vv1"), false, null, true), new ArrayList<ByteSequence>(), false);
+        assertEquals(Arrays.asList("Vv2", "Vv3"), readRows(it));
+
+        it.seek(new Range(new Key("Vv2"), false, new Key("Vv3"), false), new ArrayList<ByteSequence>(), false);
+        assertEquals(new ArrayList<String>(), readRows(it));
+
+        it.seek(new Range(new Key("Vv3"), false, null, true), new ArrayList<ByteSequence>(), false);
+        assertEquals(new ArrayList<String>(), readRows(it));
+    }
+
+    @Test
+    public void testSeekToARowRange() throws IOException {
+        ElementRowIterator it = createIterator(createRows(), ElementRowIterator.OPT_FILTER_VERTICES);
+        it.seek(Range.exact("Vv3"), new ArrayList<ByteSequence>(), false);
+        assertEquals(Arrays.asList("Vv3"), readRows(it));
+
+        it.seek(new Range("Vv2", "Vv3"), new ArrayList<ByteSequence>(), false);
+        assertEquals(Arrays.asList("Vv3"), readRows(it));
+    }
+
+    @Test
+    public void testDeepCopy() throws IOException {
+        ElementRowIterator it = createIterator(createRows(), ElementRowIterator.OPT_FILTER_VERTICES);
+        SortedKeyValueIterator<Key, Value> copy = it.deepCopy(null);
+        copy.seek(new Range(), new ArrayList<ByteSequence>(), false);
+        it.seek(Range.exact("Vv3"), new ArrayList<ByteSequence>(), false);
+        assertEquals(Arrays.asList("Vv1", "Vv3"), readRows(copy));
+        assertEquals(Arrays.asList("Vv3"), readRows(it));
+    }
+
+    @Test
+    public void testDecodeEmptyRow() {
+        assertFalse(ElementRowDecoder.decodeRow(new Key("Vv1"), new Value(new byte[0])).hasNext());
+    }
+
+    @Test
+    public void testDecodeInvalidRow() throws IOException {
+        ElementRowIterator it = createIterator(createRows(), null);
+        it.seek(new Range(), new ArrayList<ByteSequence>(), false);
+        byte[] bytes = it.getTopValue().get();
+        Iterator<Map.Entry<Key, Value>> columns = ElementRowDecoder.decodeRow(it.getTopKey(), new Value(Arrays.copyOf(bytes, bytes.length - 1)));
+        try {
+            while (columns.hasNext()) {
+                columns.next();
+            }
+            fail("a truncated row should not decode");
+        } catch (SecureGraphException ex) {
+            // expected
+        }
+    }
+
+    private static TreeMap<Key, Value> createRows() {
+        TreeMap<Key, Value> rows = new TreeMap<Key, Value>();
+        rows.put(new Key(new Text("Vv1"), new Text("V"), new Text(""), new Text("a"), 10L), new Value(new byte[0]));
+        rows.put(new Key(new Text("Vv1"), new Text("EOUT"), new Text("e1"), new Text("a&b"), 11L), new Value(new byte[]{1, 2, 3}));
+        rows.put(new Key(new Text("Vv1"), new Text("PROP"), new Text("prop1\u001fk"), new Text(""), Long.MAX_VALUE - 1), new Value("value1".getBytes()));
+        rows.put(new Key(new Text("Vv1"), new Text("PROPMETA"), new Text("prop1\u001fk\u001fm"), new Text("b"), 0L), new Value(new byte[300]));
+        // a row without a signal column, as seen by a user who cannot see the vertex but can see one of its properties
+        rows.put(new Key(new Text("Vv2"), new Text("PROP"), new Text("prop1\u001fk"), new Text("c"), 12L), new Value("value2".getBytes()));
+        rows.put(new Key(new Text("Vv3"), new Text("V"), new Text(""), new Text(""), 13L), new Value(new byte[0]));
+        return rows;
+    }
+
+    private static ElementRowIterator createIterator(TreeMap<Key, Value> rows, String filterOption) throws IOException {
+        Map<String, String> options = new HashMap<String, String>();
+        if (filterOption != null) {
+            options.put(filterOption, Boolean.TRUE.toString());
+        }
+        ElementRowIterator it = new ElementRowIterator();
+        it.init(new SortedMapIterator(rows), options, null);
+        return it;
+    }
+
+    private static List<String> readRows(SortedKeyValueIterator<Key, Value> it) throws IOException {
+        List<String> rows = new ArrayList<String>();
+        while (it.hasTop()) {
+            assertEquals(0, it.getTopKey().getColumnFamilyData().length());
+            rows.add(it.getTopKey().getRow().toString());
+            it.next();
+        }
+        return rows;
+    }
+
+    private static void assertColumns(List<Map.Entry<Key, Value>> expected, Iterator<Map.Entry<Key, Value>> actual) {
+        for (Map.Entry<Key, Value> expectedColumn : expected) {
+            assertTrue(actual.hasNext());
+            Map.Entry<Key, Value> actualColumn = actual.next();
+            assertEquals(expectedColumn.getKey(), actualColumn.getKey());
+            assertEquals(expectedColumn.getKey().getTimestamp(), actualColumn.getKey().getTimestamp());
+            assertArrayEquals(expectedColumn.getValue().get(), actualColumn.getValue().get());
+        }
+        assertFalse(actual.hasNext());
+        try {
+            actual.next();
+            fail("the row has no more columns");
+        } catch (NoSuchElementException ex) {
+            // expected
+        }
+    }
+}
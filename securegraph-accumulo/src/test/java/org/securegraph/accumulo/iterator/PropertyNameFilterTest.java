@@ -0,0 +1,67 @@
+package org.securegraph.accumulo.iterator;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class PropertyNameFilterTest {
+    private static final String SEP = "\u001f";
+
+    @Test
+    public void testKeepsWantedProperties() throws IOException {
+        PropertyNameFilter filter = createFilter(createRows(), "prop2");
+        filter.seek(new Range(), new ArrayList<ByteSequence>(), false);
+        assertEquals(Arrays.asList("PROP:prop2" + SEP + "k", "PROPMETA:prop2" + SEP + "k" + SEP + "m", "V:"), readColumns(filter));
+    }
+
+    @Test
+    public void testStopsAtTheEndOfTheRange() throws IOException {
+        PropertyNameFilter filter = createFilter(createRows(), "prop3");
+        Range range = new Range(new Key("Vv1", "PROP", "prop1" + SEP + "k"), true, new Key("Vv1", "PROP", "prop2" + SEP + "k"), true);
+        filter.seek(range, new ArrayList<ByteSequence>(), false);
+        assertEquals(new ArrayList<String>(), readColumns(filter));
+    }
+
+    private static TreeMap<Key, Value> createRows() {
+        TreeMap<Key, Value> rows = new TreeMap<Key, Value>();
+        rows.put(new Key("Vv1", "V", ""), new Value(new byte[0]));
+        rows.put(new Key("Vv1", "PROP", "prop1" + SEP + "k"), new Value(new byte[0]));
+        rows.put(new Key("Vv1", "PROP", "prop2" + SEP + "k"), new Value(new byte[0]));
+        rows.put(new Key("Vv1", "PROPMETA", "prop1" + SEP + "k" + SEP + "m"), new Value(new byte[0]));
+        rows.put(new Key("Vv1", "PROPMETA", "prop2" + SEP + "k" + SEP + "m"), new Value(new byte[0]));
+        return rows;
+    }
+
+    private static PropertyNameFilter createFilter(TreeMap<Key, Value> rows, String... propertyNames) throws IOException {
+        IteratorSetting setting = new IteratorSetting(100, PropertyNameFilter.class);
+        PropertyNameFilter.setPropertyNames(setting, Arrays.asList(propertyNames));
+        PropertyNameFilter filter = new PropertyNameFilter();
+        filter.init(new SortedMapIterator(rows), setting.getOptions(), null);
+        return filter;
+    }
+
+    private static List<String> readColumns(PropertyNameFilter filter) throws IOException {
+        List<String> columns = new ArrayList<String>();
+        while (filter.hasTop()) {
+            Key key = filter.getTopKey();
+            columns.add(key.getColumnFamily() + ":" + key.getColumnQualifier());
+            filter.next();
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,149 @@
+package org.securegraph.accumulo.serializer;
+
+import org.apache.accumulo.core.data.Value;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.securegraph.accumulo.EdgeInfo;
+import org.securegraph.type.GeoPoint;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static junit.framework.Assert.*;
+import static org.junit.Assert.assertArrayEquals;
+
+@RunWith(JUnit4.class)
+public class CompactValueSerializerTest {
+    private final CompactValueSerializer serializer = new CompactValueSerializer(new HashMap());
+
+    @Test
+    public void testNull() {
+        assertNull(roundTrip(null));
+    }
+
+    @Test
+    public void testString() {
+        assertEquals("", roundTrip(""));
+        assertEquals("value1", roundTrip("value1"));
+        assertEquals("\u00e9\u4e2d\ud83d\ude00", roundTrip("\u00e9\u4e2d\ud83d\ude00"));
+    }
+
+    @Test
+    public void testNumbers() {
+        for (int i : new int[]{0, 1, -1, 127, -128, 128, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            assertEquals((Object) i, roundTrip(i));
+        }
+        for (long l : new long[]{0L, 1L, -1L, Integer.MAX_VALUE + 1L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals((Object) l, roundTrip(l));
+        }
+        for (short s : new short[]{0, -1, Short.MAX_VALUE, Short.MIN_VALUE}) {
+            assertEquals((Object) s, roundTrip(s));
+        }
+        for (byte b : new byte[]{0, -1, Byte.MAX_VALUE, Byte.MIN_VALUE}) {
+            assertEquals((Object) b, roundTrip(b));
+        }
+        assertEquals((Object) 1.5, roundTrip(1.5));
+        assertEquals((Object) Double.NaN, roundTrip(Double.NaN));
+        assertEquals((Object) (-0.25f), roundTrip(-0.25f));
+        assertEquals((Object) Float.MAX_VALUE, roundTrip(Float.MAX_VALUE));
+    }
+
+    @Test
+    public void testBoolean() {
+        assertEquals((Object) true, roundTrip(true));
+        assertEquals((Object) false, roundTrip(false));
+    }
+
+    @Test
+    public void testDate() {
+        assertEquals(new Date(0), roundTrip(new Date(0)));
+        assertEquals(new Date(1400000000123L), roundTrip(new Date(1400000000123L)));
+        assertEquals(new Date(-1000L), roundTrip(new Date(-1000L)));
+    }
+
+    @Test
+    public void testGeoPoint() {
+        GeoPoint geoPoint = (GeoPoint) roundTrip(new GeoPoint(38.9, -77.0));
+        assertEquals(new GeoPoint(38.9, -77.0), geoPoint);
+        assertNull(geoPoint.getAltitude());
+        assertNull(geoPoint.getDescription());
+
+        geoPoint = (GeoPoint) roundTrip(new GeoPoint(38.9, -77.0, 100.5, "Washington, DC"));
+        assertEquals(new GeoPoint(38.9, -77.0, 100.5), geoPoint);
+        assertEquals("Washington, DC", geoPoint.getDescription());
+
+        geoPoint = (GeoPoint) roundTrip(new GeoPoint(38.9, -77.0, "Washington, DC"));
+        assertNull(geoPoint.getAltitude());
+        assertEquals("Washington, DC", geoPoint.getDescription());
+    }
+
+    @Test
+    public void testMap() {
+        Map<Object, Object> nested = new HashMap<Object, Object>();
+        nested.put("date", new Date(1000L));
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        map.put("string", "value1");
+        map.put("int", 10);
+        map.put("null", null);
+        map.put(5L, "long key");
+        map.put("nested", nested);
+        assertEquals(map, roundTrip(map));
+        assertEquals(new HashMap<Object, Object>(), roundTrip(new HashMap<Object, Object>()));
+    }
+
+    @Test
+    public void testEdgeInfo() {
+        EdgeInfo edgeInfo = (EdgeInfo) roundTrip(new EdgeInfo("label1", "v1"));
+        assertEquals("label1", edgeInfo.getLabel());
+        assertEquals("v1", edgeInfo.getVertexId());
+
+        edgeInfo = (EdgeInfo) roundTrip(new EdgeInfo("label1", 10L));
+        assertEquals("label1", edgeInfo.getLabel());
+        assertEquals((Object) 10L, edgeInfo.getVertexId());
+
+        // written with java serialization inside the compact value
+        edgeInfo = (EdgeInfo) roundTrip(new EdgeInfo(null, "v1"));
+        assertNull(edgeInfo.getLabel());
+        assertEquals("v1", edgeInfo.getVertexId());
+    }
+
+    @Test
+    public void testByteArray() {
+        assertArrayEquals(new byte[0], (byte[]) roundTrip(new byte[0]));
+        assertArrayEquals(new byte[]{1, 2, -1, 0}, (byte[]) roundTrip(new byte[]{1, 2, -1, 0}));
+    }
+
+    @Test
+    public void testOtherTypesUseJavaSerialization() {
+        assertEquals(new BigDecimal("12.345"), roundTrip(new BigDecimal("12.345")));
+        assertEquals(Arrays.asList("a", 1), roundTrip(new ArrayList<Object>(Arrays.asList("a", 1))));
+        assertEquals(new TreeMap<String, Integer>(Collections.singletonMap("a", 1)), roundTrip(new TreeMap<String, Integer>(Collections.singletonMap("a", 1))));
+    }
+
+    @Test
+    public void testReadsJavaSerializedValues() {
+        JavaValueSerializer javaValueSerializer = new JavaValueSerializer(new HashMap());
+        assertEquals("value1", (Object) serializer.valueToObject(javaValueSerializer.objectToValue("value1")));
+        assertEquals(new Date(1000L), (Object) serializer.valueToObject(javaValueSerializer.objectToValue(new Date(1000L))));
+        EdgeInfo edgeInfo = (EdgeInfo) serializer.valueToObject(javaValueSerializer.objectToValue(new EdgeInfo("label1", "v1")));
+        assertEquals("label1", edgeInfo.getLabel());
+        assertEquals("v1", edgeInfo.getVertexId());
+    }
+
+    @Test
+    public void testIsSmallerThanJavaSerialization() {
+        JavaValueSerializer javaValueSerializer = new JavaValueSerializer(new HashMap());
+        Object[] values = new Object[]{"value1", 10, 10L, new Date(1000L), new GeoPoint(38.9, -77.0), new EdgeInfo("label1", "v1")};
+        for (Object value : values) {
+            int compactLength = serializer.objectToValue(value).getSize();
+            int javaLength = javaValueSerializer.objectToValue(value).getSize();
+            assertTrue(value + ": " + compactLength + " >= " + javaLength, compactLength < javaLength);
+        }
+    }
+
+    private Object roundTrip(Object value) {
+        Value serialized = serializer.objectToValue(value);
+        return serializer.valueToObject(new Value(serialized.get()));
+    }
+}
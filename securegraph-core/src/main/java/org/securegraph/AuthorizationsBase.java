@@ -0,0 +1,68 @@
+package org.securegraph;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.securegraph.util.Preconditions.checkNotNull;
+
+/**
+ * Evaluates visibilities with {@link VisibilityExpression} and remembers the result for each visibility
+ * string, so an element or property visibility seen before is not evaluated again.
+ */
+public abstract class AuthorizationsBase implements Authorizations {
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_CACHED_RESULTS = 10000;
+    private final String[] authorizations;
+    private transient Set<String> authorizationsSet;
+    private transient ConcurrentMap<String, Boolean> canReadCache;
+
+    protected AuthorizationsBase(String... authorizations) {
+        this.authorizations = authorizations;
+        init();
+    }
+
+    private void init() {
+        this.authorizationsSet = new HashSet<String>(Arrays.asList(this.authorizations));
+        this.canReadCache = new ConcurrentHashMap<String, Boolean>();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+    }
+
+    @Override
+    public String[] getAuthorizations() {
+        return authorizations;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(authorizations);
+    }
+
+    @Override
+    public boolean canRead(Visibility visibility) {
+        checkNotNull(visibility, "visibility is required");
+
+        String visibilityString = visibility.getVisibilityString();
+        if (visibilityString.length() == 0) {
+            return true;
+        }
+
+        Boolean result = canReadCache.get(visibilityString);
+        if (result == null) {
+            result = VisibilityExpression.compile(visibilityString).evaluate(authorizationsSet);
+            if (canReadCache.size() >= MAX_CACHED_RESULTS) {
+                canReadCache.clear();
+            }
+            canReadCache.put(visibilityString, result);
+        }
+        return result;
+    }
+}
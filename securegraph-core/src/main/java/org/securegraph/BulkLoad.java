@@ -0,0 +1,53 @@
+package org.securegraph;
+
+/**
+ * A session for loading many vertices and edges into the graph, started with
+ * {@link Graph#startBulkLoad(Authorizations)}. Elements saved through the builders of a session are buffered
+ * and written to the graph and the search index in groups. Elements are not guaranteed to be readable before
+ * the group they are in is committed. A session is not thread safe, use one session per thread.
+ */
+public interface BulkLoad {
+    /**
+     * Prepare a vertex to be added to the graph as part of this bulk load.
+     *
+     * @param vertexId   The id to assign the new vertex. null to generate an id.
+     * @param visibility The visibility to assign to the new vertex.
+     * @return The vertex builder.
+     */
+    VertexBuilder prepareVertex(Object vertexId, Visibility visibility);
+
+    /**
+     * Prepare an edge to be added to the graph as part of this bulk load.
+     *
+     * @param edgeId     The id to assign the new edge. null to generate an id.
+     * @param outVertex  The source vertex. The "out" side of the edge.
+     * @param inVertex   The destination vertex. The "in" side of the edge.
+     * @param label      The label to assign to the edge. eg knows, works at, etc.
+     * @param visibility The visibility to assign to the new edge.
+     * @return The edge builder.
+     */
+    EdgeBuilder prepareEdge(Object edgeId, Vertex outVertex, Vertex inVertex, String label, Visibility visibility);
+
+    /**
+     * Prepare an edge between two vertices given their ids to be added to the graph as part of this bulk load.
+     * The vertices are not read.
+     *
+     * @param edgeId      The id to assign the new edge. null to generate an id.
+     * @param outVertexId The id of the source vertex. The "out" side of the edge.
+     * @param inVertexId  The id of the destination vertex. The "in" side of the edge.
+     * @param label       The label to assign to the edge. eg knows, works at, etc.
+     * @param visibility  The visibility to assign to the new edge.
+     * @return The edge builder.
+     */
+    EdgeBuilder prepareEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility);
+
+    /**
+     * Writes the elements buffered so far to the graph and the search index.
+     */
+    void commit();
+
+    /**
+     * Commits the buffered elements and flushes the graph. The session can not be used afterwards.
+     */
+    void close();
+}
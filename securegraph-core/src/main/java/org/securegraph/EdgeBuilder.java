@@ -2,15 +2,23 @@ package org.securegraph;
 
 public abstract class EdgeBuilder extends ElementBuilder<Edge> {
     private Object edgeId;
+    private Object outVertexId;
+    private Object inVertexId;
     private Vertex outVertex;
     private Vertex inVertex;
     private String label;
     private Visibility visibility;
 
     public EdgeBuilder(Object edgeId, Vertex outVertex, Vertex inVertex, String label, Visibility visibility) {
-        this.edgeId = edgeId;
+        this(edgeId, outVertex.getId(), inVertex.getId(), label, visibility);
         this.outVertex = outVertex;
         this.inVertex = inVertex;
+    }
+
+    public EdgeBuilder(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility) {
+        this.edgeId = edgeId;
+        this.outVertexId = outVertexId;
+        this.inVertexId = inVertexId;
         this.label = label;
         this.visibility = visibility;
     }
@@ -27,10 +35,24 @@ public abstract class EdgeBuilder extends ElementBuilder<Edge> {
         return edgeId;
     }
 
+    protected Object getOutVertexId() {
+        return outVertexId;
+    }
+
+    protected Object getInVertexId() {
+        return inVertexId;
+    }
+
+    /**
+     * The source vertex, null if the edge is being built from the vertex ids.
+     */
     protected Vertex getOutVertex() {
         return outVertex;
     }
 
+    /**
+     * The destination vertex, null if the edge is being built from the vertex ids.
+     */
     protected Vertex getInVertex() {
         return inVertex;
     }
@@ -0,0 +1,49 @@
+package org.securegraph;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Hints passed to the graph when reading elements, describing which parts of the elements the caller
+ * needs. Implementations may load more than requested, but an element that was read without a part
+ * may throw a {@link SecureGraphException} when that part is accessed.
+ */
+public enum FetchHint {
+    /**
+     * The properties of the element.
+     */
+    PROPERTIES,
+    /**
+     * The metadata of the properties of the element.
+     */
+    PROPERTY_METADATA,
+    /**
+     * The ids and labels of the edges coming in to a vertex.
+     */
+    IN_EDGE_REFS,
+    /**
+     * The ids and labels of the edges going out of a vertex.
+     */
+    OUT_EDGE_REFS;
+
+    /**
+     * Read only the element itself. Ids, visibilities and the labels and vertex ids of edges are always read.
+     */
+    public static final Set<FetchHint> NONE = Collections.unmodifiableSet(EnumSet.noneOf(FetchHint.class));
+
+    /**
+     * Read the properties with their metadata but no edge references.
+     */
+    public static final Set<FetchHint> PROPERTIES_AND_METADATA = Collections.unmodifiableSet(EnumSet.of(PROPERTIES, PROPERTY_METADATA));
+
+    /**
+     * Read the edge references in both directions but no properties.
+     */
+    public static final Set<FetchHint> EDGE_REFS = Collections.unmodifiableSet(EnumSet.of(IN_EDGE_REFS, OUT_EDGE_REFS));
+
+    /**
+     * Read everything, this is what the graph reads when no fetch hints are given.
+     */
+    public static final Set<FetchHint> ALL = Collections.unmodifiableSet(EnumSet.of(PROPERTIES, PROPERTY_METADATA, IN_EDGE_REFS, OUT_EDGE_REFS));
+}
@@ -1,9 +1,12 @@
 package org.securegraph;
 
 import org.securegraph.id.IdGenerator;
+import org.securegraph.mutation.BlindElementMutation;
 import org.securegraph.query.GraphQuery;
+import org.securegraph.util.ClosableIterable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface Graph {
@@ -56,6 +59,16 @@ public interface Graph {
      */
     Vertex getVertex(Object vertexId, Authorizations authorizations);
 
+    /**
+     * Get a vertex from the graph, reading only the parts of the vertex described by the fetch hints.
+     *
+     * @param vertexId       The vertex id to retrieve from the graph.
+     * @param fetchHints     The parts of the vertex to read. See {@link FetchHint}.
+     * @param authorizations The authorizations required to load the vertex.
+     * @return The vertex if successful. null if the vertex is not found or the required authorizations were not provided.
+     */
+    Vertex getVertex(Object vertexId, Set<FetchHint> fetchHints, Authorizations authorizations);
+
     /**
      * Gets all vertices on the graph.
      *
@@ -64,6 +77,26 @@ public interface Graph {
      */
     Iterable<Vertex> getVertices(Authorizations authorizations);
 
+    /**
+     * Gets all vertices on the graph, reading only the parts of the vertices described by the fetch hints.
+     *
+     * @param fetchHints     The parts of the vertices to read. See {@link FetchHint}.
+     * @param authorizations The authorizations required to load the vertex.
+     * @return An iterable of all the vertices.
+     */
+    Iterable<Vertex> getVertices(Set<FetchHint> fetchHints, Authorizations authorizations);
+
+    /**
+     * Gets all vertices on the graph split into partitions that can be read concurrently, for example with a
+     * {@link org.securegraph.util.PartitionProcessor}. Each vertex is in exactly one partition. Graphs that can
+     * not split their vertices return a single partition.
+     *
+     * @param fetchHints     The parts of the vertices to read. See {@link FetchHint}.
+     * @param authorizations The authorizations required to load the vertices.
+     * @return The partitions, iterables that are {@link org.securegraph.util.ClosableIterable} must be closed.
+     */
+    List<Iterable<Vertex>> getVertexPartitions(Set<FetchHint> fetchHints, Authorizations authorizations);
+
     /**
      * Gets all vertices matching the given ids on the graph. The order of
      * the returned vertices is not guaranteed {@link org.securegraph.Graph#getVerticesInOrder(Iterable, Authorizations)}.
@@ -75,11 +108,33 @@ public interface Graph {
      */
     Iterable<Vertex> getVertices(Iterable<Object> ids, Authorizations authorizations);
 
+    /**
+     * Gets all vertices matching the given ids on the graph, reading only the parts of the vertices described
+     * by the fetch hints. See {@link org.securegraph.Graph#getVertices(Iterable, Authorizations)}.
+     *
+     * @param ids            The ids of the vertices to get.
+     * @param fetchHints     The parts of the vertices to read. See {@link FetchHint}.
+     * @param authorizations The authorizations required to load the vertex.
+     * @return An iterable of all the vertices.
+     */
+    Iterable<Vertex> getVertices(Iterable<Object> ids, Set<FetchHint> fetchHints, Authorizations authorizations);
+
+    /**
+     * Gets all vertices matching the given ids on the graph, reading only the named properties and their metadata.
+     * The edges of the returned vertices are not read. Implementations may read more properties than requested.
+     *
+     * @param ids            The ids of the vertices to get.
+     * @param propertyNames  The names of the properties to read.
+     * @param authorizations The authorizations required to load the vertex.
+     * @return An iterable of all the vertices.
+     */
+    Iterable<Vertex> getVertices(Iterable<Object> ids, String[] propertyNames, Authorizations authorizations);
+
     /**
      * Gets all vertices matching the given ids on the graph. This method is similar to
      * {@link org.securegraph.Graph#getVertices(Iterable, Authorizations)}
-     * but returns the vertices in the order that you passed in the ids. This requires loading
-     * all the vertices in memory to sort them.
+     * but returns the vertices in the order that you passed in the ids. All the vertices are loaded
+     * in memory, use {@link #getVerticesInOrder(Iterable, Set, Authorizations)} to stream them.
      *
      * @param ids            The ids of the vertices to get.
      * @param authorizations The authorizations required to load the vertex.
@@ -87,6 +142,30 @@ public interface Graph {
      */
     List<Vertex> getVerticesInOrder(Iterable<Object> ids, Authorizations authorizations);
 
+    /**
+     * Gets all vertices matching the given ids on the graph in the order that you passed in the ids, reading
+     * only the parts of the vertices described by the fetch hints. The ids are read in chunks and the vertices
+     * are returned as they arrive, only the vertices of a chunk that arrive before their turn are kept in
+     * memory. An id that appears more than once is returned once. Close the iterable when it is not read to the
+     * end to release the chunk being read.
+     *
+     * @param ids            The ids of the vertices to get.
+     * @param fetchHints     The parts of the vertices to read. See {@link FetchHint}.
+     * @param authorizations The authorizations required to load the vertex.
+     * @return An iterable of the vertices in the order of the ids.
+     */
+    ClosableIterable<Vertex> getVerticesInOrder(Iterable<Object> ids, Set<FetchHint> fetchHints, Authorizations authorizations);
+
+    /**
+     * Checks which of the given vertices exist and are visible with the authorizations, reading as little of
+     * each vertex as possible. Use this to check the vertices of many edges created by vertex id at once.
+     *
+     * @param ids            The ids of the vertices to check.
+     * @param authorizations The authorizations required to read the vertices.
+     * @return A map from each of the ids to true if the vertex exists.
+     */
+    Map<Object, Boolean> doVerticesExist(Iterable<Object> ids, Authorizations authorizations);
+
     /**
      * Removes a vertex from the graph.
      *
@@ -147,6 +226,70 @@ public interface Graph {
      */
     EdgeBuilder prepareEdge(Object edgeId, Vertex outVertex, Vertex inVertex, String label, Visibility visibility, Authorizations authorizations);
 
+    /**
+     * Adds an edge between two vertices given their ids. The vertices are not read, use
+     * {@link #doVerticesExist(Iterable, Authorizations)} to check that they exist.
+     *
+     * @param edgeId         The id to assign the new edge.
+     * @param outVertexId    The id of the source vertex. The "out" side of the edge.
+     * @param inVertexId     The id of the destination vertex. The "in" side of the edge.
+     * @param label          The label to assign to the edge. eg knows, works at, etc.
+     * @param visibility     The visibility to assign to the new edge.
+     * @param authorizations The authorizations required to add and retrieve the new edge.
+     * @return The newly created edge.
+     */
+    Edge addEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility, Authorizations authorizations);
+
+    /**
+     * Prepare an edge between two vertices given their ids. The vertices are not read, use
+     * {@link #doVerticesExist(Iterable, Authorizations)} to check that they exist.
+     *
+     * @param edgeId         The id to assign the new edge. null to generate an id.
+     * @param outVertexId    The id of the source vertex. The "out" side of the edge.
+     * @param inVertexId     The id of the destination vertex. The "in" side of the edge.
+     * @param label          The label to assign to the edge. eg knows, works at, etc.
+     * @param visibility     The visibility to assign to the new edge.
+     * @param authorizations The authorizations required to add and retrieve the new edge.
+     * @return The edge builder.
+     */
+    EdgeBuilder prepareEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility, Authorizations authorizations);
+
+    /**
+     * Prepare a change to the properties of a vertex given its id. The vertex is not read, the changes are written
+     * when the mutation is saved and the search index is only updated for the changed properties. Saving a mutation
+     * for a vertex that does not exist does not create it, the vertex stays missing from the graph and from the search
+     * index. The changed properties are kept and appear on a vertex created later with that id, unless it is saved
+     * with a property of the same key, name and visibility, but they are not added to the search index.
+     *
+     * @param vertexId       The id of the vertex to change.
+     * @param authorizations The authorizations required to change the vertex.
+     * @return The mutation.
+     */
+    BlindElementMutation prepareVertexMutation(Object vertexId, Authorizations authorizations);
+
+    /**
+     * Prepare a change to the properties of an edge given its id. The edge is not read, the changes are written
+     * when the mutation is saved and the search index is only updated for the changed properties. Saving a mutation
+     * for an edge that does not exist does not create it, the edge stays missing from the graph and from the search
+     * index. The changed properties are kept and appear on an edge created later with that id, unless it is saved
+     * with a property of the same key, name and visibility, but they are not added to the search index.
+     *
+     * @param edgeId         The id of the edge to change.
+     * @param authorizations The authorizations required to change the edge.
+     * @return The mutation.
+     */
+    BlindElementMutation prepareEdgeMutation(Object edgeId, Authorizations authorizations);
+
+    /**
+     * Starts a session for loading many vertices and edges. The session buffers the saved elements and writes
+     * them to the graph and the search index in groups. Call {@link BulkLoad#close()} when done to write the
+     * remaining elements.
+     *
+     * @param authorizations The authorizations required to add and retrieve the new elements.
+     * @return The bulk load session.
+     */
+    BulkLoad startBulkLoad(Authorizations authorizations);
+
     /**
      * Get an edge from the graph.
      *
@@ -156,6 +299,16 @@ public interface Graph {
      */
     Edge getEdge(Object edgeId, Authorizations authorizations);
 
+    /**
+     * Get an edge from the graph, reading only the parts of the edge described by the fetch hints.
+     *
+     * @param edgeId         The edge id to retrieve from the graph.
+     * @param fetchHints     The parts of the edge to read. See {@link FetchHint}.
+     * @param authorizations The authorizations required to load the edge.
+     * @return The edge if successful. null if the edge is not found or the required authorizations were not provided.
+     */
+    Edge getEdge(Object edgeId, Set<FetchHint> fetchHints, Authorizations authorizations);
+
     /**
      * Gets all edges on the graph.
      *
@@ -164,6 +317,25 @@ public interface Graph {
      */
     Iterable<Edge> getEdges(Authorizations authorizations);
 
+    /**
+     * Gets all edges on the graph, reading only the parts of the edges described by the fetch hints.
+     *
+     * @param fetchHints     The parts of the edges to read. See {@link FetchHint}.
+     * @param authorizations The authorizations required to load the edge.
+     * @return An iterable of all the edges.
+     */
+    Iterable<Edge> getEdges(Set<FetchHint> fetchHints, Authorizations authorizations);
+
+    /**
+     * Gets all edges on the graph split into partitions that can be read concurrently. See
+     * {@link #getVertexPartitions(Set, Authorizations)}.
+     *
+     * @param fetchHints     The parts of the edges to read. See {@link FetchHint}.
+     * @param authorizations The authorizations required to load the edges.
+     * @return The partitions, iterables that are {@link org.securegraph.util.ClosableIterable} must be closed.
+     */
+    List<Iterable<Edge>> getEdgePartitions(Set<FetchHint> fetchHints, Authorizations authorizations);
+
     /**
      * Gets all edges on the graph matching the given ids.
      *
@@ -173,6 +345,28 @@ public interface Graph {
      */
     Iterable<Edge> getEdges(Iterable<Object> ids, Authorizations authorizations);
 
+    /**
+     * Gets all edges on the graph matching the given ids, reading only the parts of the edges described by
+     * the fetch hints.
+     *
+     * @param ids            The ids of the edges to get.
+     * @param fetchHints     The parts of the edges to read. See {@link FetchHint}.
+     * @param authorizations The authorizations required to load the edge.
+     * @return An iterable of all the edges.
+     */
+    Iterable<Edge> getEdges(Iterable<Object> ids, Set<FetchHint> fetchHints, Authorizations authorizations);
+
+    /**
+     * Gets all edges on the graph matching the given ids, reading only the named properties and their metadata.
+     * Implementations may read more properties than requested.
+     *
+     * @param ids            The ids of the edges to get.
+     * @param propertyNames  The names of the properties to read.
+     * @param authorizations The authorizations required to load the edge.
+     * @return An iterable of all the edges.
+     */
+    Iterable<Edge> getEdges(Iterable<Object> ids, String[] propertyNames, Authorizations authorizations);
+
     /**
      * Given a list of vertex ids, find all the edge ids that connect them.
      *
@@ -5,7 +5,10 @@ import org.securegraph.path.PathFindingAlgorithm;
 import org.securegraph.path.RecursivePathFindingAlgorithm;
 import org.securegraph.query.GraphQuery;
 import org.securegraph.search.SearchIndex;
+import org.securegraph.util.ClosableIterable;
+import org.securegraph.util.InOrderElementIterable;
 import org.securegraph.util.LookAheadIterable;
+import org.securegraph.util.PartitionProcessor;
 import org.securegraph.util.ToElementIterable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +20,7 @@ import static org.securegraph.util.IterableUtils.toList;
 
 public abstract class GraphBase implements Graph {
     private static final Logger LOGGER = LoggerFactory.getLogger(GraphBase.class);
+    public static final int DEFAULT_MULTI_GET_CHUNK_SIZE = 1000;
     private final GraphConfiguration configuration;
     private final IdGenerator idGenerator;
     private SearchIndex searchIndex;
@@ -54,6 +58,11 @@ public abstract class GraphBase implements Graph {
         return null;
     }
 
+    @Override
+    public Vertex getVertex(Object vertexId, Set<FetchHint> fetchHints, Authorizations authorizations) {
+        return getVertex(vertexId, authorizations);
+    }
+
     @Override
     public Iterable<Vertex> getVertices(final Iterable<Object> ids, final Authorizations authorizations) {
         LOGGER.warn("Getting each vertex one by one! Override getVertices(java.lang.Iterable<java.lang.Object>, org.securegraph.Authorizations)");
@@ -75,24 +84,60 @@ public abstract class GraphBase implements Graph {
         };
     }
 
+    @Override
+    public Iterable<Vertex> getVertices(Iterable<Object> ids, Set<FetchHint> fetchHints, Authorizations authorizations) {
+        return getVertices(ids, authorizations);
+    }
+
+    @Override
+    public Iterable<Vertex> getVertices(Iterable<Object> ids, String[] propertyNames, Authorizations authorizations) {
+        return getVertices(ids, authorizations);
+    }
+
     @Override
     public List<Vertex> getVerticesInOrder(Iterable<Object> ids, Authorizations authorizations) {
-        final List<Object> vertexIds = toList(ids);
-        List<Vertex> vertices = toList(getVertices(vertexIds, authorizations));
-        Collections.sort(vertices, new Comparator<Vertex>() {
+        return toList(getVerticesInOrder(ids, FetchHint.ALL, authorizations));
+    }
+
+    @Override
+    public ClosableIterable<Vertex> getVerticesInOrder(Iterable<Object> ids, final Set<FetchHint> fetchHints, final Authorizations authorizations) {
+        return new InOrderElementIterable<Vertex>(ids, getMultiGetChunkSize()) {
             @Override
-            public int compare(Vertex v1, Vertex v2) {
-                Integer i1 = vertexIds.indexOf(v1.getId());
-                Integer i2 = vertexIds.indexOf(v2.getId());
-                return i1.compareTo(i2);
+            protected Iterable<Vertex> getElements(List<Object> ids) {
+                return getVertices(ids, fetchHints, authorizations);
             }
-        });
-        return vertices;
+        };
+    }
+
+    @Override
+    public List<Iterable<Vertex>> getVertexPartitions(Set<FetchHint> fetchHints, Authorizations authorizations) {
+        List<Iterable<Vertex>> partitions = new ArrayList<Iterable<Vertex>>();
+        partitions.add(getVertices(fetchHints, authorizations));
+        return partitions;
+    }
+
+    @Override
+    public List<Iterable<Edge>> getEdgePartitions(Set<FetchHint> fetchHints, Authorizations authorizations) {
+        List<Iterable<Edge>> partitions = new ArrayList<Iterable<Edge>>();
+        partitions.add(getEdges(fetchHints, authorizations));
+        return partitions;
+    }
+
+    /**
+     * The number of ids read at a time by {@link #getVerticesInOrder(Iterable, Set, Authorizations)}.
+     */
+    protected int getMultiGetChunkSize() {
+        return DEFAULT_MULTI_GET_CHUNK_SIZE;
     }
 
     @Override
     public abstract Iterable<Vertex> getVertices(Authorizations authorizations) throws SecureGraphException;
 
+    @Override
+    public Iterable<Vertex> getVertices(Set<FetchHint> fetchHints, Authorizations authorizations) {
+        return getVertices(authorizations);
+    }
+
     @Override
     public abstract void removeVertex(Vertex vertex, Authorizations authorizations);
 
@@ -111,6 +156,65 @@ public abstract class GraphBase implements Graph {
         return prepareEdge(getIdGenerator().nextId(), outVertex, inVertex, label, visibility, authorizations);
     }
 
+    @Override
+    public Edge addEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility, Authorizations authorizations) {
+        return prepareEdge(edgeId, outVertexId, inVertexId, label, visibility, authorizations).save();
+    }
+
+    @Override
+    public Map<Object, Boolean> doVerticesExist(Iterable<Object> ids, Authorizations authorizations) {
+        Map<Object, Boolean> results = new LinkedHashMap<Object, Boolean>();
+        for (Object id : ids) {
+            results.put(id, false);
+        }
+        if (results.size() == 0) {
+            return results;
+        }
+        for (Vertex vertex : getVertices(new ArrayList<Object>(results.keySet()), FetchHint.NONE, authorizations)) {
+            results.put(vertex.getId(), true);
+        }
+        return results;
+    }
+
+    /**
+     * Saves each element as it is built and flushes the graph when the session is closed. Graphs which can
+     * write elements in groups should override this.
+     */
+    @Override
+    public BulkLoad startBulkLoad(final Authorizations authorizations) {
+        return new BulkLoad() {
+            @Override
+            public VertexBuilder prepareVertex(Object vertexId, Visibility visibility) {
+                if (vertexId == null) {
+                    return GraphBase.this.prepareVertex(visibility, authorizations);
+                }
+                return GraphBase.this.prepareVertex(vertexId, visibility, authorizations);
+            }
+
+            @Override
+            public EdgeBuilder prepareEdge(Object edgeId, Vertex outVertex, Vertex inVertex, String label, Visibility visibility) {
+                if (edgeId == null) {
+                    return GraphBase.this.prepareEdge(outVertex, inVertex, label, visibility, authorizations);
+                }
+                return GraphBase.this.prepareEdge(edgeId, outVertex, inVertex, label, visibility, authorizations);
+            }
+
+            @Override
+            public EdgeBuilder prepareEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility) {
+                return GraphBase.this.prepareEdge(edgeId, outVertexId, inVertexId, label, visibility, authorizations);
+            }
+
+            @Override
+            public void commit() {
+            }
+
+            @Override
+            public void close() {
+                flush();
+            }
+        };
+    }
+
     @Override
     public Edge getEdge(Object edgeId, Authorizations authorizations) {
         LOGGER.warn("Performing scan of all edges! Override getEdge.");
@@ -122,6 +226,11 @@ public abstract class GraphBase implements Graph {
         return null;
     }
 
+    @Override
+    public Edge getEdge(Object edgeId, Set<FetchHint> fetchHints, Authorizations authorizations) {
+        return getEdge(edgeId, authorizations);
+    }
+
     @Override
     public Iterable<Edge> getEdges(final Iterable<Object> ids, final Authorizations authorizations) {
         LOGGER.warn("Getting each edge one by one! Override getEdges(java.lang.Iterable<java.lang.Object>, org.securegraph.Authorizations)");
@@ -143,9 +252,24 @@ public abstract class GraphBase implements Graph {
         };
     }
 
+    @Override
+    public Iterable<Edge> getEdges(Iterable<Object> ids, Set<FetchHint> fetchHints, Authorizations authorizations) {
+        return getEdges(ids, authorizations);
+    }
+
+    @Override
+    public Iterable<Edge> getEdges(Iterable<Object> ids, String[] propertyNames, Authorizations authorizations) {
+        return getEdges(ids, authorizations);
+    }
+
     @Override
     public abstract Iterable<Edge> getEdges(Authorizations authorizations);
 
+    @Override
+    public Iterable<Edge> getEdges(Set<FetchHint> fetchHints, Authorizations authorizations) {
+        return getEdges(authorizations);
+    }
+
     @Override
     public abstract void removeEdge(Edge edge, Authorizations authorizations);
 
@@ -216,11 +340,21 @@ public abstract class GraphBase implements Graph {
     }
 
     protected void reindexVertices(Authorizations authorizations) {
-        this.searchIndex.addElements(this, new ToElementIterable<Vertex>(getVertices(authorizations)));
+        new PartitionProcessor<Vertex>() {
+            @Override
+            protected void process(Iterable<Vertex> partition) {
+                getSearchIndex().addElements(GraphBase.this, new ToElementIterable<Vertex>(partition));
+            }
+        }.processAll(getVertexPartitions(FetchHint.ALL, authorizations), getConfiguration().getReindexThreads());
     }
 
     private void reindexEdges(Authorizations authorizations) {
-        this.searchIndex.addElements(this, new ToElementIterable<Edge>(getEdges(authorizations)));
+        new PartitionProcessor<Edge>() {
+            @Override
+            protected void process(Iterable<Edge> partition) {
+                getSearchIndex().addElements(GraphBase.this, new ToElementIterable<Edge>(partition));
+            }
+        }.processAll(getEdgePartitions(FetchHint.ALL, authorizations), getConfiguration().getReindexThreads());
     }
 
     @Override
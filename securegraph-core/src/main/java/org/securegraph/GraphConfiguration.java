@@ -2,6 +2,7 @@ package org.securegraph;
 
 import org.securegraph.id.IdGenerator;
 import org.securegraph.id.UUIDIdGenerator;
+import org.securegraph.search.AsyncSearchIndex;
 import org.securegraph.search.DefaultSearchIndex;
 import org.securegraph.search.SearchIndex;
 import org.securegraph.util.ConfigurationUtils;
@@ -12,10 +13,20 @@ public class GraphConfiguration {
     public static final String IDGENERATOR_PROP_PREFIX = "idgenerator";
     public static final String SEARCH_INDEX_PROP_PREFIX = "search";
     public static final String AUTO_FLUSH = "autoFlush";
+    public static final String REINDEX_THREADS = "reindexThreads";
+    public static final String SEARCH_INDEX_ASYNC = SEARCH_INDEX_PROP_PREFIX + ".async";
+    public static final String SEARCH_INDEX_ASYNC_THREADS = SEARCH_INDEX_PROP_PREFIX + ".async.threads";
+    public static final String SEARCH_INDEX_ASYNC_QUEUE_SIZE = SEARCH_INDEX_PROP_PREFIX + ".async.queueSize";
+    public static final String SEARCH_INDEX_ASYNC_BATCH_SIZE = SEARCH_INDEX_PROP_PREFIX + ".async.batchSize";
 
     public static final String DEFAULT_IDGENERATOR = UUIDIdGenerator.class.getName();
     public static final String DEFAULT_SEARCH_INDEX = DefaultSearchIndex.class.getName();
     public static final boolean DEFAULT_AUTO_FLUSH = false;
+    public static final int DEFAULT_REINDEX_THREADS = 4;
+    public static final boolean DEFAULT_SEARCH_INDEX_ASYNC = false;
+    public static final int DEFAULT_SEARCH_INDEX_ASYNC_THREADS = 2;
+    public static final int DEFAULT_SEARCH_INDEX_ASYNC_QUEUE_SIZE = 10000;
+    public static final int DEFAULT_SEARCH_INDEX_ASYNC_BATCH_SIZE = 500;
 
     private final Map config;
 
@@ -64,11 +75,29 @@ public class GraphConfiguration {
         return o;
     }
 
+    /**
+     * The number of partitions of the graph indexed at the same time by {@link Graph#reindex(Authorizations)}.
+     */
+    public int getReindexThreads() {
+        return (int) getConfigLong(REINDEX_THREADS, DEFAULT_REINDEX_THREADS);
+    }
+
     public IdGenerator createIdGenerator() throws SecureGraphException {
         return ConfigurationUtils.createProvider(getConfig(), IDGENERATOR_PROP_PREFIX, DEFAULT_IDGENERATOR);
     }
 
+    /**
+     * Creates the configured search index, wrapped in an {@link AsyncSearchIndex} when {@link #SEARCH_INDEX_ASYNC}
+     * is set.
+     */
     public SearchIndex createSearchIndex() throws SecureGraphException {
-        return ConfigurationUtils.createProvider(getConfig(), SEARCH_INDEX_PROP_PREFIX, DEFAULT_SEARCH_INDEX);
+        SearchIndex searchIndex = ConfigurationUtils.createProvider(getConfig(), SEARCH_INDEX_PROP_PREFIX, DEFAULT_SEARCH_INDEX);
+        if (getConfigBoolean(SEARCH_INDEX_ASYNC, DEFAULT_SEARCH_INDEX_ASYNC)) {
+            int threads = (int) getConfigLong(SEARCH_INDEX_ASYNC_THREADS, DEFAULT_SEARCH_INDEX_ASYNC_THREADS);
+            int queueSize = (int) getConfigLong(SEARCH_INDEX_ASYNC_QUEUE_SIZE, DEFAULT_SEARCH_INDEX_ASYNC_QUEUE_SIZE);
+            int batchSize = (int) getConfigLong(SEARCH_INDEX_ASYNC_BATCH_SIZE, DEFAULT_SEARCH_INDEX_ASYNC_BATCH_SIZE);
+            searchIndex = new AsyncSearchIndex(searchIndex, threads, queueSize, batchSize);
+        }
+        return searchIndex;
     }
 }
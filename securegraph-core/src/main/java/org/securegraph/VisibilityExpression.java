@@ -0,0 +1,282 @@
+package org.securegraph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A parsed visibility expression which can be evaluated against sets of authorizations. The syntax is the
+ * same as Accumulo's column visibilities: terms combined with & and |, grouped with parentheses, and quoted
+ * with double quotes when they contain other characters than letters, digits and _-:./
+ *
+ * Use {@link #compile(String)} to get an expression, each distinct visibility string is only parsed once.
+ */
+public abstract class VisibilityExpression {
+    private static final int MAX_CACHED_EXPRESSIONS = 10000;
+    public static final int MAX_CLAUSES = 256;
+    private static final ConcurrentMap<String, VisibilityExpression> CACHE = new ConcurrentHashMap<String, VisibilityExpression>();
+
+    private static final VisibilityExpression ALWAYS_VISIBLE = new VisibilityExpression() {
+        @Override
+        public boolean evaluate(Set<String> authorizations) {
+            return true;
+        }
+
+        @Override
+        protected Set<Set<String>> createClauses() {
+            Set<Set<String>> clauses = new HashSet<Set<String>>();
+            clauses.add(new TreeSet<String>());
+            return clauses;
+        }
+    };
+    private volatile Set<Set<String>> clauses;
+
+    public static VisibilityExpression compile(String visibilityString) {
+        VisibilityExpression expression = CACHE.get(visibilityString);
+        if (expression == null) {
+            expression = visibilityString.length() == 0 ? ALWAYS_VISIBLE : new Parser(visibilityString).parse();
+            if (CACHE.size() >= MAX_CACHED_EXPRESSIONS) {
+                CACHE.clear();
+            }
+            CACHE.put(visibilityString, expression);
+        }
+        return expression;
+    }
+
+    /**
+     * @param authorizations The authorizations of the reader.
+     * @return true, if the authorizations satisfy this expression.
+     */
+    public abstract boolean evaluate(Set<String> authorizations);
+
+    /**
+     * Gets the expression in disjunctive normal form: the authorizations satisfy the expression if they contain
+     * all the terms of one of the clauses. An expression that is always visible has a single empty clause.
+     * Clauses that contain all the terms of another clause are left out.
+     *
+     * @return The clauses, or null if there are more than {@link #MAX_CLAUSES}.
+     */
+    public Set<Set<String>> getClauses() {
+        if (clauses == null) {
+            Set<Set<String>> result = createClauses();
+            clauses = result == null ? null : Collections.unmodifiableSet(removeSupersets(result));
+        }
+        return clauses;
+    }
+
+    protected abstract Set<Set<String>> createClauses();
+
+    private static Set<Set<String>> removeSupersets(Set<Set<String>> clauses) {
+        Set<Set<String>> result = new HashSet<Set<String>>();
+        for (Set<String> clause : clauses) {
+            boolean hasSubset = false;
+            for (Set<String> other : clauses) {
+                if (other != clause && other.size() < clause.size() && clause.containsAll(other)) {
+                    hasSubset = true;
+                    break;
+                }
+            }
+            if (!hasSubset) {
+                result.add(Collections.unmodifiableSet(clause));
+            }
+        }
+        return result;
+    }
+
+    private static class Term extends VisibilityExpression {
+        private final String term;
+
+        private Term(String term) {
+            this.term = term;
+        }
+
+        @Override
+        public boolean evaluate(Set<String> authorizations) {
+            return authorizations.contains(term);
+        }
+
+        @Override
+        protected Set<Set<String>> createClauses() {
+            Set<Set<String>> clauses = new HashSet<Set<String>>();
+            Set<String> clause = new TreeSet<String>();
+            clause.add(term);
+            clauses.add(clause);
+            return clauses;
+        }
+    }
+
+    private static class And extends VisibilityExpression {
+        private final VisibilityExpression[] children;
+
+        private And(List<VisibilityExpression> children) {
+            this.children = children.toArray(new VisibilityExpression[children.size()]);
+        }
+
+        @Override
+        public boolean evaluate(Set<String> authorizations) {
+            for (VisibilityExpression child : children) {
+                if (!child.evaluate(authorizations)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected Set<Set<String>> createClauses() {
+            Set<Set<String>> clauses = ALWAYS_VISIBLE.createClauses();
+            for (VisibilityExpression child : children) {
+                Set<Set<String>> childClauses = child.getClauses();
+                if (childClauses == null) {
+                    return null;
+                }
+                Set<Set<String>> combinedClauses = new HashSet<Set<String>>();
+                for (Set<String> clause : clauses) {
+                    for (Set<String> childClause : childClauses) {
+                        Set<String> combinedClause = new TreeSet<String>(clause);
+                        combinedClause.addAll(childClause);
+                        combinedClauses.add(combinedClause);
+                    }
+                }
+                if (combinedClauses.size() > MAX_CLAUSES) {
+                    return null;
+                }
+                clauses = combinedClauses;
+            }
+            return clauses;
+        }
+    }
+
+    private static class Or extends VisibilityExpression {
+        private final VisibilityExpression[] children;
+
+        private Or(List<VisibilityExpression> children) {
+            this.children = children.toArray(new VisibilityExpression[children.size()]);
+        }
+
+        @Override
+        public boolean evaluate(Set<String> authorizations) {
+            for (VisibilityExpression child : children) {
+                if (child.evaluate(authorizations)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected Set<Set<String>> createClauses() {
+            Set<Set<String>> clauses = new HashSet<Set<String>>();
+            for (VisibilityExpression child : children) {
+                Set<Set<String>> childClauses = child.getClauses();
+                if (childClauses == null) {
+                    return null;
+                }
+                clauses.addAll(childClauses);
+                if (clauses.size() > MAX_CLAUSES) {
+                    return null;
+                }
+            }
+            return clauses;
+        }
+    }
+
+    private static class Parser {
+        private final String expression;
+        private int index;
+
+        private Parser(String expression) {
+            this.expression = expression;
+        }
+
+        private VisibilityExpression parse() {
+            VisibilityExpression result = parseExpression();
+            if (index < expression.length()) {
+                throw error("unexpected )");
+            }
+            return result;
+        }
+
+        private VisibilityExpression parseExpression() {
+            List<VisibilityExpression> children = new ArrayList<VisibilityExpression>();
+            char operator = 0;
+            children.add(parseOperand());
+            while (index < expression.length() && expression.charAt(index) != ')') {
+                char c = expression.charAt(index);
+                if (c != '&' && c != '|') {
+                    throw error("expected & or |");
+                }
+                if (operator != 0 && operator != c) {
+                    throw error("cannot mix & and | without parentheses");
+                }
+                operator = c;
+                index++;
+                children.add(parseOperand());
+            }
+            if (children.size() == 1) {
+                return children.get(0);
+            }
+            return operator == '&' ? new And(children) : new Or(children);
+        }
+
+        private VisibilityExpression parseOperand() {
+            if (index >= expression.length()) {
+                throw error("expected term");
+            }
+            char c = expression.charAt(index);
+            if (c == '(') {
+                index++;
+                VisibilityExpression result = parseExpression();
+                if (index >= expression.length() || expression.charAt(index) != ')') {
+                    throw error("missing )");
+                }
+                index++;
+                return result;
+            }
+            if (c == '"') {
+                return parseQuotedTerm();
+            }
+            int start = index;
+            while (index < expression.length() && isTermChar(expression.charAt(index))) {
+                index++;
+            }
+            if (start == index) {
+                throw error("expected term");
+            }
+            return new Term(expression.substring(start, index));
+        }
+
+        private VisibilityExpression parseQuotedTerm() {
+            StringBuilder term = new StringBuilder();
+            index++;
+            while (index < expression.length()) {
+                char c = expression.charAt(index++);
+                if (c == '"') {
+                    if (term.length() == 0) {
+                        throw error("empty term");
+                    }
+                    return new Term(term.toString());
+                }
+                if (c == '\\') {
+                    if (index >= expression.length() || (expression.charAt(index) != '"' && expression.charAt(index) != '\\')) {
+                        throw error("invalid escape");
+                    }
+                    c = expression.charAt(index++);
+                }
+                term.append(c);
+            }
+            throw error("unterminated quote");
+        }
+
+        private static boolean isTermChar(char c) {
+            return (c >= 'a' && c <= 'z')
+                    || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9')
+                    || c == '_' || c == '-' || c == ':' || c == '.' || c == '/';
+        }
+
+        private SecureGraphException error(String message) {
+            return new SecureGraphException("could not parse visibility " + expression + " at " + index + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.securegraph.mutation;
+
+import org.securegraph.ElementType;
+import org.securegraph.Property;
+import org.securegraph.Visibility;
+
+import java.util.Map;
+
+/**
+ * Changes the properties of an element given its id without reading the element, see
+ * {@link org.securegraph.Graph#prepareVertexMutation(Object, org.securegraph.Authorizations)} and
+ * {@link org.securegraph.Graph#prepareEdgeMutation(Object, org.securegraph.Authorizations)}. Adding a property
+ * cancels an earlier remove of the same key, name and visibility in this mutation and vice versa.
+ */
+public interface BlindElementMutation {
+    /**
+     * saves the property changes to the graph and updates the search index.
+     */
+    void save();
+
+    ElementType getElementType();
+
+    Object getElementId();
+
+    /**
+     * Sets or updates a property value. The property key will be set to a constant.
+     *
+     * @param name       The name of the property.
+     * @param value      The value of the property.
+     * @param visibility The visibility to give this property.
+     */
+    BlindElementMutation setProperty(String name, Object value, Visibility visibility);
+
+    /**
+     * Sets or updates a property value. The property key will be set to a constant.
+     *
+     * @param name       The name of the property.
+     * @param value      The value of the property.
+     * @param metadata   The metadata to assign to this property.
+     * @param visibility The visibility to give this property.
+     */
+    BlindElementMutation setProperty(String name, Object value, Map<String, Object> metadata, Visibility visibility);
+
+    /**
+     * Adds or updates a property.
+     *
+     * @param key        The unique key given to the property allowing for multi-valued properties.
+     * @param name       The name of the property.
+     * @param value      The value of the property.
+     * @param visibility The visibility to give this property.
+     */
+    BlindElementMutation addPropertyValue(String key, String name, Object value, Visibility visibility);
+
+    /**
+     * Adds or updates a property.
+     *
+     * @param key        The unique key given to the property allowing for multi-valued properties.
+     * @param name       The name of the property.
+     * @param value      The value of the property.
+     * @param metadata   The metadata to assign to this property.
+     * @param visibility The visibility to give this property.
+     */
+    BlindElementMutation addPropertyValue(String key, String name, Object value, Map<String, Object> metadata, Visibility visibility);
+
+    /**
+     * Removes the property set with {@link #setProperty(String, Object, Visibility)}.
+     *
+     * @param name       The name of the property.
+     * @param visibility The visibility of the property.
+     */
+    BlindElementMutation removeProperty(String name, Visibility visibility);
+
+    /**
+     * Removes a property.
+     *
+     * @param key        The key of the property.
+     * @param name       The name of the property.
+     * @param visibility The visibility of the property.
+     */
+    BlindElementMutation removeProperty(String key, String name, Visibility visibility);
+
+    /**
+     * Gets the properties added or updated by this mutation.
+     */
+    Iterable<Property> getProperties();
+
+    /**
+     * Gets the properties removed by this mutation, only their key, name and visibility are set.
+     */
+    Iterable<Property> getPropertyRemoves();
+}
@@ -0,0 +1,98 @@
+package org.securegraph.mutation;
+
+import org.securegraph.ElementType;
+import org.securegraph.Property;
+import org.securegraph.Visibility;
+import org.securegraph.property.MutableProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public abstract class BlindElementMutationImpl implements BlindElementMutation {
+    private final ElementType elementType;
+    private final Object elementId;
+    private final List<Property> properties = new ArrayList<Property>();
+    private final List<Property> propertyRemoves = new ArrayList<Property>();
+
+    public BlindElementMutationImpl(ElementType elementType, Object elementId) {
+        if (elementType == null) {
+            throw new IllegalArgumentException("elementType is required");
+        }
+        if (elementId == null) {
+            throw new IllegalArgumentException("elementId is required");
+        }
+        this.elementType = elementType;
+        this.elementId = elementId;
+    }
+
+    public abstract void save();
+
+    @Override
+    public ElementType getElementType() {
+        return elementType;
+    }
+
+    @Override
+    public Object getElementId() {
+        return elementId;
+    }
+
+    @Override
+    public BlindElementMutation setProperty(String name, Object value, Visibility visibility) {
+        return setProperty(name, value, new HashMap<String, Object>(), visibility);
+    }
+
+    @Override
+    public BlindElementMutation setProperty(String name, Object value, Map<String, Object> metadata, Visibility visibility) {
+        return addPropertyValue(ElementMutation.DEFAULT_KEY, name, value, metadata, visibility);
+    }
+
+    @Override
+    public BlindElementMutation addPropertyValue(String key, String name, Object value, Visibility visibility) {
+        return addPropertyValue(key, name, value, new HashMap<String, Object>(), visibility);
+    }
+
+    @Override
+    public BlindElementMutation addPropertyValue(String key, String name, Object value, Map<String, Object> metadata, Visibility visibility) {
+        removeMatching(propertyRemoves, key, name, visibility);
+        removeMatching(properties, key, name, visibility);
+        properties.add(new MutableProperty(key, name, value, metadata, visibility));
+        return this;
+    }
+
+    @Override
+    public BlindElementMutation removeProperty(String name, Visibility visibility) {
+        return removeProperty(ElementMutation.DEFAULT_KEY, name, visibility);
+    }
+
+    @Override
+    public BlindElementMutation removeProperty(String key, String name, Visibility visibility) {
+        removeMatching(properties, key, name, visibility);
+        removeMatching(propertyRemoves, key, name, visibility);
+        propertyRemoves.add(new MutableProperty(key, name, null, null, visibility));
+        return this;
+    }
+
+    @Override
+    public Iterable<Property> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public Iterable<Property> getPropertyRemoves() {
+        return propertyRemoves;
+    }
+
+    private static void removeMatching(List<Property> properties, String key, String name, Visibility visibility) {
+        Iterator<Property> it = properties.iterator();
+        while (it.hasNext()) {
+            Property property = it.next();
+            if (property.getKey().equals(key) && property.getName().equals(name) && property.getVisibility().equals(visibility)) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -2,10 +2,11 @@ package org.securegraph.query;
 
 import org.securegraph.Element;
 import org.securegraph.Property;
+import org.securegraph.util.ClosableIterable;
 
 import java.util.Iterator;
 
-public class DefaultGraphQueryIterable<T extends Element> implements Iterable<T> {
+public class DefaultGraphQueryIterable<T extends Element> implements ClosableIterable<T> {
     private final QueryBase.Parameters parameters;
     private final Iterable<T> iterable;
     private final boolean evaluateQueryString;
@@ -50,6 +51,8 @@ public class DefaultGraphQueryIterable<T extends Element> implements Iterable<T>
                 }
 
                 if (this.count >= parameters.getLimit()) {
+                    // the source may still be holding results, e.g. an open scroll
+                    close();
                     return;
                 }
 
@@ -82,6 +85,13 @@ public class DefaultGraphQueryIterable<T extends Element> implements Iterable<T>
         };
     }
 
+    @Override
+    public void close() {
+        if (iterable instanceof ClosableIterable) {
+            ((ClosableIterable) iterable).close();
+        }
+    }
+
     protected boolean evaluateQueryString(Element elem, String queryString) {
         for (Property property : elem.getProperties()) {
             if (evaluateQueryStringOnValue(property.getValue(), queryString)) {
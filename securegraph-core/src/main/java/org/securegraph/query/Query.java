@@ -44,4 +44,13 @@ public interface Query {
     Query skip(int count);
 
     Query limit(int count);
+
+    /**
+     * Returns every match instead of the first page of matches. Search indexes that page their results stream the
+     * matches a batch at a time, so large results are read in constant memory. {@link #skip(int)} and
+     * {@link #limit(int)} still apply, whether they are set before or after this call.
+     *
+     * @return The query object, allowing you to chain methods.
+     */
+    Query scroll();
 }
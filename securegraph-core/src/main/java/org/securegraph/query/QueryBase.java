@@ -69,6 +69,12 @@ public abstract class QueryBase implements Query {
         return this;
     }
 
+    @Override
+    public Query scroll() {
+        this.parameters.setScroll(true);
+        return this;
+    }
+
     public Graph getGraph() {
         return graph;
     }
@@ -96,10 +102,12 @@ public abstract class QueryBase implements Query {
     }
 
     public static class Parameters {
+        public static final long DEFAULT_LIMIT = 100;
         private final Authorizations authorizations;
         private final String queryString;
-        private long limit = 100;
+        private Long limit;
         private long skip = 0;
+        private boolean scroll;
         private final List<HasContainer> hasContainers = new ArrayList<HasContainer>();
 
         public Parameters(String queryString, Authorizations authorizations) {
@@ -115,8 +123,14 @@ public abstract class QueryBase implements Query {
             return queryString;
         }
 
+        /**
+         * The limit set on the query, otherwise no limit when scrolling and {@link #DEFAULT_LIMIT} when not.
+         */
         public long getLimit() {
-            return limit;
+            if (limit != null) {
+                return limit;
+            }
+            return scroll ? Long.MAX_VALUE : DEFAULT_LIMIT;
         }
 
         public void setLimit(long limit) {
@@ -131,6 +145,14 @@ public abstract class QueryBase implements Query {
             this.skip = skip;
         }
 
+        public boolean isScroll() {
+            return scroll;
+        }
+
+        public void setScroll(boolean scroll) {
+            this.scroll = scroll;
+        }
+
         public Authorizations getAuthorizations() {
             return authorizations;
         }
@@ -142,7 +164,8 @@ public abstract class QueryBase implements Query {
         public Parameters clone() {
             Parameters result = new Parameters(this.getQueryString(), this.getAuthorizations());
             result.setSkip(this.getSkip());
-            result.setLimit(this.getLimit());
+            result.limit = this.limit;
+            result.setScroll(this.isScroll());
             result.hasContainers.addAll(this.getHasContainers());
             return result;
         }
@@ -0,0 +1,392 @@
+package org.securegraph.search;
+
+import org.securegraph.*;
+import org.securegraph.query.GraphQuery;
+import org.securegraph.query.VertexQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.securegraph.util.IterableUtils.toList;
+
+/**
+ * Queues the changes to the documents of elements and applies them to another search index on a pool of worker
+ * threads, so that graph writes do not wait for the search index. Enabled with
+ * {@link GraphConfiguration#SEARCH_INDEX_ASYNC}.
+ *
+ * Changes are queued per element, a vertex and an edge with the same id are queued apart. A change queued for
+ * an element that is still waiting is coalesced with the waiting changes, adding or removing an element replaces
+ * them. Changes of an element are applied in the order
+ * they were made and never by two workers at the same time. When the queue holds maxQueueSize elements, callers
+ * block until a worker takes some. Workers take up to batchSize elements at a time and add or remove them with
+ * {@link SearchIndex#addElements(Graph, Iterable)} and {@link SearchIndex#removeElements(Graph, Iterable)}.
+ *
+ * When a batch fails, its elements are applied one at a time so a failing element does not drop the others.
+ * Queries do not wait for the queue, {@link #flush()} returns once every change queued before it was applied
+ * and rethrows the first failure of a worker since the last flush.
+ */
+public class AsyncSearchIndex implements SearchIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncSearchIndex.class);
+    private final SearchIndex searchIndex;
+    private final int maxQueueSize;
+    private final int batchSize;
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, PendingElement> pendingElements = new LinkedHashMap<String, PendingElement>();
+    private final Map<String, Long> inFlightSequences = new HashMap<String, Long>();
+    private final List<Thread> workers = new ArrayList<Thread>();
+    private long nextSequence;
+    private RuntimeException failure;
+    private boolean shutdown;
+
+    public AsyncSearchIndex(SearchIndex searchIndex, int threadCount, int maxQueueSize, int batchSize) {
+        if (threadCount < 1 || maxQueueSize < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("threadCount, maxQueueSize and batchSize must be at least 1");
+        }
+        this.searchIndex = searchIndex;
+        this.maxQueueSize = maxQueueSize;
+        this.batchSize = batchSize;
+        for (int i = 0; i < threadCount; i++) {
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runWorker();
+                }
+            }, "securegraph-search-index-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    @Override
+    public void addElement(Graph graph, Element element) {
+        enqueue(getElementType(element), element.getId(), new AddElementOperation(graph, element), true);
+    }
+
+    @Override
+    public void removeElement(Graph graph, Element element) {
+        enqueue(getElementType(element), element.getId(), new RemoveElementOperation(graph, element), true);
+    }
+
+    @Override
+    public void addElements(Graph graph, Iterable<Element> elements) {
+        for (Element element : elements) {
+            addElement(graph, element);
+        }
+    }
+
+    @Override
+    public void removeElements(Graph graph, Iterable<Element> elements) {
+        for (Element element : elements) {
+            removeElement(graph, element);
+        }
+    }
+
+    @Override
+    public void updateElementProperties(Graph graph, ElementType elementType, Object elementId, Iterable<Property> properties, Iterable<Property> propertyRemoves, Authorizations authorizations) {
+        // the mutation the properties come from can still be changed by the caller
+        UpdateElementPropertiesOperation operation = new UpdateElementPropertiesOperation(graph, elementType, elementId, toList(properties), toList(propertyRemoves), authorizations);
+        enqueue(elementType, elementId, operation, false);
+    }
+
+    @Override
+    public GraphQuery queryGraph(Graph graph, String queryString, Authorizations authorizations) {
+        return searchIndex.queryGraph(graph, queryString, authorizations);
+    }
+
+    @Override
+    public VertexQuery queryVertex(Graph graph, Vertex vertex, String queryString, Authorizations authorizations) {
+        return searchIndex.queryVertex(graph, vertex, queryString, authorizations);
+    }
+
+    @Override
+    public void flush() {
+        synchronized (lock) {
+            long flushSequence = nextSequence;
+            while (hasPendingBefore(flushSequence)) {
+                waitForLock();
+            }
+            if (failure != null) {
+                RuntimeException ex = failure;
+                failure = null;
+                throw new SecureGraphException("Could not update the search index", ex);
+            }
+        }
+        searchIndex.flush();
+    }
+
+    @Override
+    public void shutdown() {
+        try {
+            flush();
+        } finally {
+            synchronized (lock) {
+                shutdown = true;
+                lock.notifyAll();
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            searchIndex.shutdown();
+        }
+    }
+
+    @Override
+    public void addPropertyDefinition(PropertyDefinition propertyDefinition) throws IOException {
+        searchIndex.addPropertyDefinition(propertyDefinition);
+    }
+
+    @Override
+    public boolean isFieldBoostSupported() {
+        return searchIndex.isFieldBoostSupported();
+    }
+
+    private static ElementType getElementType(Element element) {
+        return element instanceof Edge ? ElementType.EDGE : ElementType.VERTEX;
+    }
+
+    private void enqueue(ElementType elementType, Object elementId, IndexOperation operation, boolean replacesPending) {
+        String key = elementType.name() + ":" + elementId;
+        synchronized (lock) {
+            if (shutdown) {
+                throw new SecureGraphException("Search index is shut down");
+            }
+            PendingElement pendingElement = pendingElements.get(key);
+            while (pendingElement == null && pendingElements.size() >= maxQueueSize) {
+                waitForLock();
+                pendingElement = pendingElements.get(key);
+            }
+            if (pendingElement == null) {
+                pendingElement = new PendingElement(key, nextSequence++);
+                pendingElements.put(key, pendingElement);
+                lock.notifyAll();
+            }
+            if (replacesPending) {
+                pendingElement.operations.clear();
+            }
+            pendingElement.operations.add(operation);
+        }
+    }
+
+    private void runWorker() {
+        while (true) {
+            List<PendingElement> batch;
+            synchronized (lock) {
+                batch = takeBatch();
+                while (batch.size() == 0) {
+                    if (shutdown) {
+                        return;
+                    }
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    batch = takeBatch();
+                }
+                // wakes up callers waiting for room in the queue
+                lock.notifyAll();
+            }
+
+            try {
+                apply(batch);
+            } finally {
+                synchronized (lock) {
+                    for (PendingElement pendingElement : batch) {
+                        inFlightSequences.remove(pendingElement.key);
+                    }
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private List<PendingElement> takeBatch() {
+        List<PendingElement> batch = new ArrayList<PendingElement>();
+        Iterator<PendingElement> it = pendingElements.values().iterator();
+        while (it.hasNext() && batch.size() < batchSize) {
+            PendingElement pendingElement = it.next();
+            if (inFlightSequences.containsKey(pendingElement.key)) {
+                continue;
+            }
+            it.remove();
+            inFlightSequences.put(pendingElement.key, pendingElement.sequence);
+            batch.add(pendingElement);
+        }
+        return batch;
+    }
+
+    private void apply(List<PendingElement> batch) {
+        Map<Graph, List<PendingElement>> elementsToAdd = new LinkedHashMap<Graph, List<PendingElement>>();
+        Map<Graph, List<PendingElement>> elementsToRemove = new LinkedHashMap<Graph, List<PendingElement>>();
+        List<PendingElement> otherElements = new ArrayList<PendingElement>();
+        for (PendingElement pendingElement : batch) {
+            if (pendingElement.operations.size() == 1 && pendingElement.operations.get(0) instanceof AddElementOperation) {
+                getPendingElementList(elementsToAdd, pendingElement.operations.get(0).graph).add(pendingElement);
+            } else if (pendingElement.operations.size() == 1 && pendingElement.operations.get(0) instanceof RemoveElementOperation) {
+                getPendingElementList(elementsToRemove, pendingElement.operations.get(0).graph).add(pendingElement);
+            } else {
+                otherElements.add(pendingElement);
+            }
+        }
+
+        for (Map.Entry<Graph, List<PendingElement>> pendingElementsOfGraph : elementsToAdd.entrySet()) {
+            try {
+                searchIndex.addElements(pendingElementsOfGraph.getKey(), getElements(pendingElementsOfGraph.getValue()));
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Could not add " + pendingElementsOfGraph.getValue().size() + " elements, adding them one at a time", ex);
+                otherElements.addAll(pendingElementsOfGraph.getValue());
+            }
+        }
+        for (Map.Entry<Graph, List<PendingElement>> pendingElementsOfGraph : elementsToRemove.entrySet()) {
+            try {
+                searchIndex.removeElements(pendingElementsOfGraph.getKey(), getElements(pendingElementsOfGraph.getValue()));
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Could not remove " + pendingElementsOfGraph.getValue().size() + " elements, removing them one at a time", ex);
+                otherElements.addAll(pendingElementsOfGraph.getValue());
+            }
+        }
+        for (PendingElement pendingElement : otherElements) {
+            apply(pendingElement);
+        }
+    }
+
+    private void apply(PendingElement pendingElement) {
+        try {
+            for (IndexOperation operation : pendingElement.operations) {
+                operation.apply(searchIndex);
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.error("Could not update the search index for " + pendingElement.key, ex);
+            synchronized (lock) {
+                if (failure == null) {
+                    failure = ex;
+                }
+            }
+        }
+    }
+
+    private static List<PendingElement> getPendingElementList(Map<Graph, List<PendingElement>> pendingElementsByGraph, Graph graph) {
+        List<PendingElement> pendingElements = pendingElementsByGraph.get(graph);
+        if (pendingElements == null) {
+            pendingElements = new ArrayList<PendingElement>();
+            pendingElementsByGraph.put(graph, pendingElements);
+        }
+        return pendingElements;
+    }
+
+    private static List<Element> getElements(List<PendingElement> pendingElements) {
+        List<Element> elements = new ArrayList<Element>(pendingElements.size());
+        for (PendingElement pendingElement : pendingElements) {
+            elements.add(((ElementOperation) pendingElement.operations.get(0)).element);
+        }
+        return elements;
+    }
+
+    private boolean hasPendingBefore(long sequence) {
+        // elements are queued in the order of their sequence
+        if (pendingElements.size() > 0 && pendingElements.values().iterator().next().sequence < sequence) {
+            return true;
+        }
+        for (Long inFlightSequence : inFlightSequences.values()) {
+            if (inFlightSequence < sequence) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void waitForLock() {
+        try {
+            lock.wait();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SecureGraphException("Interrupted while waiting for the search index", ex);
+        }
+    }
+
+    private static class PendingElement {
+        private final String key;
+        private final long sequence;
+        private final List<IndexOperation> operations = new ArrayList<IndexOperation>();
+
+        private PendingElement(String key, long sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+
+    private static abstract class IndexOperation {
+        protected final Graph graph;
+
+        protected IndexOperation(Graph graph) {
+            this.graph = graph;
+        }
+
+        public abstract void apply(SearchIndex searchIndex);
+    }
+
+    private static abstract class ElementOperation extends IndexOperation {
+        protected final Element element;
+
+        protected ElementOperation(Graph graph, Element element) {
+            super(graph);
+            this.element = element;
+        }
+    }
+
+    private static class AddElementOperation extends ElementOperation {
+        private AddElementOperation(Graph graph, Element element) {
+            super(graph, element);
+        }
+
+        @Override
+        public void apply(SearchIndex searchIndex) {
+            searchIndex.addElement(graph, element);
+        }
+    }
+
+    private static class RemoveElementOperation extends ElementOperation {
+        private RemoveElementOperation(Graph graph, Element element) {
+            super(graph, element);
+        }
+
+        @Override
+        public void apply(SearchIndex searchIndex) {
+            searchIndex.removeElement(graph, element);
+        }
+    }
+
+    private static class UpdateElementPropertiesOperation extends IndexOperation {
+        private final ElementType elementType;
+        private final Object elementId;
+        private final List<Property> properties;
+        private final List<Property> propertyRemoves;
+        private final Authorizations authorizations;
+
+        private UpdateElementPropertiesOperation(Graph graph, ElementType elementType, Object elementId, List<Property> properties, List<Property> propertyRemoves, Authorizations authorizations) {
+            super(graph);
+            this.elementType = elementType;
+            this.elementId = elementId;
+            this.properties = properties;
+            this.propertyRemoves = propertyRemoves;
+            this.authorizations = authorizations;
+        }
+
+        @Override
+        public void apply(SearchIndex searchIndex) {
+            searchIndex.updateElementProperties(graph, elementType, elementId, properties, propertyRemoves, authorizations);
+        }
+    }
+}
@@ -33,6 +33,18 @@ public class DefaultSearchIndex implements SearchIndex {
         }
     }
 
+    @Override
+    public void removeElements(Graph graph, Iterable<Element> elements) {
+        for (Element element : elements) {
+            removeElement(graph, element);
+        }
+    }
+
+    @Override
+    public void updateElementProperties(Graph graph, ElementType elementType, Object elementId, Iterable<Property> properties, Iterable<Property> propertyRemoves, Authorizations authorizations) {
+
+    }
+
     @Override
     public GraphQuery queryGraph(Graph graph, String queryString, Authorizations authorizations) {
         return new DefaultGraphQuery(graph, queryString, this.propertyDefinitions, authorizations);
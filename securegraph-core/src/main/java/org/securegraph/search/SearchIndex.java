@@ -13,6 +13,15 @@ public interface SearchIndex {
 
     void addElements(Graph graph, Iterable<Element> elements);
 
+    void removeElements(Graph graph, Iterable<Element> elements);
+
+    /**
+     * Updates the document of an element for properties changed without the element being read. Indexes that
+     * can not change part of a document read the element from the graph with the given authorizations and add it
+     * again.
+     */
+    void updateElementProperties(Graph graph, ElementType elementType, Object elementId, Iterable<Property> properties, Iterable<Property> propertyRemoves, Authorizations authorizations);
+
     GraphQuery queryGraph(Graph graph, String queryString, Authorizations authorizations);
 
     VertexQuery queryVertex(Graph graph, Vertex vertex, String queryString, Authorizations authorizations);
@@ -38,4 +38,12 @@ public class ConfigurationUtils {
             throw new SecureGraphException(e);
         }
     }
+
+    public static int getInt(Map config, String key, int defaultValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value.toString());
+    }
 }
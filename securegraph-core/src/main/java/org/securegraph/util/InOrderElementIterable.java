@@ -0,0 +1,117 @@
+package org.securegraph.util;
+
+import org.securegraph.Element;
+
+import java.util.*;
+
+/**
+ * Returns the elements read for a list of ids in the order of the ids. The ids are read in chunks of chunkSize,
+ * elements of a chunk that arrive before their turn are kept until the elements before them were returned.
+ * Ids are compared by their string value, an id that appears more than once is returned once and ids that are
+ * not found are skipped.
+ */
+public abstract class InOrderElementIterable<T extends Element> implements ClosableIterable<T> {
+    private final List<Object> ids;
+    private final int chunkSize;
+    private Iterable<T> chunkElements;
+
+    public InOrderElementIterable(Iterable<Object> ids, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        Map<String, Object> distinctIds = new LinkedHashMap<String, Object>();
+        for (Object id : ids) {
+            String idString = id.toString();
+            if (!distinctIds.containsKey(idString)) {
+                distinctIds.put(idString, id);
+            }
+        }
+        this.ids = new ArrayList<Object>(distinctIds.values());
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the elements of a chunk of ids in any order.
+     */
+    protected abstract Iterable<T> getElements(List<Object> ids);
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final Map<String, T> arrivedEarly = new HashMap<String, T>();
+            private int chunkStart;
+            private List<Object> chunk;
+            private int chunkPosition;
+            private Iterator<T> chunkIterator;
+            private T next;
+
+            @Override
+            public boolean hasNext() {
+                loadNext();
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                loadNext();
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                T current = next;
+                next = null;
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            private void loadNext() {
+                while (next == null) {
+                    if (chunkIterator == null) {
+                        if (chunkStart >= ids.size()) {
+                            return;
+                        }
+                        chunk = ids.subList(chunkStart, Math.min(chunkStart + chunkSize, ids.size()));
+                        chunkStart += chunk.size();
+                        chunkPosition = 0;
+                        chunkElements = getElements(chunk);
+                        chunkIterator = chunkElements.iterator();
+                    }
+
+                    if (chunkPosition >= chunk.size()) {
+                        arrivedEarly.clear();
+                        closeChunk();
+                        chunkIterator = null;
+                        continue;
+                    }
+
+                    String id = chunk.get(chunkPosition++).toString();
+                    T element = arrivedEarly.remove(id);
+                    while (element == null && chunkIterator.hasNext()) {
+                        T e = chunkIterator.next();
+                        if (e.getId().toString().equals(id)) {
+                            element = e;
+                        } else {
+                            arrivedEarly.put(e.getId().toString(), e);
+                        }
+                    }
+                    next = element;
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        closeChunk();
+    }
+
+    private void closeChunk() {
+        if (chunkElements instanceof ClosableIterable) {
+            ((ClosableIterable) chunkElements).close();
+        }
+        chunkElements = null;
+    }
+}
@@ -0,0 +1,87 @@
+package org.securegraph.util;
+
+import org.securegraph.SecureGraphException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Processes the partitions returned by {@link org.securegraph.Graph#getVertexPartitions(java.util.Set, org.securegraph.Authorizations)}
+ * and {@link org.securegraph.Graph#getEdgePartitions(java.util.Set, org.securegraph.Authorizations)} on a pool of
+ * threads, one partition per thread at a time. Partitions that are {@link ClosableIterable} are closed after they
+ * were processed. If a partition fails the partitions not yet started are skipped and the first failure is thrown
+ * once the running partitions are done.
+ */
+public abstract class PartitionProcessor<T> {
+    protected abstract void process(Iterable<T> partition) throws Exception;
+
+    public void processAll(List<? extends Iterable<T>> partitions, int threadCount) {
+        if (threadCount <= 1 || partitions.size() <= 1) {
+            for (Iterable<T> partition : partitions) {
+                processPartition(partition);
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, partitions.size()));
+        try {
+            final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for (final Iterable<T> partition : partitions) {
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        processPartition(partition);
+                        return null;
+                    }
+                }));
+            }
+
+            SecureGraphException failure = null;
+            for (Future<Object> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    if (failure == null) {
+                        failure = toSecureGraphException(ex.getCause());
+                        for (Future<Object> f : futures) {
+                            f.cancel(false);
+                        }
+                    }
+                } catch (CancellationException ex) {
+                    // skipped after an earlier partition failed
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new SecureGraphException("Interrupted while processing partitions", ex);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void processPartition(Iterable<T> partition) {
+        try {
+            process(partition);
+        } catch (Exception ex) {
+            throw toSecureGraphException(ex);
+        } finally {
+            if (partition instanceof ClosableIterable) {
+                ((ClosableIterable) partition).close();
+            }
+        }
+    }
+
+    private static SecureGraphException toSecureGraphException(Throwable ex) {
+        if (ex instanceof SecureGraphException) {
+            return (SecureGraphException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return new SecureGraphException("Could not process partition", (Exception) ex);
+    }
+}
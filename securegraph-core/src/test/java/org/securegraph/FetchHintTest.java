@@ -0,0 +1,38 @@
+package org.securegraph;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(JUnit4.class)
+public class FetchHintTest {
+    @Test
+    public void testSharedSetsCannotBeModified() {
+        assertUnmodifiable(FetchHint.NONE);
+        assertUnmodifiable(FetchHint.PROPERTIES_AND_METADATA);
+        assertUnmodifiable(FetchHint.EDGE_REFS);
+        assertUnmodifiable(FetchHint.ALL);
+        assertEquals(0, FetchHint.NONE.size());
+        assertEquals(FetchHint.values().length, FetchHint.ALL.size());
+    }
+
+    private static void assertUnmodifiable(Set<FetchHint> fetchHints) {
+        try {
+            fetchHints.add(FetchHint.PROPERTIES);
+            fail("should not be able to modify " + fetchHints);
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+        try {
+            fetchHints.clear();
+            fail("should not be able to modify " + fetchHints);
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+    }
+}
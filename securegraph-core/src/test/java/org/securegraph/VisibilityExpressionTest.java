@@ -0,0 +1,73 @@
+package org.securegraph;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class VisibilityExpressionTest {
+    @Test
+    public void testEvaluate() {
+        Set<String> auths = new HashSet<String>(Arrays.asList("a", "b", "c:d", "e f"));
+        assertTrue(VisibilityExpression.compile("").evaluate(auths));
+        assertTrue(VisibilityExpression.compile("a").evaluate(auths));
+        assertFalse(VisibilityExpression.compile("x").evaluate(auths));
+        assertTrue(VisibilityExpression.compile("a&b").evaluate(auths));
+        assertFalse(VisibilityExpression.compile("a&x").evaluate(auths));
+        assertTrue(VisibilityExpression.compile("x|b").evaluate(auths));
+        assertFalse(VisibilityExpression.compile("x|y").evaluate(auths));
+        assertTrue(VisibilityExpression.compile("(x|a)&(c:d|y)").evaluate(auths));
+        assertFalse(VisibilityExpression.compile("(x|a)&(y|z)").evaluate(auths));
+        assertTrue(VisibilityExpression.compile("\"e f\"&(a)").evaluate(auths));
+    }
+
+    @Test
+    public void testEvaluateEscapedQuotedTerm() {
+        Set<String> auths = new HashSet<String>(Arrays.asList("a\"b\\c"));
+        assertTrue(VisibilityExpression.compile("\"a\\\"b\\\\c\"").evaluate(auths));
+    }
+
+    @Test
+    public void testCompileIsCached() {
+        assertSame(VisibilityExpression.compile("a&b"), VisibilityExpression.compile("a&b"));
+    }
+
+    @Test
+    public void testGetClauses() {
+        assertEquals(clauses(new String[0]), VisibilityExpression.compile("").getClauses());
+        assertEquals(clauses(new String[]{"a"}), VisibilityExpression.compile("a").getClauses());
+        assertEquals(clauses(new String[]{"a", "b"}), VisibilityExpression.compile("b&a").getClauses());
+        assertEquals(clauses(new String[]{"a"}, new String[]{"b"}), VisibilityExpression.compile("a|b").getClauses());
+        assertEquals(
+                clauses(new String[]{"a", "c"}, new String[]{"a", "d"}, new String[]{"b", "c"}, new String[]{"b", "d"}),
+                VisibilityExpression.compile("(a|b)&(c|d)").getClauses());
+        assertEquals(clauses(new String[]{"a"}), VisibilityExpression.compile("a|(a&b)").getClauses());
+        assertNull(VisibilityExpression.compile("(a|b)&(c|d)&(e|f)&(g|h)&(i|j)&(k|l)&(m|n)&(o|p)&(q|r)").getClauses());
+    }
+
+    private static Set<Set<String>> clauses(String[]... clauses) {
+        Set<Set<String>> result = new HashSet<Set<String>>();
+        for (String[] clause : clauses) {
+            result.add(new HashSet<String>(Arrays.asList(clause)));
+        }
+        return result;
+    }
+
+    @Test
+    public void testInvalidExpressions() {
+        for (String expression : new String[]{"a&b|c", "a&", "&a", "()", "(a", "a)", "a b", "\"a", "\"\""}) {
+            try {
+                VisibilityExpression.compile(expression);
+                fail("expected " + expression + " to be invalid");
+            } catch (SecureGraphException ex) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.securegraph.elasticsearch;
+
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.securegraph.GraphConfiguration;
+import org.securegraph.SecureGraphException;
+import org.securegraph.util.ConfigurationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the requests of a search index to Elasticsearch in bulk requests through a {@link BulkProcessor}. Each
+ * {@link Bulk} sends requests of up to {@link #BULK_MAX_ACTIONS} actions or {@link #BULK_MAX_SIZE_MB} megabytes.
+ * Elasticsearch 1.1's BulkProcessor has no flush or awaitClose, so the requests in flight are tracked here.
+ */
+public class ElasticSearchBulkIndexer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElasticSearchBulkIndexer.class);
+    public static final String BULK_MAX_ACTIONS = "bulk.maxActions";
+    public static final String BULK_MAX_SIZE_MB = "bulk.maxSizeMb";
+    public static final String BULK_CONCURRENT_REQUESTS = "bulk.concurrentRequests";
+    public static final String BULK_FLUSH_INTERVAL_MS = "bulk.flushIntervalMs";
+    public static final int DEFAULT_BULK_MAX_ACTIONS = 1000;
+    public static final int DEFAULT_BULK_MAX_SIZE_MB = 5;
+    public static final int DEFAULT_BULK_CONCURRENT_REQUESTS = 1;
+    public static final int DEFAULT_BULK_FLUSH_INTERVAL_MS = 0;
+    private static final int MAX_REPORTED_BULK_FAILURES = 10;
+    private final Client client;
+    private final int maxActions;
+    private final int maxSizeMb;
+    private final int concurrentRequests;
+    private final int flushIntervalMs;
+    private int pendingRequests;
+
+    public ElasticSearchBulkIndexer(Client client, Map config) {
+        this.client = client;
+        maxActions = getSearchIndexConfigInt(config, BULK_MAX_ACTIONS, DEFAULT_BULK_MAX_ACTIONS);
+        maxSizeMb = getSearchIndexConfigInt(config, BULK_MAX_SIZE_MB, DEFAULT_BULK_MAX_SIZE_MB);
+        concurrentRequests = getSearchIndexConfigInt(config, BULK_CONCURRENT_REQUESTS, DEFAULT_BULK_CONCURRENT_REQUESTS);
+        flushIntervalMs = getSearchIndexConfigInt(config, BULK_FLUSH_INTERVAL_MS, DEFAULT_BULK_FLUSH_INTERVAL_MS);
+        LOGGER.info("Bulk indexing: " + maxActions + " actions, " + maxSizeMb + "MB, " + concurrentRequests + " concurrent requests, flush interval " + flushIntervalMs + "ms");
+    }
+
+    private static int getSearchIndexConfigInt(Map config, String key, int defaultValue) {
+        return ConfigurationUtils.getInt(config, GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + key, defaultValue);
+    }
+
+    public int getMaxActions() {
+        return maxActions;
+    }
+
+    /**
+     * Starts a bulk, its requests are sent once enough of them were added and when it is closed.
+     */
+    public Bulk startBulk() {
+        Bulk bulk = new Bulk();
+        BulkProcessor.Builder bulkProcessorBuilder = BulkProcessor.builder(client, bulk)
+                .setBulkActions(maxActions)
+                .setBulkSize(new ByteSizeValue(maxSizeMb, ByteSizeUnit.MB))
+                .setConcurrentRequests(concurrentRequests);
+        if (flushIntervalMs > 0) {
+            bulkProcessorBuilder.setFlushInterval(TimeValue.timeValueMillis(flushIntervalMs));
+        }
+        bulk.bulkProcessor = bulkProcessorBuilder.build();
+        return bulk;
+    }
+
+    /**
+     * Waits for the bulk requests sent by every bulk to complete. Failures are reported by the bulk that sent them.
+     */
+    public synchronized void awaitPendingRequests() {
+        while (pendingRequests > 0) {
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SecureGraphException("Interrupted while waiting for bulk requests", ex);
+            }
+        }
+    }
+
+    private synchronized void requestStarted() {
+        pendingRequests++;
+    }
+
+    private synchronized void requestCompleted() {
+        pendingRequests--;
+        notifyAll();
+    }
+
+    /**
+     * The requests added by one caller, and the ones that failed.
+     */
+    public class Bulk implements BulkProcessor.Listener {
+        private BulkProcessor bulkProcessor;
+        private int pendingRequests;
+        private int failureCount;
+        private final List<String> failureMessages = new ArrayList<String>();
+
+        private Bulk() {
+        }
+
+        public void add(ActionRequest request) {
+            bulkProcessor.add(request);
+        }
+
+        /**
+         * Sends the requests left and waits for all the requests of the bulk to complete.
+         *
+         * @throws SecureGraphException if any request failed.
+         */
+        public void close() {
+            bulkProcessor.close();
+            awaitCompletion();
+        }
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+            synchronized (this) {
+                pendingRequests++;
+            }
+            requestStarted();
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            synchronized (this) {
+                for (BulkItemResponse item : response) {
+                    if (item.isFailed()) {
+                        addFailure(1, item.getId() + ": " + item.getFailureMessage());
+                    }
+                }
+                bulkCompleted();
+            }
+            requestCompleted();
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            LOGGER.error("Bulk request of " + request.numberOfActions() + " actions failed", failure);
+            synchronized (this) {
+                addFailure(request.numberOfActions(), "bulk request of " + request.numberOfActions() + " actions: " + failure.getMessage());
+                bulkCompleted();
+            }
+            requestCompleted();
+        }
+
+        private void addFailure(int count, String message) {
+            failureCount += count;
+            if (failureMessages.size() < MAX_REPORTED_BULK_FAILURES) {
+                failureMessages.add(message);
+            }
+        }
+
+        private void bulkCompleted() {
+            pendingRequests--;
+            notifyAll();
+        }
+
+        private synchronized void awaitCompletion() {
+            while (pendingRequests > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new SecureGraphException("Interrupted while waiting for bulk requests", ex);
+                }
+            }
+            if (failureCount > 0) {
+                StringBuilder message = new StringBuilder("Could not complete " + failureCount + " bulk actions");
+                for (String failureMessage : failureMessages) {
+                    message.append("\n  ").append(failureMessage);
+                }
+                throw new SecureGraphException(message.toString());
+            }
+        }
+    }
+}
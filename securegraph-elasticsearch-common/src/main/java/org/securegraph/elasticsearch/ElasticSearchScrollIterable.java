@@ -0,0 +1,192 @@
+package org.securegraph.elasticsearch;
+
+import org.elasticsearch.action.ListenableActionFuture;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+import org.securegraph.Element;
+import org.securegraph.util.ClosableIterable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the ids matched by a search with a scan and scroll, and reads their elements a page of ids at a time.
+ * The next page of ids is requested while the elements of the current page are read, so at most two pages are
+ * held at a time. Each iterator starts its own scroll, which is cleared once the iterator is exhausted or the
+ * iterable is closed, and otherwise expires after keepAlive.
+ */
+public abstract class ElasticSearchScrollIterable<T extends Element> implements ClosableIterable<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElasticSearchScrollIterable.class);
+    private final Client client;
+    private final SearchRequestBuilder searchRequest;
+    private final TimeValue keepAlive;
+    private final List<ScrollIterator> iterators = new ArrayList<ScrollIterator>();
+
+    /**
+     * @param pageSize The number of hits per shard in each page, see {@link SearchType#SCAN}.
+     */
+    public ElasticSearchScrollIterable(Client client, SearchRequestBuilder searchRequest, int pageSize, long keepAliveMs) {
+        this.client = client;
+        this.keepAlive = TimeValue.timeValueMillis(keepAliveMs);
+        this.searchRequest = searchRequest
+                .setSearchType(SearchType.SCAN)
+                .setScroll(keepAlive)
+                .setSize(pageSize);
+    }
+
+    /**
+     * Reads the elements of a page of ids in any order.
+     */
+    protected abstract Iterable<T> getElements(List<Object> ids);
+
+    @Override
+    public Iterator<T> iterator() {
+        ScrollIterator it = new ScrollIterator();
+        synchronized (iterators) {
+            Iterator<ScrollIterator> openIterators = iterators.iterator();
+            while (openIterators.hasNext()) {
+                if (openIterators.next().isDone()) {
+                    openIterators.remove();
+                }
+            }
+            iterators.add(it);
+        }
+        return it;
+    }
+
+    /**
+     * Stops the iterators that were not read to the end, the page being requested is cancelled and their scrolls
+     * are cleared.
+     */
+    @Override
+    public void close() {
+        synchronized (iterators) {
+            for (ScrollIterator it : iterators) {
+                it.close();
+            }
+            iterators.clear();
+        }
+    }
+
+    private class ScrollIterator implements Iterator<T> {
+        private ListenableActionFuture<SearchResponse> nextPage;
+        private String scrollId;
+        private Iterable<T> pageElements;
+        private Iterator<T> pageIterator;
+        private boolean done;
+        private T next;
+
+        @Override
+        public boolean hasNext() {
+            loadNext();
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            loadNext();
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            T current = next;
+            next = null;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public synchronized boolean isDone() {
+            return done;
+        }
+
+        public synchronized void close() {
+            if (done) {
+                return;
+            }
+            done = true;
+            next = null;
+            if (nextPage != null) {
+                nextPage.cancel(true);
+                nextPage = null;
+            }
+            closePage();
+            clearScroll();
+        }
+
+        private synchronized void loadNext() {
+            while (next == null) {
+                if (pageIterator != null && pageIterator.hasNext()) {
+                    next = pageIterator.next();
+                    return;
+                }
+                closePage();
+                if (done) {
+                    return;
+                }
+
+                if (nextPage == null) {
+                    // a scan returns no hits, only the scroll to read them with
+                    SearchResponse response = searchRequest.execute().actionGet();
+                    LOGGER.debug("scrolling through " + response.getHits().getTotalHits() + " elastic search results");
+                    scrollId = response.getScrollId();
+                    nextPage = requestPage(scrollId);
+                }
+                SearchResponse response = nextPage.actionGet();
+                scrollId = response.getScrollId();
+                SearchHit[] hits = response.getHits().getHits();
+                if (hits.length == 0) {
+                    nextPage = null;
+                    close();
+                    return;
+                }
+                nextPage = requestPage(scrollId);
+
+                List<Object> ids = new ArrayList<Object>(hits.length);
+                for (SearchHit hit : hits) {
+                    ids.add(hit.getId());
+                }
+                pageElements = getElements(ids);
+                pageIterator = pageElements.iterator();
+            }
+        }
+
+        private ListenableActionFuture<SearchResponse> requestPage(String scrollId) {
+            return client.prepareSearchScroll(scrollId)
+                    .setScroll(keepAlive)
+                    .execute();
+        }
+
+        private void closePage() {
+            if (pageElements instanceof ClosableIterable) {
+                ((ClosableIterable) pageElements).close();
+            }
+            pageElements = null;
+            pageIterator = null;
+        }
+
+        private void clearScroll() {
+            if (scrollId == null) {
+                return;
+            }
+            try {
+                client.prepareClearScroll()
+                        .addScrollId(scrollId)
+                        .execute()
+                        .actionGet();
+            } catch (Exception ex) {
+                LOGGER.warn("Could not clear scroll, it expires after " + keepAlive, ex);
+            }
+        }
+    }
+}
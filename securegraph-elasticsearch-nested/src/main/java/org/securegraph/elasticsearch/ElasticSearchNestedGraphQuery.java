@@ -34,16 +34,32 @@ public class ElasticSearchNestedGraphQuery extends GraphQueryBase implements Que
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticSearchNestedGraphQuery.class);
     private final TransportClient client;
     private String indexName;
+    private final int scrollPageSize;
+    private final long scrollKeepAliveMs;
     private List<Facet> facets = new ArrayList<Facet>();
 
-    public ElasticSearchNestedGraphQuery(TransportClient client, String indexName, Graph graph, String queryString, Map<String, PropertyDefinition> propertyDefinitions, Authorizations authorizations) {
+    public ElasticSearchNestedGraphQuery(TransportClient client, String indexName, Graph graph, String queryString, Map<String, PropertyDefinition> propertyDefinitions, int scrollPageSize, long scrollKeepAliveMs, Authorizations authorizations) {
         super(graph, queryString, propertyDefinitions, authorizations);
         this.client = client;
         this.indexName = indexName;
+        this.scrollPageSize = scrollPageSize;
+        this.scrollKeepAliveMs = scrollKeepAliveMs;
     }
 
     @Override
     public Iterable<Vertex> vertices() {
+        if (getParameters().isScroll()) {
+            final Authorizations authorizations = getParameters().getAuthorizations();
+            Iterable<Vertex> vertices = new ElasticSearchScrollIterable<Vertex>(client, createScrollRequest(ElasticSearchNestedSearchIndex.ELEMENT_TYPE_VERTEX), scrollPageSize, scrollKeepAliveMs) {
+                @Override
+                protected Iterable<Vertex> getElements(List<Object> ids) {
+                    return getGraph().getVertices(ids, authorizations);
+                }
+            };
+            // a scan does not support from, the skip is done by the DefaultGraphQueryIterable
+            return new DefaultGraphQueryIterable<Vertex>(getParameters().clone(), vertices, false);
+        }
+
         long startTime = System.nanoTime();
         SearchResponse response = getSearchResponse(ElasticSearchNestedSearchIndex.ELEMENT_TYPE_VERTEX);
         Map<String, FacetedResult> facetedResult = toFacetedResults(response.getAggregations());
@@ -69,6 +85,18 @@ public class ElasticSearchNestedGraphQuery extends GraphQueryBase implements Que
 
     @Override
     public Iterable<Edge> edges() {
+        if (getParameters().isScroll()) {
+            final Authorizations authorizations = getParameters().getAuthorizations();
+            Iterable<Edge> edges = new ElasticSearchScrollIterable<Edge>(client, createScrollRequest(ElasticSearchNestedSearchIndex.ELEMENT_TYPE_EDGE), scrollPageSize, scrollKeepAliveMs) {
+                @Override
+                protected Iterable<Edge> getElements(List<Object> ids) {
+                    return getGraph().getEdges(ids, authorizations);
+                }
+            };
+            // a scan does not support from, the skip is done by the DefaultGraphQueryIterable
+            return new DefaultGraphQueryIterable<Edge>(getParameters().clone(), edges, false);
+        }
+
         long startTime = System.nanoTime();
         SearchResponse response = getSearchResponse(ElasticSearchNestedSearchIndex.ELEMENT_TYPE_EDGE);
         Map<String, FacetedResult> facetedResult = toFacetedResults(response.getAggregations());
@@ -114,6 +142,41 @@ public class ElasticSearchNestedGraphQuery extends GraphQueryBase implements Que
     }
 
     private SearchResponse getSearchResponse(String elementType) {
+        SearchRequestBuilder q = client
+                .prepareSearch(indexName)
+                .setTypes(ElasticSearchNestedSearchIndex.ELEMENT_TYPE)
+                .setQuery(createQuery(elementType))
+                .setFrom((int) getParameters().getSkip())
+                .setSize((int) getParameters().getLimit());
+
+        NestedBuilder nestedAgg = AggregationBuilders.nested("properties")
+                .path(ElasticSearchNestedSearchIndex.PROPERTY_NESTED_FIELD_NAME);
+
+        for (Facet facet : this.facets) {
+            if (facet instanceof TermFacet) {
+                TermFacet termFacet = (TermFacet) facet;
+                TermsBuilder esAggs = AggregationBuilders.terms(termFacet.getName())
+                        .field(ElasticSearchNestedSearchIndex.PROPERTY_NESTED_FIELD_NAME + "." + termFacet.getPropertyName())
+                        .shardSize(0)
+                        .size(0)
+                        .order(Terms.Order.term(true));
+                nestedAgg.subAggregation(esAggs);
+            } else {
+                throw new SecureGraphException("Unsupported facet type: " + facet.getClass().getName());
+            }
+        }
+
+        q.addAggregation(nestedAgg);
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("query: " + q);
+        }
+
+        return q.execute()
+                .actionGet();
+    }
+
+    private QueryBuilder createQuery(String elementType) {
         List<QueryBuilder> nestedQueries = new ArrayList<QueryBuilder>();
 
         for (HasContainer has : getParameters().getHasContainers()) {
@@ -206,7 +269,6 @@ public class ElasticSearchNestedGraphQuery extends GraphQueryBase implements Que
                 throw new SecureGraphException("Unexpected predicate type " + has.predicate.getClass().getName());
             }
         }
-
         BoolQueryBuilder query = QueryBuilders.boolQuery();
         TermQueryBuilder elementTypeQuery = QueryBuilders.termQuery(ElasticSearchNestedSearchIndex.ELEMENT_TYPE_FIELD_NAME, elementType);
         query.must(elementTypeQuery);
@@ -221,38 +283,21 @@ public class ElasticSearchNestedGraphQuery extends GraphQueryBase implements Que
             query.must(builder);
         }
 
+        return query;
+    }
+
+    private SearchRequestBuilder createScrollRequest(String elementType) {
+        if (this.facets.size() > 0) {
+            throw new SecureGraphException("Facets are not supported when scrolling");
+        }
         SearchRequestBuilder q = client
                 .prepareSearch(indexName)
                 .setTypes(ElasticSearchNestedSearchIndex.ELEMENT_TYPE)
-                .setQuery(query)
-                .setFrom((int) getParameters().getSkip())
-                .setSize((int) getParameters().getLimit());
-
-        NestedBuilder nestedAgg = AggregationBuilders.nested("properties")
-                .path(ElasticSearchNestedSearchIndex.PROPERTY_NESTED_FIELD_NAME);
-
-        for (Facet facet : this.facets) {
-            if (facet instanceof TermFacet) {
-                TermFacet termFacet = (TermFacet) facet;
-                TermsBuilder esAggs = AggregationBuilders.terms(termFacet.getName())
-                        .field(ElasticSearchNestedSearchIndex.PROPERTY_NESTED_FIELD_NAME + "." + termFacet.getPropertyName())
-                        .shardSize(0)
-                        .size(0)
-                        .order(Terms.Order.term(true));
-                nestedAgg.subAggregation(esAggs);
-            } else {
-                throw new SecureGraphException("Unsupported facet type: " + facet.getClass().getName());
-            }
-        }
-
-        q.addAggregation(nestedAgg);
-
+                .setQuery(createQuery(elementType));
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("query: " + q);
+            LOGGER.debug("scroll query: " + q);
         }
-
-        return q.execute()
-                .actionGet();
+        return q;
     }
 
     private NestedQueryBuilder nestedPropertyQuery(QueryBuilder propertyQuery) {
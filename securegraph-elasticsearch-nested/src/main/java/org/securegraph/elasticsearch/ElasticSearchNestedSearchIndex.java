@@ -3,6 +3,8 @@ package org.securegraph.elasticsearch;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.mapping.put.PutMappingResponse;
 import org.elasticsearch.action.admin.indices.status.IndicesStatusResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.client.transport.TransportClient;
@@ -21,6 +23,7 @@ import org.securegraph.query.GraphQuery;
 import org.securegraph.query.VertexQuery;
 import org.securegraph.search.SearchIndex;
 import org.securegraph.type.GeoPoint;
+import org.securegraph.util.ConfigurationUtils;
 import org.securegraph.util.StreamUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ElasticSearchNestedSearchIndex implements SearchIndex {
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticSearchNestedSearchIndex.class);
@@ -43,12 +47,20 @@ public class ElasticSearchNestedSearchIndex implements SearchIndex {
     public static final String ELEMENT_TYPE_EDGE = "edge";
     public static final int DEFAULT_ES_PORT = 9300;
     public static final String EXACT_MATCH_PROPERTY_NAME_SUFFIX = "_exactMatch";
+    public static final String SCROLL_PAGE_SIZE = "scroll.pageSize";
+    public static final String SCROLL_KEEP_ALIVE_MS = "scroll.keepAliveMs";
+    public static final int DEFAULT_SCROLL_PAGE_SIZE = 500;
+    public static final int DEFAULT_SCROLL_KEEP_ALIVE_MS = 60 * 1000;
     public static final String PROPERTY_NESTED_FIELD_NAME = "property";
     public static final String SETTING_CLUSTER_NAME = "clusterName";
     private final TransportClient client;
     private final boolean autoflush;
+    private final ElasticSearchBulkIndexer bulkIndexer;
+    private final int scrollPageSize;
+    private final int scrollKeepAliveMs;
     private String indexName;
-    private Map<String, PropertyDefinition> propertyDefinitions = new HashMap<String, PropertyDefinition>();
+    private Map<String, PropertyDefinition> propertyDefinitions = new ConcurrentHashMap<String, PropertyDefinition>();
+    private final Object fieldMappingLock = new Object();
 
     public ElasticSearchNestedSearchIndex(Map config) {
         String esLocationsString = (String) config.get(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + ES_LOCATIONS);
@@ -73,6 +85,10 @@ public class ElasticSearchNestedSearchIndex implements SearchIndex {
         autoflush = autoFlushObj != null && "true".equals(autoFlushObj.toString());
         LOGGER.info("Auto flush: " + autoflush);
 
+        scrollPageSize = ConfigurationUtils.getInt(config, GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + SCROLL_PAGE_SIZE, DEFAULT_SCROLL_PAGE_SIZE);
+        scrollKeepAliveMs = ConfigurationUtils.getInt(config, GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + SCROLL_KEEP_ALIVE_MS, DEFAULT_SCROLL_KEEP_ALIVE_MS);
+        LOGGER.info("Scrolling: " + scrollPageSize + " hits per shard, keep alive " + scrollKeepAliveMs + "ms");
+
         ImmutableSettings.Builder settingsBuilder = ImmutableSettings.settingsBuilder();
         if (config.get(SETTING_CLUSTER_NAME) != null) {
             settingsBuilder.put("cluster.name", config.get(SETTING_CLUSTER_NAME));
@@ -93,6 +109,7 @@ public class ElasticSearchNestedSearchIndex implements SearchIndex {
             }
             client.addTransportAddress(new InetSocketTransportAddress(hostname, port));
         }
+        bulkIndexer = new ElasticSearchBulkIndexer(client, config);
 
         ensureIndexCreated(storeSourceData);
         loadPropertyDefinitions();
@@ -249,6 +266,15 @@ public class ElasticSearchNestedSearchIndex implements SearchIndex {
         }
     }
 
+    @Override
+    public void updateElementProperties(Graph graph, ElementType elementType, Object elementId, Iterable<Property> properties, Iterable<Property> propertyRemoves, Authorizations authorizations) {
+        // the properties of an element are one nested array, merging a partial document would replace all of them
+        Element element = elementType == ElementType.VERTEX ? graph.getVertex(elementId, authorizations) : graph.getEdge(elementId, authorizations);
+        if (element != null) {
+            addElement(graph, element);
+        }
+    }
+
     public String createJsonForElement(Element element) {
         try {
             return buildJsonContentFromElement(element).string();
@@ -334,6 +360,7 @@ public class ElasticSearchNestedSearchIndex implements SearchIndex {
 
     @Override
     public void flush() {
+        bulkIndexer.awaitPendingRequests();
         client.admin().indices().prepareFlush(indexName).execute().actionGet();
     }
 
@@ -344,16 +371,18 @@ public class ElasticSearchNestedSearchIndex implements SearchIndex {
 
     @Override
     public void addPropertyDefinition(PropertyDefinition propertyDefinition) throws IOException {
+        Map<String, FieldMapping> fieldMappings = new LinkedHashMap<String, FieldMapping>();
         if (propertyDefinition.getDataType() == String.class) {
             if (propertyDefinition.getTextIndexHints().contains(TextIndexHint.EXACT_MATCH)) {
-                addPropertyToIndex(propertyDefinition.getPropertyName() + EXACT_MATCH_PROPERTY_NAME_SUFFIX, String.class, false);
+                addFieldMapping(fieldMappings, propertyDefinition.getPropertyName() + EXACT_MATCH_PROPERTY_NAME_SUFFIX, String.class, false);
             }
             if (propertyDefinition.getTextIndexHints().contains(TextIndexHint.FULL_TEXT)) {
-                addPropertyToIndex(propertyDefinition.getPropertyName(), String.class, true);
+                addFieldMapping(fieldMappings, propertyDefinition.getPropertyName(), String.class, true);
             }
         } else {
-            addPropertyToIndex(propertyDefinition.getPropertyName(), propertyDefinition.getDataType(), true);
+            addFieldMapping(fieldMappings, propertyDefinition.getPropertyName(), propertyDefinition.getDataType(), true);
         }
+        putFieldMappings(fieldMappings);
         this.propertyDefinitions.put(propertyDefinition.getPropertyName(), propertyDefinition);
     }
 
@@ -363,120 +392,152 @@ public class ElasticSearchNestedSearchIndex implements SearchIndex {
     }
 
     public void addPropertiesToIndex(Iterable<Property> properties) {
+        Map<String, FieldMapping> fieldMappings = new LinkedHashMap<String, FieldMapping>();
+        for (Property property : properties) {
+            collectFieldMappings(property, fieldMappings);
+        }
         try {
-            for (Property property : properties) {
-                addPropertyToIndex(property);
-            }
+            putFieldMappings(fieldMappings);
         } catch (IOException e) {
             throw new SecureGraphException("Could not add properties to index", e);
         }
     }
 
     public void addPropertyToIndex(Property property) throws IOException {
+        Map<String, FieldMapping> fieldMappings = new LinkedHashMap<String, FieldMapping>();
+        collectFieldMappings(property, fieldMappings);
+        putFieldMappings(fieldMappings);
+    }
+
+    private void collectFieldMappings(Property property, Map<String, FieldMapping> fieldMappings) {
         String propertyName = property.getName();
 
         if (propertyDefinitions.get(propertyName) != null) {
             return;
         }
 
-        Class dataType;
         Object propertyValue = property.getValue();
         if (propertyValue instanceof StreamingPropertyValue) {
             StreamingPropertyValue streamingPropertyValue = (StreamingPropertyValue) propertyValue;
             if (!streamingPropertyValue.isSearchIndex()) {
                 return;
             }
-            dataType = streamingPropertyValue.getValueType();
-            addPropertyToIndex(propertyName, dataType, true);
+            addFieldMapping(fieldMappings, propertyName, streamingPropertyValue.getValueType(), true);
         } else if (propertyValue instanceof String) {
-            dataType = String.class;
-            addPropertyToIndex(propertyName + EXACT_MATCH_PROPERTY_NAME_SUFFIX, dataType, false);
-            addPropertyToIndex(propertyName, dataType, true);
+            addFieldMapping(fieldMappings, propertyName + EXACT_MATCH_PROPERTY_NAME_SUFFIX, String.class, false);
+            addFieldMapping(fieldMappings, propertyName, String.class, true);
         } else {
-            dataType = propertyValue.getClass();
-            addPropertyToIndex(propertyName, dataType, true);
+            addFieldMapping(fieldMappings, propertyName, propertyValue.getClass(), true);
         }
     }
 
-    private void addPropertyToIndex(String propertyName, Class dataType, boolean analyzed) throws IOException {
-        if (propertyDefinitions.get(propertyName) != null) {
+    private void addFieldMapping(Map<String, FieldMapping> fieldMappings, String propertyName, Class dataType, boolean analyzed) {
+        if (propertyDefinitions.get(propertyName) != null || fieldMappings.containsKey(propertyName)) {
             return;
         }
-
         if (shouldIgnoreType(dataType)) {
             return;
         }
+        fieldMappings.put(propertyName, new FieldMapping(propertyName, dataType, analyzed));
+    }
 
-        XContentBuilder mapping = XContentFactory.jsonBuilder()
-                .startObject()
-                .startObject(ELEMENT_TYPE)
-                .startObject("properties")
-                .startObject(PROPERTY_NESTED_FIELD_NAME)
-                .field("type", "nested")
-                .field("include_in_parent", false)
-                .startObject("properties")
-                .startObject(propertyName);
-
-        if (dataType == String.class) {
-            LOGGER.debug("Registering string type for {}", propertyName);
-            mapping.field("type", "string");
-            if (!analyzed) {
-                mapping.field("index", "not_analyzed");
+    /**
+     * Registers the fields that are not registered yet with a single put mapping request. Fields are looked up
+     * without locking, only threads that found new fields wait for each other here.
+     */
+    private void putFieldMappings(Map<String, FieldMapping> fieldMappings) throws IOException {
+        if (fieldMappings.size() == 0) {
+            return;
+        }
+        synchronized (fieldMappingLock) {
+            List<FieldMapping> newFieldMappings = new ArrayList<FieldMapping>();
+            for (FieldMapping fieldMapping : fieldMappings.values()) {
+                // another thread may have registered the field while this one waited for the lock
+                if (propertyDefinitions.get(fieldMapping.propertyName) == null) {
+                    newFieldMappings.add(fieldMapping);
+                }
+            }
+            if (newFieldMappings.size() == 0) {
+                return;
+            }
+
+            XContentBuilder mapping = XContentFactory.jsonBuilder()
+                    .startObject()
+                    .startObject(ELEMENT_TYPE)
+                    .startObject("properties")
+                    .startObject(PROPERTY_NESTED_FIELD_NAME)
+                    .field("type", "nested")
+                    .field("include_in_parent", false)
+                    .startObject("properties");
+            int explicitFieldCount = 0;
+            for (FieldMapping fieldMapping : newFieldMappings) {
+                mapping.startObject(fieldMapping.propertyName);
+                if (fieldMapping.dataType == String.class) {
+                    LOGGER.debug("Registering string type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "string");
+                    if (!fieldMapping.analyzed) {
+                        mapping.field("index", "not_analyzed");
+                    }
+                } else if (fieldMapping.dataType == Float.class) {
+                    LOGGER.debug("Registering float type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "float");
+                } else if (fieldMapping.dataType == Double.class) {
+                    LOGGER.debug("Registering double type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "double");
+                } else if (fieldMapping.dataType == Byte.class) {
+                    LOGGER.debug("Registering byte type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "byte");
+                } else if (fieldMapping.dataType == Short.class) {
+                    LOGGER.debug("Registering short type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "short");
+                } else if (fieldMapping.dataType == Integer.class) {
+                    LOGGER.debug("Registering integer type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "integer");
+                } else if (fieldMapping.dataType == Date.class || fieldMapping.dataType == DateOnly.class) {
+                    LOGGER.debug("Registering date type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "date");
+                } else if (fieldMapping.dataType == Long.class) {
+                    LOGGER.debug("Registering long type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "long");
+                } else if (fieldMapping.dataType == Boolean.class) {
+                    LOGGER.debug("Registering boolean type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "boolean");
+                } else if (fieldMapping.dataType == GeoPoint.class) {
+                    LOGGER.debug("Registering geo_shape type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "geo_shape");
+                } else if (Number.class.isAssignableFrom(fieldMapping.dataType)) {
+                    LOGGER.debug("Registering double type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "double");
+                } else {
+                    throw new SecureGraphException("Unexpected value type for property \"" + fieldMapping.propertyName + "\": " + fieldMapping.dataType.getName());
+                }
+                mapping.endObject();
+                explicitFieldCount++;
+            }
+            mapping
+                    .endObject()
+                    .endObject()
+                    .endObject()
+                    .endObject()
+                    .endObject();
+
+            if (explicitFieldCount > 0) {
+                PutMappingResponse response = client
+                        .admin()
+                        .indices()
+                        .preparePutMapping(indexName)
+                        .setIgnoreConflicts(false)
+                        .setType(ELEMENT_TYPE)
+                        .setSource(mapping)
+                        .execute()
+                        .actionGet();
+                LOGGER.debug(response.toString());
             }
-        } else if (dataType == Float.class) {
-            LOGGER.debug("Registering float type for {}", propertyName);
-            mapping.field("type", "float");
-        } else if (dataType == Double.class) {
-            LOGGER.debug("Registering double type for {}", propertyName);
-            mapping.field("type", "double");
-        } else if (dataType == Byte.class) {
-            LOGGER.debug("Registering byte type for {}", propertyName);
-            mapping.field("type", "byte");
-        } else if (dataType == Short.class) {
-            LOGGER.debug("Registering short type for {}", propertyName);
-            mapping.field("type", "short");
-        } else if (dataType == Integer.class) {
-            LOGGER.debug("Registering integer type for {}", propertyName);
-            mapping.field("type", "integer");
-        } else if (dataType == Date.class || dataType == DateOnly.class) {
-            LOGGER.debug("Registering date type for {}", propertyName);
-            mapping.field("type", "date");
-        } else if (dataType == Long.class) {
-            LOGGER.debug("Registering long type for {}", propertyName);
-            mapping.field("type", "long");
-        } else if (dataType == Boolean.class) {
-            LOGGER.debug("Registering boolean type for {}", propertyName);
-            mapping.field("type", "boolean");
-        } else if (dataType == GeoPoint.class) {
-            LOGGER.debug("Registering geo_shape type for {}", propertyName);
-            mapping.field("type", "geo_shape");
-        } else if (Number.class.isAssignableFrom(dataType)) {
-            LOGGER.debug("Registering double type for {}", propertyName);
-            mapping.field("type", "double");
-        } else {
-            throw new SecureGraphException("Unexpected value type for property \"" + propertyName + "\": " + dataType.getName());
-        }
-
-        mapping
-                .endObject()
-                .endObject()
-                .endObject()
-                .endObject()
-                .endObject()
-                .endObject();
-
-        PutMappingResponse response = client
-                .admin()
-                .indices()
-                .preparePutMapping(indexName)
-                .setIgnoreConflicts(false)
-                .setType(ELEMENT_TYPE)
-                .setSource(mapping)
-                .execute()
-                .actionGet();
-        LOGGER.debug(response.toString());
 
-        propertyDefinitions.put(propertyName, new PropertyDefinition(propertyName, dataType, TextIndexHint.ALL));
+            for (FieldMapping fieldMapping : newFieldMappings) {
+                propertyDefinitions.put(fieldMapping.propertyName, new PropertyDefinition(fieldMapping.propertyName, fieldMapping.dataType, TextIndexHint.ALL));
+            }
+        }
     }
 
     protected boolean shouldIgnoreType(Class dataType) {
@@ -494,23 +555,79 @@ public class ElasticSearchNestedSearchIndex implements SearchIndex {
         LOGGER.debug(response.toString());
     }
 
+    /**
+     * Indexes the elements through an {@link ElasticSearchBulkIndexer}, sending them in bulk requests of up to
+     * {@link ElasticSearchBulkIndexer#BULK_MAX_ACTIONS} elements or {@link ElasticSearchBulkIndexer#BULK_MAX_SIZE_MB}
+     * megabytes. Returns once all the requests completed and throws if any element could not be indexed.
+     */
     @Override
     public void addElements(Graph graph, Iterable<Element> elements) {
-        // TODO change this to use elastic search bulk import
+        ElasticSearchBulkIndexer.Bulk bulk = bulkIndexer.startBulk();
+
         int count = 0;
-        for (Element element : elements) {
-            if (count % 1000 == 0) {
-                LOGGER.debug("adding elements... " + count);
+        try {
+            List<Element> chunk = new ArrayList<Element>();
+            for (Element element : elements) {
+                chunk.add(element);
+                if (chunk.size() >= bulkIndexer.getMaxActions()) {
+                    LOGGER.debug("adding elements... " + count);
+                    addElementsToBulk(bulk, chunk);
+                    count += chunk.size();
+                    chunk.clear();
+                }
             }
-            addElement(graph, element);
-            count++;
+            addElementsToBulk(bulk, chunk);
+            count += chunk.size();
+        } catch (IOException e) {
+            throw new SecureGraphException("Could not add documents", e);
+        } finally {
+            bulk.close();
         }
         LOGGER.debug("added " + count + " elements");
+
+        if (autoflush) {
+            flush();
+        }
+    }
+
+    /**
+     * Registers the new fields of the elements with one put mapping request before their documents are sent.
+     */
+    private void addElementsToBulk(ElasticSearchBulkIndexer.Bulk bulk, List<Element> elements) throws IOException {
+        Map<String, FieldMapping> fieldMappings = new LinkedHashMap<String, FieldMapping>();
+        for (Element element : elements) {
+            for (Property property : element.getProperties()) {
+                collectFieldMappings(property, fieldMappings);
+            }
+        }
+        putFieldMappings(fieldMappings);
+
+        for (Element element : elements) {
+            bulk.add(client
+                    .prepareIndex(indexName, ELEMENT_TYPE, element.getId().toString())
+                    .setSource(buildJsonContentFromElement(element).endObject())
+                    .request());
+        }
+    }
+
+    @Override
+    public void removeElements(Graph graph, Iterable<Element> elements) {
+        BulkRequestBuilder bulkRequest = client.prepareBulk();
+        for (Element element : elements) {
+            bulkRequest.add(client.prepareDelete(indexName, ELEMENT_TYPE, element.getId().toString()));
+        }
+        if (bulkRequest.numberOfActions() == 0) {
+            return;
+        }
+        BulkResponse response = bulkRequest.execute().actionGet();
+        if (response.hasFailures()) {
+            throw new SecureGraphException("Could not remove elements: " + response.buildFailureMessage());
+        }
     }
 
     @Override
     public GraphQuery queryGraph(Graph graph, String queryString, Authorizations authorizations) {
-        return new ElasticSearchNestedGraphQuery(client, indexName, graph, queryString, this.propertyDefinitions, authorizations);
+        return new ElasticSearchNestedGraphQuery(client, indexName, graph, queryString, this.propertyDefinitions, scrollPageSize, scrollKeepAliveMs, authorizations);
     }
 
     @Override
@@ -525,4 +642,16 @@ public class ElasticSearchNestedSearchIndex implements SearchIndex {
     public String getIndexName() {
         return indexName;
     }
+
+    private static class FieldMapping {
+        private final String propertyName;
+        private final Class dataType;
+        private final boolean analyzed;
+
+        private FieldMapping(String propertyName, Class dataType, boolean analyzed) {
+            this.propertyName = propertyName;
+            this.dataType = dataType;
+            this.analyzed = analyzed;
+        }
+    }
 }
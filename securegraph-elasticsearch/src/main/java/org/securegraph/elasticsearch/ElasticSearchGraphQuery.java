@@ -32,16 +32,34 @@ public class ElasticSearchGraphQuery extends GraphQueryBase implements QuerySupp
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticSearchGraphQuery.class);
     private final TransportClient client;
     private String indexName;
+    private final boolean filterByVisibility;
+    private final int scrollPageSize;
+    private final long scrollKeepAliveMs;
     private List<Facet> facets = new ArrayList<Facet>();
 
-    public ElasticSearchGraphQuery(TransportClient client, String indexName, Graph graph, String queryString, Map<String, PropertyDefinition> propertyDefinitions, Authorizations authorizations) {
+    public ElasticSearchGraphQuery(TransportClient client, String indexName, Graph graph, String queryString, Map<String, PropertyDefinition> propertyDefinitions, boolean filterByVisibility, int scrollPageSize, long scrollKeepAliveMs, Authorizations authorizations) {
         super(graph, queryString, propertyDefinitions, authorizations);
         this.client = client;
         this.indexName = indexName;
+        this.filterByVisibility = filterByVisibility;
+        this.scrollPageSize = scrollPageSize;
+        this.scrollKeepAliveMs = scrollKeepAliveMs;
     }
 
     @Override
     public Iterable<Vertex> vertices() {
+        if (getParameters().isScroll()) {
+            final Authorizations authorizations = getParameters().getAuthorizations();
+            Iterable<Vertex> vertices = new ElasticSearchScrollIterable<Vertex>(client, createScrollRequest(ElasticSearchSearchIndex.ELEMENT_TYPE_VERTEX), scrollPageSize, scrollKeepAliveMs) {
+                @Override
+                protected Iterable<Vertex> getElements(List<Object> ids) {
+                    return getGraph().getVertices(ids, authorizations);
+                }
+            };
+            // a scan does not support from, the skip is done by the DefaultGraphQueryIterable
+            return new DefaultGraphQueryIterable<Vertex>(getParameters().clone(), vertices, false);
+        }
+
         long startTime = System.nanoTime();
         SearchResponse response = getSearchResponse(ElasticSearchSearchIndex.ELEMENT_TYPE_VERTEX);
         Map<String, FacetedResult> facetedResult = toFacetedResults(response.getFacets());
@@ -57,8 +75,8 @@ public class ElasticSearchGraphQuery extends GraphQueryBase implements QuerySupp
             LOGGER.debug("elastic search results " + ids.size() + " of " + hits.getTotalHits() + " (time: " + ((endTime - startTime) / 1000 / 1000) + "ms)");
         }
 
-        // since ES doesn't support security we will rely on the graph to provide vertex filtering
-        // and rely on the DefaultGraphQueryIterable to provide property filtering
+        // ES only filters on the visibility clauses when they are enabled for the index, the graph
+        // still provides vertex filtering and the DefaultGraphQueryIterable provides property filtering
         Parameters filterParameters = getParameters().clone();
         filterParameters.setSkip(0); // ES already did a skip
         Iterable<Vertex> vertices = getGraph().getVertices(ids, filterParameters.getAuthorizations());
@@ -67,6 +85,18 @@ public class ElasticSearchGraphQuery extends GraphQueryBase implements QuerySupp
 
     @Override
     public Iterable<Edge> edges() {
+        if (getParameters().isScroll()) {
+            final Authorizations authorizations = getParameters().getAuthorizations();
+            Iterable<Edge> edges = new ElasticSearchScrollIterable<Edge>(client, createScrollRequest(ElasticSearchSearchIndex.ELEMENT_TYPE_EDGE), scrollPageSize, scrollKeepAliveMs) {
+                @Override
+                protected Iterable<Edge> getElements(List<Object> ids) {
+                    return getGraph().getEdges(ids, authorizations);
+                }
+            };
+            // a scan does not support from, the skip is done by the DefaultGraphQueryIterable
+            return new DefaultGraphQueryIterable<Edge>(getParameters().clone(), edges, false);
+        }
+
         long startTime = System.nanoTime();
         SearchResponse response = getSearchResponse(ElasticSearchSearchIndex.ELEMENT_TYPE_EDGE);
         Map<String, FacetedResult> facetedResult = toFacetedResults(response.getFacets());
@@ -82,8 +112,8 @@ public class ElasticSearchGraphQuery extends GraphQueryBase implements QuerySupp
             LOGGER.debug("elastic search results " + ids.size() + " of " + hits.getTotalHits() + " (time: " + ((endTime - startTime) / 1000 / 1000) + "ms)");
         }
 
-        // since ES doesn't support security we will rely on the graph to provide edge filtering
-        // and rely on the DefaultGraphQueryIterable to provide property filtering
+        // ES only filters on the visibility clauses when they are enabled for the index, the graph
+        // still provides edge filtering and the DefaultGraphQueryIterable provides property filtering
         Parameters filterParameters = getParameters().clone();
         filterParameters.setSkip(0); // ES already did a skip
         Iterable<Edge> edges = getGraph().getEdges(ids, filterParameters.getAuthorizations());
@@ -112,9 +142,60 @@ public class ElasticSearchGraphQuery extends GraphQueryBase implements QuerySupp
     }
 
     private SearchResponse getSearchResponse(String elementType) {
+        QueryBuilder query = createQuery(getParameters().getQueryString());
+        SearchRequestBuilder q = client
+                .prepareSearch(indexName)
+                .setTypes(ElasticSearchSearchIndex.ELEMENT_TYPE)
+                .setQuery(query)
+                .setPostFilter(createFilter(elementType))
+                .setFrom((int) getParameters().getSkip())
+                .setSize((int) getParameters().getLimit());
+
+        for (Facet facet : this.facets) {
+            if (facet instanceof TermFacet) {
+                TermFacet termFacet = (TermFacet) facet;
+                TermsFacetBuilder esFacets = FacetBuilders.termsFacet(termFacet.getName())
+                        .field(termFacet.getPropertyName())
+                        .size(1000);
+                q.addFacet(esFacets);
+            } else {
+                throw new SecureGraphException("Unsupported facet type: " + facet.getClass().getName());
+            }
+        }
+
+        LOGGER.debug("query: " + q);
+        return q.execute()
+                .actionGet();
+    }
+
+    private SearchRequestBuilder createScrollRequest(String elementType) {
+        if (this.facets.size() > 0) {
+            throw new SecureGraphException("Facets are not supported when scrolling");
+        }
+        QueryBuilder query = QueryBuilders.filteredQuery(createQuery(getParameters().getQueryString()), createFilter(elementType));
+        SearchRequestBuilder q = client
+                .prepareSearch(indexName)
+                .setTypes(ElasticSearchSearchIndex.ELEMENT_TYPE)
+                .setQuery(query);
+        LOGGER.debug("scroll query: " + q);
+        return q;
+    }
+
+    private FilterBuilder createFilter(String elementType) {
         List<FilterBuilder> filters = new ArrayList<FilterBuilder>();
         filters.add(FilterBuilders.inFilter(ElasticSearchSearchIndex.ELEMENT_TYPE_FIELD_NAME, elementType));
+        String[] visibilityFilterTerms = null;
+        if (filterByVisibility) {
+            visibilityFilterTerms = ElasticSearchVisibilityFilter.getFilterTerms(getParameters().getAuthorizations());
+        }
+        if (visibilityFilterTerms != null) {
+            filters.add(FilterBuilders.termsFilter(ElasticSearchVisibilityFilter.VISIBILITY_CLAUSES_FIELD_NAME, visibilityFilterTerms));
+        }
         for (HasContainer has : getParameters().getHasContainers()) {
+            // every predicate needs a value of the property the reader can see
+            if (visibilityFilterTerms != null) {
+                filters.add(ElasticSearchVisibilityFilter.createPropertyFilter(has.key, visibilityFilterTerms));
+            }
             if (has.predicate instanceof Compare) {
                 Compare compare = (Compare) has.predicate;
                 Object value = has.value;
@@ -190,30 +271,7 @@ public class ElasticSearchGraphQuery extends GraphQueryBase implements QuerySupp
                 throw new SecureGraphException("Unexpected predicate type " + has.predicate.getClass().getName());
             }
         }
-        QueryBuilder query = createQuery(getParameters().getQueryString());
-        SearchRequestBuilder q = client
-                .prepareSearch(indexName)
-                .setTypes(ElasticSearchSearchIndex.ELEMENT_TYPE)
-                .setQuery(query)
-                .setPostFilter(FilterBuilders.andFilter(filters.toArray(new FilterBuilder[filters.size()])))
-                .setFrom((int) getParameters().getSkip())
-                .setSize((int) getParameters().getLimit());
-
-        for (Facet facet : this.facets) {
-            if (facet instanceof TermFacet) {
-                TermFacet termFacet = (TermFacet) facet;
-                TermsFacetBuilder esFacets = FacetBuilders.termsFacet(termFacet.getName())
-                        .field(termFacet.getPropertyName())
-                        .size(1000);
-                q.addFacet(esFacets);
-            } else {
-                throw new SecureGraphException("Unsupported facet type: " + facet.getClass().getName());
-            }
-        }
-
-        LOGGER.debug("query: " + q);
-        return q.execute()
-                .actionGet();
+        return FilterBuilders.andFilter(filters.toArray(new FilterBuilder[filters.size()]));
     }
 
     private String[] splitStringIntoTerms(String value) {
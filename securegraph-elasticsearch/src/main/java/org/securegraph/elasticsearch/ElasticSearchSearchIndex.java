@@ -1,8 +1,12 @@
 package org.securegraph.elasticsearch;
 
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.mapping.put.PutMappingResponse;
 import org.elasticsearch.action.admin.indices.status.IndicesStatusResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.cluster.ClusterState;
@@ -13,13 +17,16 @@ import org.elasticsearch.common.settings.ImmutableSettings;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.index.engine.DocumentMissingException;
 import org.securegraph.*;
+import org.securegraph.mutation.ElementMutation;
 import org.securegraph.property.StreamingPropertyValue;
 import org.securegraph.query.DefaultVertexQuery;
 import org.securegraph.query.GraphQuery;
 import org.securegraph.query.VertexQuery;
 import org.securegraph.search.SearchIndex;
 import org.securegraph.type.GeoPoint;
+import org.securegraph.util.ConfigurationUtils;
 import org.securegraph.util.StreamUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +34,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ElasticSearchSearchIndex implements SearchIndex {
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticSearchSearchIndex.class);
@@ -41,10 +49,26 @@ public class ElasticSearchSearchIndex implements SearchIndex {
     public static final String SETTING_CLUSTER_NAME = "clusterName";
     public static final int DEFAULT_ES_PORT = 9300;
     public static final String EXACT_MATCH_PROPERTY_NAME_SUFFIX = "_exactMatch";
+    private static final String EXACT_MATCH_TEMPLATE_NAME = "exact_match_strings";
+    private static final String PROPERTY_VISIBILITY_CLAUSES_TEMPLATE_NAME = "property_visibility_clauses";
+    private static final String VISIBILITY_CLAUSES_INDEXED_META = "visibilityClausesIndexed";
+    public static final String VISIBILITY_FILTER = "visibilityFilter";
+    public static final String SCROLL_PAGE_SIZE = "scroll.pageSize";
+    public static final String SCROLL_KEEP_ALIVE_MS = "scroll.keepAliveMs";
+    public static final int DEFAULT_SCROLL_PAGE_SIZE = 500;
+    public static final int DEFAULT_SCROLL_KEEP_ALIVE_MS = 60 * 1000;
+    private static final int UPDATE_RETRY_ON_CONFLICT = 3;
     private final TransportClient client;
     private final boolean autoflush;
+    private final ElasticSearchBulkIndexer bulkIndexer;
+    private final int scrollPageSize;
+    private final int scrollKeepAliveMs;
+    private final boolean storeSourceData;
     private String indexName;
-    private Map<String, PropertyDefinition> propertyDefinitions = new HashMap<String, PropertyDefinition>();
+    private Map<String, PropertyDefinition> propertyDefinitions = new ConcurrentHashMap<String, PropertyDefinition>();
+    private final Object fieldMappingLock = new Object();
+    private boolean exactMatchTemplate;
+    private boolean visibilityFilterEnabled;
 
     public ElasticSearchSearchIndex(Map config) {
         String esLocationsString = (String) config.get(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + ES_LOCATIONS);
@@ -61,7 +85,7 @@ public class ElasticSearchSearchIndex implements SearchIndex {
         LOGGER.info("Using index: " + indexName);
 
         Object storeSourceDataConfig = config.get(STORE_SOURCE_DATA);
-        boolean storeSourceData = storeSourceDataConfig != null && "true".equals(storeSourceDataConfig.toString());
+        storeSourceData = storeSourceDataConfig != null && "true".equals(storeSourceDataConfig.toString());
         LOGGER.info("Store source data: " + storeSourceData);
 
         // TODO convert this to use a proper config object
@@ -69,6 +93,10 @@ public class ElasticSearchSearchIndex implements SearchIndex {
         autoflush = autoFlushObj != null && "true".equals(autoFlushObj.toString());
         LOGGER.info("Auto flush: " + autoflush);
 
+        scrollPageSize = ConfigurationUtils.getInt(config, GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + SCROLL_PAGE_SIZE, DEFAULT_SCROLL_PAGE_SIZE);
+        scrollKeepAliveMs = ConfigurationUtils.getInt(config, GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + SCROLL_KEEP_ALIVE_MS, DEFAULT_SCROLL_KEEP_ALIVE_MS);
+        LOGGER.info("Scrolling: " + scrollPageSize + " hits per shard, keep alive " + scrollKeepAliveMs + "ms");
+
         ImmutableSettings.Builder settingsBuilder = ImmutableSettings.settingsBuilder();
         if (config.get(SETTING_CLUSTER_NAME) != null) {
             settingsBuilder.put("cluster.name", config.get(SETTING_CLUSTER_NAME));
@@ -89,12 +117,26 @@ public class ElasticSearchSearchIndex implements SearchIndex {
             }
             client.addTransportAddress(new InetSocketTransportAddress(hostname, port));
         }
+        bulkIndexer = new ElasticSearchBulkIndexer(client, config);
 
-        ensureIndexCreated(storeSourceData);
+        boolean visibilityClausesIndexed = ensureIndexCreated(storeSourceData);
         loadPropertyDefinitions();
+        // documents indexed before the visibility clauses were added would all be filtered out, an index created
+        // before needs to be reindexed before the filter is turned on
+        Object visibilityFilterConfig = config.get(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + VISIBILITY_FILTER);
+        visibilityFilterEnabled = visibilityFilterConfig == null ? visibilityClausesIndexed : "true".equals(visibilityFilterConfig.toString());
+        LOGGER.info("Visibility filter: " + visibilityFilterEnabled);
+        if (!visibilityClausesIndexed && !visibilityFilterEnabled) {
+            LOGGER.info("The index was created without visibility clauses, set " + GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + VISIBILITY_FILTER + " to true once it is reindexed");
+        }
     }
 
-    private void ensureIndexCreated(boolean storeSourceData) {
+    /**
+     * @return true if every document of the index has its visibility clauses, which is only known of indexes
+     * created with them.
+     */
+    private boolean ensureIndexCreated(boolean storeSourceData) {
+        boolean visibilityClausesIndexed;
         if (!client.admin().indices().prepareExists(indexName).execute().actionGet().isExists()) {
             try {
                 XContentBuilder mapping = XContentFactory.jsonBuilder()
@@ -103,10 +145,31 @@ public class ElasticSearchSearchIndex implements SearchIndex {
                         .startObject("_source")
                         .field("enabled", storeSourceData)
                         .endObject()
+                        .startObject("_meta")
+                        .field(VISIBILITY_CLAUSES_INDEXED_META, true)
+                        .endObject()
+                        // dynamic string fields must not become dates, see isMappedByDynamicTemplate
+                        .field("date_detection", false)
+                        .startArray("dynamic_templates");
+                addPropertyVisibilityClausesTemplate(mapping);
+                mapping
+                        .startObject()
+                        .startObject(EXACT_MATCH_TEMPLATE_NAME)
+                        .field("match", "*" + EXACT_MATCH_PROPERTY_NAME_SUFFIX)
+                        .field("match_mapping_type", "string")
+                        .startObject("mapping")
+                        .field("type", "string")
+                        .field("index", "not_analyzed")
+                        .endObject()
+                        .endObject()
+                        .endObject()
+                        .endArray()
                         .startObject("properties")
                         .startObject(ELEMENT_TYPE_FIELD_NAME)
                         .field("type", "string")
-                        .endObject()
+                        .endObject();
+                addVisibilityClausesFields(mapping);
+                mapping
                         .endObject()
                         .endObject()
                         .endObject();
@@ -118,7 +181,124 @@ public class ElasticSearchSearchIndex implements SearchIndex {
             } catch (IOException e) {
                 throw new SecureGraphException("Could not create index", e);
             }
+            exactMatchTemplate = true;
+            visibilityClausesIndexed = true;
+        } else {
+            Map<String, Object> mapping = getMappingFromServer();
+            if (!hasDynamicTemplate(mapping, PROPERTY_VISIBILITY_CLAUSES_TEMPLATE_NAME)) {
+                putVisibilityClausesMapping();
+                mapping = getMappingFromServer();
+            }
+            exactMatchTemplate = hasDynamicTemplate(mapping, EXACT_MATCH_TEMPLATE_NAME);
+            Object meta = mapping.get("_meta");
+            visibilityClausesIndexed = meta instanceof Map && Boolean.TRUE.equals(((Map) meta).get(VISIBILITY_CLAUSES_INDEXED_META));
         }
+        LOGGER.info("Dynamic string mappings: " + exactMatchTemplate);
+        return visibilityClausesIndexed;
+    }
+
+    /**
+     * The visibility clauses are written to every document from now on, documents indexed before do not have them
+     * until they are reindexed.
+     */
+    private void putVisibilityClausesMapping() {
+        LOGGER.info("Adding the visibility clauses to the mapping of " + indexName);
+        try {
+            XContentBuilder mapping = XContentFactory.jsonBuilder()
+                    .startObject()
+                    .startObject(ELEMENT_TYPE)
+                    .startArray("dynamic_templates");
+            addPropertyVisibilityClausesTemplate(mapping);
+            mapping
+                    .endArray()
+                    .startObject("properties");
+            addVisibilityClausesFields(mapping);
+            mapping
+                    .endObject()
+                    .endObject()
+                    .endObject();
+            PutMappingResponse response = client
+                    .admin()
+                    .indices()
+                    .preparePutMapping(indexName)
+                    .setIgnoreConflicts(false)
+                    .setType(ELEMENT_TYPE)
+                    .setSource(mapping)
+                    .execute()
+                    .actionGet();
+            LOGGER.debug(response.toString());
+        } catch (IOException e) {
+            throw new SecureGraphException("Could not add the visibility clauses to the mapping", e);
+        }
+    }
+
+    private static void addPropertyVisibilityClausesTemplate(XContentBuilder mapping) throws IOException {
+        mapping
+                .startObject()
+                .startObject(PROPERTY_VISIBILITY_CLAUSES_TEMPLATE_NAME)
+                .field("path_match", ElasticSearchVisibilityFilter.getPropertyClausesFieldName("*"))
+                .startObject("mapping")
+                .field("type", "string")
+                .field("index", "not_analyzed")
+                .field("include_in_all", false)
+                .endObject()
+                .endObject()
+                .endObject();
+    }
+
+    private static void addVisibilityClausesFields(XContentBuilder mapping) throws IOException {
+        mapping
+                .startObject(ElasticSearchVisibilityFilter.VISIBILITY_CLAUSES_FIELD_NAME)
+                .field("type", "string")
+                .field("index", "not_analyzed")
+                .field("include_in_all", false)
+                .endObject()
+                .startObject(ElasticSearchVisibilityFilter.PROPERTY_VISIBILITY_CLAUSES_FIELD_NAME)
+                .field("type", "object")
+                .endObject();
+    }
+
+    /**
+     * Indexes created before the dynamic templates were added do not have them, their string fields are mapped
+     * explicitly.
+     */
+    private static boolean hasDynamicTemplate(Map<String, Object> mapping, String templateName) {
+        Object dynamicTemplates = mapping.get("dynamic_templates");
+        if (!(dynamicTemplates instanceof List)) {
+            return false;
+        }
+        for (Object dynamicTemplate : (List) dynamicTemplates) {
+            if (dynamicTemplate instanceof Map && ((Map) dynamicTemplate).containsKey(templateName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, Object> getMappingFromServer() {
+        ClusterState cs = client.admin().cluster().prepareState().setIndices(indexName).execute().actionGet().getState();
+        IndexMetaData imd = cs.getMetaData().index(indexName);
+        MappingMetaData mappingMetaData = imd.getMappings().get(ELEMENT_TYPE);
+        if (mappingMetaData == null) {
+            return new HashMap<String, Object>();
+        }
+        try {
+            return mappingMetaData.getSourceAsMap();
+        } catch (IOException ex) {
+            throw new SecureGraphException("Could not get current mappings from elastic search", ex);
+        }
+    }
+
+    /**
+     * Strings without a boost are left to elastic search to map when the first document that has them is
+     * indexed: full text fields get the default analyzed string mapping and exact match fields the
+     * {@link #EXACT_MATCH_TEMPLATE_NAME} template, so no put mapping request is needed for them.
+     */
+    private boolean isMappedByDynamicTemplate(FieldMapping fieldMapping) {
+        return exactMatchTemplate
+                && fieldMapping.dataType == String.class
+                && fieldMapping.boost == null
+                && fieldMapping.analyzed != fieldMapping.propertyName.endsWith(EXACT_MATCH_PROPERTY_NAME_SUFFIX);
     }
 
     private void loadPropertyDefinitions() {
@@ -194,6 +374,10 @@ public class ElasticSearchSearchIndex implements SearchIndex {
                     String propertyName = (String) property.getKey();
                     Map propertyAttributes = (Map) property.getValue();
                     String propertyType = (String) propertyAttributes.get("type");
+                    if (propertyType == null || "object".equals(propertyType)) {
+                        // the visibility clauses of the properties
+                        continue;
+                    }
                     propertyTypes.put(propertyName, propertyType);
                 }
             }
@@ -227,6 +411,68 @@ public class ElasticSearchSearchIndex implements SearchIndex {
         }
     }
 
+    @Override
+    public void updateElementProperties(Graph graph, ElementType elementType, Object elementId, Iterable<Property> properties, Iterable<Property> propertyRemoves, Authorizations authorizations) {
+        // elastic search merges a partial document into the source of the existing one, field by field
+        if (!storeSourceData || !canMergePartialDocument(properties, propertyRemoves)) {
+            reindexElement(graph, elementType, elementId, authorizations);
+            return;
+        }
+
+        addPropertiesToIndex(properties);
+
+        try {
+            client
+                    .prepareUpdate(indexName, ELEMENT_TYPE, elementId.toString())
+                    .setDoc(buildPartialJsonContent(elementType, properties).endObject())
+                    .setRetryOnConflict(UPDATE_RETRY_ON_CONFLICT)
+                    .execute()
+                    .actionGet();
+        } catch (Exception e) {
+            if (ExceptionsHelper.unwrapCause(e) instanceof DocumentMissingException) {
+                // an upsert would index elements that were deleted or never existed
+                reindexElement(graph, elementType, elementId, authorizations);
+                return;
+            }
+            throw new SecureGraphException("Could not update document", e);
+        }
+
+        if (autoflush) {
+            client.admin().indices().prepareFlush(indexName).execute().actionGet();
+        }
+    }
+
+    /**
+     * A field holds the values of every key of a property name, a partial document can only replace them all.
+     */
+    private static boolean canMergePartialDocument(Iterable<Property> properties, Iterable<Property> propertyRemoves) {
+        if (propertyRemoves.iterator().hasNext()) {
+            return false;
+        }
+        Set<String> propertyNames = new HashSet<String>();
+        for (Property property : properties) {
+            if (!ElementMutation.DEFAULT_KEY.equals(property.getKey()) || !propertyNames.add(property.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reindexElement(Graph graph, ElementType elementType, Object elementId, Authorizations authorizations) {
+        Element element = elementType == ElementType.VERTEX ? graph.getVertex(elementId, authorizations) : graph.getEdge(elementId, authorizations);
+        if (element != null) {
+            addElement(graph, element);
+        }
+    }
+
+    private XContentBuilder buildPartialJsonContent(ElementType elementType, Iterable<Property> properties) throws IOException {
+        XContentBuilder jsonBuilder = XContentFactory.jsonBuilder()
+                .startObject()
+                .field(ELEMENT_TYPE_FIELD_NAME, elementType == ElementType.VERTEX ? ELEMENT_TYPE_VERTEX : ELEMENT_TYPE_EDGE);
+        addPropertiesToJson(jsonBuilder, properties);
+        return jsonBuilder;
+    }
+
     public String createJsonForElement(Element element) {
         try {
             return buildJsonContentFromElement(element).string();
@@ -248,50 +494,94 @@ public class ElasticSearchSearchIndex implements SearchIndex {
             throw new SecureGraphException("Unexpected element type " + element.getClass().getName());
         }
 
-        for (Property property : element.getProperties()) {
-            Object propertyValue = property.getValue();
-            if (propertyValue != null && shouldIgnoreType(propertyValue.getClass())) {
-                continue;
-            } else if (propertyValue instanceof GeoPoint) {
-                GeoPoint geoPoint = (GeoPoint) propertyValue;
-                Map<String, Object> propertyValueMap = new HashMap<String, Object>();
-                propertyValueMap.put("lat", geoPoint.getLatitude());
-                propertyValueMap.put("lon", geoPoint.getLongitude());
-                propertyValue = propertyValueMap;
-            } else if (propertyValue instanceof StreamingPropertyValue) {
-                StreamingPropertyValue streamingPropertyValue = (StreamingPropertyValue) propertyValue;
-                if (!streamingPropertyValue.isSearchIndex()) {
-                    continue;
-                }
-                Class valueType = streamingPropertyValue.getValueType();
-                if (valueType == String.class) {
-                    InputStream in = streamingPropertyValue.getInputStream();
-                    propertyValue = StreamUtils.toString(in);
-                } else {
-                    throw new SecureGraphException("Unhandled StreamingPropertyValue type: " + valueType.getName());
-                }
-            } else if (propertyValue instanceof String) {
-                PropertyDefinition propertyDefinition = propertyDefinitions.get(property.getName());
-                if (propertyDefinition == null || propertyDefinition.getTextIndexHints().contains(TextIndexHint.EXACT_MATCH)) {
-                    jsonBuilder.field(property.getName() + EXACT_MATCH_PROPERTY_NAME_SUFFIX, propertyValue);
-                }
-                if (propertyDefinition == null || propertyDefinition.getTextIndexHints().contains(TextIndexHint.FULL_TEXT)) {
-                    jsonBuilder.field(property.getName(), propertyValue);
-                }
-                continue;
+        jsonBuilder.array(ElasticSearchVisibilityFilter.VISIBILITY_CLAUSES_FIELD_NAME, ElasticSearchVisibilityFilter.getClauses(element.getVisibility()));
+
+        addPropertiesToJson(jsonBuilder, element.getProperties());
+        return jsonBuilder;
+    }
+
+    /**
+     * Writes the values of the keys of a property name as one field, elastic search keeps only one of the values
+     * of a field repeated in a document when it merges a partial document into the stored source. The visibility
+     * clauses of the keys are written the same way, in an object that is merged name by name.
+     */
+    private void addPropertiesToJson(XContentBuilder jsonBuilder, Iterable<Property> properties) throws IOException {
+        Map<String, List<Object>> fields = new LinkedHashMap<String, List<Object>>();
+        Map<String, Set<String>> visibilityClauses = new LinkedHashMap<String, Set<String>>();
+        for (Property property : properties) {
+            addPropertyToFields(fields, property);
+            Set<String> clauses = visibilityClauses.get(property.getName());
+            if (clauses == null) {
+                clauses = new LinkedHashSet<String>();
+                visibilityClauses.put(property.getName(), clauses);
             }
+            clauses.addAll(Arrays.asList(ElasticSearchVisibilityFilter.getClauses(property.getVisibility())));
+        }
+        for (Map.Entry<String, List<Object>> field : fields.entrySet()) {
+            List<Object> values = field.getValue();
+            jsonBuilder.field(field.getKey(), values.size() == 1 ? values.get(0) : values);
+        }
+        if (visibilityClauses.size() > 0) {
+            jsonBuilder.startObject(ElasticSearchVisibilityFilter.PROPERTY_VISIBILITY_CLAUSES_FIELD_NAME);
+            for (Map.Entry<String, Set<String>> clauses : visibilityClauses.entrySet()) {
+                jsonBuilder.array(clauses.getKey(), clauses.getValue().toArray(new String[clauses.getValue().size()]));
+            }
+            jsonBuilder.endObject();
+        }
+    }
 
-            if (propertyValue instanceof DateOnly) {
-                propertyValue = ((DateOnly) propertyValue).getDate();
+    private static void addFieldValue(Map<String, List<Object>> fields, String fieldName, Object value) {
+        List<Object> values = fields.get(fieldName);
+        if (values == null) {
+            values = new ArrayList<Object>();
+            fields.put(fieldName, values);
+        }
+        values.add(value);
+    }
+
+    private void addPropertyToFields(Map<String, List<Object>> fields, Property property) throws IOException {
+        Object propertyValue = property.getValue();
+        if (propertyValue != null && shouldIgnoreType(propertyValue.getClass())) {
+            return;
+        } else if (propertyValue instanceof GeoPoint) {
+            GeoPoint geoPoint = (GeoPoint) propertyValue;
+            Map<String, Object> propertyValueMap = new HashMap<String, Object>();
+            propertyValueMap.put("lat", geoPoint.getLatitude());
+            propertyValueMap.put("lon", geoPoint.getLongitude());
+            propertyValue = propertyValueMap;
+        } else if (propertyValue instanceof StreamingPropertyValue) {
+            StreamingPropertyValue streamingPropertyValue = (StreamingPropertyValue) propertyValue;
+            if (!streamingPropertyValue.isSearchIndex()) {
+                return;
             }
+            Class valueType = streamingPropertyValue.getValueType();
+            if (valueType == String.class) {
+                InputStream in = streamingPropertyValue.getInputStream();
+                propertyValue = StreamUtils.toString(in);
+            } else {
+                throw new SecureGraphException("Unhandled StreamingPropertyValue type: " + valueType.getName());
+            }
+        } else if (propertyValue instanceof String) {
+            PropertyDefinition propertyDefinition = propertyDefinitions.get(property.getName());
+            if (propertyDefinition == null || propertyDefinition.getTextIndexHints().contains(TextIndexHint.EXACT_MATCH)) {
+                addFieldValue(fields, property.getName() + EXACT_MATCH_PROPERTY_NAME_SUFFIX, propertyValue);
+            }
+            if (propertyDefinition == null || propertyDefinition.getTextIndexHints().contains(TextIndexHint.FULL_TEXT)) {
+                addFieldValue(fields, property.getName(), propertyValue);
+            }
+            return;
+        }
 
-            jsonBuilder.field(property.getName(), propertyValue);
+        if (propertyValue instanceof DateOnly) {
+            propertyValue = ((DateOnly) propertyValue).getDate();
         }
-        return jsonBuilder;
+
+        addFieldValue(fields, property.getName(), propertyValue);
     }
 
     @Override
     public void flush() {
+        bulkIndexer.awaitPendingRequests();
         client.admin().indices().prepareFlush(indexName).execute().actionGet();
     }
 
@@ -302,16 +592,18 @@ public class ElasticSearchSearchIndex implements SearchIndex {
 
     @Override
     public void addPropertyDefinition(PropertyDefinition propertyDefinition) throws IOException {
+        Map<String, FieldMapping> fieldMappings = new LinkedHashMap<String, FieldMapping>();
         if (propertyDefinition.getDataType() == String.class) {
             if (propertyDefinition.getTextIndexHints().contains(TextIndexHint.EXACT_MATCH)) {
-                addPropertyToIndex(propertyDefinition.getPropertyName() + EXACT_MATCH_PROPERTY_NAME_SUFFIX, String.class, false, propertyDefinition.getBoost());
+                addFieldMapping(fieldMappings, propertyDefinition.getPropertyName() + EXACT_MATCH_PROPERTY_NAME_SUFFIX, String.class, false, propertyDefinition.getBoost());
             }
             if (propertyDefinition.getTextIndexHints().contains(TextIndexHint.FULL_TEXT)) {
-                addPropertyToIndex(propertyDefinition.getPropertyName(), String.class, true, propertyDefinition.getBoost());
+                addFieldMapping(fieldMappings, propertyDefinition.getPropertyName(), String.class, true, propertyDefinition.getBoost());
             }
         } else {
-            addPropertyToIndex(propertyDefinition);
+            addFieldMapping(fieldMappings, propertyDefinition.getPropertyName(), propertyDefinition.getDataType(), true, propertyDefinition.getBoost());
         }
+        putFieldMappings(fieldMappings);
         this.propertyDefinitions.put(propertyDefinition.getPropertyName(), propertyDefinition);
     }
 
@@ -321,126 +613,169 @@ public class ElasticSearchSearchIndex implements SearchIndex {
     }
 
     public void addPropertiesToIndex(Iterable<Property> properties) {
+        Map<String, FieldMapping> fieldMappings = new LinkedHashMap<String, FieldMapping>();
+        for (Property property : properties) {
+            collectFieldMappings(property, fieldMappings);
+        }
         try {
-            for (Property property : properties) {
-                addPropertyToIndex(property);
-            }
+            putFieldMappings(fieldMappings);
         } catch (IOException e) {
             throw new SecureGraphException("Could not add properties to index", e);
         }
     }
 
     public void addPropertyToIndex(Property property) throws IOException {
+        Map<String, FieldMapping> fieldMappings = new LinkedHashMap<String, FieldMapping>();
+        collectFieldMappings(property, fieldMappings);
+        putFieldMappings(fieldMappings);
+    }
+
+    private void collectFieldMappings(Property property, Map<String, FieldMapping> fieldMappings) {
         String propertyName = property.getName();
 
         if (propertyDefinitions.get(propertyName) != null) {
             return;
         }
 
-        Class dataType;
         Object propertyValue = property.getValue();
         if (propertyValue instanceof StreamingPropertyValue) {
             StreamingPropertyValue streamingPropertyValue = (StreamingPropertyValue) propertyValue;
             if (!streamingPropertyValue.isSearchIndex()) {
                 return;
             }
-            dataType = streamingPropertyValue.getValueType();
-            addPropertyToIndex(propertyName, dataType, true);
+            addFieldMapping(fieldMappings, propertyName, streamingPropertyValue.getValueType(), true, null);
         } else if (propertyValue instanceof String) {
-            dataType = String.class;
-            addPropertyToIndex(propertyName + EXACT_MATCH_PROPERTY_NAME_SUFFIX, dataType, false);
-            addPropertyToIndex(propertyName, dataType, true);
+            addFieldMapping(fieldMappings, propertyName + EXACT_MATCH_PROPERTY_NAME_SUFFIX, String.class, false, null);
+            addFieldMapping(fieldMappings, propertyName, String.class, true, null);
         } else {
-            dataType = propertyValue.getClass();
-            addPropertyToIndex(propertyName, dataType, true);
+            addFieldMapping(fieldMappings, propertyName, propertyValue.getClass(), true, null);
         }
     }
 
-    private void addPropertyToIndex(String propertyName, Class dataType, boolean analyzed) throws IOException {
-        addPropertyToIndex(propertyName, dataType, analyzed, null);
-    }
-
-    private void addPropertyToIndex(PropertyDefinition propertyDefinition) throws IOException {
-        addPropertyToIndex(propertyDefinition.getPropertyName(), propertyDefinition.getDataType(), true, propertyDefinition.getBoost());
-    }
-
-    private void addPropertyToIndex(String propertyName, Class dataType, boolean analyzed, Double boost) throws IOException {
-        if (propertyDefinitions.get(propertyName) != null) {
+    private void addFieldMapping(Map<String, FieldMapping> fieldMappings, String propertyName, Class dataType, boolean analyzed, Double boost) {
+        if (propertyDefinitions.get(propertyName) != null || fieldMappings.containsKey(propertyName)) {
             return;
         }
-
         if (shouldIgnoreType(dataType)) {
             return;
         }
+        fieldMappings.put(propertyName, new FieldMapping(propertyName, dataType, analyzed, boost));
+    }
 
-        XContentBuilder mapping = XContentFactory.jsonBuilder()
-                .startObject()
-                .startObject(ELEMENT_TYPE)
-                .startObject("properties")
-                .startObject(propertyName);
-
-        if (dataType == String.class) {
-            LOGGER.debug("Registering string type for {}", propertyName);
-            mapping.field("type", "string");
-            if (!analyzed) {
-                mapping.field("index", "not_analyzed");
-            }
-        } else if (dataType == Float.class) {
-            LOGGER.debug("Registering float type for {}", propertyName);
-            mapping.field("type", "float");
-        } else if (dataType == Double.class) {
-            LOGGER.debug("Registering double type for {}", propertyName);
-            mapping.field("type", "double");
-        } else if (dataType == Byte.class) {
-            LOGGER.debug("Registering byte type for {}", propertyName);
-            mapping.field("type", "byte");
-        } else if (dataType == Short.class) {
-            LOGGER.debug("Registering short type for {}", propertyName);
-            mapping.field("type", "short");
-        } else if (dataType == Integer.class) {
-            LOGGER.debug("Registering integer type for {}", propertyName);
-            mapping.field("type", "integer");
-        } else if (dataType == Date.class || dataType == DateOnly.class) {
-            LOGGER.debug("Registering date type for {}", propertyName);
-            mapping.field("type", "date");
-        } else if (dataType == Long.class) {
-            LOGGER.debug("Registering long type for {}", propertyName);
-            mapping.field("type", "long");
-        } else if (dataType == Boolean.class) {
-            LOGGER.debug("Registering boolean type for {}", propertyName);
-            mapping.field("type", "boolean");
-        } else if (dataType == GeoPoint.class) {
-            LOGGER.debug("Registering geo_point type for {}", propertyName);
-            mapping.field("type", "geo_point");
-        } else if (Number.class.isAssignableFrom(dataType)) {
-            LOGGER.debug("Registering double type for {}", propertyName);
-            mapping.field("type", "double");
-        } else {
-            throw new SecureGraphException("Unexpected value type for property \"" + propertyName + "\": " + dataType.getName());
-        }
-
-        if (boost != null) {
-            mapping.field("boost", boost.doubleValue());
+    /**
+     * Registers the fields that are not registered yet with a single put mapping request. Fields are looked up
+     * without locking, only threads that found new fields wait for each other here.
+     */
+    private void putFieldMappings(Map<String, FieldMapping> fieldMappings) throws IOException {
+        if (fieldMappings.size() == 0) {
+            return;
         }
+        synchronized (fieldMappingLock) {
+            List<FieldMapping> newFieldMappings = new ArrayList<FieldMapping>();
+            for (FieldMapping fieldMapping : fieldMappings.values()) {
+                // another thread may have registered the field while this one waited for the lock
+                if (propertyDefinitions.get(fieldMapping.propertyName) == null) {
+                    newFieldMappings.add(fieldMapping);
+                }
+            }
+            if (newFieldMappings.size() == 0) {
+                return;
+            }
 
-        mapping
-                .endObject()
-                .endObject()
-                .endObject()
-                .endObject();
-
-        PutMappingResponse response = client
-                .admin()
-                .indices()
-                .preparePutMapping(indexName)
-                .setIgnoreConflicts(false)
-                .setType(ELEMENT_TYPE)
-                .setSource(mapping)
-                .execute()
-                .actionGet();
-        LOGGER.debug(response.toString());
+            XContentBuilder mapping = XContentFactory.jsonBuilder()
+                    .startObject()
+                    .startObject(ELEMENT_TYPE)
+                    .startObject("properties");
+            int explicitFieldCount = 0;
+            Set<String> explicitPropertyNames = new LinkedHashSet<String>();
+            for (FieldMapping fieldMapping : newFieldMappings) {
+                if (isMappedByDynamicTemplate(fieldMapping)) {
+                    continue;
+                }
+                explicitPropertyNames.add(fieldMapping.getPropertyName());
+                mapping.startObject(fieldMapping.propertyName);
+                if (fieldMapping.dataType == String.class) {
+                    LOGGER.debug("Registering string type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "string");
+                    if (!fieldMapping.analyzed) {
+                        mapping.field("index", "not_analyzed");
+                    }
+                } else if (fieldMapping.dataType == Float.class) {
+                    LOGGER.debug("Registering float type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "float");
+                } else if (fieldMapping.dataType == Double.class) {
+                    LOGGER.debug("Registering double type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "double");
+                } else if (fieldMapping.dataType == Byte.class) {
+                    LOGGER.debug("Registering byte type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "byte");
+                } else if (fieldMapping.dataType == Short.class) {
+                    LOGGER.debug("Registering short type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "short");
+                } else if (fieldMapping.dataType == Integer.class) {
+                    LOGGER.debug("Registering integer type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "integer");
+                } else if (fieldMapping.dataType == Date.class || fieldMapping.dataType == DateOnly.class) {
+                    LOGGER.debug("Registering date type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "date");
+                } else if (fieldMapping.dataType == Long.class) {
+                    LOGGER.debug("Registering long type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "long");
+                } else if (fieldMapping.dataType == Boolean.class) {
+                    LOGGER.debug("Registering boolean type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "boolean");
+                } else if (fieldMapping.dataType == GeoPoint.class) {
+                    LOGGER.debug("Registering geo_point type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "geo_point");
+                } else if (Number.class.isAssignableFrom(fieldMapping.dataType)) {
+                    LOGGER.debug("Registering double type for {}", fieldMapping.propertyName);
+                    mapping.field("type", "double");
+                } else {
+                    throw new SecureGraphException("Unexpected value type for property \"" + fieldMapping.propertyName + "\": " + fieldMapping.dataType.getName());
+                }
+                if (fieldMapping.boost != null) {
+                    mapping.field("boost", fieldMapping.boost.doubleValue());
+                }
+                mapping.endObject();
+                explicitFieldCount++;
+            }
+            // mapped with the fields so indexing the documents does not update the mapping again
+            mapping
+                    .startObject(ElasticSearchVisibilityFilter.PROPERTY_VISIBILITY_CLAUSES_FIELD_NAME)
+                    .field("type", "object")
+                    .startObject("properties");
+            for (String propertyName : explicitPropertyNames) {
+                mapping
+                        .startObject(propertyName)
+                        .field("type", "string")
+                        .field("index", "not_analyzed")
+                        .field("include_in_all", false)
+                        .endObject();
+            }
+            mapping
+                    .endObject()
+                    .endObject()
+                    .endObject()
+                    .endObject()
+                    .endObject();
+
+            if (explicitFieldCount > 0) {
+                PutMappingResponse response = client
+                        .admin()
+                        .indices()
+                        .preparePutMapping(indexName)
+                        .setIgnoreConflicts(false)
+                        .setType(ELEMENT_TYPE)
+                        .setSource(mapping)
+                        .execute()
+                        .actionGet();
+                LOGGER.debug(response.toString());
+            }
 
-        propertyDefinitions.put(propertyName, new PropertyDefinition(propertyName, dataType, TextIndexHint.ALL));
+            for (FieldMapping fieldMapping : newFieldMappings) {
+                propertyDefinitions.put(fieldMapping.propertyName, new PropertyDefinition(fieldMapping.propertyName, fieldMapping.dataType, TextIndexHint.ALL));
+            }
+        }
     }
 
     protected boolean shouldIgnoreType(Class dataType) {
@@ -452,26 +787,83 @@ public class ElasticSearchSearchIndex implements SearchIndex {
 
     @Override
     public void removeElement(Graph graph, Element element) {
-        // TODO write me
+        DeleteResponse response = client.prepareDelete(indexName, ELEMENT_TYPE, element.getId().toString()).execute().actionGet();
+        LOGGER.debug(response.toString());
     }
 
+    /**
+     * Indexes the elements through an {@link ElasticSearchBulkIndexer}, sending them in bulk requests of up to
+     * {@link ElasticSearchBulkIndexer#BULK_MAX_ACTIONS} elements or {@link ElasticSearchBulkIndexer#BULK_MAX_SIZE_MB}
+     * megabytes. Returns once all the requests completed and throws if any element could not be indexed.
+     */
     @Override
     public void addElements(Graph graph, Iterable<Element> elements) {
-        // TODO change this to use elastic search bulk import
+        ElasticSearchBulkIndexer.Bulk bulk = bulkIndexer.startBulk();
+
         int count = 0;
-        for (Element element : elements) {
-            if (count % 1000 == 0) {
-                LOGGER.debug("adding elements... " + count);
+        try {
+            List<Element> chunk = new ArrayList<Element>();
+            for (Element element : elements) {
+                chunk.add(element);
+                if (chunk.size() >= bulkIndexer.getMaxActions()) {
+                    LOGGER.debug("adding elements... " + count);
+                    addElementsToBulk(bulk, chunk);
+                    count += chunk.size();
+                    chunk.clear();
+                }
             }
-            addElement(graph, element);
-            count++;
+            addElementsToBulk(bulk, chunk);
+            count += chunk.size();
+        } catch (IOException e) {
+            throw new SecureGraphException("Could not add documents", e);
+        } finally {
+            bulk.close();
         }
         LOGGER.debug("added " + count + " elements");
+
+        if (autoflush) {
+            client.admin().indices().prepareFlush(indexName).execute().actionGet();
+        }
+    }
+
+    /**
+     * Registers the new fields of the elements with one put mapping request before their documents are sent.
+     */
+    private void addElementsToBulk(ElasticSearchBulkIndexer.Bulk bulk, List<Element> elements) throws IOException {
+        Map<String, FieldMapping> fieldMappings = new LinkedHashMap<String, FieldMapping>();
+        for (Element element : elements) {
+            for (Property property : element.getProperties()) {
+                collectFieldMappings(property, fieldMappings);
+            }
+        }
+        putFieldMappings(fieldMappings);
+
+        for (Element element : elements) {
+            bulk.add(client
+                    .prepareIndex(indexName, ELEMENT_TYPE, element.getId().toString())
+                    .setSource(buildJsonContentFromElement(element).endObject())
+                    .request());
+        }
+    }
+
+    @Override
+    public void removeElements(Graph graph, Iterable<Element> elements) {
+        BulkRequestBuilder bulkRequest = client.prepareBulk();
+        for (Element element : elements) {
+            bulkRequest.add(client.prepareDelete(indexName, ELEMENT_TYPE, element.getId().toString()));
+        }
+        if (bulkRequest.numberOfActions() == 0) {
+            return;
+        }
+        BulkResponse response = bulkRequest.execute().actionGet();
+        if (response.hasFailures()) {
+            throw new SecureGraphException("Could not remove elements: " + response.buildFailureMessage());
+        }
     }
 
     @Override
     public GraphQuery queryGraph(Graph graph, String queryString, Authorizations authorizations) {
-        return new ElasticSearchGraphQuery(client, indexName, graph, queryString, this.propertyDefinitions, authorizations);
+        return new ElasticSearchGraphQuery(client, indexName, graph, queryString, this.propertyDefinitions, visibilityFilterEnabled, scrollPageSize, scrollKeepAliveMs, authorizations);
     }
 
     @Override
@@ -486,4 +878,36 @@ public class ElasticSearchSearchIndex implements SearchIndex {
     public String getIndexName() {
         return indexName;
     }
+
+    public ElasticSearchBulkIndexer getBulkIndexer() {
+        return bulkIndexer;
+    }
+
+    public boolean isVisibilityFilterEnabled() {
+        return visibilityFilterEnabled;
+    }
+
+    private static class FieldMapping {
+        private final String propertyName;
+        private final Class dataType;
+        private final boolean analyzed;
+        private final Double boost;
+
+        private FieldMapping(String propertyName, Class dataType, boolean analyzed, Double boost) {
+            this.propertyName = propertyName;
+            this.dataType = dataType;
+            this.analyzed = analyzed;
+            this.boost = boost;
+        }
+
+        /**
+         * The name of the property the field indexes, the field name without the exact match suffix.
+         */
+        private String getPropertyName() {
+            if (dataType == String.class && !analyzed && propertyName.endsWith(EXACT_MATCH_PROPERTY_NAME_SUFFIX)) {
+                return propertyName.substring(0, propertyName.length() - EXACT_MATCH_PROPERTY_NAME_SUFFIX.length());
+            }
+            return propertyName;
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package org.securegraph.elasticsearch;
+
+import org.elasticsearch.index.query.FilterBuilder;
+import org.elasticsearch.index.query.FilterBuilders;
+import org.securegraph.Authorizations;
+import org.securegraph.Visibility;
+import org.securegraph.VisibilityExpression;
+
+import java.util.*;
+
+/**
+ * Indexes the visibility of an element as the clauses of its disjunctive normal form, see
+ * {@link VisibilityExpression#getClauses()}, each written as a visibility string with its terms sorted. A query
+ * keeps the documents that have a clause made of the reader's authorizations only, by matching the clauses
+ * against every combination of up to {@link #MAX_CLAUSE_TERMS} of the authorizations.
+ *
+ * Visibilities that have more or longer clauses are indexed as {@link #CHECK_IN_GRAPH_CLAUSE}, which every
+ * query accepts, and are filtered by the graph as before.
+ *
+ * The clauses of the visibilities of the properties are indexed per property name under
+ * {@link #PROPERTY_VISIBILITY_CLAUSES_FIELD_NAME}, a query that has a property keeps the documents that have a
+ * value of the property the reader can see.
+ */
+public class ElasticSearchVisibilityFilter {
+    public static final String VISIBILITY_CLAUSES_FIELD_NAME = "__visibilityClauses";
+    public static final String PROPERTY_VISIBILITY_CLAUSES_FIELD_NAME = "__propertyVisibilityClauses";
+    public static final String ALWAYS_VISIBLE_CLAUSE = "()";
+    public static final String CHECK_IN_GRAPH_CLAUSE = "*";
+    public static final int MAX_CLAUSE_TERMS = 3;
+    public static final int MAX_FILTER_TERMS = 4096;
+
+    public static String[] getClauses(Visibility visibility) {
+        Set<Set<String>> clauses = VisibilityExpression.compile(visibility.getVisibilityString()).getClauses();
+        if (clauses == null) {
+            return new String[]{CHECK_IN_GRAPH_CLAUSE};
+        }
+        List<String> result = new ArrayList<String>();
+        for (Set<String> clause : clauses) {
+            if (clause.size() > MAX_CLAUSE_TERMS) {
+                return new String[]{CHECK_IN_GRAPH_CLAUSE};
+            }
+            result.add(clauseToString(new ArrayList<String>(new TreeSet<String>(clause))));
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    public static String getPropertyClausesFieldName(String propertyName) {
+        return PROPERTY_VISIBILITY_CLAUSES_FIELD_NAME + "." + propertyName;
+    }
+
+    /**
+     * @return The filter, or null if the reader has too many authorizations to list their combinations.
+     */
+    public static FilterBuilder createFilter(Authorizations authorizations) {
+        String[] filterTerms = getFilterTerms(authorizations);
+        if (filterTerms == null) {
+            return null;
+        }
+        return FilterBuilders.termsFilter(VISIBILITY_CLAUSES_FIELD_NAME, filterTerms);
+    }
+
+    /**
+     * @param filterTerms The terms returned by {@link #getFilterTerms(Authorizations)}.
+     */
+    public static FilterBuilder createPropertyFilter(String propertyName, String[] filterTerms) {
+        return FilterBuilders.termsFilter(getPropertyClausesFieldName(propertyName), filterTerms);
+    }
+
+    /**
+     * @return The clauses the authorizations can read, or null if the reader has too many authorizations to list
+     * their combinations.
+     */
+    public static String[] getFilterTerms(Authorizations authorizations) {
+        List<String> auths = new ArrayList<String>(new TreeSet<String>(Arrays.asList(authorizations.getAuthorizations())));
+        List<String> terms = new ArrayList<String>();
+        terms.add(ALWAYS_VISIBLE_CLAUSE);
+        terms.add(CHECK_IN_GRAPH_CLAUSE);
+        if (!addCombinations(auths, 0, new ArrayList<String>(), terms)) {
+            return null;
+        }
+        return terms.toArray(new String[terms.size()]);
+    }
+
+    private static boolean addCombinations(List<String> auths, int start, List<String> combination, List<String> terms) {
+        for (int i = start; i < auths.size(); i++) {
+            combination.add(auths.get(i));
+            terms.add(clauseToString(combination));
+            if (terms.size() > MAX_FILTER_TERMS) {
+                return false;
+            }
+            if (combination.size() < MAX_CLAUSE_TERMS && !addCombinations(auths, i + 1, combination, terms)) {
+                return false;
+            }
+            combination.remove(combination.size() - 1);
+        }
+        return true;
+    }
+
+    private static String clauseToString(List<String> sortedTerms) {
+        if (sortedTerms.size() == 0) {
+            return ALWAYS_VISIBLE_CLAUSE;
+        }
+        StringBuilder result = new StringBuilder();
+        for (String term : sortedTerms) {
+            if (result.length() > 0) {
+                result.append('&');
+            }
+            appendTerm(result, term);
+        }
+        return result.toString();
+    }
+
+    private static void appendTerm(StringBuilder result, String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (!isTermChar(term.charAt(i))) {
+                result.append('"').append(term.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+                return;
+            }
+        }
+        result.append(term);
+    }
+
+    private static boolean isTermChar(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == '_' || c == '-' || c == ':' || c == '.' || c == '/';
+    }
+}
@@ -1,16 +1,27 @@
 package org.securegraph.elasticsearch;
 
 import org.securegraph.Authorizations;
+import org.securegraph.Element;
 import org.securegraph.Graph;
+import org.securegraph.SecureGraphException;
+import org.securegraph.GraphConfiguration;
 import org.securegraph.Vertex;
 import org.securegraph.elasticsearch.helpers.TestHelpers;
 import org.securegraph.inmemory.InMemoryAuthorizations;
 import org.securegraph.inmemory.InMemoryGraph;
 import org.securegraph.property.PropertyValue;
 import org.securegraph.property.StreamingPropertyValue;
+import org.securegraph.query.TextPredicate;
 import org.securegraph.test.GraphTestBase;
 import org.securegraph.test.util.LargeStringInputStream;
+import org.securegraph.util.ClosableIterable;
 import org.apache.commons.io.IOUtils;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.index.query.FilterBuilder;
+import org.elasticsearch.index.query.FilterBuilders;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.json.JSONObject;
 import org.junit.After;
 import org.junit.Before;
@@ -18,10 +29,24 @@ import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
 
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+import static org.securegraph.util.IterableUtils.count;
+import static org.securegraph.util.IterableUtils.toList;
 
 public class ElasticSearchSearchIndexTest extends GraphTestBase {
     @Override
@@ -70,4 +95,340 @@ public class ElasticSearchSearchIndexTest extends GraphTestBase {
         JSONObject json = new JSONObject(jsonString);
         assertNotNull(json);
     }
+
+    @Test
+    public void testBlindElementMutationWithStoredSource() {
+        Map config = new HashMap();
+        config.put("storeSourceData", "true");
+        // the source is only stored by indexes created with it
+        config.put(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + ElasticSearchSearchIndex.INDEX_NAME, "securegraph-source");
+        Graph sourceGraph = TestHelpers.createGraph(config);
+        sourceGraph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .addPropertyValue("k1", "prop2", "value2a", VISIBILITY_A)
+                .addPropertyValue("k2", "prop2", "value2b", VISIBILITY_A)
+                .save();
+
+        // merged into the stored document
+        sourceGraph.prepareVertexMutation("v1", AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1b", VISIBILITY_A)
+                .save();
+        assertEquals(1, count(sourceGraph.query(AUTHORIZATIONS_A).has("prop1", "value1b").vertices()));
+        assertEquals(1, count(sourceGraph.query(AUTHORIZATIONS_A).has("prop2", "value2a").vertices()));
+
+        // other keys of the name are kept
+        sourceGraph.prepareVertexMutation("v1", AUTHORIZATIONS_A)
+                .addPropertyValue("k1", "prop2", "value2c", VISIBILITY_A)
+                .save();
+        assertEquals(0, count(sourceGraph.query(AUTHORIZATIONS_A).has("prop2", "value2a").vertices()));
+        assertEquals(1, count(sourceGraph.query(AUTHORIZATIONS_A).has("prop2", "value2b").vertices()));
+        assertEquals(1, count(sourceGraph.query(AUTHORIZATIONS_A).has("prop2", "value2c").vertices()));
+
+        sourceGraph.prepareVertexMutation("v1", AUTHORIZATIONS_A)
+                .removeProperty("k2", "prop2", VISIBILITY_A)
+                .save();
+        assertEquals(0, count(sourceGraph.query(AUTHORIZATIONS_A).has("prop2", "value2b").vertices()));
+        assertEquals(1, count(sourceGraph.query(AUTHORIZATIONS_A).has("prop2", "value2c").vertices()));
+
+        // missing elements are not indexed
+        sourceGraph.prepareVertexMutation("v3", AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        assertFalse(TestHelpers.getClient().prepareGet("securegraph-source", ElasticSearchSearchIndex.ELEMENT_TYPE, "v3").execute().actionGet().isExists());
+        sourceGraph.shutdown();
+    }
+
+    @Test
+    public void testScrollIsClearedWhenClosed() {
+        Map config = new HashMap();
+        // a shard frees its scroll once it returns less than a page
+        config.put(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + ElasticSearchSearchIndex.SCROLL_PAGE_SIZE, "1");
+        Graph scrollGraph = TestHelpers.createGraph(config);
+        for (int i = 0; i < 20; i++) {
+            scrollGraph.addVertex("v" + i, VISIBILITY_A, AUTHORIZATIONS_A);
+        }
+        long openContexts = getOpenSearchContexts();
+
+        Iterable<Vertex> vertices = scrollGraph.query(AUTHORIZATIONS_A).scroll().vertices();
+        Iterator<Vertex> it = vertices.iterator();
+        it.next();
+        assertTrue(getOpenSearchContexts() > openContexts);
+        ((ClosableIterable<Vertex>) vertices).close();
+        assertEquals(openContexts, getOpenSearchContexts());
+        assertFalse(it.hasNext());
+
+        assertEquals(5, count(scrollGraph.query(AUTHORIZATIONS_A).scroll().limit(5).vertices()));
+        assertEquals(openContexts, getOpenSearchContexts());
+        scrollGraph.shutdown();
+    }
+
+    @Test
+    public void testRemoveElements() {
+        Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addVertex("v3", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        assertEquals(3, count(graph.query(AUTHORIZATIONS_A).vertices()));
+        assertEquals(1, count(graph.query(AUTHORIZATIONS_A).edges()));
+
+        getSearchIndex().removeElements(graph, Arrays.asList((Element) v1, graph.getEdge("e1", AUTHORIZATIONS_A)));
+        getSearchIndex().flush();
+        assertEquals(2, count(graph.query(AUTHORIZATIONS_A).vertices()));
+        assertEquals(0, count(graph.query(AUTHORIZATIONS_A).edges()));
+
+        getSearchIndex().removeElement(graph, v2);
+        getSearchIndex().flush();
+        assertEquals(1, count(graph.query(AUTHORIZATIONS_A).vertices()));
+    }
+
+    @Test
+    public void testBulkFailuresAreReported() {
+        ElasticSearchSearchIndex searchIndex = getSearchIndex();
+        Client client = searchIndex.getClient();
+        ElasticSearchBulkIndexer.Bulk bulk = searchIndex.getBulkIndexer().startBulk();
+        bulk.add(client.prepareIndex(searchIndex.getIndexName(), ElasticSearchSearchIndex.ELEMENT_TYPE, "d1").setSource("{}").request());
+        // a create fails when the document exists
+        bulk.add(client.prepareIndex(searchIndex.getIndexName(), ElasticSearchSearchIndex.ELEMENT_TYPE, "d1").setSource("{}").setCreate(true).request());
+        try {
+            bulk.close();
+            fail("the failed create should have been reported");
+        } catch (SecureGraphException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("Could not complete 1 bulk actions"));
+        }
+    }
+
+    @Test
+    public void testFlushWaitsForPendingBulkRequests() {
+        Map config = new HashMap();
+        config.put(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + ElasticSearchBulkIndexer.BULK_MAX_ACTIONS, "1");
+        Graph bulkGraph = TestHelpers.createGraph(config);
+        ElasticSearchSearchIndex searchIndex = (ElasticSearchSearchIndex) ((InMemoryGraph) bulkGraph).getSearchIndex();
+        Client client = searchIndex.getClient();
+
+        // each document is sent in its own request while the next ones are added
+        ElasticSearchBulkIndexer.Bulk bulk = searchIndex.getBulkIndexer().startBulk();
+        for (int i = 0; i < 20; i++) {
+            bulk.add(client.prepareIndex(searchIndex.getIndexName(), ElasticSearchSearchIndex.ELEMENT_TYPE, "d" + i).setSource("{}").request());
+        }
+        searchIndex.flush();
+        for (int i = 0; i < 20; i++) {
+            assertTrue(client.prepareGet(searchIndex.getIndexName(), ElasticSearchSearchIndex.ELEMENT_TYPE, "d" + i).execute().actionGet().isExists());
+        }
+        bulk.close();
+        bulkGraph.shutdown();
+    }
+
+    @Test
+    public void testQueryPagesOnlyHaveVisibleProperties() {
+        for (int i = 0; i < 10; i++) {
+            graph.prepareVertex("v" + i, VISIBILITY_A, AUTHORIZATIONS_A_AND_B)
+                    .setProperty("prop1", "value1", i == 9 ? VISIBILITY_A : VISIBILITY_B)
+                    .save();
+        }
+        assertTrue(getSearchIndex().isVisibilityFilterEnabled());
+
+        List<Vertex> vertices = toList(graph.query(AUTHORIZATIONS_A).has("prop1", "value1").limit(1).vertices());
+        assertEquals(1, vertices.size());
+        assertEquals("v9", vertices.get(0).getId());
+        assertEquals(10, count(graph.query(AUTHORIZATIONS_A_AND_B).has("prop1", "value1").limit(10).vertices()));
+    }
+
+    @Test
+    public void testVisibilityClausesAreAddedToAnExistingIndex() throws IOException {
+        String indexName = "securegraph-existing";
+        Client client = TestHelpers.getClient();
+        // the mapping of an index created before the visibility clauses were indexed
+        XContentBuilder mapping = XContentFactory.jsonBuilder()
+                .startObject()
+                .startObject(ElasticSearchSearchIndex.ELEMENT_TYPE)
+                .startArray("dynamic_templates")
+                .startObject()
+                .startObject("exact_match_strings")
+                .field("match", "*" + ElasticSearchSearchIndex.EXACT_MATCH_PROPERTY_NAME_SUFFIX)
+                .field("match_mapping_type", "string")
+                .startObject("mapping")
+                .field("type", "string")
+                .field("index", "not_analyzed")
+                .endObject()
+                .endObject()
+                .endObject()
+                .endArray()
+                .startObject("properties")
+                .startObject(ElasticSearchSearchIndex.ELEMENT_TYPE_FIELD_NAME)
+                .field("type", "string")
+                .endObject()
+                .endObject()
+                .endObject()
+                .endObject();
+        client.admin().indices().prepareCreate(indexName).addMapping(ElasticSearchSearchIndex.ELEMENT_TYPE, mapping).execute().actionGet();
+        client.prepareIndex(indexName, ElasticSearchSearchIndex.ELEMENT_TYPE, "old")
+                .setSource("{\"" + ElasticSearchSearchIndex.ELEMENT_TYPE_FIELD_NAME + "\":\"vertex\"}")
+                .setRefresh(true)
+                .execute()
+                .actionGet();
+
+        Map config = new HashMap();
+        config.put(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + ElasticSearchSearchIndex.INDEX_NAME, indexName);
+        Graph existingGraph = TestHelpers.createGraph(config);
+        ElasticSearchSearchIndex searchIndex = (ElasticSearchSearchIndex) ((InMemoryGraph) existingGraph).getSearchIndex();
+        // the document indexed before has no clauses, the filter waits for a reindex
+        assertFalse(searchIndex.isVisibilityFilterEnabled());
+        Map<String, Object> source = client.admin().cluster().prepareState().setIndices(indexName).execute().actionGet()
+                .getState().getMetaData().index(indexName).getMappings().get(ElasticSearchSearchIndex.ELEMENT_TYPE).getSourceAsMap();
+        assertEquals(2, ((List) source.get("dynamic_templates")).size());
+
+        existingGraph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A_AND_B)
+                .setProperty("prop1", "value1", VISIBILITY_B)
+                .save();
+        existingGraph.addVertex("v2", VISIBILITY_EMPTY, AUTHORIZATIONS_A);
+        existingGraph.flush();
+        client.admin().indices().prepareRefresh(indexName).execute().actionGet();
+
+        String[] termsA = ElasticSearchVisibilityFilter.getFilterTerms(AUTHORIZATIONS_A);
+        String[] termsB = ElasticSearchVisibilityFilter.getFilterTerms(AUTHORIZATIONS_B);
+        assertEquals(3, countHits(client, indexName, FilterBuilders.matchAllFilter()));
+        assertEquals(2, countHits(client, indexName, ElasticSearchVisibilityFilter.createFilter(AUTHORIZATIONS_A)));
+        assertEquals(1, countHits(client, indexName, ElasticSearchVisibilityFilter.createFilter(AUTHORIZATIONS_B)));
+        assertEquals(0, countHits(client, indexName, ElasticSearchVisibilityFilter.createPropertyFilter("prop1", termsA)));
+        assertEquals(1, countHits(client, indexName, ElasticSearchVisibilityFilter.createPropertyFilter("prop1", termsB)));
+        existingGraph.shutdown();
+
+        config.put(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + ElasticSearchSearchIndex.VISIBILITY_FILTER, "true");
+        Graph reindexedGraph = TestHelpers.createGraph(config);
+        assertTrue(((ElasticSearchSearchIndex) ((InMemoryGraph) reindexedGraph).getSearchIndex()).isVisibilityFilterEnabled());
+        reindexedGraph.shutdown();
+    }
+
+    @Test
+    public void testNewPropertiesOfABatchAreMappedWithOnePutMapping() {
+        // the elements are indexed by the test, not by the graph they are created in
+        Graph sourceGraph = new InMemoryGraph();
+        List<Element> elements = new ArrayList<Element>();
+        elements.add(sourceGraph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("intProp", 1, VISIBILITY_A)
+                .setProperty("doubleProp", 1.5, VISIBILITY_A)
+                .save());
+        elements.add(sourceGraph.prepareVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("dateProp", new Date(), VISIBILITY_A)
+                .setProperty("booleanProp", true, VISIBILITY_B)
+                .save());
+        elements.add(sourceGraph.prepareVertex("v3", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("intProp", 2, VISIBILITY_A)
+                .save());
+
+        long mappingVersion = getIndexMetaDataVersion();
+        getSearchIndex().addElements(graph, elements);
+        assertEquals(mappingVersion + 1, getIndexMetaDataVersion());
+
+        Map<String, Map> fields = getMappedFields();
+        assertEquals("integer", fields.get("intProp").get("type"));
+        assertEquals("double", fields.get("doubleProp").get("type"));
+        assertEquals("date", fields.get("dateProp").get("type"));
+        assertEquals("boolean", fields.get("booleanProp").get("type"));
+        Map clausesFields = (Map) fields.get(ElasticSearchVisibilityFilter.PROPERTY_VISIBILITY_CLAUSES_FIELD_NAME).get("properties");
+        assertEquals(new HashSet<String>(Arrays.asList("intProp", "doubleProp", "dateProp", "booleanProp")), new HashSet<Object>(clausesFields.keySet()));
+    }
+
+    @Test
+    public void testUnseenStringPropertiesAreMappedByTheTemplate() {
+        graph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("name", "Joe Smith", VISIBILITY_A)
+                .save();
+
+        Map<String, Map> fields = getMappedFields();
+        assertEquals("string", fields.get("name").get("type"));
+        assertFalse(fields.get("name").containsKey("index"));
+        assertEquals("string", fields.get("name" + ElasticSearchSearchIndex.EXACT_MATCH_PROPERTY_NAME_SUFFIX).get("type"));
+        assertEquals("not_analyzed", fields.get("name" + ElasticSearchSearchIndex.EXACT_MATCH_PROPERTY_NAME_SUFFIX).get("index"));
+
+        assertEquals(1, count(graph.query(AUTHORIZATIONS_A).has("name", "Joe Smith").vertices()));
+        assertEquals(0, count(graph.query(AUTHORIZATIONS_A).has("name", "joe").vertices()));
+        assertEquals(1, count(graph.query("joe", AUTHORIZATIONS_A).vertices()));
+        assertEquals(1, count(graph.query(AUTHORIZATIONS_A).has("name", TextPredicate.CONTAINS, "smith").vertices()));
+    }
+
+    @Test
+    public void testConcurrentNewPropertiesAreAllMapped() throws Exception {
+        final Graph sourceGraph = new InMemoryGraph();
+        final ElasticSearchSearchIndex searchIndex = getSearchIndex();
+        final int threadCount = 8;
+        final int propertiesPerThread = 5;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Throwable> failures = new Vector<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < threadCount; t++) {
+            final int threadNumber = t;
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < propertiesPerThread; i++) {
+                            // the same name is added by two threads
+                            Vertex v = sourceGraph.prepareVertex("v" + threadNumber + "_" + i, VISIBILITY_A, AUTHORIZATIONS_A)
+                                    .setProperty("prop" + (threadNumber / 2) + "_" + i, i, VISIBILITY_A)
+                                    .save();
+                            searchIndex.addElement(graph, v);
+                        }
+                    } catch (Throwable ex) {
+                        failures.add(ex);
+                    }
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(new ArrayList<Throwable>(), failures);
+
+        // a definition that was lost would have been mapped dynamically as a long
+        Map<String, Map> fields = getMappedFields();
+        for (int t = 0; t < threadCount / 2; t++) {
+            for (int i = 0; i < propertiesPerThread; i++) {
+                String propertyName = "prop" + t + "_" + i;
+                assertNotNull(propertyName, fields.get(propertyName));
+                assertEquals(propertyName, "integer", fields.get(propertyName).get("type"));
+            }
+        }
+    }
+
+    private long getIndexMetaDataVersion() {
+        String indexName = getSearchIndex().getIndexName();
+        return TestHelpers.getClient().admin().cluster().prepareState().setIndices(indexName).execute().actionGet()
+                .getState().getMetaData().index(indexName).getVersion();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map> getMappedFields() {
+        String indexName = getSearchIndex().getIndexName();
+        try {
+            Map<String, Object> source = TestHelpers.getClient().admin().cluster().prepareState().setIndices(indexName).execute().actionGet()
+                    .getState().getMetaData().index(indexName).getMappings().get(ElasticSearchSearchIndex.ELEMENT_TYPE).getSourceAsMap();
+            return (Map<String, Map>) source.get("properties");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long countHits(Client client, String indexName, FilterBuilder filter) {
+        return client.prepareSearch(indexName)
+                .setQuery(QueryBuilders.filteredQuery(QueryBuilders.matchAllQuery(), filter))
+                .execute()
+                .actionGet()
+                .getHits()
+                .getTotalHits();
+    }
+
+    private long getOpenSearchContexts() {
+        return TestHelpers.getClient().admin().indices().prepareStats()
+                .setSearch(true)
+                .execute()
+                .actionGet()
+                .getTotal()
+                .getSearch()
+                .getOpenContexts();
+    }
 }
@@ -0,0 +1,115 @@
+package org.securegraph.elasticsearch;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.index.query.FilterBuilder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.securegraph.Authorizations;
+import org.securegraph.Visibility;
+import org.securegraph.VisibilityExpression;
+import org.securegraph.inmemory.InMemoryAuthorizations;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class ElasticSearchVisibilityFilterTest {
+    @Test
+    public void testClausesOfNestedExpressions() {
+        assertClauses("a", "a");
+        assertClauses("b&a", "a&b");
+        assertClauses("a|b", "a", "b");
+        assertClauses("((a))", "a");
+        assertClauses("a&(b|c)", "a&b", "a&c");
+        assertClauses("(a|b)&(c|d)", "a&c", "a&d", "b&c", "b&d");
+        assertClauses("a|(b&(c|a))", "a", "b&c");
+        assertClauses("(a&b)|(a&b&c)|(c&(d|e))", "a&b", "c&d", "c&e");
+    }
+
+    @Test
+    public void testClausesWithQuotedTerms() {
+        assertClauses("\"e f\"&a", "a&\"e f\"");
+        assertClauses("\"a\\\"b\\\\c\"|d", "\"a\\\"b\\\\c\"", "d");
+        assertClauses("x:y.z/w-v_u", "x:y.z/w-v_u");
+        // a quoted term that does not need quotes is indexed like the unquoted term
+        assertClauses("\"a\"&b", "a&b");
+    }
+
+    @Test
+    public void testClausesOfEmptyVisibility() {
+        assertClauses("", ElasticSearchVisibilityFilter.ALWAYS_VISIBLE_CLAUSE);
+    }
+
+    @Test
+    public void testClausesTooLongToIndex() {
+        assertClauses("a&b&c&d", ElasticSearchVisibilityFilter.CHECK_IN_GRAPH_CLAUSE);
+        assertClauses("a|(b&c&d&e)", ElasticSearchVisibilityFilter.CHECK_IN_GRAPH_CLAUSE);
+        assertClauses("a&b&c", "a&b&c");
+    }
+
+    @Test
+    public void testFilterOfEmptyAuthorizations() {
+        Set<String> terms = getFilterTerms(new InMemoryAuthorizations());
+        assertEquals(new HashSet<String>(Arrays.asList(ElasticSearchVisibilityFilter.ALWAYS_VISIBLE_CLAUSE, ElasticSearchVisibilityFilter.CHECK_IN_GRAPH_CLAUSE)), terms);
+        assertTrue(isMatched("", terms));
+        assertFalse(isMatched("a", terms));
+        assertFalse(isMatched("a|b", terms));
+    }
+
+    @Test
+    public void testFilterMatchesTheVisibilitiesTheAuthorizationsCanRead() {
+        String[] visibilities = new String[]{
+                "", "a", "b", "c", "a&b", "a|b", "a&b&c", "a&(b|d)", "(a|d)&(c|d)", "d|(a&c)", "\"e f\"&a", "\"e f\"|d"
+        };
+        String[][] authorizationSets = new String[][]{
+                {}, {"a"}, {"a", "b"}, {"a", "c"}, {"a", "b", "c"}, {"e f"}, {"a", "e f"}, {"d"}
+        };
+        for (String[] authorizationSet : authorizationSets) {
+            Set<String> terms = getFilterTerms(new InMemoryAuthorizations(authorizationSet));
+            Set<String> auths = new HashSet<String>(Arrays.asList(authorizationSet));
+            for (String visibility : visibilities) {
+                assertEquals(visibility + " with " + auths, VisibilityExpression.compile(visibility).evaluate(auths), isMatched(visibility, terms));
+            }
+        }
+    }
+
+    @Test
+    public void testFilterOfTooManyAuthorizations() {
+        String[] auths = new String[30];
+        for (int i = 0; i < auths.length; i++) {
+            auths[i] = "auth" + i;
+        }
+        assertNull(ElasticSearchVisibilityFilter.createFilter(new InMemoryAuthorizations(auths)));
+        assertNotNull(ElasticSearchVisibilityFilter.createFilter(new InMemoryAuthorizations(Arrays.copyOf(auths, 20))));
+    }
+
+    private static void assertClauses(String visibility, String... expectedClauses) {
+        String[] clauses = ElasticSearchVisibilityFilter.getClauses(new Visibility(visibility));
+        assertEquals(visibility, new HashSet<String>(Arrays.asList(expectedClauses)), new HashSet<String>(Arrays.asList(clauses)));
+        assertEquals(visibility, expectedClauses.length, clauses.length);
+    }
+
+    private static boolean isMatched(String visibility, Set<String> filterTerms) {
+        for (String clause : ElasticSearchVisibilityFilter.getClauses(new Visibility(visibility))) {
+            if (filterTerms.contains(clause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> getFilterTerms(Authorizations authorizations) {
+        FilterBuilder filter = ElasticSearchVisibilityFilter.createFilter(authorizations);
+        assertNotNull(filter);
+        Map<String, Object> json = XContentHelper.convertToMap(new BytesArray(filter.toString()), false).v2();
+        Map<String, Object> termsFilter = (Map<String, Object>) json.get("terms");
+        List<String> terms = (List<String>) termsFilter.get(ElasticSearchVisibilityFilter.VISIBILITY_CLAUSES_FIELD_NAME);
+        Set<String> result = new HashSet<String>(terms);
+        assertEquals("duplicate terms", terms.size(), result.size());
+        return result;
+    }
+}
@@ -2,6 +2,7 @@ package org.securegraph.elasticsearch.helpers;
 
 import org.apache.commons.io.FileUtils;
 import org.elasticsearch.action.admin.cluster.state.ClusterStateResponse;
+import org.elasticsearch.client.Client;
 import org.elasticsearch.common.settings.ImmutableSettings;
 import org.elasticsearch.node.Node;
 import org.elasticsearch.node.NodeBuilder;
@@ -27,7 +28,11 @@ public class TestHelpers {
     private static String clusterName;
 
     public static Graph createGraph() {
-        Map config = new HashMap();
+        return createGraph(new HashMap());
+    }
+
+    public static Graph createGraph(Map extraConfig) {
+        Map config = new HashMap(extraConfig);
         config.put(GraphConfiguration.AUTO_FLUSH, true);
         config.put(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX, ElasticSearchSearchIndex.class.getName());
         config.put(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + ElasticSearchSearchIndex.ES_LOCATIONS, addr);
@@ -62,6 +67,10 @@ public class TestHelpers {
         addr = addr.substring(0, addr.length() - 1);
     }
 
+    public static Client getClient() {
+        return elasticSearchNode.client();
+    }
+
     public static void after() throws IOException {
         if (elasticSearchNode != null) {
             elasticSearchNode.stop();
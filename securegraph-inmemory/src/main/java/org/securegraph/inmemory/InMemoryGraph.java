@@ -5,6 +5,8 @@ import org.securegraph.id.IdGenerator;
 import org.securegraph.id.UUIDIdGenerator;
 import org.securegraph.mutation.AlterPropertyMetadata;
 import org.securegraph.mutation.AlterPropertyVisibility;
+import org.securegraph.mutation.BlindElementMutation;
+import org.securegraph.mutation.BlindElementMutationImpl;
 import org.securegraph.search.DefaultSearchIndex;
 import org.securegraph.search.SearchIndex;
 import org.securegraph.util.LookAheadIterable;
@@ -12,12 +14,17 @@ import org.securegraph.util.LookAheadIterable;
 import java.util.*;
 
 import static org.securegraph.util.IterableUtils.toList;
+import static org.securegraph.util.IterableUtils.toSet;
 import static org.securegraph.util.Preconditions.checkNotNull;
 
 public class InMemoryGraph extends GraphBase {
     private static final InMemoryGraphConfiguration DEFAULT_CONFIGURATION = new InMemoryGraphConfiguration(new HashMap());
     private final Map<Object, InMemoryVertex> vertices;
     private final Map<Object, InMemoryEdge> edges;
+    private final Map<Object, InMemoryVertexEdges> vertexEdges = new HashMap<Object, InMemoryVertexEdges>();
+    // the properties blind mutations wrote for elements that did not exist, like the columns accumulo keeps in the row
+    private final Map<Object, Set<Property>> blindVertexProperties = new HashMap<Object, Set<Property>>();
+    private final Map<Object, Set<Property>> blindEdgeProperties = new HashMap<Object, Set<Property>>();
 
     public InMemoryGraph() {
         this(DEFAULT_CONFIGURATION, new UUIDIdGenerator(DEFAULT_CONFIGURATION.getConfig()), new DefaultSearchIndex(DEFAULT_CONFIGURATION.getConfig()));
@@ -31,6 +38,9 @@ public class InMemoryGraph extends GraphBase {
         super(configuration, idGenerator, searchIndex);
         this.vertices = vertices;
         this.edges = edges;
+        for (InMemoryEdge edge : edges.values()) {
+            indexEdge(edge);
+        }
     }
 
     public static InMemoryGraph create(InMemoryGraphConfiguration config) {
@@ -57,12 +67,22 @@ public class InMemoryGraph extends GraphBase {
                 vertices.put(getVertexId(), vertex);
 
                 getSearchIndex().addElement(InMemoryGraph.this, vertex);
+                addBlindProperties(vertex, blindVertexProperties.remove(getVertexId()));
 
                 return vertex;
             }
         };
     }
 
+    @Override
+    public Vertex getVertex(Object vertexId, Authorizations authorizations) throws SecureGraphException {
+        InMemoryVertex vertex = this.vertices.get(vertexId);
+        if (vertex == null || !canRead(vertex.getVisibility(), authorizations)) {
+            return null;
+        }
+        return filteredVertex(vertex, authorizations);
+    }
+
     @Override
     public Iterable<Vertex> getVertices(final Authorizations authorizations) throws SecureGraphException {
         return new LookAheadIterable<InMemoryVertex, Vertex>() {
@@ -100,23 +120,42 @@ public class InMemoryGraph extends GraphBase {
 
     @Override
     public EdgeBuilder prepareEdge(Object edgeId, Vertex outVertex, Vertex inVertex, String label, Visibility visibility, Authorizations authorizations) {
+        return prepareEdge(edgeId, outVertex.getId(), inVertex.getId(), label, visibility, authorizations);
+    }
+
+    @Override
+    public EdgeBuilder prepareEdge(Object edgeId, Object outVertexId, Object inVertexId, String label, Visibility visibility, Authorizations authorizations) {
         if (edgeId == null) {
             edgeId = getIdGenerator().nextId();
         }
 
-        return new EdgeBuilder(edgeId, outVertex, inVertex, label, visibility) {
+        return new EdgeBuilder(edgeId, outVertexId, inVertexId, label, visibility) {
             @Override
             public Edge save() {
-                InMemoryEdge edge = new InMemoryEdge(InMemoryGraph.this, getEdgeId(), getOutVertex().getId(), getInVertex().getId(), getLabel(), getVisibility(), getProperties());
-                edges.put(getEdgeId(), edge);
+                InMemoryEdge edge = new InMemoryEdge(InMemoryGraph.this, getEdgeId(), getOutVertexId(), getInVertexId(), getLabel(), getVisibility(), getProperties());
+                InMemoryEdge existingEdge = edges.put(getEdgeId(), edge);
+                if (existingEdge != null) {
+                    unindexEdge(existingEdge);
+                }
+                indexEdge(edge);
 
                 getSearchIndex().addElement(InMemoryGraph.this, edge);
+                addBlindProperties(edge, blindEdgeProperties.remove(getEdgeId()));
 
                 return edge;
             }
         };
     }
 
+    @Override
+    public Edge getEdge(Object edgeId, Authorizations authorizations) {
+        InMemoryEdge edge = this.edges.get(edgeId);
+        if (edge == null || !canRead(edge.getVisibility(), authorizations)) {
+            return null;
+        }
+        return filteredEdge(edge, authorizations);
+    }
+
     @Override
     public Iterable<Edge> getEdges(final Authorizations authorizations) {
         return new LookAheadIterable<InMemoryEdge, Edge>() {
@@ -148,37 +187,84 @@ public class InMemoryGraph extends GraphBase {
         Vertex outVertex = getVertex(edge.getVertexId(Direction.OUT), authorizations);
         checkNotNull(outVertex, "Could not find out vertex: " + edge.getVertexId(Direction.OUT));
 
-        this.edges.remove(edge.getId());
+        InMemoryEdge removedEdge = this.edges.remove(edge.getId());
+        if (removedEdge != null) {
+            unindexEdge(removedEdge);
+        }
         getSearchIndex().removeElement(this, edge);
     }
 
-    public Iterable<Edge> getEdgesFromVertex(final Object vertexId, final Authorizations authorizations) {
-        return new LookAheadIterable<InMemoryEdge, Edge>() {
-            @Override
-            protected boolean isIncluded(InMemoryEdge src, Edge edge) {
-                Object inVertexId = src.getVertexId(Direction.IN);
-                checkNotNull(inVertexId, "inVertexId was null");
-                Object outVertexId = src.getVertexId(Direction.OUT);
-                checkNotNull(outVertexId, "outVertexId was null");
+    public Iterable<Edge> getEdgesFromVertex(Object vertexId, Authorizations authorizations) {
+        return getEdgesFromVertex(vertexId, Direction.BOTH, null, authorizations);
+    }
 
-                if (!inVertexId.equals(vertexId) && !outVertexId.equals(vertexId)) {
-                    return false;
-                }
-                return canRead(src.getVisibility(), authorizations);
+    public Iterable<Edge> getEdgesFromVertex(Object vertexId, Direction direction, String[] labels, final Authorizations authorizations) {
+        InMemoryVertexEdges edgesOfVertex = this.vertexEdges.get(vertexId);
+        if (edgesOfVertex == null) {
+            return new ArrayList<Edge>();
+        }
+        final List<Object> edgeIds = edgesOfVertex.getEdgeIds(direction, labels);
+        return new LookAheadIterable<Object, Edge>() {
+            @Override
+            protected boolean isIncluded(Object edgeId, Edge edge) {
+                return edge != null;
             }
 
             @Override
-            protected Edge convert(InMemoryEdge edge) {
+            protected Edge convert(Object edgeId) {
+                InMemoryEdge edge = edges.get(edgeId);
+                if (edge == null || !canRead(edge.getVisibility(), authorizations)) {
+                    return null;
+                }
                 return filteredEdge(edge, authorizations);
             }
 
             @Override
-            protected Iterator<InMemoryEdge> createIterator() {
-                return edges.values().iterator();
+            protected Iterator<Object> createIterator() {
+                return edgeIds.iterator();
             }
         };
     }
 
+    boolean isVertexVisible(Object vertexId, Authorizations authorizations) {
+        InMemoryVertex vertex = this.vertices.get(vertexId);
+        return vertex != null && canRead(vertex.getVisibility(), authorizations);
+    }
+
+    private void indexEdge(InMemoryEdge edge) {
+        Object outVertexId = edge.getVertexId(Direction.OUT);
+        checkNotNull(outVertexId, "outVertexId was null");
+        Object inVertexId = edge.getVertexId(Direction.IN);
+        checkNotNull(inVertexId, "inVertexId was null");
+        getOrCreateVertexEdges(outVertexId).addEdge(Direction.OUT, edge.getLabel(), edge.getId());
+        getOrCreateVertexEdges(inVertexId).addEdge(Direction.IN, edge.getLabel(), edge.getId());
+    }
+
+    private void unindexEdge(InMemoryEdge edge) {
+        unindexEdge(edge.getVertexId(Direction.OUT), Direction.OUT, edge.getLabel(), edge.getId());
+        unindexEdge(edge.getVertexId(Direction.IN), Direction.IN, edge.getLabel(), edge.getId());
+    }
+
+    private void unindexEdge(Object vertexId, Direction direction, String label, Object edgeId) {
+        InMemoryVertexEdges edgesOfVertex = this.vertexEdges.get(vertexId);
+        if (edgesOfVertex == null) {
+            return;
+        }
+        edgesOfVertex.removeEdge(direction, label, edgeId);
+        if (edgesOfVertex.isEmpty()) {
+            this.vertexEdges.remove(vertexId);
+        }
+    }
+
+    private InMemoryVertexEdges getOrCreateVertexEdges(Object vertexId) {
+        InMemoryVertexEdges edgesOfVertex = this.vertexEdges.get(vertexId);
+        if (edgesOfVertex == null) {
+            edgesOfVertex = new InMemoryVertexEdges();
+            this.vertexEdges.put(vertexId, edgesOfVertex);
+        }
+        return edgesOfVertex;
+    }
+
     private boolean canRead(Visibility visibility, Authorizations authorizations) {
         // this is just a shortcut so that we don't need to construct evaluators and visibility objects to check for an empty string.
         if (visibility.getVisibilityString().length() == 0) {
@@ -188,6 +274,71 @@ public class InMemoryGraph extends GraphBase {
         return authorizations.canRead(visibility);
     }
 
+    @Override
+    public BlindElementMutation prepareVertexMutation(Object vertexId, final Authorizations authorizations) {
+        return new BlindElementMutationImpl(ElementType.VERTEX, vertexId) {
+            @Override
+            public void save() {
+                saveBlindElementMutation(vertices.get(getElementId()), blindVertexProperties, this, authorizations);
+            }
+        };
+    }
+
+    @Override
+    public BlindElementMutation prepareEdgeMutation(Object edgeId, final Authorizations authorizations) {
+        return new BlindElementMutationImpl(ElementType.EDGE, edgeId) {
+            @Override
+            public void save() {
+                saveBlindElementMutation(edges.get(getElementId()), blindEdgeProperties, this, authorizations);
+            }
+        };
+    }
+
+    private void saveBlindElementMutation(InMemoryElement element, Map<Object, Set<Property>> blindProperties, BlindElementMutation mutation, Authorizations authorizations) {
+        if (element == null) {
+            Set<Property> properties = blindProperties.get(mutation.getElementId());
+            if (properties == null) {
+                properties = new HashSet<Property>();
+            }
+            for (Property property : mutation.getPropertyRemoves()) {
+                properties.remove(property);
+            }
+            for (Property property : mutation.getProperties()) {
+                properties.remove(property);
+                properties.add(property);
+            }
+            if (properties.size() == 0) {
+                blindProperties.remove(mutation.getElementId());
+            } else {
+                blindProperties.put(mutation.getElementId(), properties);
+            }
+        } else {
+            for (Property property : mutation.getPropertyRemoves()) {
+                element.removePropertyInternal(property.getKey(), property.getName());
+            }
+            element.updatePropertiesInternal(mutation.getProperties());
+        }
+        getSearchIndex().updateElementProperties(this, mutation.getElementType(), mutation.getElementId(), mutation.getProperties(), mutation.getPropertyRemoves(), authorizations);
+    }
+
+    /**
+     * The properties written before the element existed are not indexed, the properties saved with the element
+     * replace the ones with the same key, name and visibility.
+     */
+    private static void addBlindProperties(InMemoryElement element, Set<Property> blindProperties) {
+        if (blindProperties == null) {
+            return;
+        }
+        Set<Property> existingProperties = toSet(element.getProperties());
+        List<Property> properties = new ArrayList<Property>();
+        for (Property property : blindProperties) {
+            if (!existingProperties.contains(property)) {
+                properties.add(property);
+            }
+        }
+        element.updatePropertiesInternal(properties);
+    }
+
     public void saveProperties(Element element, Iterable<Property> properties) {
         if (element instanceof Vertex) {
             InMemoryVertex vertex = vertices.get(element.getId());
@@ -250,6 +401,7 @@ public class InMemoryGraph extends GraphBase {
     }
 
     void alterEdgeVisibility(Object edgeId, Visibility newEdgeVisibility) {
+        // the vertex edge index only holds edge ids, the new visibility is checked when the edges are read
         this.edges.get(edgeId).setVisibilityInternal(newEdgeVisibility);
     }
 
@@ -7,6 +7,9 @@ import org.securegraph.mutation.ExistingElementMutationImpl;
 import org.securegraph.query.VertexQuery;
 import org.securegraph.util.ConvertingIterable;
 import org.securegraph.util.FilterIterable;
+import org.securegraph.util.LookAheadIterable;
+
+import java.util.Iterator;
 
 public class InMemoryVertex extends InMemoryElement<Vertex> implements Vertex {
     public InMemoryVertex(Graph graph, Object id, Visibility visibility, Iterable<Property> properties) {
@@ -14,20 +17,8 @@ public class InMemoryVertex extends InMemoryElement<Vertex> implements Vertex {
     }
 
     @Override
-    public Iterable<Edge> getEdges(final Direction direction, Authorizations authorizations) {
-        return new FilterIterable<Edge>(getGraph().getEdgesFromVertex(getId(), authorizations)) {
-            @Override
-            protected boolean isIncluded(Edge edge) {
-                switch (direction) {
-                    case IN:
-                        return edge.getVertexId(Direction.IN).equals(getId());
-                    case OUT:
-                        return edge.getVertexId(Direction.OUT).equals(getId());
-                    default:
-                        return true;
-                }
-            }
-        };
+    public Iterable<Edge> getEdges(Direction direction, Authorizations authorizations) {
+        return getGraph().getEdgesFromVertex(getId(), direction, null, authorizations);
     }
 
     @Override
@@ -46,18 +37,8 @@ public class InMemoryVertex extends InMemoryElement<Vertex> implements Vertex {
     }
 
     @Override
-    public Iterable<Edge> getEdges(Direction direction, final String[] labels, Authorizations authorizations) {
-        return new FilterIterable<Edge>(getEdges(direction, authorizations)) {
-            @Override
-            protected boolean isIncluded(Edge edge) {
-                for (String label : labels) {
-                    if (label.equals(edge.getLabel())) {
-                        return true;
-                    }
-                }
-                return false;
-            }
-        };
+    public Iterable<Edge> getEdges(Direction direction, String[] labels, Authorizations authorizations) {
+        return getGraph().getEdgesFromVertex(getId(), direction, labels, authorizations);
     }
 
     @Override
@@ -111,13 +92,8 @@ public class InMemoryVertex extends InMemoryElement<Vertex> implements Vertex {
     }
 
     @Override
-    public Iterable<Vertex> getVertices(Direction direction, final Authorizations authorizations) {
-        return new ConvertingIterable<Edge, Vertex>(getEdges(direction, authorizations)) {
-            @Override
-            protected Vertex convert(Edge edge) {
-                return getOtherVertexFromEdge(edge, authorizations);
-            }
-        };
+    public Iterable<Vertex> getVertices(Direction direction, Authorizations authorizations) {
+        return getVertices(direction, (String[]) null, authorizations);
     }
 
     @Override
@@ -126,43 +102,52 @@ public class InMemoryVertex extends InMemoryElement<Vertex> implements Vertex {
     }
 
     @Override
-    public Iterable<Vertex> getVertices(final Direction direction, final String[] labels, final Authorizations authorizations) {
-        return new ConvertingIterable<Edge, Vertex>(getEdges(direction, labels, authorizations)) {
+    public Iterable<Vertex> getVertices(Direction direction, String[] labels, final Authorizations authorizations) {
+        final Iterable<Edge> edges = getEdges(direction, labels, authorizations);
+        return new LookAheadIterable<Edge, Vertex>() {
+            @Override
+            protected boolean isIncluded(Edge edge, Vertex vertex) {
+                // the edge may be visible when the vertex on the other side is not
+                return vertex != null;
+            }
+
             @Override
             protected Vertex convert(Edge edge) {
                 return getOtherVertexFromEdge(edge, authorizations);
             }
+
+            @Override
+            protected Iterator<Edge> createIterator() {
+                return edges.iterator();
+            }
         };
     }
 
     @Override
     public Iterable<Object> getVertexIds(Direction direction, String label, Authorizations authorizations) {
-        return new ConvertingIterable<Vertex, Object>(getVertices(direction, label, authorizations)) {
-            @Override
-            protected Object convert(Vertex o) {
-                return o.getId();
-            }
-        };
+        return getVertexIds(direction, new String[]{label}, authorizations);
     }
 
     @Override
-    public Iterable<Object> getVertexIds(Direction direction, String[] labels, Authorizations authorizations) {
-        return new ConvertingIterable<Vertex, Object>(getVertices(direction, labels, authorizations)) {
+    public Iterable<Object> getVertexIds(Direction direction, String[] labels, final Authorizations authorizations) {
+        Iterable<Object> vertexIds = new ConvertingIterable<Edge, Object>(getEdges(direction, labels, authorizations)) {
+            @Override
+            protected Object convert(Edge edge) {
+                return edge.getOtherVertexId(getId());
+            }
+        };
+        // the edge may be visible when the vertex on the other side is not
+        return new FilterIterable<Object>(vertexIds) {
             @Override
-            protected Object convert(Vertex o) {
-                return o.getId();
+            protected boolean isIncluded(Object vertexId) {
+                return getGraph().isVertexVisible(vertexId, authorizations);
             }
         };
     }
 
     @Override
     public Iterable<Object> getVertexIds(Direction direction, Authorizations authorizations) {
-        return new ConvertingIterable<Vertex, Object>(getVertices(direction, authorizations)) {
-            @Override
-            protected Object convert(Vertex o) {
-                return o.getId();
-            }
-        };
+        return getVertexIds(direction, (String[]) null, authorizations);
     }
 
     private Vertex getOtherVertexFromEdge(Edge edge, Authorizations authorizations) {
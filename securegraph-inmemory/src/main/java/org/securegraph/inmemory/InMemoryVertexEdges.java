@@ -0,0 +1,109 @@
+package org.securegraph.inmemory;
+
+import org.securegraph.Direction;
+import org.securegraph.SecureGraphException;
+
+import java.util.*;
+
+/**
+ * The edge ids attached to a single vertex, grouped by direction and label, so that reading the
+ * neighborhood of a vertex does not require a scan of every edge in the graph.
+ */
+class InMemoryVertexEdges {
+    private final Map<String, Set<Object>> inEdgeIdsByLabel = new HashMap<String, Set<Object>>();
+    private final Map<String, Set<Object>> outEdgeIdsByLabel = new HashMap<String, Set<Object>>();
+
+    void addEdge(Direction direction, String label, Object edgeId) {
+        Map<String, Set<Object>> edgeIdsByLabel = getEdgeIdsByLabel(direction);
+        Set<Object> edgeIds = edgeIdsByLabel.get(label);
+        if (edgeIds == null) {
+            edgeIds = new LinkedHashSet<Object>();
+            edgeIdsByLabel.put(label, edgeIds);
+        }
+        edgeIds.add(edgeId);
+    }
+
+    void removeEdge(Direction direction, String label, Object edgeId) {
+        Map<String, Set<Object>> edgeIdsByLabel = getEdgeIdsByLabel(direction);
+        Set<Object> edgeIds = edgeIdsByLabel.get(label);
+        if (edgeIds == null) {
+            return;
+        }
+        edgeIds.remove(edgeId);
+        if (edgeIds.size() == 0) {
+            edgeIdsByLabel.remove(label);
+        }
+    }
+
+    boolean isEmpty() {
+        return inEdgeIdsByLabel.size() == 0 && outEdgeIdsByLabel.size() == 0;
+    }
+
+    /**
+     * Gets a snapshot of the edge ids in the given direction. A self referencing edge is only returned once
+     * when direction is BOTH.
+     *
+     * @param labels The labels to include. null or empty to include all labels.
+     */
+    List<Object> getEdgeIds(Direction direction, String[] labels) {
+        List<Object> results = new ArrayList<Object>();
+        switch (direction) {
+            case IN:
+                addEdgeIds(results, inEdgeIdsByLabel, labels, null);
+                break;
+            case OUT:
+                addEdgeIds(results, outEdgeIdsByLabel, labels, null);
+                break;
+            case BOTH:
+                addEdgeIds(results, outEdgeIdsByLabel, labels, null);
+                addEdgeIds(results, inEdgeIdsByLabel, labels, outEdgeIdsByLabel);
+                break;
+            default:
+                throw new SecureGraphException("Unexpected direction: " + direction);
+        }
+        return results;
+    }
+
+    private static void addEdgeIds(List<Object> results, Map<String, Set<Object>> edgeIdsByLabel, String[] labels, Map<String, Set<Object>> excludeEdgeIdsByLabel) {
+        if (labels == null || labels.length == 0) {
+            for (Map.Entry<String, Set<Object>> entry : edgeIdsByLabel.entrySet()) {
+                addEdgeIds(results, entry.getValue(), excludeEdgeIdsByLabel == null ? null : excludeEdgeIdsByLabel.get(entry.getKey()));
+            }
+            return;
+        }
+
+        Set<String> seenLabels = new HashSet<String>();
+        for (String label : labels) {
+            if (!seenLabels.add(label)) {
+                continue;
+            }
+            Set<Object> edgeIds = edgeIdsByLabel.get(label);
+            if (edgeIds != null) {
+                addEdgeIds(results, edgeIds, excludeEdgeIdsByLabel == null ? null : excludeEdgeIdsByLabel.get(label));
+            }
+        }
+    }
+
+    private static void addEdgeIds(List<Object> results, Set<Object> edgeIds, Set<Object> excludeEdgeIds) {
+        if (excludeEdgeIds == null) {
+            results.addAll(edgeIds);
+            return;
+        }
+        for (Object edgeId : edgeIds) {
+            if (!excludeEdgeIds.contains(edgeId)) {
+                results.add(edgeId);
+            }
+        }
+    }
+
+    private Map<String, Set<Object>> getEdgeIdsByLabel(Direction direction) {
+        switch (direction) {
+            case IN:
+                return inEdgeIdsByLabel;
+            case OUT:
+                return outEdgeIdsByLabel;
+            default:
+                throw new SecureGraphException("Unexpected direction: " + direction);
+        }
+    }
+}
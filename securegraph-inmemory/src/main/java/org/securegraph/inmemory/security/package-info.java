@@ -1,5 +0,0 @@
-/**
- * These class are borrowed from Accumulo and Hadoop to provide the
- * visibility parsing and evaluation.
- */
-package org.securegraph.inmemory.security;
\ No newline at end of file
@@ -1,20 +1,23 @@
 package org.securegraph.inmemory;
 
-import org.securegraph.Authorizations;
-import org.securegraph.Graph;
-import org.securegraph.GraphConfiguration;
-import org.securegraph.GraphFactory;
+import org.securegraph.*;
 import org.securegraph.id.UUIDIdGenerator;
 import org.securegraph.search.DefaultSearchIndex;
 import org.securegraph.test.GraphTestBase;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
+import static org.securegraph.util.IterableUtils.count;
+import static org.securegraph.util.IterableUtils.toList;
+
 @RunWith(JUnit4.class)
 public class InMemoryGraphTest extends GraphTestBase {
     @Override
@@ -46,4 +49,18 @@ public class InMemoryGraphTest extends GraphTestBase {
     public void after() throws Exception {
         super.after();
     }
+
+    @Test
+    public void testGetVertexIdsWithInvisibleNeighbor() {
+        Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v3 = graph.addVertex("v3", VISIBILITY_B, AUTHORIZATIONS_B);
+        graph.addEdge("e1", v1, v2, "edgeA", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e2", v3, v1, "edgeA", VISIBILITY_A, AUTHORIZATIONS_A_AND_B);
+
+        v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+        assertEquals(Arrays.asList((Object) "v2"), toList(v1.getVertexIds(Direction.BOTH, AUTHORIZATIONS_A)));
+        assertEquals(0, count(v1.getVertexIds(Direction.IN, "edgeA", AUTHORIZATIONS_A)));
+        assertEquals(2, count(v1.getVertexIds(Direction.BOTH, AUTHORIZATIONS_A_AND_B)));
+    }
 }
@@ -0,0 +1,176 @@
+package org.securegraph.search;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.securegraph.*;
+import org.securegraph.id.UUIDIdGenerator;
+import org.securegraph.inmemory.InMemoryAuthorizations;
+import org.securegraph.inmemory.InMemoryGraph;
+import org.securegraph.inmemory.InMemoryGraphConfiguration;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(JUnit4.class)
+public class AsyncSearchIndexTest {
+    private static final Visibility VISIBILITY_A = new Visibility("a");
+    private static final Authorizations AUTHORIZATIONS_A = new InMemoryAuthorizations("a");
+    private RecordingSearchIndex searchIndex;
+    private AsyncSearchIndex asyncSearchIndex;
+    private InMemoryGraph graph;
+
+    @Before
+    public void before() {
+        searchIndex = new RecordingSearchIndex();
+        asyncSearchIndex = new AsyncSearchIndex(searchIndex, 1, 10, 10);
+        // the graph indexes nothing itself, the elements are passed to the async index by the tests
+        graph = new InMemoryGraph(new InMemoryGraphConfiguration(new HashMap()), new UUIDIdGenerator(new HashMap()), new DefaultSearchIndex(new HashMap()));
+    }
+
+    @After
+    public void after() {
+        searchIndex.releaseWorker.countDown();
+        asyncSearchIndex.shutdown();
+    }
+
+    @Test
+    public void testCoalescesChangesOfAQueuedElement() throws Exception {
+        Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        searchIndex.blockWorker();
+        asyncSearchIndex.addElement(graph, v1);
+        searchIndex.workerStarted.await();
+        // v2 is queued while the worker is busy with v1, so its changes are applied once
+        asyncSearchIndex.addElement(graph, v2);
+        asyncSearchIndex.removeElement(graph, v2);
+        asyncSearchIndex.addElement(graph, v2);
+        asyncSearchIndex.addElement(graph, v2);
+        searchIndex.releaseWorker.countDown();
+        asyncSearchIndex.flush();
+
+        assertEquals(Arrays.asList("add VERTEX v1", "add VERTEX v2"), searchIndex.getCalls());
+    }
+
+    @Test
+    public void testVertexAndEdgeWithTheSameIdAreNotCoalesced() throws Exception {
+        Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        Edge e1 = graph.addEdge("v1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        searchIndex.blockWorker();
+        asyncSearchIndex.addElement(graph, v2);
+        searchIndex.workerStarted.await();
+        asyncSearchIndex.addElement(graph, v1);
+        asyncSearchIndex.addElement(graph, e1);
+        searchIndex.releaseWorker.countDown();
+        asyncSearchIndex.flush();
+
+        assertEquals(Arrays.asList("add VERTEX v2", "add VERTEX v1", "add EDGE v1"), searchIndex.getCalls());
+    }
+
+    @Test
+    public void testFailingElementDoesNotDropItsBatch() throws Exception {
+        Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex bad = graph.addVertex("bad", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v3 = graph.addVertex("v3", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        searchIndex.blockWorker();
+        asyncSearchIndex.addElement(graph, v1);
+        searchIndex.workerStarted.await();
+        // bad, v2 and v3 are taken by the worker in one batch
+        asyncSearchIndex.addElement(graph, bad);
+        asyncSearchIndex.addElement(graph, v2);
+        asyncSearchIndex.addElement(graph, v3);
+        searchIndex.releaseWorker.countDown();
+        try {
+            asyncSearchIndex.flush();
+            fail("flush should have thrown the failure of the worker");
+        } catch (SecureGraphException ex) {
+            // expected
+        }
+
+        List<String> calls = searchIndex.getCalls();
+        assertTrue(calls.toString(), calls.contains("add VERTEX v2"));
+        assertTrue(calls.toString(), calls.contains("add VERTEX v3"));
+        assertEquals(calls.toString(), 3, calls.size());
+
+        // the failure is only reported once
+        asyncSearchIndex.flush();
+    }
+
+    private static class RecordingSearchIndex extends DefaultSearchIndex {
+        private final List<String> calls = new ArrayList<String>();
+        private final CountDownLatch workerStarted = new CountDownLatch(1);
+        private final CountDownLatch releaseWorker = new CountDownLatch(1);
+        private volatile boolean blockWorker;
+
+        public RecordingSearchIndex() {
+            super(new HashMap());
+        }
+
+        public void blockWorker() {
+            blockWorker = true;
+        }
+
+        @Override
+        public void addElements(Graph graph, Iterable<Element> elements) {
+            waitForRelease();
+            for (Element element : elements) {
+                if (element.getId().equals("bad")) {
+                    throw new SecureGraphException("could not index bad");
+                }
+            }
+            for (Element element : elements) {
+                addElement(graph, element);
+            }
+        }
+
+        @Override
+        public void addElement(Graph graph, Element element) {
+            if (element.getId().equals("bad")) {
+                throw new SecureGraphException("could not index bad");
+            }
+            record("add", element);
+        }
+
+        @Override
+        public void removeElements(Graph graph, Iterable<Element> elements) {
+            waitForRelease();
+            super.removeElements(graph, elements);
+        }
+
+        @Override
+        public void removeElement(Graph graph, Element element) {
+            record("remove", element);
+        }
+
+        private void waitForRelease() {
+            if (!blockWorker) {
+                return;
+            }
+            workerStarted.countDown();
+            try {
+                releaseWorker.await();
+            } catch (InterruptedException ex) {
+                throw new SecureGraphException("interrupted", ex);
+            }
+        }
+
+        private synchronized void record(String operation, Element element) {
+            calls.add(operation + " " + (element instanceof Edge ? ElementType.EDGE : ElementType.VERTEX) + " " + element.getId());
+        }
+
+        public synchronized List<String> getCalls() {
+            return new ArrayList<String>(calls);
+        }
+    }
+}
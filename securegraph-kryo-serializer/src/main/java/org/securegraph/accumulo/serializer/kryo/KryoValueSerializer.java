@@ -1,42 +1,123 @@
 package org.securegraph.accumulo.serializer.kryo;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import org.apache.accumulo.core.data.Value;
+import org.securegraph.DateOnly;
 import org.securegraph.accumulo.EdgeInfo;
 import org.securegraph.accumulo.StreamingPropertyValueHdfsRef;
 import org.securegraph.accumulo.StreamingPropertyValueRef;
 import org.securegraph.accumulo.StreamingPropertyValueTableRef;
 import org.securegraph.accumulo.serializer.ValueSerializer;
+import org.securegraph.type.GeoCircle;
 import org.securegraph.type.GeoPoint;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Kryo instances and their input and output buffers are not thread safe, each thread using this serializer
+ * gets its own. The output buffer is reused between values and values are read from the bytes of the
+ * {@link Value} without copying them.
+ */
 public class KryoValueSerializer implements ValueSerializer {
-    private final Kryo kryo;
+    private static final int OUTPUT_BUFFER_SIZE = 2000;
+    private static final int MAX_RETAINED_OUTPUT_BUFFER_SIZE = 1024 * 1024;
+    private static final byte[] EMPTY_BYTES = new byte[0];
 
+    private final ThreadLocal<Kryo> kryos = new ThreadLocal<Kryo>() {
+        @Override
+        protected Kryo initialValue() {
+            return createKryo();
+        }
+    };
+    private final ThreadLocal<Output> outputs = new ThreadLocal<Output>() {
+        @Override
+        protected Output initialValue() {
+            return createOutput();
+        }
+    };
+    private final ThreadLocal<Input> inputs = new ThreadLocal<Input>() {
+        @Override
+        protected Input initialValue() {
+            return new Input();
+        }
+    };
+
+    /**
+     * The constructor {@link org.securegraph.util.ConfigurationUtils#createProvider(String, Map)} calls, the
+     * serializer has no configuration.
+     */
     public KryoValueSerializer(Map configuration) {
-        kryo = new Kryo();
+    }
+
+    private static Kryo createKryo() {
+        Kryo kryo = new Kryo();
         kryo.register(EdgeInfo.class, 1000);
         kryo.register(GeoPoint.class, 1001);
         kryo.register(HashMap.class, 1002);
         kryo.register(StreamingPropertyValueRef.class, 1003);
         kryo.register(StreamingPropertyValueTableRef.class, 1004);
         kryo.register(StreamingPropertyValueHdfsRef.class, 1005);
+        kryo.register(Date.class, 1006);
+        kryo.register(DateOnly.class, new DateOnlySerializer(), 1007);
+        kryo.register(GeoCircle.class, new GeoCircleSerializer(), 1008);
+        return kryo;
+    }
+
+    private static Output createOutput() {
+        return new Output(OUTPUT_BUFFER_SIZE, -1);
     }
 
     @Override
     public Value objectToValue(Object value) {
-        Output output = new Output(2000);
-        kryo.writeClassAndObject(output, value);
-        return new Value(output.toBytes());
+        Output output = outputs.get();
+        output.clear();
+        kryos.get().writeClassAndObject(output, value);
+        Value result = new Value(output.toBytes());
+        if (output.getBuffer().length > MAX_RETAINED_OUTPUT_BUFFER_SIZE) {
+            outputs.set(createOutput());
+        }
+        return result;
     }
 
     @Override
     public <T> T valueToObject(Value value) {
-        Input input = new Input(value.get());
-        return (T) kryo.readClassAndObject(input);
+        Input input = inputs.get();
+        input.setBuffer(value.get(), 0, value.getSize());
+        try {
+            return (T) kryos.get().readClassAndObject(input);
+        } finally {
+            input.setBuffer(EMPTY_BYTES);
+        }
+    }
+
+    private static class DateOnlySerializer extends Serializer<DateOnly> {
+        @Override
+        public void write(Kryo kryo, Output output, DateOnly dateOnly) {
+            output.writeLong(dateOnly.getDate().getTime());
+        }
+
+        @Override
+        public DateOnly read(Kryo kryo, Input input, Class<DateOnly> type) {
+            return new DateOnly(new Date(input.readLong()));
+        }
+    }
+
+    private static class GeoCircleSerializer extends Serializer<GeoCircle> {
+        @Override
+        public void write(Kryo kryo, Output output, GeoCircle geoCircle) {
+            output.writeDouble(geoCircle.getLatitude());
+            output.writeDouble(geoCircle.getLongitude());
+            output.writeDouble(geoCircle.getRadius());
+        }
+
+        @Override
+        public GeoCircle read(Kryo kryo, Input input, Class<GeoCircle> type) {
+            return new GeoCircle(input.readDouble(), input.readDouble(), input.readDouble());
+        }
     }
 }
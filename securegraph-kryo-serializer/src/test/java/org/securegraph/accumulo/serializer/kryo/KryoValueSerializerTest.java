@@ -0,0 +1,146 @@
+package org.securegraph.accumulo.serializer.kryo;
+
+import org.apache.accumulo.core.data.Value;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.securegraph.DateOnly;
+import org.securegraph.accumulo.EdgeInfo;
+import org.securegraph.type.GeoCircle;
+import org.securegraph.type.GeoPoint;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+import static junit.framework.Assert.*;
+
+@RunWith(JUnit4.class)
+public class KryoValueSerializerTest {
+    private final KryoValueSerializer serializer = new KryoValueSerializer(new HashMap());
+
+    @Test
+    public void testDate() {
+        assertEquals(new Date(0), roundTrip(new Date(0)));
+        assertEquals(new Date(1400000000123L), roundTrip(new Date(1400000000123L)));
+        assertEquals(new Date(-1000L), roundTrip(new Date(-1000L)));
+    }
+
+    @Test
+    public void testDateOnly() {
+        DateOnly dateOnly = (DateOnly) roundTrip(new DateOnly(2014, 4, 15));
+        assertEquals(new DateOnly(2014, 4, 15).getDate(), dateOnly.getDate());
+        assertEquals("2014-05-15", dateOnly.toString());
+
+        dateOnly = (DateOnly) roundTrip(new DateOnly(1969, 11, 31));
+        assertEquals(new DateOnly(1969, 11, 31).getDate(), dateOnly.getDate());
+    }
+
+    @Test
+    public void testGeoCircle() {
+        assertEquals(new GeoCircle(38.9, -77.0, 1.5), roundTrip(new GeoCircle(38.9, -77.0, 1.5)));
+        assertEquals(new GeoCircle(-90.0, 180.0, 0.0), roundTrip(new GeoCircle(-90.0, 180.0, 0.0)));
+    }
+
+    @Test
+    public void testRegisteredTypes() {
+        assertEquals("value1", roundTrip("value1"));
+        assertEquals((Object) 10, roundTrip(10));
+        assertEquals(new GeoPoint(38.9, -77.0, 100.5), roundTrip(new GeoPoint(38.9, -77.0, 100.5)));
+
+        Map<String, Object> metadata = new HashMap<String, Object>();
+        metadata.put("metadata1", "value1");
+        metadata.put("metadata2", new Date(1000L));
+        metadata.put("metadata3", new DateOnly(2014, 4, 15).getDate());
+        assertEquals(metadata, roundTrip(metadata));
+
+        EdgeInfo edgeInfo = (EdgeInfo) roundTrip(new EdgeInfo("label1", "v1"));
+        assertEquals("label1", edgeInfo.getLabel());
+        assertEquals("v1", edgeInfo.getVertexId());
+    }
+
+    @Test
+    public void testValuesLargerThanTheOutputBuffer() {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            large.append((char) ('a' + i % 26));
+        }
+        assertEquals(large.toString(), roundTrip(large.toString()));
+        assertEquals("value1", roundTrip("value1"));
+    }
+
+    @Test
+    public void testReadsOnlyTheSizeOfTheValue() {
+        byte[] bytes = serializer.objectToValue(new GeoCircle(38.9, -77.0, 1.5)).get();
+        final byte[] padded = Arrays.copyOf(bytes, bytes.length + 16);
+        Arrays.fill(padded, bytes.length, padded.length, (byte) 0x7f);
+        // the bytes of a value backed by a larger array
+        Value value = new Value(padded) {
+            @Override
+            public int getSize() {
+                return padded.length - 16;
+            }
+        };
+        assertEquals(new GeoCircle(38.9, -77.0, 1.5), (Object) serializer.valueToObject(value));
+        assertEquals(new GeoCircle(38.9, -77.0, 1.5), (Object) serializer.valueToObject(value));
+    }
+
+    @Test
+    public void testConcurrentReadersAndWriters() throws Exception {
+        final int threadCount = 8;
+        final int valuesPerThread = 2000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Throwable> failures = new Vector<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < threadCount; t++) {
+            final int threadNumber = t;
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < valuesPerThread; i++) {
+                            Object value = createValue(threadNumber, i);
+                            Object result = serializer.valueToObject(serializer.objectToValue(value));
+                            if (result instanceof DateOnly) {
+                                assertEquals(((DateOnly) value).getDate(), ((DateOnly) result).getDate());
+                            } else {
+                                assertEquals(value, result);
+                            }
+                        }
+                    } catch (Throwable ex) {
+                        failures.add(ex);
+                    }
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(new ArrayList<Throwable>(), failures);
+    }
+
+    private static Object createValue(int threadNumber, int i) {
+        switch (i % 5) {
+            case 0:
+                return "value" + threadNumber + "_" + i;
+            case 1:
+                return new Date(threadNumber * 1000000L + i);
+            case 2:
+                return new DateOnly(2000 + threadNumber, i % 12, 1);
+            case 3:
+                return new GeoCircle(threadNumber, i, i % 7);
+            default:
+                Map<String, Object> map = new HashMap<String, Object>();
+                map.put("thread", threadNumber);
+                map.put("i", i);
+                return map;
+        }
+    }
+
+    private Object roundTrip(Object value) {
+        return serializer.valueToObject(serializer.objectToValue(value));
+    }
+}
@@ -15,6 +15,7 @@ import org.securegraph.query.*;
 import org.securegraph.test.util.LargeStringInputStream;
 import org.securegraph.type.GeoCircle;
 import org.securegraph.type.GeoPoint;
+import org.securegraph.util.PartitionProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -370,6 +371,72 @@ public abstract class GraphTestBase {
         assertEquals("v1", verticesInOrder.get(1).getId());
     }
 
+    @Test
+    public void testGetVerticesInOrder() {
+        List<Object> ids = new ArrayList<Object>();
+        for (int i = 0; i < 20; i++) {
+            graph.prepareVertex("v" + i, VISIBILITY_A, AUTHORIZATIONS_A)
+                    .setProperty("prop1", i, VISIBILITY_A)
+                    .save();
+        }
+        graph.flush();
+        for (int i = 19; i >= 0; i -= 2) {
+            ids.add("v" + i);
+            ids.add("missing" + i);
+        }
+        ids.add("v19");
+        ids.add("v0");
+
+        List<Vertex> vertices = toList(graph.getVerticesInOrder(ids, FetchHint.PROPERTIES_AND_METADATA, AUTHORIZATIONS_A));
+        assertEquals(11, vertices.size());
+        int i = 19;
+        for (Vertex v : vertices.subList(0, 10)) {
+            assertEquals("v" + i, v.getId());
+            assertEquals(i, v.getPropertyValue("prop1"));
+            i -= 2;
+        }
+        assertEquals("v0", vertices.get(10).getId());
+
+        assertEquals(0, count(graph.getVerticesInOrder(ids, FetchHint.ALL, AUTHORIZATIONS_B)));
+    }
+
+    @Test
+    public void testGetPartitions() {
+        for (int i = 0; i < 20; i++) {
+            graph.addVertex("v" + i, VISIBILITY_A, AUTHORIZATIONS_A);
+        }
+        for (int i = 1; i < 20; i++) {
+            graph.addEdge("e" + i, "v0", "v" + i, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        }
+        graph.flush();
+
+        final Set<Object> vertexIds = Collections.synchronizedSet(new HashSet<Object>());
+        new PartitionProcessor<Vertex>() {
+            @Override
+            protected void process(Iterable<Vertex> partition) {
+                for (Vertex vertex : partition) {
+                    assertTrue("duplicate vertex " + vertex.getId(), vertexIds.add(vertex.getId()));
+                }
+            }
+        }.processAll(graph.getVertexPartitions(FetchHint.ALL, AUTHORIZATIONS_A), 4);
+        assertEquals(20, vertexIds.size());
+
+        final Set<Object> edgeIds = Collections.synchronizedSet(new HashSet<Object>());
+        new PartitionProcessor<Edge>() {
+            @Override
+            protected void process(Iterable<Edge> partition) {
+                for (Edge edge : partition) {
+                    assertTrue("duplicate edge " + edge.getId(), edgeIds.add(edge.getId()));
+                }
+            }
+        }.processAll(graph.getEdgePartitions(FetchHint.ALL, AUTHORIZATIONS_A), 4);
+        assertEquals(19, edgeIds.size());
+
+        for (Iterable<Vertex> partition : graph.getVertexPartitions(FetchHint.ALL, AUTHORIZATIONS_B)) {
+            assertEquals(0, count(partition));
+        }
+    }
+
     @Test
     public void testGetEdgesWithIds() {
         Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
@@ -408,6 +475,102 @@ public abstract class GraphTestBase {
         assertTrue("e2 not found", foundE2);
     }
 
+    @Test
+    public void testGetElementsWithFetchHints() {
+        Vertex v1 = graph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.prepareEdge("e1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+
+        v1 = graph.getVertex("v1", FetchHint.PROPERTIES_AND_METADATA, AUTHORIZATIONS_A);
+        assertEquals("value1", v1.getPropertyValue("prop1"));
+
+        v1 = graph.getVertex("v1", FetchHint.EDGE_REFS, AUTHORIZATIONS_A);
+        assertEquals(1, count(v1.getEdgeIds(Direction.OUT, AUTHORIZATIONS_A)));
+        assertEquals(0, count(v1.getEdgeIds(Direction.IN, AUTHORIZATIONS_A)));
+
+        v2 = graph.getVertex("v2", EnumSet.of(FetchHint.IN_EDGE_REFS), AUTHORIZATIONS_A);
+        assertEquals("v1", v2.getVertexIds(Direction.IN, AUTHORIZATIONS_A).iterator().next());
+
+        assertEquals(2, count(graph.getVertices(FetchHint.NONE, AUTHORIZATIONS_A)));
+        assertEquals(2, count(graph.getVertices(Arrays.asList((Object) "v1", "v2"), FetchHint.NONE, AUTHORIZATIONS_A)));
+
+        Edge e1 = graph.getEdge("e1", FetchHint.NONE, AUTHORIZATIONS_A);
+        assertEquals("label1", e1.getLabel());
+        assertEquals("v1", e1.getVertexId(Direction.OUT));
+        assertEquals("v2", e1.getVertexId(Direction.IN));
+
+        e1 = graph.getEdges(Arrays.asList((Object) "e1"), FetchHint.PROPERTIES_AND_METADATA, AUTHORIZATIONS_A).iterator().next();
+        assertEquals("value1", e1.getPropertyValue("prop1"));
+        assertEquals(1, count(graph.getEdges(FetchHint.NONE, AUTHORIZATIONS_A)));
+    }
+
+    @Test
+    public void testGetElementsWithPropertyNames() {
+        Vertex v1 = graph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .setProperty("prop2", "value2", VISIBILITY_A)
+                .setProperty("prop10", "value10", VISIBILITY_A)
+                .save();
+        Vertex v2 = graph.prepareVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop2", "value2", VISIBILITY_A)
+                .save();
+        graph.prepareEdge("e1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .setProperty("prop2", "value2", VISIBILITY_A)
+                .save();
+
+        List<Vertex> vertices = toList(graph.getVertices(Arrays.asList((Object) "v1", "v2"), new String[]{"prop1", "prop10"}, AUTHORIZATIONS_A));
+        assertEquals(2, vertices.size());
+        for (Vertex v : vertices) {
+            if (v.getId().equals("v1")) {
+                assertEquals("value1", v.getPropertyValue("prop1"));
+                assertEquals("value10", v.getPropertyValue("prop10"));
+            } else {
+                assertNull(v.getPropertyValue("prop1"));
+            }
+        }
+
+        Edge e1 = graph.getEdges(Arrays.asList((Object) "e1"), new String[]{"prop2"}, AUTHORIZATIONS_A).iterator().next();
+        assertEquals("label1", e1.getLabel());
+        assertEquals("value2", e1.getPropertyValue("prop2"));
+    }
+
+    @Test
+    public void testBulkLoad() {
+        BulkLoad bulkLoad = graph.startBulkLoad(AUTHORIZATIONS_A);
+        Vertex v1 = bulkLoad.prepareVertex("v1", VISIBILITY_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        Vertex v2 = bulkLoad.prepareVertex("v2", VISIBILITY_A).save();
+        Vertex v3 = bulkLoad.prepareVertex(null, VISIBILITY_A).save();
+        bulkLoad.prepareEdge("e1", v1, v2, "label1", VISIBILITY_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        bulkLoad.commit();
+        bulkLoad.prepareEdge("e2", v1, v3, "label2", VISIBILITY_A).save();
+        bulkLoad.prepareEdge(null, v2, v1, "label1", VISIBILITY_A).save();
+        bulkLoad.close();
+
+        assertEquals(3, count(graph.getVertices(AUTHORIZATIONS_A)));
+        assertEquals(3, count(graph.getEdges(AUTHORIZATIONS_A)));
+
+        v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+        assertEquals("value1", v1.getPropertyValue("prop1"));
+        assertEquals(2, count(v1.getEdges(Direction.OUT, AUTHORIZATIONS_A)));
+        assertEquals(1, count(v1.getEdges(Direction.IN, AUTHORIZATIONS_A)));
+        assertEquals(1, count(v1.getEdges(Direction.BOTH, "label2", AUTHORIZATIONS_A)));
+
+        Edge e1 = graph.getEdge("e1", AUTHORIZATIONS_A);
+        assertEquals("value1", e1.getPropertyValue("prop1"));
+        assertEquals("v2", e1.getVertexId(Direction.IN));
+
+        assertEquals(1, count(graph.query(AUTHORIZATIONS_A).has("prop1", "value1").vertices()));
+    }
+
     @Test
     public void testRemoveVertex() {
         Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
@@ -430,6 +593,28 @@ public abstract class GraphTestBase {
         assertEquals(0, count(graph.getVertices(AUTHORIZATIONS_A_AND_B)));
     }
 
+    @Test
+    public void testRemoveVertexWithEdges() {
+        Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v3 = graph.addVertex("v3", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e2", v3, v1, "label1", VISIBILITY_B, AUTHORIZATIONS_B);
+        graph.addEdge("e3", v1, v1, "label2", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e4", v2, v3, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        v1 = graph.getVertex("v1", AUTHORIZATIONS_A_AND_B);
+        graph.removeVertex(v1, AUTHORIZATIONS_A_AND_B);
+
+        assertNull(graph.getVertex("v1", AUTHORIZATIONS_A_AND_B));
+        assertEquals(1, count(graph.getEdges(AUTHORIZATIONS_A_AND_B)));
+        assertEquals("e4", graph.getEdges(AUTHORIZATIONS_A_AND_B).iterator().next().getId());
+        v2 = graph.getVertex("v2", AUTHORIZATIONS_A_AND_B);
+        assertEquals(1, count(v2.getEdges(Direction.BOTH, AUTHORIZATIONS_A_AND_B)));
+        v3 = graph.getVertex("v3", AUTHORIZATIONS_A_AND_B);
+        assertEquals(1, count(v3.getEdges(Direction.BOTH, AUTHORIZATIONS_A_AND_B)));
+    }
+
     @Test
     public void testAddEdge() {
         Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
@@ -458,6 +643,127 @@ public abstract class GraphTestBase {
         assertEquals(VISIBILITY_A, e.getVisibility());
     }
 
+    @Test
+    public void testAddEdgeByVertexIds() {
+        graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        Map<Object, Boolean> exists = graph.doVerticesExist(Arrays.asList((Object) "v1", "v2", "v3"), AUTHORIZATIONS_A);
+        assertEquals(3, exists.size());
+        assertTrue(exists.get("v1"));
+        assertTrue(exists.get("v2"));
+        assertFalse(exists.get("v3"));
+        assertFalse(graph.doVerticesExist(Arrays.asList((Object) "v1"), AUTHORIZATIONS_B).get("v1"));
+
+        graph.prepareEdge("e1", (Object) "v1", (Object) "v2", "label1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+
+        Edge e = graph.getEdge("e1", AUTHORIZATIONS_A);
+        assertEquals("v1", e.getVertexId(Direction.OUT));
+        assertEquals("v2", e.getVertexId(Direction.IN));
+        assertEquals("value1", e.getPropertyValue("prop1"));
+        Vertex v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+        assertEquals("v2", v1.getVertexIds(Direction.OUT, AUTHORIZATIONS_A).iterator().next());
+        Vertex v2 = graph.getVertex("v2", AUTHORIZATIONS_A);
+        assertEquals(1, count(v2.getEdges(Direction.IN, AUTHORIZATIONS_A)));
+    }
+
+    @Test
+    public void testBlindElementMutation() {
+        graph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .addPropertyValue("k1", "prop2", "value2a", VISIBILITY_A)
+                .addPropertyValue("k3", "prop2", "value2c", VISIBILITY_A)
+                .save();
+        graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.prepareEdge("e1", (Object) "v1", (Object) "v2", "label1", VISIBILITY_A, AUTHORIZATIONS_A).save();
+        graph.flush();
+
+        graph.prepareVertexMutation("v1", AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1b", VISIBILITY_A)
+                .removeProperty("k1", "prop2", VISIBILITY_A)
+                .addPropertyValue("k2", "prop2", "value2b", VISIBILITY_A)
+                .setProperty("prop3", "value3", VISIBILITY_B)
+                .removeProperty("prop3", VISIBILITY_B)
+                .save();
+        graph.prepareEdgeMutation("e1", AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        graph.flush();
+
+        Vertex v1 = graph.getVertex("v1", AUTHORIZATIONS_A_AND_B);
+        assertEquals("value1b", v1.getPropertyValue("prop1"));
+        assertNull(v1.getProperty("k1", "prop2"));
+        assertEquals("value2b", v1.getPropertyValue("k2", "prop2"));
+        assertEquals(0, count(v1.getProperties("prop3")));
+        assertEquals(1, count(v1.getEdges(Direction.OUT, AUTHORIZATIONS_A)));
+
+        Edge e1 = graph.getEdge("e1", AUTHORIZATIONS_A);
+        assertEquals("value1", e1.getPropertyValue("prop1"));
+
+        assertEquals(1, count(graph.query(AUTHORIZATIONS_A).has("prop1", "value1b").vertices()));
+        assertEquals(0, count(graph.query(AUTHORIZATIONS_A).has("prop1", "value1").vertices()));
+        assertEquals(0, count(graph.query(AUTHORIZATIONS_A).has("prop2", "value2a").vertices()));
+        assertEquals(1, count(graph.query(AUTHORIZATIONS_A).has("prop2", "value2b").vertices()));
+        assertEquals(1, count(graph.query(AUTHORIZATIONS_A).has("prop2", "value2c").vertices()));
+    }
+
+    @Test
+    public void testBlindElementMutationOfMissingElement() {
+        graph.prepareVertexMutation("v1", AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        graph.prepareEdgeMutation("e1", AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        graph.flush();
+
+        assertNull(graph.getVertex("v1", AUTHORIZATIONS_A));
+        assertNull(graph.getEdge("e1", AUTHORIZATIONS_A));
+        assertEquals(0, count(graph.getVertices(AUTHORIZATIONS_A)));
+        assertEquals(0, count(graph.getEdges(AUTHORIZATIONS_A)));
+        assertEquals(0, count(graph.query(AUTHORIZATIONS_A).has("prop1", "value1").vertices()));
+        assertEquals(0, count(graph.query(AUTHORIZATIONS_A).has("prop1", "value1").edges()));
+    }
+
+    @Test
+    public void testBlindElementMutationBeforeElementIsCreated() {
+        graph.prepareVertexMutation("v1", AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .setProperty("prop2", "value2", VISIBILITY_A)
+                .addPropertyValue("k1", "prop3", "value3", VISIBILITY_A)
+                .save();
+        graph.prepareVertexMutation("v1", AUTHORIZATIONS_A)
+                .removeProperty("k1", "prop3", VISIBILITY_A)
+                .save();
+        graph.prepareEdgeMutation("e1", AUTHORIZATIONS_A)
+                .setProperty("prop1", "value1", VISIBILITY_A)
+                .save();
+        graph.flush();
+
+        graph.prepareVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .setProperty("prop2", "value2b", VISIBILITY_A)
+                .setProperty("prop4", "value4", VISIBILITY_A)
+                .save();
+        graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.prepareEdge("e1", "v1", "v2", "label1", VISIBILITY_A, AUTHORIZATIONS_A)
+                .save();
+        graph.flush();
+
+        Vertex v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+        assertEquals("value1", v1.getPropertyValue("prop1"));
+        assertEquals("value2b", v1.getPropertyValue("prop2"));
+        assertNull(v1.getProperty("k1", "prop3"));
+        assertEquals("value4", v1.getPropertyValue("prop4"));
+        assertEquals(3, count(v1.getProperties()));
+
+        Edge e1 = graph.getEdge("e1", AUTHORIZATIONS_A);
+        assertEquals("value1", e1.getPropertyValue("prop1"));
+        assertEquals(1, count(e1.getProperties()));
+        assertEquals(1, count(graph.query(AUTHORIZATIONS_A).has("prop4", "value4").vertices()));
+    }
+
     @Test
     public void testGetEdge() {
         Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
@@ -528,6 +834,32 @@ public abstract class GraphTestBase {
         assertEquals(0, count(v2.getVertices(Direction.BOTH, AUTHORIZATIONS_A)));
     }
 
+    @Test
+    public void testRemoveEdgeWithLabels() {
+        Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v3 = graph.addVertex("v3", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e1", v1, v2, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e2", v1, v3, "label1", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e3", v3, v1, "label2", VISIBILITY_A, AUTHORIZATIONS_A);
+
+        v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+        assertEquals(2, count(v1.getEdges(Direction.OUT, "label1", AUTHORIZATIONS_A)));
+        assertEquals(0, count(v1.getEdges(Direction.IN, "label1", AUTHORIZATIONS_A)));
+        assertEquals(1, count(v1.getEdges(Direction.BOTH, "label2", AUTHORIZATIONS_A)));
+        assertEquals(3, count(v1.getEdges(Direction.BOTH, new String[]{"label1", "label2"}, AUTHORIZATIONS_A)));
+
+        graph.removeEdge("e2", AUTHORIZATIONS_A);
+
+        v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+        assertEquals(1, count(v1.getEdges(Direction.OUT, "label1", AUTHORIZATIONS_A)));
+        assertEquals("v2", v1.getVertexIds(Direction.OUT, "label1", AUTHORIZATIONS_A).iterator().next());
+        assertEquals(2, count(v1.getEdges(Direction.BOTH, AUTHORIZATIONS_A)));
+        v3 = graph.getVertex("v3", AUTHORIZATIONS_A);
+        assertEquals(0, count(v3.getEdges(Direction.IN, AUTHORIZATIONS_A)));
+        assertEquals(1, count(v3.getEdges(Direction.OUT, "label2", AUTHORIZATIONS_A)));
+    }
+
     @Test
     public void testAddEdgeWithVisibility() {
         Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
@@ -551,6 +883,25 @@ public abstract class GraphTestBase {
         assertEquals(2, count(allEdges));
     }
 
+    @Test
+    public void testGetVerticesWithInvisibleNeighbor() {
+        Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v2 = graph.addVertex("v2", VISIBILITY_A, AUTHORIZATIONS_A);
+        Vertex v3 = graph.addVertex("v3", VISIBILITY_B, AUTHORIZATIONS_B);
+        graph.addEdge("e1", v1, v2, "edgeA", VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.addEdge("e2", v1, v3, "edgeA", VISIBILITY_A, AUTHORIZATIONS_A_AND_B);
+
+        v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+        assertEquals(2, count(v1.getEdges(Direction.OUT, AUTHORIZATIONS_A)));
+        List<Vertex> vertices = toList(v1.getVertices(Direction.OUT, AUTHORIZATIONS_A));
+        assertEquals(1, vertices.size());
+        assertEquals("v2", vertices.get(0).getId());
+        assertEquals(1, count(v1.getVertices(Direction.BOTH, "edgeA", AUTHORIZATIONS_A)));
+
+        v1 = graph.getVertex("v1", AUTHORIZATIONS_A_AND_B);
+        assertEquals(2, count(v1.getVertices(Direction.OUT, AUTHORIZATIONS_A_AND_B)));
+    }
+
     @Test
     public void testGraphQuery() {
         Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
@@ -579,6 +930,25 @@ public abstract class GraphTestBase {
         assertEquals(1, count(edges));
     }
 
+    @Test
+    public void testGraphQueryScroll() {
+        for (int i = 0; i < 150; i++) {
+            graph.prepareVertex("v" + i, i % 10 == 0 ? VISIBILITY_B : VISIBILITY_A, AUTHORIZATIONS_A_AND_B)
+                    .setProperty("age", i % 2, VISIBILITY_A)
+                    .save();
+        }
+        graph.flush();
+
+        // with authorizations that see every vertex, some indexes only filter by visibility after the limit
+        assertEquals(100, count(graph.query(AUTHORIZATIONS_A_AND_B).vertices()));
+        assertEquals(135, count(graph.query(AUTHORIZATIONS_A).scroll().vertices()));
+        assertEquals(125, count(graph.query(AUTHORIZATIONS_A).scroll().skip(10).vertices()));
+        assertEquals(20, count(graph.query(AUTHORIZATIONS_A).scroll().limit(20).vertices()));
+        assertEquals(20, count(graph.query(AUTHORIZATIONS_A).limit(20).scroll().vertices()));
+        assertEquals(75, count(graph.query(AUTHORIZATIONS_A).has("age", 1).scroll().vertices()));
+        assertEquals(0, count(graph.query(AUTHORIZATIONS_A).scroll().edges()));
+    }
+
     @Test
     public void testGraphQueryWithQueryString() {
         Vertex v1 = graph.addVertex("v1", VISIBILITY_A, AUTHORIZATIONS_A);
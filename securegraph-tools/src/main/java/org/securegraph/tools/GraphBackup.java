@@ -7,6 +7,7 @@ import org.json.JSONObject;
 import org.securegraph.*;
 import org.securegraph.property.StreamingPropertyValue;
 import org.securegraph.util.JavaSerializableUtils;
+import org.securegraph.util.PartitionProcessor;
 
 import java.io.*;
 import java.util.Map;
@@ -17,6 +18,9 @@ public class GraphBackup extends GraphToolBase {
     @Parameter(names = {"--out", "-o"}, description = "Output filename")
     private String outputFileName = null;
 
+    @Parameter(names = {"--threads", "-t"}, description = "Number of partitions of the graph read at the same time")
+    private int threadCount = 1;
+
     public static void main(String[] args) throws Exception {
         GraphBackup graphBackup = new GraphBackup();
         graphBackup.run(args);
@@ -41,7 +45,53 @@ public class GraphBackup extends GraphToolBase {
     }
 
     public void save(Graph graph, OutputStream out, Authorizations authorizations) throws IOException {
-        save(graph.getVertices(authorizations), graph.getEdges(authorizations), out);
+        save(graph, out, authorizations, threadCount);
+    }
+
+    /**
+     * Saves the partitions of the graph, reading threadCount partitions at a time. The lines of each element are
+     * written together and all vertices are written before the edges, the order of the elements is otherwise
+     * not defined when more than one thread is used.
+     */
+    public void save(Graph graph, final OutputStream out, Authorizations authorizations, int threadCount) throws IOException {
+        // with a single thread the elements are written directly, streaming property values are not held in memory
+        final boolean buffered = threadCount > 1;
+        new PartitionProcessor<Vertex>() {
+            @Override
+            protected void process(Iterable<Vertex> partition) throws IOException {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                for (Vertex vertex : partition) {
+                    if (!buffered) {
+                        saveVertex(vertex, out);
+                        continue;
+                    }
+                    saveVertex(vertex, buffer);
+                    writeBuffer(buffer, out);
+                }
+            }
+        }.processAll(graph.getVertexPartitions(FetchHint.ALL, authorizations), threadCount);
+
+        new PartitionProcessor<Edge>() {
+            @Override
+            protected void process(Iterable<Edge> partition) throws IOException {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                for (Edge edge : partition) {
+                    if (!buffered) {
+                        saveEdge(edge, out);
+                        continue;
+                    }
+                    saveEdge(edge, buffer);
+                    writeBuffer(buffer, out);
+                }
+            }
+        }.processAll(graph.getEdgePartitions(FetchHint.ALL, authorizations), threadCount);
+    }
+
+    private static void writeBuffer(ByteArrayOutputStream buffer, OutputStream out) throws IOException {
+        synchronized (out) {
+            buffer.writeTo(out);
+        }
+        buffer.reset();
     }
 
     public void save(Iterable<Vertex> vertices, Iterable<Edge> edges, OutputStream out) throws IOException {
@@ -104,9 +104,7 @@ public class GraphRestore extends GraphToolBase {
         Object outVertexId = jsonStringToObject(json.getString("outVertexId"));
         Object inVertexId = jsonStringToObject(json.getString("inVertexId"));
         String label = json.getString("label");
-        Vertex outVertex = graph.getVertex(outVertexId, authorizations);
-        Vertex inVertex = graph.getVertex(inVertexId, authorizations);
-        EdgeBuilder e = graph.prepareEdge(edgeId, outVertex, inVertex, label, visibility, authorizations);
+        EdgeBuilder e = graph.prepareEdge(edgeId, outVertexId, inVertexId, label, visibility, authorizations);
         jsonToProperties(json, e);
         return e.save();
     }